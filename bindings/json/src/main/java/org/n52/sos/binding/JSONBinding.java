@@ -47,7 +47,6 @@ import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.NoDecoderForKeyException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.request.AbstractServiceRequest;
-import org.n52.sos.response.AbstractServiceResponse;
 import org.n52.sos.util.JSONUtils;
 import org.n52.sos.util.http.MediaType;
 import org.n52.sos.util.http.MediaTypes;
@@ -103,8 +102,7 @@ public class JSONBinding extends SimpleBinding {
         try {
             request = parseRequest(req);
             checkServiceOperatorKeyTypes(request);
-            AbstractServiceResponse response = getServiceOperator(request).receiveRequest(request);
-            writeResponse(req, res, response);
+            receiveAndWriteResponse(req, res, request);
         } catch (OwsExceptionReport oer) {
             oer.setVersion(request != null ? request.getVersion() : null);
             writeOwsExceptionReport(req, res, oer);
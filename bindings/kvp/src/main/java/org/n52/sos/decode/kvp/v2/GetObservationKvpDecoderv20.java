@@ -48,6 +48,7 @@ import org.n52.sos.ogc.sos.Sos2Constants;
 import org.n52.sos.ogc.sos.Sos2Constants.Extensions;
 import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.ogc.swe.simpleType.SweBoolean;
+import org.n52.sos.ogc.swe.simpleType.SweText;
 import org.n52.sos.ogc.swes.SwesExtensionImpl;
 import org.n52.sos.ogc.swes.SwesExtensions;
 import org.n52.sos.request.GetObservationRequest;
@@ -139,6 +140,18 @@ public class GetObservationKvpDecoderv20 extends AbstractKvpDecoder {
                             .equalsIgnoreCase(Sos2Constants.Extensions.MergeObservationsIntoDataArray.name())) {
                         request.setExtensions(parseExtension(Sos2Constants.Extensions.MergeObservationsIntoDataArray,
                                 parameterValues, request.getExtensions()));
+                    }
+                    // AggregationInterval
+                    else if (parameterName.equalsIgnoreCase(Sos2Constants.Extensions.AggregationInterval.name())) {
+                        request.setExtensions(parseExtension(Sos2Constants.Extensions.AggregationInterval,
+                                KvpHelper.checkParameterSingleValue(parameterValues, parameterName),
+                                request.getExtensions()));
+                    }
+                    // AggregationFunctions
+                    else if (parameterName.equalsIgnoreCase(Sos2Constants.Extensions.AggregationFunctions.name())) {
+                        KvpHelper.checkParameterMultipleValues(parameterValues, parameterName);
+                        request.setExtensions(parseExtension(Sos2Constants.Extensions.AggregationFunctions,
+                                parameterValues, request.getExtensions()));
                     } else {
                         exceptions.add(new ParameterNotSupportedException(parameterName));
                     }
@@ -176,6 +189,13 @@ public class GetObservationKvpDecoderv20 extends AbstractKvpDecoder {
             				.setValue(Boolean.parseBoolean(parameterValues))
             		.setDefinition(extension.name())));
             break;
+        case AggregationInterval:
+        case AggregationFunctions:
+            extensions.addSwesExtension(
+                    new SwesExtensionImpl<SweText>()
+                    .setDefinition(extension.name())
+                    .setValue((SweText) new SweText().setValue(parameterValues).setDefinition(extension.name())));
+            break;
         default:
             break;
         }
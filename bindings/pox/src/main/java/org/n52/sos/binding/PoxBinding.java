@@ -34,17 +34,22 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
+import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
 import org.n52.sos.coding.OperationKey;
 import org.n52.sos.decode.Decoder;
+import org.n52.sos.decode.XmlStreamReaderDecoderKey;
 import org.n52.sos.exception.HTTPException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.ConformanceClasses;
 import org.n52.sos.request.AbstractServiceRequest;
-import org.n52.sos.response.AbstractServiceResponse;
 import org.n52.sos.util.CodingHelper;
 import org.n52.sos.util.XmlHelper;
+import org.n52.sos.util.XmlStreamReaderHelper;
 import org.n52.sos.util.http.MediaType;
 import org.n52.sos.util.http.MediaTypes;
 import org.slf4j.Logger;
@@ -69,9 +74,7 @@ public class PoxBinding extends SimpleBinding {
         AbstractServiceRequest<?> sosRequest = null;
         try {
             sosRequest = parseRequest(req);
-            AbstractServiceResponse sosResponse = getServiceOperator(sosRequest)
-                    .receiveRequest(sosRequest);
-            writeResponse(req, res, sosResponse);
+            receiveAndWriteResponse(req, res, sosRequest);
         } catch (OwsExceptionReport oer) {
             oer.setVersion(sosRequest != null ? sosRequest.getVersion() : null);
             writeOwsExceptionReport(req, res, oer);
@@ -80,7 +83,21 @@ public class PoxBinding extends SimpleBinding {
 
     protected AbstractServiceRequest<?> parseRequest(HttpServletRequest request)
             throws OwsExceptionReport {
-        XmlObject doc = XmlHelper.parseXmlSosRequest(request);
+        XmlObject doc;
+        if (request.getParameterMap().isEmpty()) {
+            XMLStreamReader reader = createXmlStreamReader(request);
+            // requests with a streaming decoder are decoded from the stream,
+            // all others are parsed without buffering the request body
+            Decoder<AbstractServiceRequest<?>, XMLStreamReader> streamDecoder =
+                    getDecoder(new XmlStreamReaderDecoderKey(reader.getName()));
+            if (streamDecoder != null) {
+                LOGGER.debug("XML-REQUEST: streaming {}", reader.getName());
+                return streamDecoder.decode(reader).setRequestContext(getRequestContext(request));
+            }
+            doc = parseXmlStreamReader(reader);
+        } else {
+            doc = XmlHelper.parseXmlSosRequest(request);
+        }
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("XML-REQUEST: {}", doc.xmlText());
         }
@@ -89,6 +106,33 @@ public class PoxBinding extends SimpleBinding {
         return decoder.decode(doc).setRequestContext(getRequestContext(request));
     }
 
+    private XMLStreamReader createXmlStreamReader(HttpServletRequest request) throws OwsExceptionReport {
+        try {
+            return XmlStreamReaderHelper.createXmlStreamReader(request);
+        } catch (XMLStreamException xmlse) {
+            throw new NoApplicableCodeException().causedBy(xmlse).withMessage(
+                    "An xml error occured when parsing the request! Message: %s", xmlse.getMessage());
+        } catch (IOException ioe) {
+            throw new NoApplicableCodeException().causedBy(ioe).withMessage(
+                    "Error while reading request! Message: %s", ioe.getMessage());
+        }
+    }
+
+    private XmlObject parseXmlStreamReader(XMLStreamReader reader) throws OwsExceptionReport {
+        try {
+            return XmlStreamReaderHelper.parseElement(reader, Collections.<String, String> emptyMap());
+        } catch (XmlException xmle) {
+            throw new NoApplicableCodeException().causedBy(xmle).withMessage(
+                    "An xml error occured when parsing the request! Message: %s", xmle.getMessage());
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException xmlse) {
+                LOGGER.warn("Error while closing the request reader", xmlse);
+            }
+        }
+    }
+
     @Override
     public Set<String> getConformanceClasses() {
         return Collections.unmodifiableSet(CONFORMANCE_CLASSES);
@@ -212,6 +212,8 @@ public class Soap12XmlStreamWriter extends XmlStreamWriter<SoapResponse> {
         Encoder<Object, AbstractServiceResponse> encoder =
                 getEncoder(new OperationEncoderKey(bodyResponse.getOperationKey(), MediaTypes.APPLICATION_XML));
         if (encoder instanceof StreamingEncoder<?, ?>) {
+            // the nested encoder writes directly to the output stream
+            flush();
             ((StreamingEncoder) encoder).encode(bodyResponse, getOutputStream(), new EncodingValues().setAsDocument(true).setEmbedded(true).setIndent(indent));
         } else {
             String soapBodyContent =
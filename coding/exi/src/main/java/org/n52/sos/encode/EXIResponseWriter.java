@@ -28,30 +28,32 @@
  */
 package org.n52.sos.encode;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.n52.sos.exi.EXIObject;
 import org.n52.sos.exi.EXISettings;
+import org.n52.sos.exi.EXIXMLStreamWriter;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.util.XmlOptionsHelper;
 import org.n52.sos.util.http.MediaType;
 import org.n52.sos.util.http.MediaTypes;
 import org.n52.sos.utils.EXIUtils;
-import org.xml.sax.InputSource;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.XMLReaderFactory;
+import org.xml.sax.ext.LexicalHandler;
 
-import com.siemens.ct.exi.EXIFactory;
 import com.siemens.ct.exi.api.sax.EXIResult;
 import com.siemens.ct.exi.exceptions.EXIException;
 
 /**
  * Writer class for {@link EXIObject}
  * 
- * Converts XML documents via EXI encoding using {@link EXISettings}.
+ * Converts XML documents via EXI encoding using {@link EXISettings}. Streamed
+ * responses are written by the XML streaming encoders directly to the EXI
+ * stream.
  * 
  * @author Carsten Hollmann <c.hollmann@52north.org>
  * @since 4.2.0
@@ -63,18 +65,22 @@ public class EXIResponseWriter extends AbstractResponseWriter<EXIObject> {
 
     @Override
     public void write(EXIObject exiObject, OutputStream out, ResponseProxy responseProxy) throws IOException {
-        try (InputStream is =
-                new ByteArrayInputStream(exiObject.getDoc().xmlText(XmlOptionsHelper.getInstance().getXmlOptions())
-                        .getBytes("UTF-8"))) {
-        	
-        	EXIFactory ef = EXI_UTILS.newEXIFactory();
-            
-            EXIResult exiResult = new EXIResult(ef);
+        try {
+            EXIResult exiResult = new EXIResult(EXI_UTILS.getEXIFactory());
             exiResult.setOutputStream(out);
-            XMLReader xmlReader = XMLReaderFactory.createXMLReader();
-            xmlReader.setContentHandler(exiResult.getHandler());
-            xmlReader.parse(new InputSource(is));
-        } catch (EXIException | SAXException e) {
+            ContentHandler handler = exiResult.getHandler();
+            if (exiObject.isStreaming()) {
+                EXIXMLStreamWriter writer = new EXIXMLStreamWriter(handler);
+                writer.writeStartDocument();
+                exiObject.getEncoder().encode(exiObject.getResponse(), writer.getOutputStream(),
+                        new EncodingValues().setXmlStreamWriter(writer));
+                writer.writeEndDocument();
+                writer.close();
+            } else {
+                LexicalHandler lexicalHandler = handler instanceof LexicalHandler ? (LexicalHandler) handler : null;
+                exiObject.getDoc().save(handler, lexicalHandler, XmlOptionsHelper.getInstance().getXmlOptions());
+            }
+        } catch (EXIException | SAXException | XMLStreamException | OwsExceptionReport e) {
             throw new IOException(e);
         }
     }
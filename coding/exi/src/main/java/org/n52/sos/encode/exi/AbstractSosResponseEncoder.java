@@ -39,6 +39,7 @@ import org.n52.sos.encode.Encoder;
 import org.n52.sos.encode.EncoderKey;
 import org.n52.sos.encode.OperationEncoderKey;
 import org.n52.sos.encode.streaming.StreamingDataEncoder;
+import org.n52.sos.encode.streaming.StreamingEncoder;
 import org.n52.sos.exception.ows.concrete.NoEncoderForKeyException;
 import org.n52.sos.exception.ows.concrete.UnsupportedEncoderInputException;
 import org.n52.sos.exi.EXIObject;
@@ -48,6 +49,7 @@ import org.n52.sos.ogc.sos.SosConstants.HelperValues;
 import org.n52.sos.request.ResponseFormat;
 import org.n52.sos.response.AbstractServiceResponse;
 import org.n52.sos.response.StreamingDataResponse;
+import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.service.ServiceConstants.SupportedTypeKey;
 import org.n52.sos.util.http.MediaType;
 import org.n52.sos.util.http.MediaTypes;
@@ -108,6 +110,10 @@ public class AbstractSosResponseEncoder<T extends AbstractServiceResponse> imple
             UnsupportedEncoderInputException {
         AbstractServiceResponse asr = objectToEncode;
         Encoder<Object, AbstractServiceResponse> encoder = getEncoder(asr);
+        if (isStreaming(encoder)) {
+            // the XML streaming encoder writes directly to the EXI stream
+            return new EXIObject(asr, (StreamingEncoder<?, AbstractServiceResponse>) encoder);
+        }
         if (asr instanceof StreamingDataResponse && ((StreamingDataResponse)asr).hasStreamingData() && !(encoder instanceof StreamingDataEncoder)) {
             ((StreamingDataResponse)asr).mergeStreamingData();
         }
@@ -172,6 +178,23 @@ public class AbstractSosResponseEncoder<T extends AbstractServiceResponse> imple
         return encoder;
     }
 
+    /**
+     * Check if streaming encoding is forced and the {@link Encoder} is a
+     * {@link StreamingEncoder}
+     * 
+     * @param encoder
+     *            the XML {@link Encoder} to check
+     * @return <code>true</code>, if streaming encoding is forced and the
+     *         {@link Encoder} is a {@link StreamingEncoder}
+     */
+    protected boolean isStreaming(Encoder<Object, AbstractServiceResponse> encoder) {
+        if (encoder instanceof StreamingEncoder) {
+            return ServiceConfiguration.getInstance().isForceStreamingEncoding()
+                    || ((StreamingEncoder<?, ?>) encoder).forceStreaming();
+        }
+        return false;
+    }
+
     /**
      * Getter for encoder, encapsulates the instance call
      * 
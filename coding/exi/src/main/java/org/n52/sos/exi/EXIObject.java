@@ -31,10 +31,14 @@ package org.n52.sos.exi;
 import java.io.OutputStream;
 
 import org.apache.xmlbeans.XmlObject;
+import org.n52.sos.encode.streaming.StreamingEncoder;
+import org.n52.sos.response.AbstractServiceResponse;
 
 /**
  * Class to hold the {@link XmlObject} which should be encoded and written to
- * the {@link OutputStream}.
+ * the {@link OutputStream}. Alternatively, it holds the
+ * {@link AbstractServiceResponse} and the XML {@link StreamingEncoder} which
+ * writes the response directly to the EXI stream.
  * 
  * @author Carsten Hollmann <c.hollmann@52north.org>
  * @since 4.2.0
@@ -44,6 +48,10 @@ public class EXIObject {
     
     private XmlObject doc;
     
+    private AbstractServiceResponse response;
+    
+    private StreamingEncoder<?, AbstractServiceResponse> encoder;
+    
     /**
      * @param doc the {@link XmlObject} to encode
      */
@@ -51,6 +59,18 @@ public class EXIObject {
         this.doc = doc;
     }
 
+    /**
+     * @param response
+     *            the {@link AbstractServiceResponse} to encode
+     * @param encoder
+     *            the XML {@link StreamingEncoder} for the response
+     * @since 4.3.0
+     */
+    public EXIObject(AbstractServiceResponse response, StreamingEncoder<?, AbstractServiceResponse> encoder) {
+        this.response = response;
+        this.encoder = encoder;
+    }
+
     /**
      * @return the doc
      */
@@ -58,4 +78,26 @@ public class EXIObject {
         return doc;
     }
 
+    /**
+     * @return the response
+     */
+    public AbstractServiceResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * @return the streaming encoder
+     */
+    public StreamingEncoder<?, AbstractServiceResponse> getEncoder() {
+        return encoder;
+    }
+
+    /**
+     * @return <code>true</code>, if the response should be streamed by the
+     *         {@link StreamingEncoder}
+     */
+    public boolean isStreaming() {
+        return response != null && encoder != null;
+    }
+
 }
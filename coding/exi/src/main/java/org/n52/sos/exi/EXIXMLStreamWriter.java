@@ -0,0 +1,669 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.exi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.n52.sos.encode.MarkupXMLStreamWriter;
+import org.n52.sos.util.Constants;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.NamespaceSupport;
+
+import com.google.common.base.Strings;
+import com.google.common.xml.XmlEscapers;
+
+/**
+ * {@link XMLStreamWriter} implementation that forwards the written events to a
+ * SAX {@link ContentHandler}, e.g. the handler of an EXI result. This allows
+ * the StAX based streaming encoders to write directly to an EXI stream.
+ * 
+ * Markup written with {@link #writeMarkup(String)}, as done by
+ * {@link org.n52.sos.encode.XmlWriter#rawText(String)}, and bytes written to
+ * the {@link #getOutputStream()} by nested encoders are parsed as XML fragments
+ * in the current namespace context and forwarded to the handler. Characters
+ * are forwarded as they are, except for the references the
+ * {@link XmlEscapers#xmlContentEscaper()} writes, which are resolved.
+ * 
+ * @since 4.3.0
+ */
+public class EXIXMLStreamWriter implements MarkupXMLStreamWriter {
+
+    private static final SAXParserFactory PARSER_FACTORY = SAXParserFactory.newInstance();
+
+    private static final Pattern XML_DECLARATION = Pattern.compile("^\\s*<\\?xml[^>]*\\?>");
+
+    private static final String FRAGMENT_ROOT = "fragment";
+
+    private static final String CDATA = "CDATA";
+
+    private static final String AMP = "&amp;";
+
+    private static final String LT = "&lt;";
+
+    private static final String GT = "&gt;";
+
+    static {
+        PARSER_FACTORY.setNamespaceAware(true);
+    }
+
+    private final ContentHandler handler;
+
+    private final NamespaceSupport namespaces = new NamespaceSupport();
+
+    private final Deque<Element> elements = new ArrayDeque<Element>();
+
+    private final ByteArrayOutputStream markup = new ByteArrayOutputStream();
+
+    private NamespaceContext rootContext;
+
+    private Element pending;
+
+    private SAXParser parser;
+
+    private boolean documentStarted = false;
+
+    private boolean documentEnded = false;
+
+    /**
+     * Constructor
+     * 
+     * @param handler
+     *            the {@link ContentHandler} to forward the events to
+     */
+    public EXIXMLStreamWriter(ContentHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Get the {@link OutputStream} nested encoders write their encoded XML
+     * fragments to. The written bytes are forwarded to the handler before the
+     * next event is written.
+     * 
+     * @return the fragment {@link OutputStream}
+     */
+    public OutputStream getOutputStream() {
+        return markup;
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        writeStartElement(Constants.EMPTY_STRING, localName, Constants.EMPTY_STRING);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        writeStartElement(getPrefix(namespaceURI), localName, namespaceURI);
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        startElement(prefix, localName, namespaceURI, false);
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        startElement(getPrefix(namespaceURI), localName, namespaceURI, true);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        startElement(prefix, localName, namespaceURI, true);
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        startElement(Constants.EMPTY_STRING, localName, Constants.EMPTY_STRING, true);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        flushPending();
+        drainMarkup();
+        if (elements.isEmpty()) {
+            throw new XMLStreamException("No open element to end!");
+        }
+        endElement();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        flushPending();
+        drainMarkup();
+        while (!elements.isEmpty()) {
+            endElement();
+        }
+        if (documentStarted && !documentEnded) {
+            try {
+                handler.endDocument();
+            } catch (SAXException e) {
+                throw new XMLStreamException(e);
+            }
+            documentEnded = true;
+        }
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        // the handler is owned by the caller
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        // events are forwarded immediately
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        addAttribute(Constants.EMPTY_STRING, localName, localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value)
+            throws XMLStreamException {
+        declareIfUnbound(prefix, namespaceURI);
+        addAttribute(namespaceURI, localName, qualify(prefix, localName), value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        writeAttribute(getPrefix(namespaceURI), namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        if (pending == null) {
+            throw new XMLStreamException("Namespaces can only be written to a start element!");
+        }
+        String p = Strings.nullToEmpty(prefix);
+        if (namespaceURI.equals(namespaces.getURI(p))) {
+            return;
+        }
+        namespaces.declarePrefix(p, namespaceURI);
+        try {
+            handler.startPrefixMapping(p, namespaceURI);
+        } catch (SAXException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        writeNamespace(Constants.EMPTY_STRING, namespaceURI);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        flushPending();
+        drainMarkup();
+        if (handler instanceof LexicalHandler) {
+            try {
+                ((LexicalHandler) handler).comment(data.toCharArray(), 0, data.length());
+            } catch (SAXException e) {
+                throw new XMLStreamException(e);
+            }
+        }
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        writeProcessingInstruction(target, Constants.EMPTY_STRING);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        flushPending();
+        drainMarkup();
+        try {
+            handler.processingInstruction(target, data);
+        } catch (SAXException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        flushPending();
+        drainMarkup();
+        characters(data);
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        // not supported by EXI streams
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        final String text;
+        switch (name) {
+        case "amp":
+            text = "&";
+            break;
+        case "lt":
+            text = "<";
+            break;
+        case "gt":
+            text = ">";
+            break;
+        case "quot":
+            text = "\"";
+            break;
+        case "apos":
+            text = "'";
+            break;
+        default:
+            throw new XMLStreamException("Entity reference not supported: " + name);
+        }
+        flushPending();
+        drainMarkup();
+        characters(text);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        if (!documentStarted) {
+            try {
+                handler.startDocument();
+            } catch (SAXException e) {
+                throw new XMLStreamException(e);
+            }
+            documentStarted = true;
+        }
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        writeStartDocument();
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        writeStartDocument();
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        flushPending();
+        drainMarkup();
+        if (!text.isEmpty()) {
+            characters(unescape(text));
+        }
+    }
+
+    @Override
+    public void writeMarkup(String markup) throws XMLStreamException {
+        flushPending();
+        try {
+            this.markup.write(markup.getBytes(Constants.DEFAULT_ENCODING));
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+        drainMarkup();
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        writeCharacters(new String(text, start, len));
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        if (uri == null || uri.isEmpty()) {
+            return Constants.EMPTY_STRING;
+        }
+        if (uri.equals(namespaces.getURI(Constants.EMPTY_STRING))) {
+            return Constants.EMPTY_STRING;
+        }
+        String prefix = namespaces.getPrefix(uri);
+        if (prefix == null && rootContext != null) {
+            prefix = rootContext.getPrefix(uri);
+        }
+        return prefix;
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        namespaces.declarePrefix(Strings.nullToEmpty(prefix), uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        setPrefix(Constants.EMPTY_STRING, uri);
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        if (documentStarted) {
+            throw new XMLStreamException("The namespace context has to be set before the document is started!");
+        }
+        // a NamespaceContext can not be enumerated, so bindings that are not
+        // set or written on this writer are resolved from the root context
+        this.rootContext = context;
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                String uri = namespaces.getURI(prefix);
+                if (uri == null && rootContext != null) {
+                    uri = rootContext.getNamespaceURI(prefix);
+                }
+                return uri;
+            }
+
+            @Override
+            public String getPrefix(String namespaceURI) {
+                String prefix = namespaces.getPrefix(namespaceURI);
+                if (prefix == null && rootContext != null) {
+                    prefix = rootContext.getPrefix(namespaceURI);
+                }
+                return prefix;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<String> getPrefixes(String namespaceURI) {
+                List<String> prefixes = Collections.list(namespaces.getPrefixes(namespaceURI));
+                if (prefixes.isEmpty() && rootContext != null) {
+                    return rootContext.getPrefixes(namespaceURI);
+                }
+                return prefixes.iterator();
+            }
+        };
+    }
+
+    @Override
+    public Object getProperty(String name) throws IllegalArgumentException {
+        throw new IllegalArgumentException("Property not supported: " + name);
+    }
+
+    private void startElement(String prefix, String localName, String namespaceURI, boolean empty)
+            throws XMLStreamException {
+        flushPending();
+        drainMarkup();
+        writeStartDocument();
+        namespaces.pushContext();
+        pending = new Element(Strings.nullToEmpty(namespaceURI), localName, qualify(prefix, localName), empty);
+        declareIfUnbound(prefix, namespaceURI);
+    }
+
+    /**
+     * Declare prefixes that are only bound in the root {@link NamespaceContext}
+     * on the current element
+     */
+    private void declareIfUnbound(String prefix, String namespaceURI) throws XMLStreamException {
+        if (rootContext != null && !Strings.isNullOrEmpty(prefix) && !Strings.isNullOrEmpty(namespaceURI)
+                && namespaces.getURI(prefix) == null && pending != null) {
+            writeNamespace(prefix, namespaceURI);
+        }
+    }
+
+    private void addAttribute(String namespaceURI, String localName, String qName, String value)
+            throws XMLStreamException {
+        if (pending == null) {
+            throw new XMLStreamException("Attributes can only be written to a start element!");
+        }
+        pending.attributes.addAttribute(Strings.nullToEmpty(namespaceURI), localName, qName, CDATA, value);
+    }
+
+    private void flushPending() throws XMLStreamException {
+        if (pending != null) {
+            Element element = pending;
+            pending = null;
+            try {
+                handler.startElement(element.namespaceURI, element.localName, element.qName, element.attributes);
+            } catch (SAXException e) {
+                throw new XMLStreamException(e);
+            }
+            elements.push(element);
+            if (element.empty) {
+                endElement();
+            }
+        }
+    }
+
+    private void endElement() throws XMLStreamException {
+        Element element = elements.pop();
+        try {
+            handler.endElement(element.namespaceURI, element.localName, element.qName);
+            Enumeration<?> prefixes = namespaces.getDeclaredPrefixes();
+            while (prefixes.hasMoreElements()) {
+                handler.endPrefixMapping((String) prefixes.nextElement());
+            }
+        } catch (SAXException e) {
+            throw new XMLStreamException(e);
+        }
+        namespaces.popContext();
+    }
+
+    private void characters(String text) throws XMLStreamException {
+        try {
+            handler.characters(text.toCharArray(), 0, text.length());
+        } catch (SAXException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    /**
+     * Resolve the references written by the
+     * {@link XmlEscapers#xmlContentEscaper()}, other ampersands are characters
+     */
+    static String unescape(String text) {
+        int index = text.indexOf('&');
+        if (index < 0) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        int start = 0;
+        while (index >= 0) {
+            builder.append(text, start, index);
+            start = index + 1;
+            if (text.startsWith(AMP, index)) {
+                builder.append('&');
+                start = index + AMP.length();
+            } else if (text.startsWith(LT, index)) {
+                builder.append('<');
+                start = index + LT.length();
+            } else if (text.startsWith(GT, index)) {
+                builder.append('>');
+                start = index + GT.length();
+            } else {
+                builder.append('&');
+            }
+            index = text.indexOf('&', start);
+        }
+        return builder.append(text, start, text.length()).toString();
+    }
+
+    /**
+     * Parse the collected markup as XML fragment in the current namespace
+     * context and forward the events to the handler
+     */
+    private void drainMarkup() throws XMLStreamException {
+        if (markup.size() == 0) {
+            return;
+        }
+        String fragment;
+        try {
+            fragment = markup.toString(Constants.DEFAULT_ENCODING);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+        markup.reset();
+        fragment = XML_DECLARATION.matcher(fragment).replaceFirst(Constants.EMPTY_STRING);
+        if (fragment.trim().isEmpty()) {
+            return;
+        }
+        StringBuilder wrapped = new StringBuilder(fragment.length() + 256);
+        wrapped.append('<').append(FRAGMENT_ROOT);
+        String defaultNamespace = namespaces.getURI(Constants.EMPTY_STRING);
+        if (defaultNamespace != null) {
+            appendNamespace(wrapped, "xmlns", defaultNamespace);
+        }
+        Enumeration<?> prefixes = namespaces.getPrefixes();
+        while (prefixes.hasMoreElements()) {
+            String prefix = (String) prefixes.nextElement();
+            if (!"xml".equals(prefix)) {
+                appendNamespace(wrapped, "xmlns:" + prefix, namespaces.getURI(prefix));
+            }
+        }
+        wrapped.append('>').append(fragment).append("</").append(FRAGMENT_ROOT).append('>');
+        try {
+            getParser().parse(new InputSource(new StringReader(wrapped.toString())), new FragmentHandler());
+        } catch (SAXException | IOException e) {
+            throw new XMLStreamException("Error while parsing XML fragment!", e);
+        }
+    }
+
+    private void appendNamespace(StringBuilder builder, String name, String uri) {
+        builder.append(' ').append(name).append("=\"").append(XmlEscapers.xmlAttributeEscaper().escape(uri))
+                .append('"');
+    }
+
+    private SAXParser getParser() throws XMLStreamException {
+        if (parser == null) {
+            try {
+                parser = PARSER_FACTORY.newSAXParser();
+            } catch (ParserConfigurationException | SAXException e) {
+                throw new XMLStreamException(e);
+            }
+        } else {
+            parser.reset();
+        }
+        return parser;
+    }
+
+    private static String qualify(String prefix, String localName) {
+        if (Strings.isNullOrEmpty(prefix)) {
+            return localName;
+        }
+        return prefix + ":" + localName;
+    }
+
+    /**
+     * Open element on the stack
+     */
+    private static class Element {
+        private final String namespaceURI;
+
+        private final String localName;
+
+        private final String qName;
+
+        private final boolean empty;
+
+        private final AttributesImpl attributes = new AttributesImpl();
+
+        Element(String namespaceURI, String localName, String qName, boolean empty) {
+            this.namespaceURI = namespaceURI;
+            this.localName = localName;
+            this.qName = qName;
+            this.empty = empty;
+        }
+    }
+
+    /**
+     * {@link DefaultHandler} that forwards the events of a parsed fragment
+     * without the synthetic root element
+     */
+    private class FragmentHandler extends DefaultHandler {
+        private int depth = 0;
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            if (depth > 0) {
+                handler.startPrefixMapping(prefix, uri);
+            }
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix) throws SAXException {
+            if (depth > 0) {
+                handler.endPrefixMapping(prefix);
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+            if (depth++ > 0) {
+                handler.startElement(uri, localName, qName, attributes);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if (--depth > 0) {
+                handler.endElement(uri, localName, qName);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (depth > 1) {
+                handler.characters(ch, start, length);
+            } else if (depth == 1 && !new String(ch, start, length).trim().isEmpty()) {
+                handler.characters(ch, start, length);
+            }
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) throws SAXException {
+            if (depth > 0) {
+                handler.processingInstruction(target, data);
+            }
+        }
+    }
+
+}
@@ -64,6 +64,8 @@ public class EXIUtils {
 
     private static Grammars GRAMMAR_BASETYPES = null;
 
+    private static Grammars GRAMMAR_SCHEMALESS = null;
+
     private CodingMode alignment = CodingMode.BIT_PACKED;
 
     private boolean isStrict;
@@ -90,6 +92,8 @@ public class EXIUtils {
 
     private static EXIUtils instance = null;
 
+    private volatile EXIFactory exiFactory;
+
     private EXIUtils() {
     }
 
@@ -122,26 +126,31 @@ public class EXIUtils {
     @Setting(EXISettings.EXI_FIDELITY_LEXICAL_VALUE)
     public void setFidelityLexicalValue(final boolean preserveLexicalValue) {
         this.preserveLexicalValue = preserveLexicalValue;
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_FIDELITY_PREFIXES)
     public void setFidelityPrefixes(final boolean preservePrefixes) {
         this.preservePrefixes = preservePrefixes;
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_FIDELITY_DTD)
     public void setFidelityDTD(final boolean preserveDTD) {
         this.preserveDTD = preserveDTD;
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_FIDELITY_PROCESSING_INSTRUCTIONS)
     public void setFidelityProcessingInstructions(final boolean preserveProcessingInstructions) {
         this.preserveProcessingInstructions = preserveProcessingInstructions;
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_FIDELITY_COMMENTS)
     public void setFidelityComments(final boolean preserveComments) {
         this.preserveComments = preserveComments;
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_FIDELITY)
@@ -152,12 +161,14 @@ public class EXIUtils {
         } else if (fidelity.equalsIgnoreCase(EXISettings.EXI_FIDELITY_DEFAULT)) {
             this.isDefault = true;
         }
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_ALIGNMENT)
     public void setCodingMode(final String codingMode) {
         Validation.notNullOrEmpty(EXISettings.EXI_ALIGNMENT, codingMode);
         this.alignment = CodingMode.valueOf(codingMode);
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_GRAMMAR)
@@ -168,6 +179,7 @@ public class EXIUtils {
         } else if (grammar.equalsIgnoreCase(EXISettings.EXI_GRAMMAR_BASETYPES)) {
             setXSBaseTypeGrammar(true);
         }
+        invalidateEXIFactory();
     }
 
     @Setting(EXISettings.EXI_GRAMMAR_SCHEMA)
@@ -178,6 +190,7 @@ public class EXIUtils {
         } else if (grammarSchema.equalsIgnoreCase(EXISettings.EXI_GRAMMAR_SCHEMA_SOS_10)) {
             setSOS10Schema(true);
         }
+        invalidateEXIFactory();
     }
 
     /**
@@ -236,6 +249,33 @@ public class EXIUtils {
         EXIUtils.isSOS10Schema = isSOS10Schema;
     }
 
+    /**
+     * @return The shared {@link EXIFactory} instance configured according the
+     *         service configuration. It is recreated after the settings were
+     *         changed and must not be modified.
+     * @throws UnsupportedOption
+     *             if one of the fidelity options is not supported.
+     */
+    public EXIFactory getEXIFactory() throws UnsupportedOption {
+        EXIFactory ef = exiFactory;
+        if (ef == null) {
+            ef = newEXIFactory();
+            exiFactory = ef;
+        }
+        return ef;
+    }
+
+    private void invalidateEXIFactory() {
+        this.exiFactory = null;
+    }
+
+    private static synchronized Grammars getSchemaLessGrammars() {
+        if (GRAMMAR_SCHEMALESS == null) {
+            GRAMMAR_SCHEMALESS = GrammarFactory.newInstance().createSchemaLessGrammars();
+        }
+        return GRAMMAR_SCHEMALESS;
+    }
+
     /**
      * @return An {@link EXIFactory} instance configured according the service
      *         configuration.
@@ -263,7 +303,7 @@ public class EXIUtils {
         }
         // default to schema less grammar
         if (g == null) {
-            g = GrammarFactory.newInstance().createSchemaLessGrammars();
+            g = getSchemaLessGrammars();
         }
         ef.setGrammars(g);
         //
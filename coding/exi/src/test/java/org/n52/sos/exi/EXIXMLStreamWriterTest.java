@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.exi;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Iterator;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 4.3.0
+ */
+public class EXIXMLStreamWriterTest {
+
+    private static final String NS = "http://www.example.org/test";
+
+    private StringWriter result;
+
+    private EXIXMLStreamWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        TransformerHandler handler = ((SAXTransformerFactory) TransformerFactory.newInstance()).newTransformerHandler();
+        handler.getTransformer().setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        result = new StringWriter();
+        handler.setResult(new StreamResult(result));
+        writer = new EXIXMLStreamWriter(handler);
+    }
+
+    @Test
+    public void shouldForwardElementsAttributesAndCharacters() throws Exception {
+        writer.writeStartDocument();
+        writer.writeStartElement("t", "root", NS);
+        writer.writeNamespace("t", NS);
+        writer.writeAttribute("id", "1");
+        writer.writeStartElement("t", "value", NS);
+        writer.writeCharacters("text");
+        writer.writeEndElement();
+        writer.writeEmptyElement("t", "empty", NS);
+        writer.writeEndDocument();
+        assertThat(result.toString(), is("<t:root xmlns:t=\"" + NS
+                + "\" id=\"1\"><t:value>text</t:value><t:empty/></t:root>"));
+    }
+
+    @Test
+    public void shouldParseMarkupInNamespaceContext() throws Exception {
+        writer.writeStartDocument();
+        writer.writeStartElement("t", "root", NS);
+        writer.writeNamespace("t", NS);
+        writer.writeMarkup("<t:value>a &amp; b</t:value>");
+        writer.writeEndDocument();
+        assertThat(result.toString(), is("<t:root xmlns:t=\"" + NS + "\"><t:value>a &amp; b</t:value></t:root>"));
+    }
+
+    @Test
+    public void shouldWriteCharactersAsCharacterData() throws Exception {
+        writer.writeStartDocument();
+        writer.writeStartElement("t", "root", NS);
+        writer.writeNamespace("t", NS);
+        writer.writeCharacters("a &amp; b &lt;c&gt; & d");
+        writer.writeEndDocument();
+        assertThat(result.toString(), is("<t:root xmlns:t=\"" + NS + "\">a &amp; b &lt;c&gt; &amp; d</t:root>"));
+    }
+
+    @Test
+    public void shouldKeepWhitespaceCharacters() throws Exception {
+        writer.writeStartDocument();
+        writer.writeStartElement("t", "root", NS);
+        writer.writeNamespace("t", NS);
+        writer.writeCharacters("1");
+        writer.writeCharacters(" ");
+        writer.writeCharacters("2");
+        writer.writeStartElement("t", "value", NS);
+        writer.writeCharacters("  ");
+        writer.writeEndDocument();
+        assertThat(result.toString(), is("<t:root xmlns:t=\"" + NS + "\">1 2<t:value>  </t:value></t:root>"));
+    }
+
+    @Test
+    public void shouldResolvePredefinedEntityReferences() throws Exception {
+        writer.writeStartDocument();
+        writer.writeStartElement("root");
+        writer.writeEntityRef("amp");
+        writer.writeEndDocument();
+        assertThat(result.toString(), is("<root>&amp;</root>"));
+    }
+
+    @Test
+    public void shouldOnlyUnescapeContentEscaperReferences() {
+        assertThat(EXIXMLStreamWriter.unescape("a &amp;lt; b"), is("a &lt; b"));
+        assertThat(EXIXMLStreamWriter.unescape("&quot;&gt;&"), is("&quot;>&"));
+        assertThat(EXIXMLStreamWriter.unescape("plain"), is("plain"));
+    }
+
+    @Test
+    public void shouldForwardBytesWrittenToOutputStream() throws Exception {
+        writer.writeStartDocument();
+        writer.writeStartElement("t", "root", NS);
+        writer.writeNamespace("t", NS);
+        writer.writeCharacters("");
+        writer.getOutputStream().write(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><t:value>x</t:value>".getBytes("UTF-8"));
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        assertThat(result.toString(), is("<t:root xmlns:t=\"" + NS + "\"><t:value>x</t:value></t:root>"));
+    }
+
+    @Test
+    public void shouldResolveAndDeclarePrefixesOfTheNamespaceContext() throws Exception {
+        writer.setNamespaceContext(new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                return "t".equals(prefix) ? NS : null;
+            }
+
+            @Override
+            public String getPrefix(String namespaceURI) {
+                return NS.equals(namespaceURI) ? "t" : null;
+            }
+
+            @Override
+            public Iterator<String> getPrefixes(String namespaceURI) {
+                return Collections.singleton(getPrefix(namespaceURI)).iterator();
+            }
+        });
+        assertThat(writer.getNamespaceContext().getNamespaceURI("t"), is(NS));
+        writer.writeStartDocument();
+        writer.writeStartElement(NS, "root");
+        writer.writeStartElement(NS, "value");
+        writer.writeCharacters("x");
+        writer.writeEndDocument();
+        assertThat(result.toString(), is("<t:root xmlns:t=\"" + NS + "\"><t:value>x</t:value></t:root>"));
+    }
+
+}
@@ -28,26 +28,35 @@
  */
 package org.n52.sos.encode.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import org.n52.sos.coding.json.JSONConstants;
 import org.n52.sos.util.JSONUtils;
+import org.n52.sos.encode.EncodingValues;
 import org.n52.sos.encode.OperationEncoderKey;
+import org.n52.sos.encode.streaming.StreamingEncoder;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.Sos2Constants;
 import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.response.AbstractServiceResponse;
 import org.n52.sos.util.http.MediaTypes;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
- * TODO JavaDoc
+ * Encodes responses either to a {@link JsonNode} tree or, if streaming is
+ * requested, directly to the output stream using a {@link JsonGenerator}.
  * 
  * @author Christian Autermann <c.autermann@52north.org>
  * 
  * @since 4.0.0
  */
-public abstract class AbstractSosResponseEncoder<T extends AbstractServiceResponse> extends JSONEncoder<T> {
+public abstract class AbstractSosResponseEncoder<T extends AbstractServiceResponse> extends JSONEncoder<T> implements
+        StreamingEncoder<JsonNode, T> {
     public AbstractSosResponseEncoder(Class<T> type, String operation) {
         super(type, new OperationEncoderKey(SosConstants.SOS, Sos2Constants.SERVICEVERSION, operation,
                 MediaTypes.APPLICATION_JSON));
@@ -67,5 +76,47 @@ public abstract class AbstractSosResponseEncoder<T extends AbstractServiceRespon
         return n;
     }
 
+    @Override
+    public void encode(T t, OutputStream outputStream) throws OwsExceptionReport {
+        encode(t, outputStream, new EncodingValues());
+    }
+
+    @Override
+    public void encode(T t, OutputStream outputStream, EncodingValues encodingValues) throws OwsExceptionReport {
+        try {
+            JsonGenerator generator = JSONUtils.createGenerator(outputStream);
+            generator.writeStartObject();
+            generator.writeStringField(JSONConstants.REQUEST, t.getOperationName());
+            generator.writeStringField(JSONConstants.VERSION, t.getVersion());
+            generator.writeStringField(JSONConstants.SERVICE, t.getService());
+            writeResponse(generator, t);
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException ioe) {
+            throw new NoApplicableCodeException().causedBy(ioe).withMessage("Error while writing JSON response");
+        }
+    }
+
+    @Override
+    public boolean forceStreaming() {
+        return false;
+    }
+
     protected abstract void encodeResponse(ObjectNode json, T t) throws OwsExceptionReport;
+
+    /**
+     * Write the response specific fields to the generator. The default
+     * implementation writes the fields created by
+     * {@link #encodeResponse(ObjectNode, AbstractServiceResponse)}.
+     * 
+     * @param generator
+     *            the generator
+     * @param t
+     *            the response
+     */
+    protected void writeResponse(JsonGenerator generator, T t) throws OwsExceptionReport, IOException {
+        ObjectNode json = JSONUtils.nodeFactory().objectNode();
+        encodeResponse(json, t);
+        writeFields(generator, json);
+    }
 }
@@ -28,9 +28,12 @@
  */
 package org.n52.sos.encode.json;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.n52.sos.coding.CodingRepository;
@@ -49,8 +52,10 @@ import org.n52.sos.util.http.MediaType;
 import org.n52.sos.util.http.MediaTypes;
 import org.n52.sos.w3c.SchemaLocation;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 
@@ -140,6 +145,24 @@ public abstract class JSONEncoder<T> implements Encoder<JsonNode, T> {
         return JSONUtils.nodeFactory();
     }
 
+    /**
+     * Write the fields of the object to the generator, that has to be inside
+     * of an object.
+     * 
+     * @param generator
+     *            the generator
+     * @param json
+     *            the object containing the fields
+     */
+    protected void writeFields(JsonGenerator generator, ObjectNode json) throws IOException {
+        Iterator<Entry<String, JsonNode>> fields = json.fields();
+        while (fields.hasNext()) {
+            Entry<String, JsonNode> field = fields.next();
+            generator.writeFieldName(field.getKey());
+            generator.writeTree(field.getValue());
+        }
+    }
+
     protected JsonNode encodeCodeType(CodeType codeType) {
         if (codeType.isSetCodeSpace()) {
             return nodeFactory().objectNode().put(JSONConstants.CODESPACE, codeType.getCodeSpace())
@@ -28,22 +28,32 @@
  */
 package org.n52.sos.encode.json.impl;
 
+import java.io.IOException;
 import java.util.Set;
 
+import org.n52.sos.coding.CodingRepository;
 import org.n52.sos.coding.json.JSONConstants;
+import org.n52.sos.encode.Encoder;
 import org.n52.sos.encode.json.AbstractSosResponseEncoder;
+import org.n52.sos.encode.json.JSONEncoderKey;
+import org.n52.sos.exception.ows.concrete.NoEncoderForKeyException;
+import org.n52.sos.ogc.om.AbstractStreaming;
 import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.response.AbstractObservationResponse;
 import org.n52.sos.util.http.MediaTypes;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Sets;
 
 /**
- * TODO JavaDoc
+ * Streaming encoding is forced, so observations are written one after the
+ * other to the output stream and {@link AbstractStreaming} values are consumed
+ * incrementally. They are only merged into memory if merging of the
+ * observations is requested.
  * 
  * @author Christian Autermann <c.autermann@52north.org>
  * 
@@ -67,6 +77,65 @@ public abstract class AbstractObservationResponseEncoder<T extends AbstractObser
         }
     }
 
+    @Override
+    protected void writeResponse(JsonGenerator generator, T t) throws OwsExceptionReport, IOException {
+        generator.writeArrayFieldStart(JSONConstants.OBSERVATIONS);
+        for (OmObservation o : t.getObservationCollection()) {
+            if (o.getValue() instanceof AbstractStreaming) {
+                AbstractStreaming streaming = (AbstractStreaming) o.getValue();
+                if (streaming.hasNextValue()) {
+                    if (t.isSetMergeObservation()) {
+                        // merging needs all values of the streaming result
+                        for (OmObservation merged : streaming.mergeObservation()) {
+                            writeObservation(merged, generator);
+                        }
+                    } else {
+                        do {
+                            writeObservation(streaming.nextSingleObservation(), generator);
+                        } while (streaming.hasNextValue());
+                    }
+                } else if (streaming.getValue() != null) {
+                    writeObservation(streaming.getValue().getValue(), generator);
+                }
+            } else {
+                writeObservation(o, generator);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Write one observation and flush the generator
+     * 
+     * @param o
+     *            Observation to write
+     * @param generator
+     *            Generator to write to
+     * @throws OwsExceptionReport
+     *             If no encoder is available or the encoding fails
+     * @throws IOException
+     *             If writing fails
+     */
+    protected void writeObservation(OmObservation o, JsonGenerator generator) throws OwsExceptionReport,
+            IOException {
+        JSONEncoderKey key = new JSONEncoderKey(o.getClass());
+        Encoder<JsonNode, OmObservation> encoder = CodingRepository.getInstance().getEncoder(key);
+        if (encoder == null) {
+            throw new NoEncoderForKeyException(key);
+        } else if (encoder instanceof ObservationEncoder) {
+            ((ObservationEncoder) encoder).write(o, generator);
+        } else {
+            generator.writeTree(encoder.encode(o));
+        }
+        // hand the observation to the client before creating the next one
+        generator.flush();
+    }
+
+    @Override
+    public boolean forceStreaming() {
+        return true;
+    }
+
     @Override
     public boolean isObservationAndMeasurmentV20Type() {
         return false;
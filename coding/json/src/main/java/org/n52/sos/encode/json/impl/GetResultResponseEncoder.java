@@ -28,12 +28,17 @@
  */
 package org.n52.sos.encode.json.impl;
 
+import java.io.IOException;
+
 import org.n52.sos.coding.json.JSONConstants;
 import org.n52.sos.encode.json.AbstractSosResponseEncoder;
+import org.n52.sos.encode.streaming.StreamingDataEncoder;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.response.GetResultResponse;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -43,13 +48,68 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
  * 
  * @since 4.0.0
  */
-public class GetResultResponseEncoder extends AbstractSosResponseEncoder<GetResultResponse> {
+public class GetResultResponseEncoder extends AbstractSosResponseEncoder<GetResultResponse> implements
+        StreamingDataEncoder {
     public GetResultResponseEncoder() {
         super(GetResultResponse.class, SosConstants.Operations.GetResult);
     }
 
     @Override
     protected void encodeResponse(ObjectNode json, GetResultResponse t) throws OwsExceptionReport {
+        if (t.hasStreamingData()) {
+            t.mergeStreamingData();
+        }
         json.put(JSONConstants.RESULT_VALUES, t.getResultValues());
     }
+
+    @Override
+    protected void writeResponse(JsonGenerator generator, GetResultResponse t) throws OwsExceptionReport,
+            IOException {
+        if (t.hasStreamingData()) {
+            // write the string value in pieces while the values are created
+            generator.writeFieldName(JSONConstants.RESULT_VALUES);
+            generator.writeRawValue("\"");
+            t.writeResultValues(new JsonStringAppendable(generator));
+            generator.writeRaw('"');
+        } else {
+            generator.writeStringField(JSONConstants.RESULT_VALUES, t.getResultValues());
+        }
+    }
+
+    @Override
+    public boolean forceStreaming() {
+        return true;
+    }
+
+    /**
+     * {@link Appendable} that writes the appended characters quoted as JSON
+     * string content to the generator
+     */
+    private static class JsonStringAppendable implements Appendable {
+
+        private final JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+
+        private final JsonGenerator generator;
+
+        JsonStringAppendable(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            char[] quoted = encoder.quoteAsString(String.valueOf(csq));
+            generator.writeRaw(quoted, 0, quoted.length);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            return append(String.valueOf(csq).subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            return append(String.valueOf(c));
+        }
+    }
 }
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.encode.json.impl;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -54,6 +55,7 @@ import org.n52.sos.ogc.swe.SweAbstractDataRecord;
 import org.n52.sos.ogc.swe.SweDataArray;
 import org.n52.sos.ogc.swe.SweDataRecord;
 import org.n52.sos.ogc.swe.SweField;
+import org.n52.sos.ogc.swe.SweNumericDataArray;
 import org.n52.sos.ogc.swe.simpleType.SweBoolean;
 import org.n52.sos.ogc.swe.simpleType.SweCategory;
 import org.n52.sos.ogc.swe.simpleType.SweCount;
@@ -63,6 +65,7 @@ import org.n52.sos.ogc.swe.simpleType.SweTime;
 import org.n52.sos.util.JSONUtils;
 import org.n52.sos.util.OMHelper;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -82,6 +85,36 @@ public class ObservationEncoder extends JSONEncoder<OmObservation> {
 
     @Override
     public JsonNode encodeJSON(OmObservation o) throws OwsExceptionReport {
+        ObjectNode json = encodeMetadata(o);
+        encodeResult(o, json);
+        return json;
+    }
+
+    /**
+     * Write the observation to the generator. The values of a
+     * SweArrayObservation are written one by one instead of creating a
+     * {@link JsonNode} for the whole result.
+     * 
+     * @param o
+     *            the observation
+     * @param generator
+     *            the generator
+     */
+    public void write(OmObservation o, JsonGenerator generator) throws OwsExceptionReport, IOException {
+        Value<?> value = o.getValue().getValue();
+        if (!(value instanceof SweDataArrayValue)
+                || !getObservationType(o).equals(OmConstants.OBS_TYPE_SWE_ARRAY_OBSERVATION)) {
+            generator.writeTree(encodeJSON(o));
+            return;
+        }
+        generator.writeStartObject();
+        writeFields(generator, encodeMetadata(o));
+        generator.writeFieldName(JSONConstants.RESULT);
+        writeSweDataArrayValue((SweDataArrayValue) value, generator);
+        generator.writeEndObject();
+    }
+
+    private ObjectNode encodeMetadata(OmObservation o) throws OwsExceptionReport {
         ObjectNode json = nodeFactory().objectNode();
         encodeObservationType(o, json);
         encodeIdentifier(o, json);
@@ -92,7 +125,6 @@ public class ObservationEncoder extends JSONEncoder<OmObservation> {
         encodePhenomenonTime(o, json);
         encodeResultTime(o, json);
         encodeValidTime(o, json);
-        encodeResult(o, json);
         return json;
     }
 
@@ -233,8 +265,50 @@ public class ObservationEncoder extends JSONEncoder<OmObservation> {
         ObjectNode result = nodeFactory().objectNode();
         ArrayNode jfields = result.putArray(JSONConstants.FIELDS);
         ArrayNode jvalues = result.putArray(JSONConstants.VALUES);
-        List<SweField> fields = ((SweDataRecord) sweDataArrayValue.getValue().getElementType()).getFields();
+        TokenConverter[] conv = encodeFields(sweDataArrayValue, jfields);
+
+        if (sweDataArrayValue.getValue() instanceof SweNumericDataArray) {
+            encodeNumericValues((SweNumericDataArray) sweDataArrayValue.getValue(), jvalues);
+            return result;
+        }
         List<List<String>> values = sweDataArrayValue.getValue().getValues();
+        for (List<String> block : values) {
+            ArrayNode jblock = jvalues.addArray();
+            int i = 0;
+            for (String token : block) {
+                jblock.add(conv[i++].convert(token));
+            }
+        }
+        return result;
+    }
+
+    private void writeSweDataArrayValue(SweDataArrayValue sweDataArrayValue, JsonGenerator generator)
+            throws OwsExceptionReport, IOException {
+        ArrayNode jfields = nodeFactory().arrayNode();
+        TokenConverter[] conv = encodeFields(sweDataArrayValue, jfields);
+        generator.writeStartObject();
+        generator.writeFieldName(JSONConstants.FIELDS);
+        generator.writeTree(jfields);
+        generator.writeArrayFieldStart(JSONConstants.VALUES);
+        if (sweDataArrayValue.getValue() instanceof SweNumericDataArray) {
+            writeNumericValues((SweNumericDataArray) sweDataArrayValue.getValue(), generator);
+        } else {
+            for (List<String> block : sweDataArrayValue.getValue().getValues()) {
+                generator.writeStartArray();
+                int i = 0;
+                for (String token : block) {
+                    generator.writeTree(conv[i++].convert(token));
+                }
+                generator.writeEndArray();
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private TokenConverter[] encodeFields(SweDataArrayValue sweDataArrayValue, ArrayNode jfields)
+            throws OwsExceptionReport {
+        List<SweField> fields = ((SweDataRecord) sweDataArrayValue.getValue().getElementType()).getFields();
         TokenConverter[] conv = new TokenConverter[fields.size()];
         int i = 0;
         for (SweField field : fields) {
@@ -245,15 +319,46 @@ public class ObservationEncoder extends JSONEncoder<OmObservation> {
             }
             jfields.add(encodeObjectToJson(field));
         }
+        return conv;
+    }
 
-        for (List<String> block : values) {
+    private void encodeNumericValues(SweNumericDataArray dataArray, ArrayNode jvalues) {
+        for (int block = 0; block < dataArray.size(); block++) {
             ArrayNode jblock = jvalues.addArray();
-            i = 0;
-            for (String token : block) {
-                jblock.add(conv[i++].convert(token));
+            if (dataArray.isSetTimeToken()) {
+                jblock.add(dataArray.getTimeToken(block));
+            }
+            for (int field = 0; field < dataArray.getFieldCount(); field++) {
+                double value = dataArray.getDouble(block, field);
+                if (Double.isNaN(value)) {
+                    jblock.addNull();
+                } else if (dataArray.isIntegral(field)) {
+                    jblock.add((long) value);
+                } else {
+                    jblock.add(value);
+                }
             }
         }
-        return result;
+    }
+
+    private void writeNumericValues(SweNumericDataArray dataArray, JsonGenerator generator) throws IOException {
+        for (int block = 0; block < dataArray.size(); block++) {
+            generator.writeStartArray();
+            if (dataArray.isSetTimeToken()) {
+                generator.writeString(dataArray.getTimeToken(block));
+            }
+            for (int field = 0; field < dataArray.getFieldCount(); field++) {
+                double value = dataArray.getDouble(block, field);
+                if (Double.isNaN(value)) {
+                    generator.writeNull();
+                } else if (dataArray.isIntegral(field)) {
+                    generator.writeNumber((long) value);
+                } else {
+                    generator.writeNumber(value);
+                }
+            }
+            generator.writeEndArray();
+        }
     }
 
     private String getObservationType(OmObservation o) {
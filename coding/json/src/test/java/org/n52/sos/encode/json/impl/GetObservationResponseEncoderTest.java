@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode.json.impl;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.om.StreamingObservation;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.response.GetObservationResponse;
+import org.n52.sos.util.JSONUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.collect.Lists;
+
+/**
+ * @since 4.3.0
+ */
+public class GetObservationResponseEncoderTest {
+
+    @Test
+    public void shouldWriteSingleObservationsOfStreamingResult() throws OwsExceptionReport, IOException {
+        final TestStreamingObservation streaming = new TestStreamingObservation(3);
+        final List<OmObservation> written = write(createResponse(streaming, false));
+        assertThat(written, is(streaming.getReturned()));
+        assertThat(written.size(), is(3));
+    }
+
+    @Test
+    public void shouldWriteMergedObservationsOfStreamingResult() throws OwsExceptionReport, IOException {
+        final TestStreamingObservation streaming = new TestStreamingObservation(3);
+        final List<OmObservation> written = write(createResponse(streaming, true));
+        assertThat(written, contains(streaming.getMerged()));
+    }
+
+    private GetObservationResponse createResponse(StreamingObservation streaming, boolean merge) {
+        final OmObservation observation = new OmObservation();
+        observation.setValue(streaming);
+        final GetObservationResponse response = new GetObservationResponse();
+        response.setObservationCollection(Lists.newArrayList(observation));
+        response.setMergeObservations(merge);
+        return response;
+    }
+
+    private List<OmObservation> write(GetObservationResponse response) throws OwsExceptionReport, IOException {
+        final RecordingEncoder encoder = new RecordingEncoder();
+        final JsonGenerator generator = JSONUtils.createGenerator(new ByteArrayOutputStream());
+        encoder.writeResponse(generator, response);
+        generator.close();
+        return encoder.written;
+    }
+
+    private static class RecordingEncoder extends GetObservationResponseEncoder {
+        private final List<OmObservation> written = Lists.newArrayList();
+
+        @Override
+        protected void writeObservation(OmObservation o, JsonGenerator generator) {
+            written.add(o);
+        }
+    }
+
+    private static class TestStreamingObservation extends StreamingObservation {
+        private static final long serialVersionUID = 1L;
+
+        private final List<OmObservation> returned = Lists.newArrayList();
+
+        private final OmObservation merged = new OmObservation();
+
+        private final int size;
+
+        TestStreamingObservation(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNextValue() {
+            return returned.size() < size;
+        }
+
+        @Override
+        public OmObservation nextSingleObservation() {
+            final OmObservation observation = new OmObservation();
+            returned.add(observation);
+            return observation;
+        }
+
+        @Override
+        public Collection<OmObservation> mergeObservation() throws OwsExceptionReport {
+            getObservation();
+            return Collections.singletonList(merged);
+        }
+
+        List<OmObservation> getReturned() {
+            return returned;
+        }
+
+        OmObservation getMerged() {
+            return merged;
+        }
+    }
+}
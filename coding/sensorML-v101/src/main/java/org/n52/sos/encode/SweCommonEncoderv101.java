@@ -105,6 +105,7 @@ import org.n52.sos.ogc.swe.simpleType.SweText;
 import org.n52.sos.ogc.swe.simpleType.SweTime;
 import org.n52.sos.ogc.swe.simpleType.SweTimeRange;
 import org.n52.sos.util.CodingHelper;
+import org.n52.sos.util.SweHelper;
 import org.n52.sos.util.XmlHelper;
 import org.n52.sos.util.XmlOptionsHelper;
 import org.n52.sos.w3c.SchemaLocation;
@@ -665,7 +666,7 @@ public class SweCommonEncoderv101 extends AbstractXmlEncoder<Object> {
 	            // absObs));
 	            // }
 	            if (sosDataArray.isSetValues()) {
-	                xbDataArray.addNewValues().set(createValues(sosDataArray.getValues(), sosDataArray.getEncoding()));
+	                xbDataArray.addNewValues().set(createValues(sosDataArray, sosDataArray.getEncoding()));
 	            }
 	            return xbDataArrayDoc;
         	} else if (sosDataArray.isSetXml()) {
@@ -687,32 +688,10 @@ public class SweCommonEncoderv101 extends AbstractXmlEncoder<Object> {
         return null;
     }
 
-    private XmlString createValues(final List<List<String>> values, final SweAbstractEncoding encoding) {
+    private XmlString createValues(final SweDataArray dataArray, final SweAbstractEncoding encoding) {
         // TODO How to deal with the decimal separator - is it an issue here?
-        final StringBuilder valueStringBuilder = new StringBuilder(256);
-        final SweTextEncoding textEncoding = (SweTextEncoding) encoding;
-        // would also work, hmm
-        // Configurator.getInstance().getDecimalSeparator();
-        final String tokenSeparator = textEncoding.getTokenSeparator();
-        final String blockSeparator = textEncoding.getBlockSeparator();
-        for (final List<String> block : values) {
-            final StringBuilder blockStringBuilder = new StringBuilder();
-            for (final String token : block) {
-                blockStringBuilder.append(token);
-                blockStringBuilder.append(tokenSeparator);
-            }
-            String blockString = blockStringBuilder.toString();
-            // remove last token sep
-            blockString = blockString.substring(0, blockString.lastIndexOf(tokenSeparator));
-            valueStringBuilder.append(blockString);
-            valueStringBuilder.append(blockSeparator);
-        }
-        String valueString = valueStringBuilder.toString();
-        // remove last block sep
-        valueString = valueString.substring(0, valueString.lastIndexOf(blockSeparator));
-        // create XB result object
         final XmlString xbValueString = XmlString.Factory.newInstance();
-        xbValueString.setStringValue(valueString);
+        xbValueString.setStringValue(SweHelper.createTextValues(dataArray, (SweTextEncoding) encoding));
         return xbValueString;
     }
 
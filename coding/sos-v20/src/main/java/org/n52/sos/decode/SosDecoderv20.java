@@ -607,26 +607,26 @@ public class SosDecoderv20 extends AbstractSwesDecoderv20 implements Decoder<Abs
         }
     }
 
-    private void checkAndAddPhenomenonTime(final Time phenomenonTime, final Map<String, Time> phenomenonTimes) {
+    static void checkAndAddPhenomenonTime(final Time phenomenonTime, final Map<String, Time> phenomenonTimes) {
         if (!phenomenonTime.isReferenced()) {
             phenomenonTimes.put(phenomenonTime.getGmlId(), phenomenonTime);
         }
     }
 
-    private void checkAndAddResultTime(final TimeInstant resultTime, final Map<String, TimeInstant> resultTimes) {
+    static void checkAndAddResultTime(final TimeInstant resultTime, final Map<String, TimeInstant> resultTimes) {
         if (!resultTime.isReferenced()) {
             resultTimes.put(resultTime.getGmlId(), resultTime);
         }
     }
 
-    private void checkAndAddFeatures(final AbstractFeature featureOfInterest,
+    static void checkAndAddFeatures(final AbstractFeature featureOfInterest,
             final Map<String, AbstractFeature> features) {
         if (!featureOfInterest.isReferenced()) {
             features.put(featureOfInterest.getGmlId(), featureOfInterest);
         }
     }
 
-    private void checkReferencedElements(final List<OmObservation> observations,
+    static void checkReferencedElements(final List<OmObservation> observations,
             final Map<String, Time> phenomenonTimes, final Map<String, TimeInstant> resultTimes,
             final Map<String, AbstractFeature> features) throws OwsExceptionReport {
         for (final OmObservation observation : observations) {
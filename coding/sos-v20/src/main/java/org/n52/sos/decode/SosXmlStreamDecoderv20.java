@@ -0,0 +1,273 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.decode;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import net.opengis.sos.x20.InsertObservationDocument;
+import net.opengis.sos.x20.InsertObservationType;
+import net.opengis.sos.x20.InsertObservationType.Observation;
+import net.opengis.sos.x20.InsertResultDocument;
+import net.opengis.sos.x20.InsertResultType;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.exception.ows.concrete.UnsupportedDecoderInputException;
+import org.n52.sos.ogc.gml.AbstractFeature;
+import org.n52.sos.ogc.gml.time.Time;
+import org.n52.sos.ogc.gml.time.TimeInstant;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.request.AbstractServiceRequest;
+import org.n52.sos.request.InsertObservationRequest;
+import org.n52.sos.request.InsertResultRequest;
+import org.n52.sos.service.ServiceConstants.SupportedTypeKey;
+import org.n52.sos.util.CodingHelper;
+import org.n52.sos.util.XmlHelper;
+import org.n52.sos.util.XmlStreamReaderHelper;
+import org.n52.sos.util.XmlStreamTextReader;
+import org.n52.sos.w3c.W3CConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
+
+/**
+ * StAX based decoder for InsertObservation and InsertResult requests. The
+ * child elements of the request are parsed one after another into a request
+ * document that never contains more than one observation, so the XmlBeans tree
+ * of the request is not held in memory as a whole.
+ * 
+ * Only InsertResult is streamed: the result values are not read by this
+ * decoder, but read from the request while they are inserted. The decoded
+ * observations of an InsertObservation request are still collected in the
+ * {@link InsertObservationRequest}, because the operator checks them and the
+ * xlink references (#id) between them are resolved before the insertion. The
+ * memory needed for an InsertObservation request therefore still grows with
+ * the number of observations.
+ * 
+ * @since 4.3.0
+ */
+public class SosXmlStreamDecoderv20 extends AbstractSwesDecoderv20 implements
+        Decoder<AbstractServiceRequest<?>, XMLStreamReader> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SosXmlStreamDecoderv20.class);
+
+    private static final QName QN_OBSERVATION = new QName(Sos2Constants.NS_SOS_20,
+            Sos2Constants.InsertObservationParams.observation.name());
+
+    private static final QName QN_RESULT_VALUES = new QName(Sos2Constants.NS_SOS_20,
+            Sos2Constants.InsertResultParams.resultValues.name());
+
+    private static final Set<DecoderKey> DECODER_KEYS = Sets.<DecoderKey> newHashSet(new XmlStreamReaderDecoderKey(
+            Sos2Constants.QN_INSERT_OBSERVATION), new XmlStreamReaderDecoderKey(Sos2Constants.QN_INSERT_RESULT));
+
+    public SosXmlStreamDecoderv20() {
+        LOGGER.debug("Decoder for the following keys initialized successfully: {}!", Joiner.on(", ")
+                .join(DECODER_KEYS));
+    }
+
+    @Override
+    public Set<DecoderKey> getDecoderKeyTypes() {
+        return Collections.unmodifiableSet(DECODER_KEYS);
+    }
+
+    @Override
+    public Map<SupportedTypeKey, Set<String>> getSupportedTypes() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Set<String> getConformanceClasses() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public AbstractServiceRequest<?> decode(final XMLStreamReader reader) throws OwsExceptionReport {
+        LOGGER.debug("REQUESTTYPE:" + reader.getName());
+        try {
+            if (Sos2Constants.QN_INSERT_OBSERVATION.equals(reader.getName())) {
+                return parseInsertObservation(reader);
+            } else if (Sos2Constants.QN_INSERT_RESULT.equals(reader.getName())) {
+                return parseInsertResult(reader);
+            } else {
+                throw new UnsupportedDecoderInputException(this, reader.getName());
+            }
+        } catch (final XMLStreamException | XmlException e) {
+            throw new NoApplicableCodeException().causedBy(e).withMessage(
+                    "An xml error occured when parsing the request! Message: %s", e.getMessage());
+        } catch (final IOException ioe) {
+            throw new NoApplicableCodeException().causedBy(ioe).withMessage(
+                    "Error while reading request! Message: %s", ioe.getMessage());
+        }
+    }
+
+    private AbstractServiceRequest<?> parseInsertObservation(final XMLStreamReader reader)
+            throws OwsExceptionReport, XMLStreamException, XmlException {
+        final Map<String, String> namespaces = new HashMap<String, String>();
+        XmlStreamReaderHelper.addNamespaces(reader, namespaces);
+        final InsertObservationDocument insertObservationDoc = InsertObservationDocument.Factory.newInstance();
+        final InsertObservationType insertObservationType = insertObservationDoc.addNewInsertObservation();
+        copyRootElement(reader, namespaces, insertObservationType);
+        final InsertObservationRequest insertObservationRequest = new InsertObservationRequest();
+        final Map<String, Time> phenomenonTimes = new HashMap<String, Time>();
+        final Map<String, TimeInstant> resultTimes = new HashMap<String, TimeInstant>();
+        final Map<String, AbstractFeature> features = new HashMap<String, AbstractFeature>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final boolean observation = QN_OBSERVATION.equals(reader.getName());
+            append(XmlStreamReaderHelper.parseElement(reader, namespaces), insertObservationType);
+            if (observation) {
+                // validate the request with the current observation and
+                // remove the observation afterwards, the decoded observation
+                // is kept in the request
+                XmlHelper.validateDocument(insertObservationDoc);
+                final OmObservation sosObservation = parseObservation(insertObservationType.getObservationArray(0));
+                SosDecoderv20.checkAndAddPhenomenonTime(sosObservation.getPhenomenonTime(), phenomenonTimes);
+                SosDecoderv20.checkAndAddResultTime(sosObservation.getResultTime(), resultTimes);
+                SosDecoderv20.checkAndAddFeatures(sosObservation.getObservationConstellation()
+                        .getFeatureOfInterest(), features);
+                insertObservationRequest.addObservation(sosObservation);
+                insertObservationType.removeObservation(0);
+            }
+        }
+        if (!insertObservationRequest.isSetObservation()) {
+            throw new InvalidParameterValueException().at(Sos2Constants.InsertObservationParams.observation)
+                    .withMessage("The request does not contain an observation");
+        }
+        insertObservationRequest.setService(insertObservationType.getService());
+        insertObservationRequest.setVersion(insertObservationType.getVersion());
+        if (insertObservationType.getOfferingArray() != null) {
+            insertObservationRequest.setOfferings(Arrays.asList(insertObservationType.getOfferingArray()));
+        }
+        insertObservationRequest.setExtensions(parseExtensibleRequest(insertObservationType));
+        SosDecoderv20.checkReferencedElements(insertObservationRequest.getObservations(), phenomenonTimes,
+                resultTimes, features);
+        return insertObservationRequest;
+    }
+
+    private OmObservation parseObservation(final Observation observation) throws OwsExceptionReport {
+        final Object decodedObject = CodingHelper.decodeXmlElement(observation.getOMObservation());
+        if (decodedObject instanceof OmObservation) {
+            return (OmObservation) decodedObject;
+        }
+        throw new InvalidParameterValueException().at(Sos2Constants.InsertObservationParams.observation)
+                .withMessage("The requested observation type (%s) is not supported by this server!",
+                        observation.getOMObservation().getDomNode().getNodeName());
+    }
+
+    private AbstractServiceRequest<?> parseInsertResult(final XMLStreamReader reader) throws OwsExceptionReport,
+            XMLStreamException, XmlException, IOException {
+        final Map<String, String> namespaces = new HashMap<String, String>();
+        XmlStreamReaderHelper.addNamespaces(reader, namespaces);
+        final InsertResultDocument insertResultDoc = InsertResultDocument.Factory.newInstance();
+        final InsertResultType insertResult = insertResultDoc.addNewInsertResult();
+        copyRootElement(reader, namespaces, insertResult);
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (QN_RESULT_VALUES.equals(reader.getName())) {
+                // validate the request with empty result values, the values
+                // are read by the DAO
+                insertResult.addNewResultValues();
+                XmlHelper.validateDocument(insertResultDoc);
+                final InsertResultRequest sosInsertResultRequest = new InsertResultRequest();
+                sosInsertResultRequest.setService(insertResult.getService());
+                sosInsertResultRequest.setVersion(insertResult.getVersion());
+                sosInsertResultRequest.setTemplateIdentifier(insertResult.getTemplate());
+                final XmlStreamTextReader resultValues = new XmlStreamTextReader(reader);
+                if (!resultValues.isEmpty()) {
+                    sosInsertResultRequest.setResultValuesReader(resultValues);
+                }
+                sosInsertResultRequest.setExtensions(parseExtensibleRequest(insertResult));
+                return sosInsertResultRequest;
+            }
+            append(XmlStreamReaderHelper.parseElement(reader, namespaces), insertResult);
+        }
+        // the request has no result values and is invalid
+        XmlHelper.validateDocument(insertResultDoc);
+        throw new InvalidParameterValueException().at(Sos2Constants.InsertResultParams.resultValues).withMessage(
+                "The request does not contain result values");
+    }
+
+    /**
+     * Copy the namespace declarations and attributes of the root element.
+     */
+    private void copyRootElement(final XMLStreamReader reader, final Map<String, String> namespaces,
+            final XmlObject element) {
+        final XmlCursor cursor = element.newCursor();
+        try {
+            cursor.toNextToken();
+            for (final Entry<String, String> namespace : namespaces.entrySet()) {
+                cursor.insertNamespace(namespace.getKey(), namespace.getValue());
+            }
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                cursor.insertAttributeWithValue(reader.getAttributeName(i), reader.getAttributeValue(i));
+            }
+        } finally {
+            cursor.dispose();
+        }
+        // set namespace for default XML type (e.g. xs:string, xs:integer,
+        // xs:boolean, ...)
+        final XmlCursor rootCursor = element.newCursor();
+        if (rootCursor.namespaceForPrefix(W3CConstants.NS_XS_PREFIX) == null) {
+            rootCursor.prefixForNamespace(W3CConstants.NS_XS);
+        }
+        rootCursor.dispose();
+    }
+
+    /**
+     * Append the root element of the parsed document to the element.
+     */
+    private void append(final XmlObject document, final XmlObject element) {
+        final XmlCursor source = document.newCursor();
+        final XmlCursor target = element.newCursor();
+        try {
+            source.toFirstChild();
+            target.toEndToken();
+            source.copyXml(target);
+        } finally {
+            source.dispose();
+            target.dispose();
+        }
+    }
+}
@@ -99,6 +99,7 @@ import org.n52.sos.ogc.swe.simpleType.SweTime;
 import org.n52.sos.ogc.swe.simpleType.SweTimeRange;
 import org.n52.sos.ogc.swes.SwesConstants;
 import org.n52.sos.util.CodingHelper;
+import org.n52.sos.util.SweHelper;
 import org.n52.sos.util.XmlHelper;
 import org.n52.sos.util.XmlOptionsHelper;
 import org.n52.sos.w3c.SchemaLocation;
@@ -324,37 +325,17 @@ public class SweCommonEncoderv20 extends AbstractXmlEncoder<Object> {
                                         SweConstants.NS_SWE_PREFIX), TextEncodingType.type);
             }
             if (sosDataArray.isSetValues()) {
-                xbDataArray.addNewValues().set(createValues(sosDataArray.getValues(), sosDataArray.getEncoding()));
+                xbDataArray.addNewValues().set(createValues(sosDataArray, sosDataArray.getEncoding()));
             }
             return xbDataArray;
         }
         return null;
     }
 
-    private XmlString createValues(final List<List<String>> values, final SweAbstractEncoding encoding) {
+    private XmlString createValues(final SweDataArray dataArray, final SweAbstractEncoding encoding) {
         // TODO How to deal with the decimal separator - is it an issue here?
-        final StringBuilder valueStringBuilder = new StringBuilder(256);
-        final SweTextEncoding textEncoding = (SweTextEncoding) encoding;
-        final String tokenSeparator = textEncoding.getTokenSeparator();
-        final String blockSeparator = textEncoding.getBlockSeparator();
-        for (final List<String> block : values) {
-            final StringBuilder blockStringBuilder = new StringBuilder();
-            for (final String token : block) {
-                blockStringBuilder.append(token);
-                blockStringBuilder.append(tokenSeparator);
-            }
-            String blockString = blockStringBuilder.toString();
-            // remove last token sep
-            blockString = blockString.substring(0, blockString.lastIndexOf(tokenSeparator));
-            valueStringBuilder.append(blockString);
-            valueStringBuilder.append(blockSeparator);
-        }
-        String valueString = valueStringBuilder.toString();
-        // remove last block sep
-        valueString = valueString.substring(0, valueString.lastIndexOf(blockSeparator));
-        // create XB result object
         final XmlString xbValueString = XmlString.Factory.newInstance();
-        xbValueString.setStringValue(valueString);
+        xbValueString.setStringValue(SweHelper.createTextValues(dataArray, (SweTextEncoding) encoding));
         return xbValueString;
     }
 
@@ -28,13 +28,20 @@
  */
 package org.n52.sos.encode.sos.v2;
 
+import java.io.OutputStream;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamException;
+
 import net.opengis.sos.x20.GetResultResponseDocument;
 import net.opengis.sos.x20.GetResultResponseType;
 
 import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.XmlString;
+import org.n52.sos.encode.EncodingValues;
+import org.n52.sos.encode.streaming.StreamingDataEncoder;
+import org.n52.sos.encode.streaming.sos.v2.GetResultResponseXmlStreamWriter;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.Sos2Constants;
 import org.n52.sos.ogc.sos.SosConstants;
@@ -50,13 +57,17 @@ import com.google.common.collect.Sets;
  * 
  * @since 4.0.0
  */
-public class GetResultResponseEncoder extends AbstractSosResponseEncoder<GetResultResponse> {
+public class GetResultResponseEncoder extends AbstractSosResponseEncoder<GetResultResponse> implements
+        StreamingDataEncoder {
     public GetResultResponseEncoder() {
         super(SosConstants.Operations.GetResult.name(), GetResultResponse.class);
     }
 
     @Override
     protected XmlObject create(GetResultResponse response) throws OwsExceptionReport {
+        if (response.hasStreamingData()) {
+            response.mergeStreamingData();
+        }
         GetResultResponseDocument doc = GetResultResponseDocument.Factory.newInstance(getXmlOptions());
         GetResultResponseType gtr = doc.addNewGetResultResponse();
         XmlObject resultValues = gtr.addNewResultValues();
@@ -68,6 +79,22 @@ public class GetResultResponseEncoder extends AbstractSosResponseEncoder<GetResu
         return doc;
     }
 
+    @Override
+    protected void create(GetResultResponse response, OutputStream outputStream, EncodingValues encodingValues)
+            throws OwsExceptionReport {
+        try {
+            encodingValues.setEncoder(this);
+            new GetResultResponseXmlStreamWriter().write(response, outputStream, encodingValues);
+        } catch (XMLStreamException xmlse) {
+            throw new NoApplicableCodeException().causedBy(xmlse);
+        }
+    }
+
+    @Override
+    public boolean forceStreaming() {
+        return true;
+    }
+
     @Override
     public Set<SchemaLocation> getConcreteSchemaLocations() {
         return Sets.newHashSet(Sos2Constants.SOS_GET_RESULT_SCHEMA_LOCATION);
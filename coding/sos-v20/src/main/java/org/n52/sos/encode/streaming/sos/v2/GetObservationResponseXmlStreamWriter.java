@@ -224,6 +224,8 @@ public class GetObservationResponseXmlStreamWriter extends XmlStreamWriter<GetOb
         start(Sos2StreamingConstants.OBSERVATION_DATA);
         writeNewLine();
         if (encoder instanceof StreamingEncoder<?, ?>) {
+            // the nested encoder writes directly to the output stream
+            flush();
             ((StreamingEncoder<XmlObject, OmObservation>) encoder).encode(observation, getOutputStream(),
                     encodingValues.setAsDocument(true).setEmbedded(true).setIndent(indent));
         } else {
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode.streaming.sos.v2;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.n52.sos.encode.EncodingValues;
+import org.n52.sos.encode.XmlStreamWriter;
+import org.n52.sos.encode.streaming.StreamingDataEncoder;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.sos.Sos2StreamingConstants;
+import org.n52.sos.response.GetResultResponse;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Implementation of {@link XmlStreamWriter} for {@link GetResultResponse}. The
+ * result values are escaped and written to the stream while they are created.
+ * 
+ * @since 4.3.0
+ *
+ */
+public class GetResultResponseXmlStreamWriter extends XmlStreamWriter<GetResultResponse> implements
+        StreamingDataEncoder {
+
+    /**
+     * Number of characters collected before they are written as one text
+     * event, e.g. to avoid whitespace only events for separators
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    private GetResultResponse response;
+
+    /**
+     * constructor
+     */
+    public GetResultResponseXmlStreamWriter() {
+    }
+
+    /**
+     * constructor
+     * 
+     * @param response
+     *            {@link GetResultResponse} to write to stream
+     */
+    public GetResultResponseXmlStreamWriter(GetResultResponse response) {
+        setResponse(response);
+    }
+
+    @Override
+    public void write(OutputStream out) throws XMLStreamException, OwsExceptionReport {
+        write(getResponse(), out);
+    }
+
+    @Override
+    public void write(OutputStream out, EncodingValues encodingValues) throws XMLStreamException, OwsExceptionReport {
+        write(getResponse(), out, encodingValues);
+    }
+
+    @Override
+    public void write(GetResultResponse response, OutputStream out) throws XMLStreamException, OwsExceptionReport {
+        write(response, out, new EncodingValues());
+    }
+
+    @Override
+    public void write(GetResultResponse response, OutputStream out, EncodingValues encodingValues)
+            throws XMLStreamException, OwsExceptionReport {
+        try {
+            init(out, encodingValues);
+            start(encodingValues.isEmbedded());
+            writeGetResultResponseDoc(response);
+            end();
+            finish();
+        } catch (XMLStreamException xmlse) {
+            throw new NoApplicableCodeException().causedBy(xmlse);
+        }
+    }
+
+    /**
+     * Set the {@link GetResultResponse} to be written to stream
+     * 
+     * @param response
+     *            {@link GetResultResponse} to write to stream
+     */
+    protected void setResponse(GetResultResponse response) {
+        this.response = response;
+    }
+
+    /**
+     * Get the {@link GetResultResponse} to write to stream
+     * 
+     * @return {@link GetResultResponse} to write
+     */
+    protected GetResultResponse getResponse() {
+        return response;
+    }
+
+    private void writeGetResultResponseDoc(GetResultResponse response) throws XMLStreamException,
+            OwsExceptionReport {
+        start(Sos2StreamingConstants.GET_RESULT_RESPONSE);
+        namespace(Sos2StreamingConstants.NS_SOS_PREFIX, Sos2StreamingConstants.NS_SOS_20);
+        schemaLocation(Sets.newHashSet(Sos2Constants.SOS_GET_RESULT_SCHEMA_LOCATION));
+        start(Sos2StreamingConstants.RESULT_VALUES);
+        ResultValuesAppendable resultValues = new ResultValuesAppendable();
+        try {
+            response.writeResultValues(resultValues);
+            resultValues.flushBuffer();
+        } catch (IOException ioe) {
+            if (ioe.getCause() instanceof XMLStreamException) {
+                throw (XMLStreamException) ioe.getCause();
+            }
+            throw new NoApplicableCodeException().causedBy(ioe).withMessage("Error while writing result values!");
+        }
+        endInline(Sos2StreamingConstants.RESULT_VALUES);
+        end(Sos2StreamingConstants.GET_RESULT_RESPONSE);
+    }
+
+    /**
+     * {@link Appendable} that writes the appended result values as escaped
+     * characters to the stream
+     */
+    private class ResultValuesAppendable implements Appendable {
+
+        private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            buffer.append(csq);
+            return checkBuffer();
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            buffer.append(csq, start, end);
+            return checkBuffer();
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            buffer.append(c);
+            return checkBuffer();
+        }
+
+        private Appendable checkBuffer() throws IOException {
+            if (buffer.length() >= BUFFER_SIZE) {
+                flushBuffer();
+            }
+            return this;
+        }
+
+        private void flushBuffer() throws IOException {
+            if (buffer.length() > 0) {
+                try {
+                    chars(buffer.toString(), true);
+                } catch (XMLStreamException xmlse) {
+                    throw new IOException(xmlse);
+                }
+                buffer.setLength(0);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.binding;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.request.GetCapabilitiesRequest;
+import org.n52.sos.util.http.EncodedObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+
+/**
+ * Cache of encoded GetCapabilities responses. Entries are keyed by everything
+ * of the request that influences the response: binding, service, version,
+ * accepted versions, sections, accepted formats, language, update sequence,
+ * capabilities id and the HTTP Accept header.
+ * 
+ * Requests with extensions other than the language are not cached. All
+ * entries are dropped by the {@link CapabilitiesResponseCacheInvalidator}, a
+ * response that was created before an invalidation is not cached.
+ * 
+ * @since 4.3.0
+ */
+@Configurable
+public class CapabilitiesResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CapabilitiesResponseCache.class);
+
+    private static final long MAXIMUM_SIZE = 100;
+
+    public static CapabilitiesResponseCache getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private final Cache<Key, EncodedObject> cache = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile boolean enabled = true;
+
+    private CapabilitiesResponseCache() {
+    }
+
+    @Setting(CapabilitiesResponseCacheSettings.CAPABILITIES_RESPONSE_CACHE_ENABLED)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Create the key for the request
+     * 
+     * @param binding
+     *            the binding the request was received by
+     * @param request
+     *            the request
+     * @param accept
+     *            the HTTP Accept header of the request, may be
+     *            <code>null</code>
+     * @return the key or <code>null</code> if the response should not be
+     *         cached
+     */
+    public Key createKey(Binding binding, GetCapabilitiesRequest request, String accept) {
+        if (!isEnabled() || !isCacheable(request)) {
+            return null;
+        }
+        return new Key(generation.get(), binding.getClass().getName(), request, accept);
+    }
+
+    public EncodedObject get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Cache the encoded response, if the cache was not invalidated since the
+     * key was created.
+     * 
+     * @param key
+     *            the key
+     * @param encoded
+     *            the encoded response
+     */
+    public void put(Key key, EncodedObject encoded) {
+        if (key.generation == generation.get()) {
+            cache.put(key, encoded);
+        }
+    }
+
+    public void invalidateAll() {
+        LOGGER.debug("Invalidating all cached GetCapabilities responses");
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private boolean isCacheable(GetCapabilitiesRequest request) {
+        if (request.getExtensionArray() != null && !request.getExtensionArray().isEmpty()) {
+            return false;
+        }
+        if (request.isSetExtensions()) {
+            return request.getExtensions().getExtensions().size() == 1 && request.isSetRequestedLanguage();
+        }
+        return true;
+    }
+
+    private static List<String> sorted(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> sorted = Lists.newArrayList(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Key of a cached response
+     */
+    public static class Key {
+        private final long generation;
+
+        private final String binding;
+
+        private final String service;
+
+        private final String version;
+
+        private final List<String> acceptVersions;
+
+        private final List<String> sections;
+
+        private final List<String> acceptFormats;
+
+        private final String language;
+
+        private final String updateSequence;
+
+        private final String capabilitiesId;
+
+        private final String accept;
+
+        Key(long generation, String binding, GetCapabilitiesRequest request, String accept) {
+            this.generation = generation;
+            this.binding = binding;
+            this.service = request.getService();
+            this.version = request.getVersion();
+            // the order of the accepted versions is the order of preference
+            this.acceptVersions = Lists.newArrayList(request.getAcceptVersions());
+            this.sections = sorted(request.getSections());
+            this.acceptFormats = sorted(request.getAcceptFormats());
+            this.language = request.getRequestedLanguage();
+            this.updateSequence = request.getUpdateSequence();
+            this.capabilitiesId = request.getCapabilitiesId();
+            this.accept = accept;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(generation, binding, service, version, acceptVersions, sections, acceptFormats,
+                    language, updateSequence, capabilitiesId, accept);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return generation == other.generation && Objects.equal(binding, other.binding)
+                    && Objects.equal(service, other.service) && Objects.equal(version, other.version)
+                    && Objects.equal(acceptVersions, other.acceptVersions)
+                    && Objects.equal(sections, other.sections) && Objects.equal(acceptFormats, other.acceptFormats)
+                    && Objects.equal(language, other.language)
+                    && Objects.equal(updateSequence, other.updateSequence)
+                    && Objects.equal(capabilitiesId, other.capabilitiesId) && Objects.equal(accept, other.accept);
+        }
+    }
+
+    private static class LazyHolder {
+        private static final CapabilitiesResponseCache INSTANCE = createInstance();
+
+        private LazyHolder() {
+        }
+
+        private static CapabilitiesResponseCache createInstance() {
+            final CapabilitiesResponseCache cache = new CapabilitiesResponseCache();
+            try {
+                SettingsManager.getInstance().configure(cache);
+            } catch (final ConfigurationException e) {
+                LOGGER.warn("Could not configure CapabilitiesResponseCache, responses are not cached", e);
+                cache.setEnabled(false);
+            }
+            return cache;
+        }
+    }
+}
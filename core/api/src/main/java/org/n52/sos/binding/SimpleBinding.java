@@ -45,6 +45,7 @@ import org.n52.sos.encode.ExceptionEncoderKey;
 import org.n52.sos.encode.OperationEncoderKey;
 import org.n52.sos.event.SosEventBus;
 import org.n52.sos.event.events.ExceptionEvent;
+import org.n52.sos.event.events.RequestEvent;
 import org.n52.sos.exception.HTTPException;
 import org.n52.sos.exception.ows.concrete.InvalidAcceptVersionsParameterException;
 import org.n52.sos.exception.ows.concrete.InvalidServiceOrVersionException;
@@ -64,6 +65,8 @@ import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.service.operator.ServiceOperator;
 import org.n52.sos.service.operator.ServiceOperatorKey;
 import org.n52.sos.service.operator.ServiceOperatorRepository;
+import org.n52.sos.util.http.EncodedObject;
+import org.n52.sos.util.http.HTTPHeaders;
 import org.n52.sos.util.http.HTTPStatus;
 import org.n52.sos.util.http.HTTPUtils;
 import org.n52.sos.util.http.MediaType;
@@ -256,6 +259,47 @@ public abstract class SimpleBinding extends Binding {
         HTTPUtils.writeObject(request, response, contentType, serviceResponse);
     }
 
+    /**
+     * Passes the request to its {@link ServiceOperator} and writes the
+     * response. GetCapabilities responses are served from the
+     * {@link CapabilitiesResponseCache} if possible.
+     * 
+     * @param request
+     *            the HTTP request
+     * @param response
+     *            the HTTP response
+     * @param serviceRequest
+     *            the parsed request
+     */
+    protected void receiveAndWriteResponse(HttpServletRequest request, HttpServletResponse response,
+            AbstractServiceRequest<?> serviceRequest) throws OwsExceptionReport, HTTPException, IOException {
+        if (serviceRequest instanceof GetCapabilitiesRequest) {
+            CapabilitiesResponseCache cache = CapabilitiesResponseCache.getInstance();
+            CapabilitiesResponseCache.Key key =
+                    cache.createKey(this, (GetCapabilitiesRequest) serviceRequest,
+                            request.getHeader(HTTPHeaders.ACCEPT));
+            if (key != null) {
+                EncodedObject encoded = cache.get(key);
+                if (encoded == null) {
+                    AbstractServiceResponse serviceResponse =
+                            getServiceOperator(serviceRequest).receiveRequest(serviceRequest);
+                    MediaType contentType =
+                            chooseResponseContentType(serviceResponse, HTTPUtils.getAcceptHeader(request),
+                                    getDefaultContentType());
+                    encoded = HTTPUtils.encodeObject(response, contentType, serviceResponse);
+                    cache.put(key, encoded);
+                } else {
+                    LOG.debug("Serving cached GetCapabilities response");
+                    // the operator is bypassed, so fire its event here
+                    SosEventBus.fire(new RequestEvent(serviceRequest));
+                }
+                HTTPUtils.writeObject(request, response, encoded);
+                return;
+            }
+        }
+        writeResponse(request, response, getServiceOperator(serviceRequest).receiveRequest(serviceRequest));
+    }
+
     protected Object encodeResponse(AbstractServiceResponse response, MediaType contentType) throws OwsExceptionReport {
         OperationEncoderKey key = new OperationEncoderKey(response.getOperationKey(), contentType);
         Encoder<Object, AbstractServiceResponse> encoder = CodingRepository.getInstance().getEncoder(key);
@@ -50,6 +50,7 @@ import org.n52.sos.ds.ConnectionProviderException;
 import org.n52.sos.encode.ProcedureDescriptionFormatKey;
 import org.n52.sos.encode.ResponseFormatKey;
 import org.n52.sos.event.SosEventBus;
+import org.n52.sos.event.events.ActivationChangeEvent;
 import org.n52.sos.event.events.SettingsChangeEvent;
 import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.ogc.ows.OwsExtendedCapabilitiesKey;
@@ -338,6 +339,7 @@ public abstract class AbstractSettingsManager extends SettingsManager {
         if (Configurator.getInstance() != null) {
             RequestOperatorRepository.getInstance().setActive(rokt, active);
         }
+        SosEventBus.fire(new ActivationChangeEvent(rokt, active));
     }
 
     @Override
@@ -347,6 +349,7 @@ public abstract class AbstractSettingsManager extends SettingsManager {
         if (Configurator.getInstance() != null) {
             CodingRepository.getInstance().setActive(rfkt, active);
         }
+        SosEventBus.fire(new ActivationChangeEvent(rfkt, active));
     }
 
     @Override
@@ -356,6 +359,7 @@ public abstract class AbstractSettingsManager extends SettingsManager {
         if (Configurator.getInstance() != null) {
             CodingRepository.getInstance().setActive(pdfkt, active);
         }
+        SosEventBus.fire(new ActivationChangeEvent(pdfkt, active));
     }
 
     @Override
@@ -365,6 +369,7 @@ public abstract class AbstractSettingsManager extends SettingsManager {
         if (Configurator.getInstance() != null) {
             BindingRepository.getInstance().setActive(bk, active);
         }
+        SosEventBus.fire(new ActivationChangeEvent(bk, active));
     }
     
     @Override
@@ -379,6 +384,7 @@ public abstract class AbstractSettingsManager extends SettingsManager {
         if (updateRepository && OfferingExtensionRepository.getInstance() != null) {
             OfferingExtensionRepository.getInstance().setActive(oek, active);
         }
+        SosEventBus.fire(new ActivationChangeEvent(oek, active));
     }
 
     @Override
@@ -393,6 +399,7 @@ public abstract class AbstractSettingsManager extends SettingsManager {
         if (updateRepository && OwsExtendedCapabilitiesRepository.getInstance() != null) {
             OwsExtendedCapabilitiesRepository.getInstance().setActive(oeck, active);
         }
+        SosEventBus.fire(new ActivationChangeEvent(oeck, active));
     }
     
     /**
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.decode;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
+
+import com.google.common.base.Objects;
+
+/**
+ * {@link DecoderKey} for decoders that decode a document from a
+ * {@link XMLStreamReader} positioned at the root element. The key is matched
+ * by the name of the root element.
+ * 
+ * @since 4.3.0
+ */
+public class XmlStreamReaderDecoderKey implements DecoderKey {
+    private final QName elementName;
+
+    public XmlStreamReaderDecoderKey(QName elementName) {
+        this.elementName = elementName;
+    }
+
+    public QName getElementName() {
+        return elementName;
+    }
+
+    @Override
+    public int getSimilarity(DecoderKey key) {
+        if (key != null && key.getClass() == getClass()
+                && Objects.equal(getElementName(), ((XmlStreamReaderDecoderKey) key).getElementName())) {
+            return 0;
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[element=%s]", getClass().getSimpleName(), getElementName());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj != null && getClass() == obj.getClass()) {
+            return Objects.equal(getElementName(), ((XmlStreamReaderDecoderKey) obj).getElementName());
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(5, 79, getElementName());
+    }
+}
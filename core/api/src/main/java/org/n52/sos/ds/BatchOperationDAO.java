@@ -28,6 +28,19 @@
  */
 package org.n52.sos.ds;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.InvalidAcceptVersionsParameterException;
 import org.n52.sos.exception.ows.concrete.InvalidServiceOrVersionException;
 import org.n52.sos.exception.ows.concrete.InvalidServiceParameterException;
@@ -41,41 +54,164 @@ import org.n52.sos.ogc.sos.SosConstants;
 import org.n52.sos.request.AbstractServiceRequest;
 import org.n52.sos.request.BatchRequest;
 import org.n52.sos.request.GetCapabilitiesRequest;
+import org.n52.sos.request.operator.AbstractTransactionalRequestOperator;
+import org.n52.sos.request.operator.RequestOperator;
+import org.n52.sos.request.operator.RequestOperatorRepository;
 import org.n52.sos.response.BatchResponse;
+import org.n52.sos.response.BatchResponse.ExceptionOrResponse;
 import org.n52.sos.service.operator.ServiceOperator;
 import org.n52.sos.service.operator.ServiceOperatorKey;
 import org.n52.sos.service.operator.ServiceOperatorRepository;
 import org.n52.sos.util.BatchConstants;
+import org.n52.sos.util.GroupedAndNamedThreadFactory;
+import org.n52.sos.util.Validation;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 
 /**
- * TODO JavaDoc
+ * Consecutive read-only sub-requests are executed in parallel (bounded by
+ * {@link BatchOperationSettings#BATCH_PARALLEL_REQUESTS}), transactional
+ * sub-requests are executed one after the other. The responses are always
+ * returned in the order of the sub-requests.
  * 
  * @author Christian Autermann <c.autermann@52north.org>
  * 
  * @since 4.0.0
  */
+@Configurable
 public class BatchOperationDAO extends AbstractOperationDAO {
+    private static final String THREAD_GROUP_NAME = "batch-request";
+
+    private int parallelRequests = 1;
+
+    private ExecutorService executor;
+
     public BatchOperationDAO() {
         super(SosConstants.SOS, BatchConstants.OPERATION_NAME);
     }
 
+    @Setting(BatchOperationSettings.BATCH_PARALLEL_REQUESTS)
+    public synchronized void setParallelRequests(int parallelRequests) throws ConfigurationException {
+        Validation.greaterZero("Parallel Batch sub-requests", parallelRequests);
+        if (this.parallelRequests != parallelRequests) {
+            this.parallelRequests = parallelRequests;
+            // running batches keep their executor, idle threads time out
+            this.executor = null;
+        }
+    }
+
+    protected synchronized ExecutorService getExecutor() {
+        if (executor == null && parallelRequests > 1) {
+            ThreadPoolExecutor e =
+                    new ThreadPoolExecutor(parallelRequests, parallelRequests, 60, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(), new GroupedAndNamedThreadFactory(THREAD_GROUP_NAME));
+            e.allowCoreThreadTimeOut(true);
+            executor = e;
+        }
+        return executor;
+    }
+
     public BatchResponse executeRequests(BatchRequest request) throws OwsExceptionReport {
         BatchResponse response = new BatchResponse();
         response.setService(request.getService());
         response.setVersion(request.getVersion());
+        ExecutorService executor = getExecutor();
+        List<AbstractServiceRequest<?>> readOnly = Lists.newArrayList();
         for (AbstractServiceRequest<?> r : request) {
-            try {
-                response.add(getServiceOperator(r).receiveRequest(r));
-            } catch (OwsExceptionReport e) {
-                response.add(e.setVersion(r.getVersion() != null ? r.getVersion() : request.getVersion()));
-                if (request.isStopAtFailure()) {
-                    break;
-                }
+            if (executor != null && isReadOnly(r)) {
+                readOnly.add(r);
+                continue;
+            }
+            if (!executeInParallel(executor, readOnly, request, response)) {
+                return response;
+            }
+            readOnly.clear();
+            ExceptionOrResponse eor = execute(r, request);
+            response.add(eor);
+            if (eor.isException() && request.isStopAtFailure()) {
+                return response;
             }
         }
+        executeInParallel(executor, readOnly, request, response);
         return response;
     }
 
+    /**
+     * Executes the read-only requests in parallel and adds the results to the
+     * response in the order of the requests.
+     * 
+     * @return {@code false} if the batch should be stopped because of a failed
+     *         request
+     */
+    private boolean executeInParallel(ExecutorService executor, List<AbstractServiceRequest<?>> requests,
+            final BatchRequest batch, BatchResponse response) throws OwsExceptionReport {
+        if (requests.isEmpty()) {
+            return true;
+        }
+        List<Future<ExceptionOrResponse>> futures = Lists.newArrayListWithCapacity(requests.size());
+        for (final AbstractServiceRequest<?> r : requests) {
+            futures.add(executor.submit(new Callable<ExceptionOrResponse>() {
+                @Override
+                public ExceptionOrResponse call() {
+                    return execute(r, batch);
+                }
+            }));
+        }
+        try {
+            for (Future<ExceptionOrResponse> future : futures) {
+                ExceptionOrResponse eor = future.get();
+                response.add(eor);
+                if (eor.isException() && batch.isStopAtFailure()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoApplicableCodeException().causedBy(e).withMessage("Interrupted while executing Batch request");
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        } finally {
+            // subsequent requests are not needed anymore if the batch stopped
+            for (Future<ExceptionOrResponse> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private ExceptionOrResponse execute(AbstractServiceRequest<?> r, BatchRequest batch) {
+        try {
+            return new ExceptionOrResponse(getServiceOperator(r).receiveRequest(r));
+        } catch (OwsExceptionReport e) {
+            return new ExceptionOrResponse(e.setVersion(r.getVersion() != null ? r.getVersion() : batch.getVersion()));
+        }
+    }
+
+    /**
+     * Checks if the request is handled by a non-transactional
+     * {@link RequestOperator}. Requests that can not be mapped to an operator
+     * are not considered read-only and are executed in order to produce the
+     * appropriate exception.
+     */
+    protected boolean isReadOnly(AbstractServiceRequest<?> request) {
+        if (request instanceof BatchRequest) {
+            return false;
+        }
+        try {
+            for (ServiceOperatorKey sok : request.getServiceOperatorKeyType()) {
+                RequestOperator ro =
+                        RequestOperatorRepository.getInstance().getRequestOperator(sok, request.getOperationName());
+                if (ro != null) {
+                    return !(ro instanceof AbstractTransactionalRequestOperator);
+                }
+            }
+        } catch (OwsExceptionReport e) {
+            // checked again when executing the request
+        }
+        return false;
+    }
+
     protected ServiceOperator getServiceOperator(AbstractServiceRequest<?> request) throws OwsExceptionReport {
         checkServiceOperatorKeys(request);
         for (ServiceOperatorKey sokt : request.getServiceOperatorKeyType()) {
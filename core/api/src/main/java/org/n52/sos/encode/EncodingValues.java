@@ -30,6 +30,8 @@ package org.n52.sos.encode;
 
 import java.util.Map;
 
+import javax.xml.stream.XMLStreamWriter;
+
 import org.n52.sos.ogc.sos.SosConstants.HelperValues;
 import org.n52.sos.util.CollectionHelper;
 import org.n52.sos.util.StringHelper;
@@ -66,6 +68,8 @@ public class EncodingValues {
     
     private Encoder<?, ?> encoder;
     
+    private XMLStreamWriter xmlStreamWriter;
+    
     public EncodingValues() {
         
     }
@@ -311,4 +315,27 @@ public class EncodingValues {
         return getEncoder() != null;
     }
 
+    /**
+     * @return the shared {@link XMLStreamWriter} streaming encoders should
+     *         write to instead of creating their own
+     */
+    public XMLStreamWriter getXmlStreamWriter() {
+        return xmlStreamWriter;
+    }
+
+    /**
+     * @param xmlStreamWriter
+     *            the shared {@link XMLStreamWriter} to set. The caller owns
+     *            the writer and is responsible to end the document and close
+     *            it.
+     */
+    public EncodingValues setXmlStreamWriter(XMLStreamWriter xmlStreamWriter) {
+        this.xmlStreamWriter = xmlStreamWriter;
+        return this;
+    }
+
+    public boolean isSetXmlStreamWriter() {
+        return getXmlStreamWriter() != null;
+    }
+
 }
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * {@link XMLStreamWriter} that does not serialize to text, e.g. because it
+ * forwards the events to a SAX handler.
+ * <p/>
+ * The writers of the {@link XmlStreamWriter}s do not escape characters, so
+ * escaped text and encoded XML fragments are both written with
+ * {@link #writeCharacters(String)}. For writers of this type the
+ * {@link XmlStreamWriter}s write the fragments with
+ * {@link #writeMarkup(String)} instead, the characters written with
+ * {@link #writeCharacters(String)} are escaped by
+ * {@link com.google.common.xml.XmlEscapers#xmlContentEscaper()}, and no
+ * indentation or line breaks are written.
+ * 
+ * @since 4.3.0
+ */
+public interface MarkupXMLStreamWriter extends XMLStreamWriter {
+
+    /**
+     * Write an encoded XML fragment in the current namespace context
+     * 
+     * @param markup
+     *            XML fragment, may start with an XML declaration
+     * @throws XMLStreamException
+     *             If the fragment is not well-formed or can not be written
+     */
+    void writeMarkup(String markup) throws XMLStreamException;
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output buffer of the {@link XmlStreamWriter}. Unlike a
+ * {@link java.io.BufferedOutputStream}, {@link #flush()} does not write the
+ * buffer, so the many flushes of a {@link javax.xml.stream.XMLStreamWriter}
+ * stay in memory. The buffer is written to the underlying stream when it is
+ * full or on {@link #flushOutput()}. Nested writers share the buffer of the
+ * outer writer.
+ * 
+ * @since 4.3.0
+ */
+class XmlOutputBuffer extends OutputStream {
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int count = 0;
+
+    /**
+     * Constructor
+     * 
+     * @param out
+     *            the underlying stream
+     * @param size
+     *            the size of the buffer in bytes
+     */
+    XmlOutputBuffer(OutputStream out, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The buffer size must be greater than zero!");
+        }
+        this.out = out;
+        this.buffer = new byte[size];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buffer.length) {
+            writeBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len >= buffer.length) {
+            // larger than the buffer, write directly
+            writeBuffer();
+            out.write(b, off, len);
+            return;
+        }
+        if (len > buffer.length - count) {
+            writeBuffer();
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    /**
+     * Does nothing, the buffer is written when it is full or on
+     * {@link #flushOutput()}.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Write the buffer and flush the underlying stream.
+     * 
+     * @throws IOException
+     *             if the underlying stream could not be written
+     */
+    void flushOutput() throws IOException {
+        writeBuffer();
+        out.flush();
+    }
+
+    /**
+     * Writes the buffer, the underlying stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        flushOutput();
+    }
+
+    private void writeBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.encode;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,13 +37,22 @@ import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
+import org.n52.sos.ogc.gml.time.TimePosition;
+import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.util.Constants;
+import org.n52.sos.util.DateTimeHelper;
 import org.n52.sos.w3c.W3CConstants;
 
+import com.google.common.escape.Escaper;
 import com.google.common.xml.XmlEscapers;
 
 /**
  * Abstract {@link XmlWriter} class for {@link XMLStreamWriter}
+ * <p/>
+ * The writer writes to an output buffer of the configured size, which is
+ * written to the client when it is full, after the configured number of
+ * elements or when the writing is finished. Nested writers, which write to the
+ * {@link #getOutputStream()} of this writer, share the buffer.
  *
  * @author Carsten Hollmann <c.hollmann@52north.org>
  * @since 4.0.2
@@ -50,17 +60,53 @@ import com.google.common.xml.XmlEscapers;
  */
 public abstract class XmlStreamWriter<S> extends XmlWriter<XMLStreamWriter, S> {
 
+    private static final Escaper ESCAPER = XmlEscapers.xmlContentEscaper();
+
     private final Map<String, String> prefixes = new HashMap<>();
 
     private XMLStreamWriter w;
 
+    private boolean ownsWriter = true;
+
+    private XmlOutputBuffer buffer;
+
+    private boolean ownsBuffer = false;
+
+    private int flushThreshold = 0;
+
+    private int elements = 0;
+
     @Override
     protected void init(OutputStream out, String encoding, EncodingValues encodingValues) throws XMLStreamException {
-        this.w = getXmlOutputFactory().createXMLStreamWriter(out, encoding);
-        this.out = out;
+        if (encodingValues.isSetXmlStreamWriter()) {
+            this.w = encodingValues.getXmlStreamWriter();
+            this.ownsWriter = false;
+            initBuffer(out, false);
+        } else {
+            initBuffer(out, true);
+            this.w = getXmlOutputFactory().createXMLStreamWriter(this.out, encoding);
+            this.ownsWriter = true;
+        }
         indent = encodingValues.getIndent();
     }
 
+    private void initBuffer(OutputStream out, boolean create) {
+        ServiceConfiguration configuration = ServiceConfiguration.getInstance();
+        this.flushThreshold = configuration.getStreamingEncodingFlushThreshold();
+        this.elements = 0;
+        this.ownsBuffer = false;
+        if (out instanceof XmlOutputBuffer) {
+            // nested writer, share the buffer of the outer writer
+            this.buffer = (XmlOutputBuffer) out;
+        } else if (create && configuration.getStreamingEncodingBufferSize() > 0) {
+            this.buffer = new XmlOutputBuffer(out, configuration.getStreamingEncodingBufferSize());
+            this.ownsBuffer = true;
+        } else {
+            this.buffer = null;
+        }
+        this.out = this.buffer != null ? this.buffer : out;
+    }
+
     @Override
     protected XMLStreamWriter getXmlWriter() {
         return w;
@@ -121,41 +167,131 @@ public abstract class XmlStreamWriter<S> extends XmlWriter<XMLStreamWriter, S> {
 
     @Override
     protected void chars(String chars, boolean escape) throws XMLStreamException {
-        if (escape) {
-            chars = XmlEscapers.xmlContentEscaper().escape(chars);
+        if (escape && needsEscaping(chars)) {
+            getXmlWriter().writeCharacters(ESCAPER.escape(chars));
+        } else {
+            getXmlWriter().writeCharacters(chars);
+        }
+    }
+
+    @Override
+    protected void rawText(String text) throws XMLStreamException {
+        if (getXmlWriter() instanceof MarkupXMLStreamWriter) {
+            ((MarkupXMLStreamWriter) getXmlWriter()).writeMarkup(text);
+        } else {
+            super.rawText(text);
         }
-        getXmlWriter().writeCharacters(chars);
+    }
+
+    @Override
+    protected void writeIndent(int level) throws XMLStreamException {
+        // markup writers do not serialize to text, formatting would be content
+        if (!(getXmlWriter() instanceof MarkupXMLStreamWriter)) {
+            super.writeIndent(level);
+        }
+    }
+
+    @Override
+    protected void writeNewLine() throws XMLStreamException {
+        if (getXmlWriter() instanceof MarkupXMLStreamWriter) {
+            flush();
+        } else {
+            super.writeNewLine();
+        }
+    }
+
+    @Override
+    protected void time(TimePosition time) throws XMLStreamException {
+        // ISO 8601 times contain no characters to escape
+        chars(DateTimeHelper.formatDateTime2IsoString(time.getTime()), false);
     }
 
     @Override
     protected void end(QName name) throws XMLStreamException {
         writeIndent(--indent);
         getXmlWriter().writeEndElement();
-        flush();
+        flushIfThresholdReached();
     }
 
     @Override
     protected void endInline(QName name) throws XMLStreamException {
         --indent;
         getXmlWriter().writeEndElement();
-        flush();
+        flushIfThresholdReached();
     }
 
     @Override
     protected void end() throws XMLStreamException {
-        getXmlWriter().writeEndDocument();
+        // a shared writer is ended by its owner
+        if (ownsWriter) {
+            getXmlWriter().writeEndDocument();
+        }
         flush();
     }
 
     @Override
     protected void finish() throws XMLStreamException {
         flush();
-        getXmlWriter().close();
+        if (ownsWriter) {
+            getXmlWriter().close();
+        }
+        // a shared buffer is written by its owner
+        if (ownsBuffer) {
+            flushOutput();
+        }
     }
 
+    /**
+     * Flush the written elements to the output buffer, so that content written
+     * to the {@link #getOutputStream()} follows them. The buffer is not
+     * written to the client, see {@link #flushOutput()}.
+     */
     @Override
     protected void flush() throws XMLStreamException {
         getXmlWriter().flush();
     }
 
+    /**
+     * Flush the written elements and the output buffer to the client, e.g. to
+     * keep the connection alive.
+     *
+     * @throws XMLStreamException
+     *             If an error occurs when writing to {@link OutputStream}
+     */
+    protected void flushOutput() throws XMLStreamException {
+        getXmlWriter().flush();
+        if (buffer != null) {
+            try {
+                buffer.flushOutput();
+            } catch (IOException ioe) {
+                throw new XMLStreamException(ioe);
+            }
+        }
+    }
+
+    private void flushIfThresholdReached() throws XMLStreamException {
+        if (flushThreshold > 0 && ++elements >= flushThreshold) {
+            elements = 0;
+            flushOutput();
+        }
+    }
+
+    /**
+     * Fast path for the common tokens like numbers and times, which contain no
+     * characters the {@link XmlEscapers#xmlContentEscaper()} replaces.
+     */
+    private static boolean needsEscaping(String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x20) {
+                if (c != '\t' && c != '\n' && c != '\r') {
+                    return true;
+                }
+            } else if (c == '&' || c == '<' || c == '>' || c > '\uFFFD') {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -74,7 +74,10 @@ public abstract class XmlWriter<T, S> {
 
     protected static String XML_FRAGMENT = "xml-fragment";
 
-    private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    /**
+     * shared by all writers, configured once and only used to create writers
+     */
+    private static final XMLOutputFactory OUTPUT_FACTORY = createXmlOutputFactory();
 
     /**
      * Encode and write element to the {@link OutputStream}
@@ -474,8 +477,14 @@ public abstract class XmlWriter<T, S> {
      * @return the {@link XMLOutputFactory}
      */
     protected XMLOutputFactory getXmlOutputFactory() {
-        this.outputFactory.setProperty("escapeCharacters", false);
-        return this.outputFactory;
+        return OUTPUT_FACTORY;
+    }
+
+    private static XMLOutputFactory createXmlOutputFactory() {
+        XMLOutputFactory factory = XMLOutputFactory.newInstance();
+        // the writers escape the characters themselves
+        factory.setProperty("escapeCharacters", false);
+        return factory;
     }
 
     protected void addXlinkHrefAttr(String value) throws XMLStreamException {
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.event;
+
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.BooleanSettingDefinition;
+import org.n52.sos.config.settings.ChoiceSettingDefinition;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
+import org.n52.sos.service.MiscSettings;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Settings for the dispatching of the {@link SosEventBus}.
+ *
+ * @since 4.3.0
+ */
+public class EventBusSettings implements SettingDefinitionProvider {
+    public static final String EVENT_BUS_ASYNCHRONOUS = "misc.eventBus.asynchronous";
+
+    public static final String EVENT_BUS_QUEUE_CAPACITY = "misc.eventBus.queueCapacity";
+
+    public static final String EVENT_BUS_OVERFLOW_POLICY = "misc.eventBus.overflowPolicy";
+
+    public static final BooleanSettingDefinition EVENT_BUS_ASYNCHRONOUS_DEFINITION = new BooleanSettingDefinition()
+            .setGroup(MiscSettings.GROUP)
+            .setOrder(ORDER_17)
+            .setKey(EVENT_BUS_ASYNCHRONOUS)
+            .setDefaultValue(false)
+            .setTitle("Asynchronous event handling")
+            .setDescription("Should events (e.g. inserted observations) be handled in background threads instead of "
+                            + "the request thread? This reduces the response times of transactional requests, but "
+                            + "the content cache may be updated shortly after the response was sent. Each "
+                            + "listener still handles the events in the order they were fired.");
+
+    public static final IntegerSettingDefinition EVENT_BUS_QUEUE_CAPACITY_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(MiscSettings.GROUP)
+            .setOrder(ORDER_18)
+            .setKey(EVENT_BUS_QUEUE_CAPACITY)
+            .setDefaultValue(1000)
+            .setMinimum(1)
+            .setTitle("Event queue capacity")
+            .setDescription("The maximum number of events waiting to be handled by a single listener if events are "
+                            + "handled asynchronously.");
+
+    public static final ChoiceSettingDefinition EVENT_BUS_OVERFLOW_POLICY_DEFINITION = new ChoiceSettingDefinition()
+            .addOption(SosEventBus.OverflowPolicy.CALLER_RUNS.name(), "Handle in the request thread")
+            .addOption(SosEventBus.OverflowPolicy.BLOCK.name(), "Wait for free queue space")
+            .addOption(SosEventBus.OverflowPolicy.DISCARD.name(), "Discard the event")
+            .setGroup(MiscSettings.GROUP)
+            .setOrder(ORDER_19)
+            .setKey(EVENT_BUS_OVERFLOW_POLICY)
+            .setDefaultValue(SosEventBus.OverflowPolicy.CALLER_RUNS.name())
+            .setTitle("Event queue overflow policy")
+            .setDescription("What to do with an event if the queue of a listener is full. Handling it in the "
+                            + "request thread may change the order in which the listener sees the events, "
+                            + "waiting keeps the order but delays the request and discarded events are lost.");
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return ImmutableSet.<SettingDefinition<?, ?>> of(EVENT_BUS_ASYNCHRONOUS_DEFINITION,
+                EVENT_BUS_QUEUE_CAPACITY_DEFINITION, EVENT_BUS_OVERFLOW_POLICY_DEFINITION);
+    }
+}
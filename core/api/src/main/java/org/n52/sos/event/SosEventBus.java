@@ -28,40 +28,82 @@
  */
 package org.n52.sos.event;
 
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.util.ClassHelper;
 import org.n52.sos.util.GroupedAndNamedThreadFactory;
 import org.n52.sos.util.MultiMaps;
 import org.n52.sos.util.SetMultiMap;
+import org.n52.sos.util.Validation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.Maps;
+
 /**
+ * Dispatches {@link SosEvent}s to the registered {@link SosEventListener}s.
+ * <p/>
+ * Events are handled in the firing thread by default. If asynchronous
+ * execution is enabled, every listener gets its own single threaded executor
+ * with a bounded queue, so a listener handles the events in the order they
+ * were fired and a slow listener does not delay the others. The
+ * {@link OverflowPolicy} defines what happens if the queue of a listener is
+ * full.
+ * <p/>
+ * The listeners for each event class are resolved once and cached until the
+ * next (un)registration, so firing an event does not allocate anything in
+ * synchronous mode.
+ *
  * @author Christian Autermann <c.autermann@52north.org>
  * 
  * @since 4.0.0
  */
+@Configurable
 public class SosEventBus {
     private static final Logger LOG = LoggerFactory.getLogger(SosEventBus.class);
 
-    private static final boolean ASYNCHRONOUS_EXECUTION = false;
-
-    private static final int THREAD_POOL_SIZE = 3;
-
     private static final String THREAD_GROUP_NAME = "SosEventBus-Worker";
 
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static final ListenerExecutor[] NO_LISTENERS = new ListenerExecutor[0];
+
+    /**
+     * Handling of events that do not fit into the queue of a listener.
+     *
+     * @since 4.3.0
+     */
+    public enum OverflowPolicy {
+        /**
+         * Handle the event in the firing thread, it may overtake queued events
+         */
+        CALLER_RUNS,
+        /**
+         * Wait for free queue space, keeps the order but delays the firing
+         * thread
+         */
+        BLOCK,
+        /**
+         * Drop the event and log a warning
+         */
+        DISCARD
+    }
+
     public static SosEventBus getInstance() {
         return LazyHolder.INSTANCE;
     }
@@ -90,16 +132,20 @@ public class SosEventBus {
         return true;
     }
 
-    private final ClassCache classCache = new ClassCache();
+    private final Object registrationLock = new Object();
 
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SetMultiMap<Class<? extends SosEvent>, SosEventListener> listeners = MultiMaps.newSetMultiMap();
 
-    private final Executor executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE, new GroupedAndNamedThreadFactory(
-            THREAD_GROUP_NAME));
+    private final Map<SosEventListener, ListenerExecutor> listenerExecutors = Maps.newHashMap();
 
-    private final SetMultiMap<Class<? extends SosEvent>, SosEventListener> listeners = MultiMaps.newSetMultiMap();
+    private final ConcurrentMap<Class<? extends SosEvent>, ListenerExecutor[]> dispatchCache =
+            new ConcurrentHashMap<Class<? extends SosEvent>, ListenerExecutor[]>();
+
+    private volatile boolean asynchronous = false;
 
-    private final Queue<HandlerExecution> queue = new ConcurrentLinkedQueue<HandlerExecution>();
+    private volatile int queueCapacity = 1000;
+
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
 
     private SosEventBus() {
         loadListenerImplementations();
@@ -117,68 +163,94 @@ public class SosEventBus {
         }
     }
 
-    private Set<SosEventListener> getListenersForEvent(final SosEvent event) {
-        final LinkedList<SosEventListener> result = new LinkedList<SosEventListener>();
-        lock.readLock().lock();
+    @Setting(EventBusSettings.EVENT_BUS_ASYNCHRONOUS)
+    public void setAsynchronous(final boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    @Setting(EventBusSettings.EVENT_BUS_QUEUE_CAPACITY)
+    public void setQueueCapacity(final int queueCapacity) throws ConfigurationException {
+        Validation.greaterZero("Event queue capacity", queueCapacity);
+        if (this.queueCapacity != queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            synchronized (registrationLock) {
+                // queued events are still handled by the old executors
+                for (final ListenerExecutor listenerExecutor : listenerExecutors.values()) {
+                    listenerExecutor.shutdown();
+                }
+            }
+        }
+    }
+
+    @Setting(EventBusSettings.EVENT_BUS_OVERFLOW_POLICY)
+    public void setOverflowPolicy(final String overflowPolicy) throws ConfigurationException {
         try {
-            for (final Class<? extends SosEvent> eventType : classCache.getClasses(event.getClass())) {
-                final Set<SosEventListener> listenersForClass = listeners.get(eventType);
+            this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy);
+        } catch (final IllegalArgumentException e) {
+            throw new ConfigurationException(String.format("Unknown event queue overflow policy: %s",
+                    overflowPolicy), e);
+        }
+    }
 
+    private ListenerExecutor[] getListenersForEvent(final Class<? extends SosEvent> eventClass) {
+        final ListenerExecutor[] cached = dispatchCache.get(eventClass);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (registrationLock) {
+            final Set<ListenerExecutor> result = new LinkedHashSet<ListenerExecutor>();
+            for (final Class<? extends SosEvent> eventType : ClassHelper.flattenPartialHierachy(SosEvent.class,
+                    eventClass)) {
+                final Set<SosEventListener> listenersForClass = listeners.get(eventType);
                 if (listenersForClass != null) {
-                    LOG.trace("Adding {} Listeners for event {} (eventType={})", listenersForClass.size(), event,
-                            eventType);
-                    result.addAll(listenersForClass);
+                    LOG.trace("Adding {} Listeners for event class {} (eventType={})", listenersForClass.size(),
+                            eventClass, eventType);
+                    for (final SosEventListener listener : listenersForClass) {
+                        result.add(listenerExecutors.get(listener));
+                    }
                 } else {
-                    LOG.trace("Adding 0 Listeners for event {} (eventType={})", event, eventType);
+                    LOG.trace("Adding 0 Listeners for event class {} (eventType={})", eventClass, eventType);
                 }
-
             }
-        } finally {
-            lock.readLock().unlock();
+            final ListenerExecutor[] resolved =
+                    result.isEmpty() ? NO_LISTENERS : result.toArray(new ListenerExecutor[result.size()]);
+            dispatchCache.put(eventClass, resolved);
+            return resolved;
         }
-        return new HashSet<SosEventListener>(result);
     }
 
     public void submit(final SosEvent event) {
-        boolean submittedEvent = false;
         if (!checkEvent(event)) {
             return;
         }
-        lock.readLock().lock();
-        try {
-            for (final SosEventListener listener : getListenersForEvent(event)) {
-                submittedEvent = true;
-                LOG.debug("Queueing Event {} for Listener {}", event, listener);
-                queue.offer(new HandlerExecution(event, listener));
-            }
-        } finally {
-            lock.readLock().unlock();
+        final ListenerExecutor[] listenersForEvent = getListenersForEvent(event.getClass());
+        if (listenersForEvent.length == 0) {
+            LOG.debug("No Listeners for SosEvent {}", event);
+            return;
         }
-        HandlerExecution r;
-        while ((r = queue.poll()) != null) {
-            if (ASYNCHRONOUS_EXECUTION) {
-                executor.execute(r);
+        final boolean async = asynchronous;
+        for (final ListenerExecutor listener : listenersForEvent) {
+            if (async) {
+                listener.submit(event);
             } else {
-                r.run();
+                listener.handle(event);
             }
         }
-        if (!submittedEvent) {
-            LOG.debug("No Listeners for SosEvent {}", event);
-        }
     }
 
     public void register(final SosEventListener listener) {
         if (!checkListener(listener)) {
             return;
         }
-        lock.writeLock().lock();
-        try {
+        synchronized (registrationLock) {
+            if (!listenerExecutors.containsKey(listener)) {
+                listenerExecutors.put(listener, new ListenerExecutor(listener));
+            }
             for (final Class<? extends SosEvent> eventType : listener.getTypes()) {
                 LOG.debug("Subscibing Listener {} to EventType {}", listener, eventType);
                 listeners.add(eventType, listener);
             }
-        } finally {
-            lock.writeLock().unlock();
+            dispatchCache.clear();
         }
     }
 
@@ -186,80 +258,135 @@ public class SosEventBus {
         if (!checkListener(listener)) {
             return;
         }
-        lock.writeLock().lock();
-        try {
+        synchronized (registrationLock) {
             for (final Class<? extends SosEvent> eventType : listener.getTypes()) {
                 final Set<SosEventListener> listenersForKey = listeners.get(eventType);
-                if (listenersForKey.contains(listener)) {
+                if (listenersForKey != null && listenersForKey.contains(listener)) {
                     LOG.debug("Unsubscibing Listener {} from EventType {}", listener, eventType);
                     listenersForKey.remove(listener);
                 } else {
                     LOG.warn("Listener {} was not registered for SosEvent Type {}", listener, eventType);
                 }
             }
-        } finally {
-            lock.writeLock().unlock();
+            final ListenerExecutor listenerExecutor = listenerExecutors.remove(listener);
+            if (listenerExecutor != null) {
+                listenerExecutor.shutdown();
+            }
+            dispatchCache.clear();
         }
     }
 
     private static class LazyHolder {
-        private static final SosEventBus INSTANCE = new SosEventBus();
+        private static final SosEventBus INSTANCE = createInstance();
 
         private LazyHolder() {}
+
+        private static SosEventBus createInstance() {
+            final SosEventBus eventBus = new SosEventBus();
+            try {
+                SettingsManager.getInstance().configure(eventBus);
+            } catch (final ConfigurationException e) {
+                LOG.warn("Could not configure SosEventBus, handling events synchronously", e);
+            }
+            return eventBus;
+        }
     }
 
-    private class ClassCache {
-        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Handles the events of a single listener, asynchronously with a lazily
+     * created single threaded executor.
+     */
+    private class ListenerExecutor implements RejectedExecutionHandler {
+        private final SosEventListener listener;
 
-        private final SetMultiMap<Class<? extends SosEvent>, Class<? extends SosEvent>> cache = MultiMaps.newSetMultiMap();
+        private ThreadPoolExecutor executor;
+
+        ListenerExecutor(final SosEventListener listener) {
+            this.listener = listener;
+        }
 
-        public Set<Class<? extends SosEvent>> getClasses(final Class<? extends SosEvent> eventClass) {
-            lock.readLock().lock();
+        void handle(final SosEvent event) {
             try {
-                final Set<Class<? extends SosEvent>> r = cache.get(eventClass);
-                if (r != null) {
-                    return r;
-                }
-            } finally {
-                lock.readLock().unlock();
+                LOG.debug("Submitting Event {} to Listener {}", event, listener);
+                listener.handle(event);
+            } catch (final Throwable t) {
+                LOG.error(String.format("Error handling event %s by handler %s", event, listener), t);
             }
-            lock.writeLock().lock();
-            try {
-                Set<Class<? extends SosEvent>> r = cache.get(eventClass);
-                if (r != null) {
-                    return r;
+        }
+
+        void submit(final SosEvent event) {
+            LOG.debug("Queueing Event {} for Listener {}", event, listener);
+            getExecutor().execute(new HandlerExecution(event, this));
+        }
+
+        private synchronized ThreadPoolExecutor getExecutor() {
+            if (executor == null) {
+                executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<Runnable>(queueCapacity), new GroupedAndNamedThreadFactory(
+                                THREAD_GROUP_NAME), this);
+                executor.allowCoreThreadTimeOut(true);
+            }
+            return executor;
+        }
+
+        synchronized void shutdown() {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+
+        @Override
+        public void rejectedExecution(final Runnable r, final ThreadPoolExecutor rejecting) {
+            if (rejecting.isShutdown()) {
+                // the executor was replaced or the listener unregistered meanwhile
+                r.run();
+                return;
+            }
+            switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    rejecting.getQueue().put(r);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOG.warn("Interrupted while waiting for queue space, discarding {}", r);
                 }
-                r = flatten(eventClass);
-                cache.put(eventClass, r);
-                return r;
-            } finally {
-                lock.writeLock().unlock();
+                break;
+            case DISCARD:
+                LOG.warn("Event queue of Listener {} is full, discarding {}", listener, r);
+                break;
+            case CALLER_RUNS:
+            default:
+                LOG.debug("Event queue of Listener {} is full, handling {} in the firing thread", listener, r);
+                r.run();
+                break;
             }
         }
 
-        private Set<Class<? extends SosEvent>> flatten(final Class<? extends SosEvent> eventClass) {
-            return ClassHelper.flattenPartialHierachy(SosEvent.class, eventClass);
+        @Override
+        public String toString() {
+            return listener.toString();
         }
     }
 
-    private class HandlerExecution implements Runnable {
+    private static class HandlerExecution implements Runnable {
         private final SosEvent event;
 
-        private final SosEventListener listener;
+        private final ListenerExecutor listener;
 
-        HandlerExecution(final SosEvent event, final SosEventListener listener) {
+        HandlerExecution(final SosEvent event, final ListenerExecutor listener) {
             this.event = event;
             this.listener = listener;
         }
 
         @Override
         public void run() {
-            try {
-                LOG.debug("Submitting Event {} to Listener {}", event, listener);
-                listener.handle(event);
-            } catch (final Throwable t) {
-                LOG.error(String.format("Error handling event %s by handler %s", event, listener), t);
-            }
+            listener.handle(event);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s for %s", event, listener);
         }
     }
 }
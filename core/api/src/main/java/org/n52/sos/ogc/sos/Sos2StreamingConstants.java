@@ -36,7 +36,13 @@ public interface Sos2StreamingConstants extends Sos2Constants {
     
     public static final String EN_OBSERVATION_DATA = "observationData";
 
+    public static final String EN_RESULT_VALUES = "resultValues";
+
     public static final QName GET_OBSERVATION_RESPONSE = new QName(NS_SOS_20, EN_GET_OBSERVATION_RESPONSE, NS_SOS_PREFIX);
 
     public static final QName OBSERVATION_DATA = new QName(NS_SOS_20, EN_OBSERVATION_DATA, NS_SOS_PREFIX);
+
+    public static final QName GET_RESULT_RESPONSE = new QName(NS_SOS_20, EN_GET_RESULT_RESPONSE, NS_SOS_PREFIX);
+
+    public static final QName RESULT_VALUES = new QName(NS_SOS_20, EN_RESULT_VALUES, NS_SOS_PREFIX);
 }
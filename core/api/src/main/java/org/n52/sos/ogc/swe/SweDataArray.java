@@ -102,7 +102,7 @@ public class SweDataArray extends SweAbstractDataComponent {
     public SweCount getElementCount() {
         SweCount elementCount = new SweCount();
         if (isSetValues()) {
-            elementCount.setValue(values.size());
+            elementCount.setValue(getValues().size());
         } else if (isSetElementCount()) {
             elementCount = this.elementCount;
         } else {
@@ -0,0 +1,405 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.swe;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.n52.sos.exception.ows.concrete.DateTimeParseException;
+import org.n52.sos.util.DateTimeHelper;
+
+/**
+ * {@link SweDataArray} for numeric blocks that stores the tokens column-wise
+ * in primitive arrays instead of a {@link List} of {@link String} lists. Each
+ * block consists of a time stamp (milliseconds since epoch) and a fixed number
+ * of numeric fields. The time stamp is encoded as leading ISO 8601 token only
+ * if the array is created with a time token, the element type has to contain
+ * a matching time field in that case.
+ * 
+ * Encoders should format the values with
+ * {@link #appendBlock(int, StringBuilder, String)} or read them with
+ * {@link #getDouble(int, int)}. {@link #getValues()} returns a read-only view
+ * that creates the {@link String} tokens on access, blocks of {@link String}
+ * tokens are converted to numbers when added. Integral values are stored
+ * exactly up to 2^53.
+ * 
+ * @since 4.3.0
+ */
+public class SweNumericDataArray extends SweDataArray {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final byte UNKNOWN = 0;
+
+    private static final byte INTEGRAL = 1;
+
+    private static final byte FLOAT = 2;
+
+    private static final byte DOUBLE = 3;
+
+    private final int fieldCount;
+
+    private final boolean timeToken;
+
+    private final double[][] columns;
+
+    private final byte[] columnTypes;
+
+    private long[] timestamps;
+
+    private int size;
+
+    /**
+     * @param fieldCount
+     *            Number of numeric fields of each block
+     */
+    public SweNumericDataArray(int fieldCount) {
+        this(fieldCount, false);
+    }
+
+    /**
+     * @param fieldCount
+     *            Number of numeric fields of each block
+     * @param timeToken
+     *            <code>true</code>, if the time stamp should be encoded as
+     *            first token of each block
+     */
+    public SweNumericDataArray(int fieldCount, boolean timeToken) {
+        if (fieldCount < 1) {
+            throw new IllegalArgumentException("fieldCount must be greater than zero");
+        }
+        this.fieldCount = fieldCount;
+        this.timeToken = timeToken;
+        this.columns = new double[fieldCount][INITIAL_CAPACITY];
+        this.columnTypes = new byte[fieldCount];
+        this.timestamps = new long[INITIAL_CAPACITY];
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return <code>true</code>, if the time stamp is encoded as first token
+     *         of each block
+     */
+    public boolean isSetTimeToken() {
+        return timeToken;
+    }
+
+    /**
+     * @return Number of blocks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a block
+     * 
+     * @param timestamp
+     *            Time stamp of the block
+     * @param values
+     *            One value for each field, <code>null</code> values are stored
+     *            as {@link Double#NaN}
+     */
+    public void add(long timestamp, Number... values) {
+        if (values.length != fieldCount) {
+            throw new IllegalArgumentException(String.format("Expected %d values but got %d", fieldCount,
+                    values.length));
+        }
+        ensureCapacity(size + 1);
+        timestamps[size] = timestamp;
+        for (int i = 0; i < fieldCount; i++) {
+            columns[i][size] = store(i, values[i]);
+        }
+        size++;
+    }
+
+    /**
+     * Add a block of an array with a single field
+     * 
+     * @param timestamp
+     *            Time stamp of the block
+     * @param value
+     *            Value, <code>null</code> is stored as {@link Double#NaN}
+     */
+    public void add(long timestamp, Number value) {
+        if (fieldCount != 1) {
+            throw new IllegalArgumentException(String.format("Expected %d values but got 1", fieldCount));
+        }
+        ensureCapacity(size + 1);
+        timestamps[size] = timestamp;
+        columns[0][size] = store(0, value);
+        size++;
+    }
+
+    /**
+     * Add a block of tokens. The tokens are converted to numbers (and the
+     * leading ISO 8601 time token to a time stamp if the array has a time
+     * token), <code>NaN</code> or empty tokens are stored as
+     * {@link Double#NaN}.
+     * 
+     * @throws IllegalArgumentException
+     *             if the block has the wrong size or a token can not be
+     *             converted
+     */
+    @Override
+    public boolean add(List<String> blockOfTokensToAddAtTheEnd) {
+        final int tokenCount = timeToken ? fieldCount + 1 : fieldCount;
+        if (blockOfTokensToAddAtTheEnd == null || blockOfTokensToAddAtTheEnd.size() != tokenCount) {
+            throw new IllegalArgumentException(String.format("Expected %d tokens but got %s", tokenCount,
+                    blockOfTokensToAddAtTheEnd == null ? null : blockOfTokensToAddAtTheEnd.size()));
+        }
+        final Number[] values = new Number[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            values[i] = parseNumber(blockOfTokensToAddAtTheEnd.get(timeToken ? i + 1 : i));
+        }
+        add(timeToken ? parseTimestamp(blockOfTokensToAddAtTheEnd.get(0)) : 0L, values);
+        return true;
+    }
+
+    /**
+     * Add blocks of tokens, see {@link #add(List)}
+     */
+    @Override
+    public boolean addAll(List<List<String>> newValues) {
+        for (final List<String> block : newValues) {
+            add(block);
+        }
+        return !newValues.isEmpty();
+    }
+
+    /**
+     * Replace all blocks with blocks of tokens, see {@link #add(List)}
+     */
+    @Override
+    public SweDataArray setValues(List<List<String>> values) {
+        size = 0;
+        Arrays.fill(columnTypes, UNKNOWN);
+        if (values != null) {
+            addAll(values);
+        }
+        return this;
+    }
+
+    public long getTimestamp(int block) {
+        checkBlock(block);
+        return timestamps[block];
+    }
+
+    /**
+     * @param block
+     *            Block index
+     * @return Time stamp of the block formatted as ISO 8601 string
+     */
+    public String getTimeToken(int block) {
+        return DateTimeHelper.formatDateTime2IsoString(new DateTime(getTimestamp(block), DateTimeZone.UTC));
+    }
+
+    public double getDouble(int block, int field) {
+        checkBlock(block);
+        return columns[field][block];
+    }
+
+    /**
+     * @param field
+     *            Field index
+     * @return <code>true</code>, if the values of the field were added as
+     *         integral numbers (e.g. {@link Integer} or {@link Long})
+     */
+    public boolean isIntegral(int field) {
+        return columnTypes[field] == INTEGRAL;
+    }
+
+    /**
+     * Append the tokens of a block, formatted like the {@link Number#toString()}
+     * of the added values
+     * 
+     * @param block
+     *            Block index
+     * @param builder
+     *            Builder to append to
+     * @param tokenSeparator
+     *            Separator between the tokens
+     * @return the builder
+     */
+    public StringBuilder appendBlock(int block, StringBuilder builder, String tokenSeparator) {
+        checkBlock(block);
+        if (timeToken) {
+            builder.append(getTimeToken(block));
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0 || timeToken) {
+                builder.append(tokenSeparator);
+            }
+            appendToken(block, i, builder);
+        }
+        return builder;
+    }
+
+    /**
+     * Append all blocks
+     * 
+     * @param builder
+     *            Builder to append to
+     * @param tokenSeparator
+     *            Separator between the tokens of a block
+     * @param blockSeparator
+     *            Separator between the blocks
+     * @return the builder
+     */
+    public StringBuilder appendBlocks(StringBuilder builder, String tokenSeparator, String blockSeparator) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(blockSeparator);
+            }
+            appendBlock(i, builder, tokenSeparator);
+        }
+        return builder;
+    }
+
+    @Override
+    public List<List<String>> getValues() {
+        if (size == 0) {
+            return null;
+        }
+        return new AbstractList<List<String>>() {
+            @Override
+            public List<String> get(int index) {
+                final List<String> block = new ArrayList<String>(timeToken ? fieldCount + 1 : fieldCount);
+                if (timeToken) {
+                    block.add(getTimeToken(index));
+                }
+                for (int i = 0; i < fieldCount; i++) {
+                    block.add(appendToken(index, i, new StringBuilder()).toString());
+                }
+                return block;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean isSetValues() {
+        return size > 0;
+    }
+
+    private StringBuilder appendToken(int block, int field, StringBuilder builder) {
+        final double value = columns[field][block];
+        if (Double.isNaN(value)) {
+            return builder.append(value);
+        }
+        switch (columnTypes[field]) {
+        case INTEGRAL:
+            return builder.append((long) value);
+        case FLOAT:
+            return builder.append((float) value);
+        default:
+            return builder.append(value);
+        }
+    }
+
+    private double store(int field, Number value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        final double doubleValue = value.doubleValue();
+        if (Double.isNaN(doubleValue)) {
+            return doubleValue;
+        }
+        // widen the column type, e.g. to keep the fraction of a double added
+        // after integers
+        final byte type = typeOf(value);
+        if (type > columnTypes[field]) {
+            columnTypes[field] = type;
+        }
+        return doubleValue;
+    }
+
+    private static Number parseNumber(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(token);
+        } catch (NumberFormatException e) {
+            try {
+                return Double.valueOf(token);
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException(String.format("Token '%s' is not a number", token), nfe);
+            }
+        }
+    }
+
+    private static long parseTimestamp(String token) {
+        try {
+            final DateTime time = DateTimeHelper.parseIsoString2DateTime(token);
+            if (time == null) {
+                throw new IllegalArgumentException("Missing time token");
+            }
+            return time.getMillis();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Token '%s' is not an ISO 8601 time", token), e);
+        }
+    }
+
+    private static byte typeOf(Number value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return INTEGRAL;
+        } else if (value instanceof Float) {
+            return FLOAT;
+        }
+        return DOUBLE;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > timestamps.length) {
+            final int newCapacity = Math.max(capacity, timestamps.length + (timestamps.length >> 1));
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            for (int i = 0; i < fieldCount; i++) {
+                columns[i] = Arrays.copyOf(columns[i], newCapacity);
+            }
+        }
+    }
+
+    private void checkBlock(int block) {
+        if (block < 0 || block >= size) {
+            throw new IndexOutOfBoundsException(String.format("Block %d, size %d", block, size));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.swe.encoding;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * Single pass tokenizer for values encoded with a {@link SweTextEncoding}.
+ * Iterates the blocks of the values and returns the tokens of each block.
+ * Separators are matched literally, blank blocks and a preceding count value
+ * (a first block without token separator) are skipped. Like
+ * {@link String#split(String)}, trailing empty tokens are removed. If white
+ * spaces should be collapsed, the tokens are trimmed.
+ * <p/>
+ * The values can be read from a {@link Reader}, in which case only the
+ * current block is held in memory. Errors of the reader are thrown as
+ * {@link ReadException}.
+ * 
+ * @since 4.3.0
+ *
+ */
+public class SweTextValuesTokenizer extends AbstractIterator<List<String>> {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String blockSeparator;
+
+    private final String tokenSeparator;
+
+    private final boolean trim;
+
+    private final String values;
+
+    private final Reader reader;
+
+    private final StringBuilder block;
+
+    private final char[] buffer;
+
+    private int bufferPosition = 0;
+
+    private int bufferLength = 0;
+
+    private CharSequence chars;
+
+    private int position = 0;
+
+    private int blockStart;
+
+    private int blockEnd;
+
+    private int tokenCount = 1;
+
+    private boolean first = true;
+
+    /**
+     * Constructor
+     * 
+     * @param values
+     *            the encoded values
+     * @param encoding
+     *            the {@link SweTextEncoding} of the values
+     */
+    public SweTextValuesTokenizer(String values, SweTextEncoding encoding) {
+        this(values == null ? "" : values, null, encoding);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param reader
+     *            the reader of the encoded values, not closed by this
+     *            tokenizer
+     * @param encoding
+     *            the {@link SweTextEncoding} of the values
+     */
+    public SweTextValuesTokenizer(Reader reader, SweTextEncoding encoding) {
+        this(null, reader, encoding);
+    }
+
+    private SweTextValuesTokenizer(String values, Reader reader, SweTextEncoding encoding) {
+        if (encoding.getBlockSeparator() == null || encoding.getBlockSeparator().isEmpty()
+                || encoding.getTokenSeparator() == null || encoding.getTokenSeparator().isEmpty()) {
+            throw new IllegalArgumentException("The block and token separator must not be empty!");
+        }
+        this.values = values;
+        this.reader = reader;
+        this.blockSeparator = encoding.getBlockSeparator();
+        this.tokenSeparator = encoding.getTokenSeparator();
+        this.trim = !encoding.isSetCollapseWhiteSpaces() || encoding.isCollapseWhiteSpaces();
+        if (reader == null) {
+            this.block = null;
+            this.buffer = null;
+            this.chars = values;
+        } else {
+            this.block = new StringBuilder();
+            this.buffer = new char[BUFFER_SIZE];
+            this.chars = block;
+        }
+    }
+
+    @Override
+    protected List<String> computeNext() {
+        while (nextBlock()) {
+            if (isBlank(blockStart, blockEnd)) {
+                continue;
+            }
+            List<String> tokens = tokenize(blockStart, blockEnd);
+            if (first) {
+                first = false;
+                if (tokens.size() == 1) {
+                    // preceding count value
+                    continue;
+                }
+            }
+            return tokens;
+        }
+        return endOfData();
+    }
+
+    private boolean nextBlock() {
+        if (reader != null) {
+            return readBlock();
+        }
+        if (position >= values.length()) {
+            return false;
+        }
+        blockStart = position;
+        blockEnd = values.indexOf(blockSeparator, blockStart);
+        if (blockEnd < 0) {
+            blockEnd = values.length();
+            position = blockEnd;
+        } else {
+            position = blockEnd + blockSeparator.length();
+        }
+        return true;
+    }
+
+    private boolean readBlock() {
+        block.setLength(0);
+        char last = blockSeparator.charAt(blockSeparator.length() - 1);
+        int separatorLength = blockSeparator.length();
+        try {
+            while (fillBuffer()) {
+                char c = buffer[bufferPosition++];
+                block.append(c);
+                if (c == last && block.length() >= separatorLength
+                        && block.indexOf(blockSeparator, block.length() - separatorLength) >= 0) {
+                    block.setLength(block.length() - separatorLength);
+                    blockStart = 0;
+                    blockEnd = block.length();
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            throw new ReadException(e);
+        }
+        blockStart = 0;
+        blockEnd = block.length();
+        return blockEnd > 0;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if (bufferPosition < bufferLength) {
+            return true;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        bufferPosition = 0;
+        bufferLength = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private List<String> tokenize(int start, int end) {
+        List<String> tokens = new ArrayList<String>(tokenCount);
+        int tokenStart = start;
+        while (tokenStart <= end) {
+            int tokenEnd = indexOf(tokenSeparator, tokenStart);
+            if (tokenEnd < 0 || tokenEnd > end - tokenSeparator.length()) {
+                tokenEnd = end;
+            }
+            tokens.add(token(tokenStart, tokenEnd));
+            tokenStart = tokenEnd + tokenSeparator.length();
+        }
+        // like String.split(), trailing empty tokens are removed
+        while (tokens.size() > 1 && tokens.get(tokens.size() - 1).isEmpty()) {
+            tokens.remove(tokens.size() - 1);
+        }
+        tokenCount = tokens.size();
+        return tokens;
+    }
+
+    private int indexOf(String str, int from) {
+        return reader == null ? values.indexOf(str, from) : block.indexOf(str, from);
+    }
+
+    private String token(int start, int end) {
+        int s = start;
+        int e = end;
+        if (trim) {
+            while (s < e && Character.isWhitespace(chars.charAt(s))) {
+                s++;
+            }
+            while (e > s && Character.isWhitespace(chars.charAt(e - 1))) {
+                e--;
+            }
+        }
+        return chars.subSequence(s, e).toString();
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(chars.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Thrown if the values could not be read from the {@link Reader}.
+     */
+    public static class ReadException extends RuntimeException {
+
+        private static final long serialVersionUID = -2410394470584683493L;
+
+        public ReadException(IOException cause) {
+            super("Error while reading the encoded values", cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.swe.encoding;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.n52.sos.ogc.swe.SweDataArray;
+import org.n52.sos.ogc.swe.SweNumericDataArray;
+
+/**
+ * Writer for values encoded with a {@link SweTextEncoding}. Blocks and their
+ * tokens are appended directly to the {@link Appendable}, separators are only
+ * written between blocks and tokens, so the output equals the joined values
+ * without building the whole payload in memory. Counterpart of the
+ * {@link SweTextValuesTokenizer}.
+ * 
+ * @since 4.3.0
+ *
+ */
+public class SweTextValuesWriter {
+
+    private final Appendable out;
+
+    private final String blockSeparator;
+
+    private final String tokenSeparator;
+
+    private boolean firstBlock = true;
+
+    private boolean firstToken = true;
+
+    private int blockCount = 0;
+
+    /**
+     * Constructor
+     * 
+     * @param out
+     *            the {@link Appendable} to write to
+     * @param encoding
+     *            the {@link SweTextEncoding} of the values
+     */
+    public SweTextValuesWriter(Appendable out, SweTextEncoding encoding) {
+        if (encoding.getBlockSeparator() == null || encoding.getBlockSeparator().isEmpty()
+                || encoding.getTokenSeparator() == null || encoding.getTokenSeparator().isEmpty()) {
+            throw new IllegalArgumentException("The block and token separator must not be empty!");
+        }
+        this.out = out;
+        this.blockSeparator = encoding.getBlockSeparator();
+        this.tokenSeparator = encoding.getTokenSeparator();
+    }
+
+    /**
+     * Write the element count as first block. Has to be called before any
+     * other block is written.
+     * 
+     * @param count
+     *            the number of blocks that follow
+     * @return this
+     * @throws IOException
+     *             If an error occurs when writing
+     */
+    public SweTextValuesWriter writeCount(long count) throws IOException {
+        if (!firstBlock) {
+            throw new IllegalStateException("The count has to be the first block!");
+        }
+        startBlock();
+        out.append(String.valueOf(count));
+        return this;
+    }
+
+    /**
+     * Start a new block. Tokens are written with {@link #writeToken(Object)}.
+     * 
+     * @return this
+     * @throws IOException
+     *             If an error occurs when writing
+     */
+    public SweTextValuesWriter startBlock() throws IOException {
+        if (firstBlock) {
+            firstBlock = false;
+        } else {
+            out.append(blockSeparator);
+        }
+        firstToken = true;
+        blockCount++;
+        return this;
+    }
+
+    /**
+     * Write a token of the current block
+     * 
+     * @param token
+     *            the token, written with {@link String#valueOf(Object)}
+     * @return this
+     * @throws IOException
+     *             If an error occurs when writing
+     */
+    public SweTextValuesWriter writeToken(Object token) throws IOException {
+        if (firstBlock) {
+            throw new IllegalStateException("No block started!");
+        }
+        if (firstToken) {
+            firstToken = false;
+        } else {
+            out.append(tokenSeparator);
+        }
+        out.append(String.valueOf(token));
+        return this;
+    }
+
+    /**
+     * Write a block with the tokens
+     * 
+     * @param tokens
+     *            the tokens of the block
+     * @return this
+     * @throws IOException
+     *             If an error occurs when writing
+     */
+    public SweTextValuesWriter writeBlock(List<?> tokens) throws IOException {
+        startBlock();
+        for (Object token : tokens) {
+            writeToken(token);
+        }
+        return this;
+    }
+
+    /**
+     * Write the blocks of a {@link SweDataArray}. The blocks of a
+     * {@link SweNumericDataArray} are formatted directly from its columns.
+     * 
+     * @param dataArray
+     *            the data array to write
+     * @return this
+     * @throws IOException
+     *             If an error occurs when writing
+     */
+    public SweTextValuesWriter writeBlocks(SweDataArray dataArray) throws IOException {
+        if (dataArray instanceof SweNumericDataArray) {
+            final SweNumericDataArray numericDataArray = (SweNumericDataArray) dataArray;
+            final StringBuilder block = new StringBuilder(numericDataArray.getFieldCount() * 8);
+            for (int i = 0; i < numericDataArray.size(); i++) {
+                startBlock();
+                block.setLength(0);
+                out.append(numericDataArray.appendBlock(i, block, tokenSeparator));
+                firstToken = false;
+            }
+        } else if (dataArray.isSetValues()) {
+            for (List<String> block : dataArray.getValues()) {
+                writeBlock(block);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of written blocks, including the count block
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+}
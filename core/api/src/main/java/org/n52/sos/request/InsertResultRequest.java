@@ -28,6 +28,8 @@
  */
 package org.n52.sos.request;
 
+import java.io.Reader;
+
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.Sos2Constants;
 import org.n52.sos.response.InsertResultResponse;
@@ -43,6 +45,8 @@ public class InsertResultRequest extends AbstractServiceRequest<InsertResultResp
 
     private String resultValues;
 
+    private Reader resultValuesReader;
+
     @Override
     public String getOperationName() {
         return Sos2Constants.Operations.InsertResult.name();
@@ -68,8 +72,34 @@ public class InsertResultRequest extends AbstractServiceRequest<InsertResultResp
         return resultValues;
     }
 
+    /**
+     * Set a reader of the result values to stream them from the request
+     * instead of holding them as {@link String}.
+     * 
+     * @param resultValuesReader
+     *            the reader of the result values
+     * 
+     * @since 4.3.0
+     */
+    public void setResultValuesReader(Reader resultValuesReader) {
+        this.resultValuesReader = resultValuesReader;
+    }
+
+    /**
+     * @return the reader of the result values, if they are streamed
+     * 
+     * @since 4.3.0
+     */
+    public Reader getResultValuesReader() {
+        return resultValuesReader;
+    }
+
+    public boolean isSetResultValuesReader() {
+        return getResultValuesReader() != null;
+    }
+
     public boolean isSetResultValues() {
-        return StringHelper.isNotEmpty(getResultValues());
+        return StringHelper.isNotEmpty(getResultValues()) || isSetResultValuesReader();
     }
 
     @Override
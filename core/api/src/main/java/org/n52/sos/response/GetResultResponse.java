@@ -28,16 +28,22 @@
  */
 package org.n52.sos.response;
 
+import java.io.IOException;
+
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants;
 
 /**
  * @since 4.0.0
  * 
  */
-public class GetResultResponse extends AbstractServiceResponse {
+public class GetResultResponse extends AbstractServiceResponse implements StreamingDataResponse {
 
     private String resultValues;
 
+    private StreamingResultValues streamingResultValues;
+
     public void setResultValues(String resultValues) {
         this.resultValues = resultValues;
     }
@@ -50,6 +56,53 @@ public class GetResultResponse extends AbstractServiceResponse {
         return resultValues != null && !resultValues.isEmpty();
     }
 
+    public void setStreamingResultValues(StreamingResultValues streamingResultValues) {
+        this.streamingResultValues = streamingResultValues;
+    }
+
+    public StreamingResultValues getStreamingResultValues() {
+        return streamingResultValues;
+    }
+
+    /**
+     * Write the result values to the {@link Appendable}, the streaming result
+     * values are written directly without creating the whole payload
+     * 
+     * @param out
+     *            the {@link Appendable} to write to
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the streaming result values
+     * @throws IOException
+     *             If an error occurs when writing
+     */
+    public void writeResultValues(Appendable out) throws OwsExceptionReport, IOException {
+        if (hasStreamingData()) {
+            StreamingResultValues values = streamingResultValues;
+            streamingResultValues = null;
+            values.write(out);
+        } else if (hasResultValues()) {
+            out.append(resultValues);
+        }
+    }
+
+    @Override
+    public boolean hasStreamingData() {
+        return streamingResultValues != null;
+    }
+
+    @Override
+    public void mergeStreamingData() throws OwsExceptionReport {
+        if (hasStreamingData()) {
+            StringBuilder builder = new StringBuilder();
+            try {
+                writeResultValues(builder);
+            } catch (IOException ioe) {
+                throw new NoApplicableCodeException().causedBy(ioe).withMessage("Error while merging result values!");
+            }
+            setResultValues(builder.toString());
+        }
+    }
+
     @Override
     public String getOperationName() {
         return SosConstants.Operations.GetResult.name();
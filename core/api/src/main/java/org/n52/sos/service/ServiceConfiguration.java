@@ -163,6 +163,10 @@ public class ServiceConfiguration {
 
     private boolean streamingEncoding = true;
 
+    private int streamingEncodingBufferSize = StreamingSettings.DEFAULT_STREAMING_ENCODING_BUFFER_SIZE;
+
+    private int streamingEncodingFlushThreshold = StreamingSettings.DEFAULT_STREAMING_ENCODING_FLUSH_THRESHOLD;
+
     /**
      * Returns the default token seperator for results.
      * <p/>
@@ -455,6 +459,33 @@ public class ServiceConfiguration {
         return streamingEncoding;
     }
 
+    @Setting(StreamingSettings.STREAMING_ENCODING_BUFFER_SIZE)
+    public void setStreamingEncodingBufferSize(Integer bufferSize) {
+        this.streamingEncodingBufferSize = bufferSize;
+    }
+
+    /**
+     * @return the size of the output buffer of streamed XML responses in
+     *         bytes, <code>&lt;= 0</code> if they are not buffered
+     */
+    public int getStreamingEncodingBufferSize() {
+        return streamingEncodingBufferSize;
+    }
+
+    @Setting(StreamingSettings.STREAMING_ENCODING_FLUSH_THRESHOLD)
+    public void setStreamingEncodingFlushThreshold(Integer flushThreshold) {
+        this.streamingEncodingFlushThreshold = flushThreshold;
+    }
+
+    /**
+     * @return the number of written elements after which streamed XML
+     *         responses are flushed, <code>&lt;= 0</code> if they are only
+     *         flushed when the buffer is full
+     */
+    public int getStreamingEncodingFlushThreshold() {
+        return streamingEncodingFlushThreshold;
+    }
+
 
     /*
      * Now, we return the list of returned features and not a complex encoded
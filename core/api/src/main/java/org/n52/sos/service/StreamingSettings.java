@@ -35,6 +35,7 @@ import org.n52.sos.config.SettingDefinition;
 import org.n52.sos.config.SettingDefinitionGroup;
 import org.n52.sos.config.SettingDefinitionProvider;
 import org.n52.sos.config.settings.BooleanSettingDefinition;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
 
 import com.google.common.collect.Sets;
 
@@ -42,6 +43,14 @@ public class StreamingSettings implements SettingDefinitionProvider {
 
     public static final String FORCE_STREAMING_ENCODING = "service.streaming.encoding";
 
+    public static final String STREAMING_ENCODING_BUFFER_SIZE = "service.streaming.encoding.bufferSize";
+
+    public static final String STREAMING_ENCODING_FLUSH_THRESHOLD = "service.streaming.encoding.flushThreshold";
+
+    public static final int DEFAULT_STREAMING_ENCODING_BUFFER_SIZE = 65536;
+
+    public static final int DEFAULT_STREAMING_ENCODING_FLUSH_THRESHOLD = 0;
+
     public static final SettingDefinitionGroup GROUP = new SettingDefinitionGroup().setTitle("Streaming").setOrder(5);
 
     public static final BooleanSettingDefinition FORCE_STREAMING_ENCODING_DEFINITION = new BooleanSettingDefinition()
@@ -53,8 +62,29 @@ public class StreamingSettings implements SettingDefinitionProvider {
             .setDescription(
                     "Whether the service should stream the XML response! If true, the responses are not validated!");
 
+    public static final IntegerSettingDefinition STREAMING_ENCODING_BUFFER_SIZE_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_6)
+                    .setKey(STREAMING_ENCODING_BUFFER_SIZE)
+                    .setDefaultValue(DEFAULT_STREAMING_ENCODING_BUFFER_SIZE)
+                    .setTitle("Size of the output buffer of streamed XML responses in bytes.")
+                    .setDescription(
+                            "Size of the buffer the streamed XML responses are written to. The buffer is written to the client when it is full. If define a number <= 0, the responses are not buffered!");
+
+    public static final IntegerSettingDefinition STREAMING_ENCODING_FLUSH_THRESHOLD_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(GROUP)
+                    .setOrder(ORDER_7)
+                    .setKey(STREAMING_ENCODING_FLUSH_THRESHOLD)
+                    .setDefaultValue(DEFAULT_STREAMING_ENCODING_FLUSH_THRESHOLD)
+                    .setTitle("Number of XML elements after which streamed responses are flushed to the client.")
+                    .setDescription(
+                            "Number of written XML elements after which the output buffer of streamed XML responses is flushed to the client, even if it is not full. If define a number <= 0, the buffer is only flushed when it is full!");
+
     private static final Set<SettingDefinition<?, ?>> DEFINITIONS = Sets.<SettingDefinition<?, ?>> newHashSet(
-            FORCE_STREAMING_ENCODING_DEFINITION);
+            FORCE_STREAMING_ENCODING_DEFINITION, STREAMING_ENCODING_BUFFER_SIZE_DEFINITION,
+            STREAMING_ENCODING_FLUSH_THRESHOLD_DEFINITION);
 
     @Override
     public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
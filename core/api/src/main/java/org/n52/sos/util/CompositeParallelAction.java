@@ -31,7 +31,6 @@ package org.n52.sos.util;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,9 +44,9 @@ import org.slf4j.LoggerFactory;
 public abstract class CompositeParallelAction<A extends ThreadableAction> extends CompositeAction<A> {
     private static final Logger LOGGER = LoggerFactory.getLogger(CompositeParallelAction.class);
     
-    private final ThreadFactory threadFactory;
-    
     private final ExecutorService executor;
+
+    private final boolean shutdownExecutor;
     
     private CountDownLatch countDownLatch;    
 
@@ -56,8 +55,26 @@ public abstract class CompositeParallelAction<A extends ThreadableAction> extend
     public CompositeParallelAction(int threads, String threadGroupName, A... actions) {
         super(actions);
         this.threadGroupName = threadGroupName;
-        this.threadFactory = new GroupedAndNamedThreadFactory(threadGroupName);
-        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+        this.executor = Executors.newFixedThreadPool(threads, new GroupedAndNamedThreadFactory(threadGroupName));
+        this.shutdownExecutor = true;
+    }
+
+    /**
+     * Execute the actions with an existing executor. The executor is not shut
+     * down after the execution.
+     * 
+     * @param executor
+     *            Executor to submit the actions to
+     * @param threadGroupName
+     *            Name used for logging
+     * @param actions
+     *            Actions to execute
+     */
+    public CompositeParallelAction(ExecutorService executor, String threadGroupName, A... actions) {
+        super(actions);
+        this.threadGroupName = threadGroupName;
+        this.executor = executor;
+        this.shutdownExecutor = false;
     }
 
     @Override
@@ -76,7 +93,9 @@ public abstract class CompositeParallelAction<A extends ThreadableAction> extend
             long latchSize = countDownLatch.getCount();
             
             //execute actions in parallel
-            executor.shutdown(); // <-- will finish all submitted tasks
+            if (shutdownExecutor) {
+                executor.shutdown(); // <-- will finish all submitted tasks
+            }
             // wait for all threads to finish
             try {
                 LOGGER.debug("{}: waiting for {} threads to finish", threadGroupName, latchSize);
@@ -45,6 +45,8 @@ import java.util.logging.Level;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -72,6 +74,8 @@ public class JSONUtils {
 
     private static final JsonNodeFactory FACTORY = JsonNodeFactory.withExactBigDecimals(false);
 
+    private static final ObjectMapper MAPPER;
+
     private static final ObjectReader READER;
 
     private static final ObjectWriter WRITER;
@@ -91,12 +95,15 @@ public class JSONUtils {
                 };
 
     static {
-        final ObjectMapper mapper =
-                new ObjectMapper().setNodeFactory(FACTORY).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-        READER = mapper.reader();
+        MAPPER = new ObjectMapper().setNodeFactory(FACTORY).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        READER = MAPPER.reader();
+        WRITER = MAPPER.writer(createPrettyPrinter());
+    }
+
+    private static DefaultPrettyPrinter createPrettyPrinter() {
         DefaultPrettyPrinter pp = new DefaultPrettyPrinter();
         pp.indentArraysWith(DefaultPrettyPrinter.Lf2SpacesIndenter.instance);
-        WRITER = mapper.writer(pp);
+        return pp;
     }
 
     protected JSONUtils() {
@@ -114,6 +121,24 @@ public class JSONUtils {
         return FACTORY;
     }
 
+    /**
+     * Create a generator that writes to the stream like {@link #getWriter()}
+     * and is able to write {@link JsonNode}s. Closing the generator does not
+     * close the stream.
+     *
+     * @param out
+     *            the stream to write to
+     * @return the generator
+     * @throws IOException
+     *             if the generator can not be created
+     */
+    public static JsonGenerator createGenerator(final OutputStream out) throws IOException {
+        final JsonGenerator generator = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setPrettyPrinter(createPrettyPrinter());
+        return generator;
+    }
+
     public static String print(final JsonNode node) {
         final StringWriter writer = new StringWriter();
         try {
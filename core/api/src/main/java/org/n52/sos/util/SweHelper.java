@@ -28,6 +28,7 @@
  */
 package org.n52.sos.util;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,6 +55,7 @@ import org.n52.sos.ogc.swe.SweDataRecord;
 import org.n52.sos.ogc.swe.SweField;
 import org.n52.sos.ogc.swe.encoding.SweAbstractEncoding;
 import org.n52.sos.ogc.swe.encoding.SweTextEncoding;
+import org.n52.sos.ogc.swe.encoding.SweTextValuesWriter;
 import org.n52.sos.ogc.swe.simpleType.SweAbstractUomType;
 import org.n52.sos.ogc.swe.simpleType.SweBoolean;
 import org.n52.sos.ogc.swe.simpleType.SweCategory;
@@ -240,6 +242,28 @@ public final class SweHelper {
         return null;
     }
 
+    /**
+     * Create the text values of a {@link SweDataArray}: the tokens joined with
+     * the token separator and the blocks joined with the block separator of
+     * the encoding.
+     * 
+     * @param dataArray
+     *            the data array
+     * @param encoding
+     *            the text encoding
+     * @return the text values
+     */
+    public static String createTextValues(SweDataArray dataArray, SweTextEncoding encoding) {
+        final StringBuilder builder = new StringBuilder(256);
+        try {
+            new SweTextValuesWriter(builder, encoding).writeBlocks(dataArray);
+        } catch (IOException ioe) {
+            // can not happen for a StringBuilder
+            throw new IllegalStateException(ioe);
+        }
+        return builder.toString();
+    }
+
     /**
      * Create a TextEncoding object for token and tuple separators from
      * SosObservation. If separators not set, definitions from Configurator are
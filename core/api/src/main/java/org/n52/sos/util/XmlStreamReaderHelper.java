@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.n52.sos.util.http.HTTPUtils;
+
+import com.google.common.base.Strings;
+
+/**
+ * Utility class for the StAX based decoding of XML requests. The elements of
+ * a request can be parsed one after another to XmlBeans objects, so only the
+ * current element is held in memory.
+ * 
+ * @since 4.3.0
+ */
+public final class XmlStreamReaderHelper {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private XmlStreamReaderHelper() {
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Create a {@link XMLStreamReader} for the body of the request positioned
+     * at the start of the root element.
+     * 
+     * @param request
+     *            the request
+     * @return the reader
+     * @throws XMLStreamException
+     *             if the root element could not be read
+     * @throws IOException
+     *             if the request body could not be opened
+     */
+    public static XMLStreamReader createXmlStreamReader(HttpServletRequest request) throws XMLStreamException,
+            IOException {
+        return createXmlStreamReader(HTTPUtils.getInputStream(request), request.getCharacterEncoding());
+    }
+
+    /**
+     * Create a {@link XMLStreamReader} for the stream positioned at the start
+     * of the root element.
+     * 
+     * @param in
+     *            the stream
+     * @param encoding
+     *            the character encoding of the stream or <code>null</code> to
+     *            detect it from the XML declaration
+     * @return the reader
+     * @throws XMLStreamException
+     *             if the root element could not be read
+     */
+    public static XMLStreamReader createXmlStreamReader(InputStream in, String encoding) throws XMLStreamException {
+        XMLStreamReader reader;
+        if (Strings.isNullOrEmpty(encoding)) {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+        } else {
+            reader = INPUT_FACTORY.createXMLStreamReader(in, encoding);
+        }
+        reader.nextTag();
+        return reader;
+    }
+
+    /**
+     * Add the namespaces declared by the current element of the reader to the
+     * map of namespaces in scope. The default namespace has the empty prefix.
+     * 
+     * @param reader
+     *            the reader positioned at a start element
+     * @param namespaces
+     *            the namespaces in scope (prefix to namespace)
+     */
+    public static void addNamespaces(XMLStreamReader reader, Map<String, String> namespaces) {
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            namespaces.put(Strings.nullToEmpty(reader.getNamespacePrefix(i)), reader.getNamespaceURI(i));
+        }
+    }
+
+    /**
+     * Parse the current element of the reader. The namespaces declared by the
+     * ancestors of the element are added to the parsed element, so prefixed
+     * values (e.g. <code>xsi:type</code>) stay resolvable. The reader is left
+     * at the end of the element.
+     * 
+     * @param reader
+     *            the reader positioned at a start element
+     * @param namespaces
+     *            the namespaces declared by the ancestors of the element
+     * @return the parsed element as document
+     * @throws XmlException
+     *             if the element could not be parsed
+     */
+    public static XmlObject parseElement(XMLStreamReader reader, Map<String, String> namespaces)
+            throws XmlException {
+        return XmlObject.Factory.parse(new NamespaceInheritingStreamReader(reader, namespaces));
+    }
+
+    /**
+     * {@link StreamReaderDelegate} that adds namespace declarations to the
+     * element the reader is positioned at, if they are not redeclared by the
+     * element itself.
+     */
+    private static class NamespaceInheritingStreamReader extends StreamReaderDelegate {
+
+        private final List<String> prefixes = new ArrayList<String>();
+
+        private final List<String> namespaces = new ArrayList<String>();
+
+        private boolean start = true;
+
+        NamespaceInheritingStreamReader(XMLStreamReader reader, Map<String, String> inherited) {
+            super(reader);
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                prefixes.add(Strings.nullToEmpty(reader.getNamespacePrefix(i)));
+                namespaces.add(reader.getNamespaceURI(i));
+            }
+            for (Entry<String, String> namespace : inherited.entrySet()) {
+                if (!prefixes.contains(namespace.getKey())) {
+                    prefixes.add(namespace.getKey());
+                    namespaces.add(namespace.getValue());
+                }
+            }
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            start = false;
+            return super.next();
+        }
+
+        @Override
+        public int nextTag() throws XMLStreamException {
+            start = false;
+            return super.nextTag();
+        }
+
+        private boolean isStart() {
+            return start && getEventType() == XMLStreamConstants.START_ELEMENT;
+        }
+
+        @Override
+        public int getNamespaceCount() {
+            return isStart() ? prefixes.size() : super.getNamespaceCount();
+        }
+
+        @Override
+        public String getNamespacePrefix(int index) {
+            if (isStart()) {
+                return Strings.emptyToNull(prefixes.get(index));
+            }
+            return super.getNamespacePrefix(index);
+        }
+
+        @Override
+        public String getNamespaceURI(int index) {
+            return isStart() ? namespaces.get(index) : super.getNamespaceURI(index);
+        }
+    }
+}
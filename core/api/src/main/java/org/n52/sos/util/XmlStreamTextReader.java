@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * {@link Reader} for the text content of the current element of a
+ * {@link XMLStreamReader}. The text is read lazily from the stream, leading and
+ * trailing white spaces are removed and the text of child elements is
+ * skipped. The end of the reader is reached at the end of the element, where
+ * the {@link XMLStreamReader} is left. Closing this reader does not close the
+ * {@link XMLStreamReader}.
+ * 
+ * @since 4.3.0
+ */
+public class XmlStreamTextReader extends Reader {
+
+    private final XMLStreamReader reader;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private final StringBuilder whiteSpace = new StringBuilder();
+
+    private int position = 0;
+
+    private int depth = 0;
+
+    private boolean started = false;
+
+    private boolean end = false;
+
+    /**
+     * Constructor
+     * 
+     * @param reader
+     *            the reader positioned at the start of the element
+     */
+    public XmlStreamTextReader(XMLStreamReader reader) {
+        if (!reader.isStartElement()) {
+            throw new IllegalArgumentException("The reader is not positioned at a start element!");
+        }
+        this.reader = reader;
+    }
+
+    /**
+     * @return <code>true</code>, if the element contains no text besides
+     *         white spaces
+     * @throws IOException
+     *             if the element could not be read
+     */
+    public boolean isEmpty() throws IOException {
+        return !fill();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, text.length() - position);
+        text.getChars(position, position + n, cbuf, off);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public void close() {
+        end = true;
+        text.setLength(0);
+        position = 0;
+    }
+
+    private boolean fill() throws IOException {
+        while (position >= text.length()) {
+            if (end) {
+                return false;
+            }
+            text.setLength(0);
+            position = 0;
+            try {
+                switch (reader.next()) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (depth == 0) {
+                        append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    if (depth == 0) {
+                        char[] chars = reader.getText().toCharArray();
+                        append(chars, 0, chars.length);
+                    }
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth == 0) {
+                        end = true;
+                    } else {
+                        depth--;
+                    }
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    end = true;
+                    break;
+                default:
+                    break;
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException("Error while reading the element text", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Append the text, holding back white spaces until further text follows.
+     */
+    private void append(char[] chars, int start, int length) {
+        int s = start;
+        int e = start + length;
+        if (!started) {
+            while (s < e && Character.isWhitespace(chars[s])) {
+                s++;
+            }
+            if (s == e) {
+                return;
+            }
+            started = true;
+        }
+        int last = e;
+        while (last > s && Character.isWhitespace(chars[last - 1])) {
+            last--;
+        }
+        if (last > s) {
+            text.append(whiteSpace).append(chars, s, last - s);
+            whiteSpace.setLength(0);
+        }
+        whiteSpace.append(chars, last, e - last);
+    }
+}
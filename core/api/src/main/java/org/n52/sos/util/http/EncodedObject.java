@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.util.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An object that was already encoded to bytes, e.g. to be held in a cache and
+ * written to several responses. The gzip compressed content is created on
+ * first use and kept afterwards.
+ * 
+ * @since 4.3.0
+ */
+public class EncodedObject {
+
+    private final MediaType contentType;
+
+    private final byte[] content;
+
+    private final boolean supportsGZip;
+
+    private volatile byte[] gzippedContent;
+
+    public EncodedObject(MediaType contentType, byte[] content, boolean supportsGZip) {
+        this.contentType = contentType;
+        this.content = content;
+        this.supportsGZip = supportsGZip;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public boolean supportsGZip() {
+        return supportsGZip;
+    }
+
+    public byte[] getGzippedContent() throws IOException {
+        byte[] gzipped = this.gzippedContent;
+        if (gzipped == null) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(content.length / 4);
+            GZIPOutputStream out = new GZIPOutputStream(baos);
+            try {
+                out.write(content);
+            } finally {
+                out.close();
+            }
+            gzipped = baos.toByteArray();
+            this.gzippedContent = gzipped;
+        }
+        return gzipped;
+    }
+}
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.util.http;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -159,6 +160,47 @@ public class HTTPUtils {
         }
     }
 
+    /**
+     * Encodes the object like
+     * {@link #writeObject(HttpServletRequest, HttpServletResponse, MediaType, Object)}
+     * but keeps the result in memory instead of writing it to the response.
+     * 
+     * @param response
+     *            the response, used for headers set by the writer
+     * @param contentType
+     *            contentType to encode to
+     * @param object
+     *            {@link Object} to encode
+     * @return the encoded object
+     * @throws IOException
+     *             if the encoding fails
+     */
+    public static EncodedObject encodeObject(HttpServletResponse response, MediaType contentType, Object object)
+            throws IOException {
+        GenericWritable writable = new GenericWritable(object, contentType);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writable.write(out, new ResponseProxy(response));
+        return new EncodedObject(writable.getEncodedContentType(), out.toByteArray(), writable.supportsGZip());
+    }
+
+    public static void writeObject(HttpServletRequest request, HttpServletResponse response, EncodedObject encoded)
+            throws IOException {
+        byte[] content = encoded.getContent();
+        response.setContentType(encoded.getContentType().toString());
+        if (supportsGzipEncoding(request) && encoded.supportsGZip()) {
+            content = encoded.getGzippedContent();
+            response.setHeader(HTTPHeaders.CONTENT_ENCODING, HTTPConstants.GZIP_ENCODING);
+        }
+        response.setContentLength(content.length);
+        OutputStream out = response.getOutputStream();
+        try {
+            out.write(content);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
     private static class GenericWritable implements Writable {
         private final Object o;
 
@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.encode;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * @since 4.3.0
+ *
+ */
+public class XmlOutputBufferTest {
+
+    @Test
+    public void shouldNotWriteOnFlush() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XmlOutputBuffer buffer = new XmlOutputBuffer(out, 8);
+        buffer.write("abc".getBytes("UTF-8"));
+        buffer.flush();
+        assertThat(out.size(), is(0));
+        buffer.flushOutput();
+        assertThat(out.toString("UTF-8"), is("abc"));
+    }
+
+    @Test
+    public void shouldWriteFullBuffer() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XmlOutputBuffer buffer = new XmlOutputBuffer(out, 4);
+        buffer.write("abc".getBytes("UTF-8"));
+        buffer.write('d');
+        assertThat(out.size(), is(0));
+        buffer.write("ef".getBytes("UTF-8"));
+        assertThat(out.toString("UTF-8"), is("abcd"));
+        buffer.write("ghijk".getBytes("UTF-8"));
+        assertThat(out.toString("UTF-8"), is("abcdefghijk"));
+        buffer.close();
+        assertThat(out.toString("UTF-8"), is("abcdefghijk"));
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.swe;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @since 4.3.0
+ */
+public class SweNumericDataArrayTest {
+
+    @Test
+    public void should_be_empty_initially() {
+        final SweNumericDataArray array = new SweNumericDataArray(1);
+        assertThat(array.isSetValues(), is(false));
+        assertThat(array.getValues(), is(nullValue()));
+        assertThat(array.getElementCount().getValue().getValue(), is(0));
+    }
+
+    @Test
+    public void should_format_values_per_column_type() {
+        final SweNumericDataArray array = new SweNumericDataArray(2);
+        array.add(1L, 1, 1.5d);
+        array.add(2L, 2, 2.25d);
+        assertThat(array.appendBlocks(new StringBuilder(), ",", "@").toString(), is("1,1.5@2,2.25"));
+        assertThat(array.isIntegral(0), is(true));
+        assertThat(array.isIntegral(1), is(false));
+        assertThat(array.getTimestamp(1), is(2L));
+    }
+
+    @Test
+    public void should_encode_time_token_first() {
+        final SweNumericDataArray array = new SweNumericDataArray(1, true);
+        array.add(0L, 1);
+        assertThat(array.appendBlocks(new StringBuilder(), ",", "@").toString(), is("1970-01-01T00:00:00.000Z,1"));
+        assertThat(array.getValues().get(0), is(Arrays.asList("1970-01-01T00:00:00.000Z", "1")));
+    }
+
+    @Test
+    public void should_provide_list_view_of_values() {
+        final SweNumericDataArray array = new SweNumericDataArray(1);
+        array.add(1L, 3.5f);
+        array.add(2L, (Number) null);
+        assertThat(array.getValues().size(), is(2));
+        assertThat(array.getValues().get(0), is(Arrays.asList("3.5")));
+        assertThat(array.getValues().get(1), is(Arrays.asList("NaN")));
+    }
+
+    @Test
+    public void should_grow_beyond_initial_capacity() {
+        final SweNumericDataArray array = new SweNumericDataArray(1);
+        for (int i = 0; i < 100; i++) {
+            array.add(i, i);
+        }
+        assertThat(array.size(), is(100));
+        assertThat(array.getDouble(99, 0), is(99d));
+    }
+
+    @Test
+    public void should_convert_string_blocks() {
+        final SweNumericDataArray array = new SweNumericDataArray(2, true);
+        array.add(Arrays.asList("1970-01-01T00:00:01.000Z", "1", "NaN"));
+        array.addAll(Arrays.asList(Arrays.asList("1970-01-01T00:00:02.000Z", "2", "2.5")));
+        assertThat(array.getTimestamp(0), is(1000L));
+        assertThat(array.isIntegral(0), is(true));
+        assertThat(array.getValues().get(1), is(Arrays.asList("1970-01-01T00:00:02.000Z", "2", "2.5")));
+        assertThat(array.getElementCount().getValue().getValue(), is(2));
+    }
+
+    @Test
+    public void should_replace_blocks_on_set_values() {
+        final SweNumericDataArray array = new SweNumericDataArray(1);
+        array.add(1L, 1.5d);
+        array.setValues(Arrays.asList(Arrays.asList("3")));
+        assertThat(array.getValues().size(), is(1));
+        assertThat(array.isIntegral(0), is(true));
+        assertThat(array.getValues().get(0), is(Arrays.asList("3")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_non_numeric_tokens() {
+        new SweNumericDataArray(1).add(Arrays.asList("a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_blocks_of_wrong_size() {
+        new SweNumericDataArray(2).add(1L, 1d);
+    }
+}
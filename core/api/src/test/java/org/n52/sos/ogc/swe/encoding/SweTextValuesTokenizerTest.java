@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.swe.encoding;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @since 4.3.0
+ *
+ */
+public class SweTextValuesTokenizerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldSplitBlocksAndTokens() {
+        List<List<String>> blocks = tokenize("t1,1.0#t2,2.0#t3,3.0", ",", "#", false);
+        assertThat(blocks, contains(Arrays.asList("t1", "1.0"), Arrays.asList("t2", "2.0"),
+                Arrays.asList("t3", "3.0")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldSkipCountValueAndBlankBlocks() {
+        List<List<String>> blocks = tokenize("2@t1,1.0@@t2,2.0@", ",", "@", false);
+        assertThat(blocks, contains(Arrays.asList("t1", "1.0"), Arrays.asList("t2", "2.0")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldMatchSeparatorsLiterally() {
+        List<List<String>> blocks = tokenize("t1|1.0||t2|2.0", "|", "||", false);
+        assertThat(blocks, contains(Arrays.asList("t1", "1.0"), Arrays.asList("t2", "2.0")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldTrimTokensIfWhiteSpacesAreCollapsed() {
+        List<List<String>> blocks = tokenize(" t1 , 1.0 ;\n t2 ,2.0\n", ",", ";", true);
+        assertThat(blocks, contains(Arrays.asList("t1", "1.0"), Arrays.asList("t2", "2.0")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldKeepInnerEmptyTokens() {
+        List<List<String>> blocks = tokenize("t1,,1.0,#t2,2.0,3.0", ",", "#", false);
+        assertThat(blocks, contains(Arrays.asList("t1", "", "1.0"), Arrays.asList("t2", "2.0", "3.0")));
+    }
+
+    @Test
+    public void shouldReturnNoBlocksForEmptyValues() {
+        assertThat(tokenize("", ",", "#", false).isEmpty(), is(true));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldTokenizeValuesOfReader() {
+        // a reader returning single characters splits the separators
+        FilterReader reader = new FilterReader(new StringReader("2@@t1,1.0@@@@t2,2.0@@")) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+        SweTextEncoding encoding = new SweTextEncoding();
+        encoding.setTokenSeparator(",");
+        encoding.setBlockSeparator("@@");
+        List<List<String>> blocks = Lists.newArrayList(new SweTextValuesTokenizer(reader, encoding));
+        assertThat(blocks, contains(Arrays.asList("t1", "1.0"), Arrays.asList("t2", "2.0")));
+    }
+
+    private List<List<String>> tokenize(String values, String tokenSeparator, String blockSeparator,
+            boolean collapseWhiteSpaces) {
+        SweTextEncoding encoding = new SweTextEncoding();
+        encoding.setTokenSeparator(tokenSeparator);
+        encoding.setBlockSeparator(blockSeparator);
+        encoding.setCollapseWhiteSpaces(collapseWhiteSpaces);
+        return Lists.newArrayList(new SweTextValuesTokenizer(values, encoding));
+    }
+
+}
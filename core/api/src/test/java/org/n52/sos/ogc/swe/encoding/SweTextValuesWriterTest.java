@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ogc.swe.encoding;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.n52.sos.ogc.swe.SweDataArray;
+import org.n52.sos.ogc.swe.SweNumericDataArray;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @since 4.3.0
+ *
+ */
+public class SweTextValuesWriterTest {
+
+    @Test
+    public void shouldWriteSeparatorsOnlyBetweenBlocksAndTokens() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        SweTextValuesWriter writer = new SweTextValuesWriter(builder, encoding(",", "@@"));
+        writer.writeCount(2);
+        writer.writeBlock(Arrays.asList("t1", 1.0));
+        writer.startBlock().writeToken("t2").writeToken(2.0);
+        assertThat(builder.toString(), is("2@@t1,1.0@@t2,2.0"));
+        assertThat(writer.getBlockCount(), is(3));
+    }
+
+    @Test
+    public void shouldWriteNothingWithoutBlocks() {
+        StringBuilder builder = new StringBuilder();
+        new SweTextValuesWriter(builder, encoding(",", "#"));
+        assertThat(builder.length(), is(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBeReadableByTokenizer() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        SweTextEncoding encoding = encoding(";", "\n");
+        SweTextValuesWriter writer = new SweTextValuesWriter(builder, encoding);
+        writer.writeCount(2).writeBlock(Arrays.asList("t1", "1.0")).writeBlock(Arrays.asList("t2", "2.0"));
+        List<List<String>> blocks = Lists.newArrayList(new SweTextValuesTokenizer(builder.toString(), encoding));
+        assertThat(blocks, contains(Arrays.asList("t1", "1.0"), Arrays.asList("t2", "2.0")));
+    }
+
+    @Test
+    public void shouldWriteNumericDataArrayLikeStringBlocks() throws IOException {
+        SweNumericDataArray numeric = new SweNumericDataArray(2);
+        numeric.add(1L, 1, 1.5d);
+        numeric.add(2L, 2, 2.25d);
+        SweDataArray strings = new SweDataArray();
+        strings.add(Arrays.asList("1", "1.5"));
+        strings.add(Arrays.asList("2", "2.25"));
+        StringBuilder numericBuilder = new StringBuilder();
+        new SweTextValuesWriter(numericBuilder, encoding(",", "@@")).writeBlocks(numeric);
+        StringBuilder stringBuilder = new StringBuilder();
+        new SweTextValuesWriter(stringBuilder, encoding(",", "@@")).writeBlocks(strings);
+        assertThat(numericBuilder.toString(), is("1,1.5@@2,2.25"));
+        assertThat(stringBuilder.toString(), is(numericBuilder.toString()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectCountAfterBlocks() throws IOException {
+        SweTextValuesWriter writer = new SweTextValuesWriter(new StringBuilder(), encoding(",", "#"));
+        writer.writeBlock(Arrays.asList("t1", "1.0"));
+        writer.writeCount(1);
+    }
+
+    private SweTextEncoding encoding(String tokenSeparator, String blockSeparator) {
+        SweTextEncoding encoding = new SweTextEncoding();
+        encoding.setTokenSeparator(tokenSeparator);
+        encoding.setBlockSeparator(blockSeparator);
+        return encoding;
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Test;
+
+import com.google.common.io.CharStreams;
+
+/**
+ * @since 4.3.0
+ *
+ */
+public class XmlStreamTextReaderTest {
+
+    @Test
+    public void shouldTrimElementText() throws XMLStreamException, IOException {
+        XMLStreamReader reader = createReader("<a>\n  t1,1.0 @ <![CDATA[t2,2.0]]>@\n  </a>");
+        assertThat(CharStreams.toString(new XmlStreamTextReader(reader)), is("t1,1.0 @ t2,2.0@"));
+        assertThat(reader.isEndElement(), is(true));
+    }
+
+    @Test
+    public void shouldSkipTextOfChildElements() throws XMLStreamException, IOException {
+        XMLStreamReader reader = createReader("<a>t1<b>t2</b> t3<!-- t4 --></a>");
+        assertThat(CharStreams.toString(new XmlStreamTextReader(reader)), is("t1 t3"));
+        assertThat(reader.getLocalName(), is("a"));
+    }
+
+    @Test
+    public void shouldBeEmptyForWhiteSpaces() throws XMLStreamException, IOException {
+        assertThat(new XmlStreamTextReader(createReader("<a> \n </a>")).isEmpty(), is(true));
+        assertThat(new XmlStreamTextReader(createReader("<a/>")).isEmpty(), is(true));
+        assertThat(new XmlStreamTextReader(createReader("<a> 1 </a>")).isEmpty(), is(false));
+    }
+
+    private XMLStreamReader createReader(String xml) throws XMLStreamException {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        reader.nextTag();
+        return reader;
+    }
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.util.http;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * @since 4.3.0
+ */
+public class EncodedObjectTest {
+
+    private static final byte[] CONTENT = "<sos:Capabilities/>".getBytes();
+
+    @Test
+    public void should_gzip_content() throws IOException {
+        EncodedObject encoded = new EncodedObject(MediaTypes.APPLICATION_XML, CONTENT, true);
+        byte[] gzipped = encoded.getGzippedContent();
+        assertThat(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(gzipped))), is(CONTENT));
+    }
+
+    @Test
+    public void should_keep_gzipped_content() throws IOException {
+        EncodedObject encoded = new EncodedObject(MediaTypes.APPLICATION_XML, CONTENT, true);
+        assertThat(encoded.getGzippedContent(), is(sameInstance(encoded.getGzippedContent())));
+    }
+}
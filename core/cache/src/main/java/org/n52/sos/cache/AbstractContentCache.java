@@ -34,6 +34,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -45,11 +46,14 @@ import org.n52.sos.ogc.gml.time.TimePeriod;
 import org.n52.sos.ogc.sos.SosEnvelope;
 import org.n52.sos.util.CollectionHelper;
 import org.n52.sos.util.Constants;
+import org.n52.sos.util.HashSetMultiMap;
 import org.n52.sos.util.SetMultiMap;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.vividsolutions.jts.geom.Envelope;
 
@@ -184,11 +188,52 @@ public abstract class AbstractContentCache extends AbstractStaticContentCache {
     protected static <T> Set<T> copyOf(Set<T> set) {
         if (set == null) {
             return Collections.emptySet();
+        } else if (set instanceof ImmutableSet) {
+            // snapshot content can be shared without copying
+            return set;
         } else {
             return Collections.unmodifiableSet(new HashSet<T>(set));
         }
     }
 
+    /**
+     * Creates an immutable copy of the specified map. The copy is not
+     * synchronized as it is never modified.
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     *
+     * @return the immutable copy
+     */
+    protected static <K, V> Map<K, V> immutableCopyOf(Map<K, V> map) {
+        return Collections.unmodifiableMap(new HashMap<K, V>(map));
+    }
+
+    /**
+     * Creates an immutable copy of the specified multi map. All value sets of
+     * the copy are {@link ImmutableSet}s.
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the multi map
+     *
+     * @return the immutable copy
+     */
+    protected static <K, V> SetMultiMap<K, V> immutableCopyOf(SetMultiMap<K, V> map) {
+        SetMultiMap<K, V> copy = new HashSetMultiMap<K, V>(map.size());
+        for (Entry<K, Set<V>> e : map.entrySet()) {
+            copy.put(e.getKey(), ImmutableSet.copyOf(e.getValue()));
+        }
+        return copy;
+    }
+
     /**
      * Creates a copy of the specified envelope.
      *
@@ -336,6 +381,13 @@ public abstract class AbstractContentCache extends AbstractStaticContentCache {
         }
     }
 
+    /**
+     * The collections that were requested for modification since the last
+     * {@link #freeze(AbstractContentCache, AbstractContentCache)}, or
+     * <code>null</code> if modifications are not tracked
+     */
+    private transient Set<Object> modifiedCollections;
+
     private int defaultEpsgCode = Constants.EPSG_WGS84;
 
     private Map<String, DateTime> maxPhenomenonTimeForOfferings = newSynchronizedMap();
@@ -445,284 +497,329 @@ public abstract class AbstractContentCache extends AbstractStaticContentCache {
     
 //    private Map<String, String> offeringHumanReadableNameForIdentifier = newSynchronizedMap();
     
+    /**
+     * Starts tracking the collections of this cache that are requested through
+     * the getters, as they may be modified. A snapshot frozen from this cache
+     * can then share the unmodified collections with the previous snapshot.
+     *
+     * @since 4.3.0
+     */
+    protected void trackModifications() {
+        if (this.modifiedCollections == null) {
+            this.modifiedCollections =
+                    Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<Object, Boolean>()));
+        }
+    }
+
+    /**
+     * Records the collection as modified if modifications are tracked.
+     *
+     * @param <T>
+     *            the collection type
+     * @param collection
+     *            the collection that may be modified by the caller
+     *
+     * @return the collection
+     */
+    private <T> T modifiable(T collection) {
+        if (this.modifiedCollections != null) {
+            this.modifiedCollections.add(collection);
+        }
+        return collection;
+    }
+
+    /**
+     * @param collection
+     *            a collection of this cache
+     * @param previous
+     *            the previous snapshot of this cache or <code>null</code>
+     *
+     * @return if the copy of the collection in the previous snapshot is still
+     *         up to date
+     */
+    private boolean isUnmodified(Object collection, AbstractContentCache previous) {
+        return previous != null && this.modifiedCollections != null
+                && !this.modifiedCollections.contains(collection);
+    }
+
     /**
      * @return the relating offering -> max phenomenon time
      */
     protected Map<String, DateTime> getMaxPhenomenonTimeForOfferingsMap() {
-        return this.maxPhenomenonTimeForOfferings;
+        return modifiable(this.maxPhenomenonTimeForOfferings);
     }
 
     /**
      * @return the relating offering -> min phenomenon time
      */
     protected Map<String, DateTime> getMinPhenomenonTimeForOfferingsMap() {
-        return this.minPhenomenonTimeForOfferings;
+        return modifiable(this.minPhenomenonTimeForOfferings);
     }
 
     /**
      * @return the relating procedure -> max phenomenon time
      */
     protected Map<String, DateTime> getMaxPhenomenonTimeForProceduresMap() {
-        return this.maxPhenomenonTimeForProcedures;
+        return modifiable(this.maxPhenomenonTimeForProcedures);
     }
 
     /**
      * @return the relating procedure -> min phenomenon time
      */
     protected Map<String, DateTime> getMinPhenomenonTimeForProceduresMap() {
-        return this.minPhenomenonTimeForProcedures;
+        return modifiable(this.minPhenomenonTimeForProcedures);
     }
 
     /**
      * @return the relating offering -> max result time
      */
     protected Map<String, DateTime> getMaxResultTimeForOfferingsMap() {
-        return this.maxResultTimeForOfferings;
+        return modifiable(this.maxResultTimeForOfferings);
     }
 
     /**
      * @return the relating offering -> min result time
      */
     protected Map<String, DateTime> getMinResultTimeForOfferingsMap() {
-        return this.minResultTimeForOfferings;
+        return modifiable(this.minResultTimeForOfferings);
     }
 
     /**
      * @return the relating offering -> allowed observation type
      */
     protected SetMultiMap<String, String> getAllowedObservationTypesForOfferingsMap() {
-        return this.allowedObservationTypeForOfferings;
+        return modifiable(this.allowedObservationTypeForOfferings);
     }
 
     /**
      * @return the relating offering -> allowed featureOfInterest type
      */
     protected SetMultiMap<String, String> getAllowedFeatureOfInterestTypesForOfferingsMap() {
-        return this.allowedFeatureOfInterestTypeForOfferings;
+        return modifiable(this.allowedFeatureOfInterestTypeForOfferings);
     }
 
     /**
      * @return the relating feature -> child feature
      */
     protected SetMultiMap<String, String> getChildFeaturesForFeaturesOfInterestMap() {
-        return this.childFeaturesForFeatureOfInterest;
+        return modifiable(this.childFeaturesForFeatureOfInterest);
     }
 
     /**
      * @return the relating offering -> composite phenomenons
      */
     protected SetMultiMap<String, String> getCompositePhenomenonsForOfferingsMap() {
-        return this.compositePhenomenonForOfferings;
+        return modifiable(this.compositePhenomenonForOfferings);
     }
 
     /**
      * @return the relating offering -> feature
      */
     protected SetMultiMap<String, String> getFeaturesOfInterestForOfferingMap() {
-        return this.featuresOfInterestForOfferings;
+        return modifiable(this.featuresOfInterestForOfferings);
     }
 
     /**
      * @return the relating result template -> feature
      */
     protected SetMultiMap<String, String> getFeaturesOfInterestForResultTemplatesMap() {
-        return this.featuresOfInterestForResultTemplates;
+        return modifiable(this.featuresOfInterestForResultTemplates);
     }
 
     /**
      * @return the relating composite phenomenon -> observable property
      */
     protected SetMultiMap<String, String> getObservablePropertiesForCompositePhenomenonsMap() {
-        return this.observablePropertiesForCompositePhenomenons;
+        return modifiable(this.observablePropertiesForCompositePhenomenons);
     }
 
     /**
      * @return the relating offering -> observable property
      */
     protected SetMultiMap<String, String> getObservablePropertiesForOfferingsMap() {
-        return this.observablePropertiesForOfferings;
+        return modifiable(this.observablePropertiesForOfferings);
     }
 
     /**
      * @return the relating offering -> observation types
      */
     protected SetMultiMap<String, String> getObservationTypesForOfferingsMap() {
-        return this.observationTypesForOfferings;
+        return modifiable(this.observationTypesForOfferings);
     }
 
     /**
      * @return the relating offering -> featureOfInterest types
      */
     protected SetMultiMap<String, String> getFeatureOfInterestTypesForOfferingsMap() {
-        return this.featureOfInterestTypesForOfferings;
+        return modifiable(this.featureOfInterestTypesForOfferings);
     }
 
     /**
      * @return the relating result template -> obsevable properties
      */
     protected SetMultiMap<String, String> getObservablePropertiesForResultTemplatesMap() {
-        return this.observedPropertiesForResultTemplates;
+        return modifiable(this.observedPropertiesForResultTemplates);
     }
 
     /**
      * @return the relating observable property -> offerings
      */
     protected SetMultiMap<String, String> getOfferingsForObservablePropertiesMap() {
-        return this.offeringsForObservableProperties;
+        return modifiable(this.offeringsForObservableProperties);
     }
 
     /**
      * @return the relating procedure -> offerings
      */
     protected SetMultiMap<String, String> getOfferingsForProceduresMap() {
-        return this.offeringsForProcedures;
+        return modifiable(this.offeringsForProcedures);
     }
 
     /**
      * @return the relating feature -> parent feature
      */
     protected SetMultiMap<String, String> getParentFeaturesForFeaturesOfInterestMap() {
-        return this.parentFeaturesForFeaturesOfInterest;
+        return modifiable(this.parentFeaturesForFeaturesOfInterest);
     }
 
     /**
      * @return the relating feature -> procedure
      */
     protected SetMultiMap<String, String> getProceduresForFeaturesOfInterestMap() {
-        return this.proceduresForFeaturesOfInterest;
+        return modifiable(this.proceduresForFeaturesOfInterest);
     }
 
     /**
      * @return the relating observable property -> procedure
      */
     protected SetMultiMap<String, String> getProceduresForObservablePropertiesMap() {
-        return this.proceduresForObservableProperties;
+        return modifiable(this.proceduresForObservableProperties);
     }
 
     /**
      * @return the relating offering -> procedure
      */
     protected SetMultiMap<String, String> getProceduresForOfferingsMap() {
-        return this.proceduresForOfferings;
+        return modifiable(this.proceduresForOfferings);
     }
 
     /**
      * @return the relating offering -> procedure
      */
     protected SetMultiMap<String, String> getHiddenChildProceduresForOfferingsMap() {
-        return this.hiddenChildProceduresForOfferings;
+        return modifiable(this.hiddenChildProceduresForOfferings);
     }
 
     /**
      * @return the relating offering -> related features
      */
     protected SetMultiMap<String, String> getRelatedFeaturesForOfferingsMap() {
-        return this.relatedFeaturesForOfferings;
+        return modifiable(this.relatedFeaturesForOfferings);
     }
 
     /**
      * @return the relating offering -> resulte templates
      */
     protected SetMultiMap<String, String> getResultTemplatesForOfferingsMap() {
-        return this.resultTemplatesForOfferings;
+        return modifiable(this.resultTemplatesForOfferings);
     }
 
     /**
      * @return the relating related feature -> roles
      */
     protected SetMultiMap<String, String> getRolesForRelatedFeaturesMap() {
-        return this.rolesForRelatedFeatures;
+        return modifiable(this.rolesForRelatedFeatures);
     }
 
     /**
      * @return the relating offering -> envelope
      */
     protected Map<String, SosEnvelope> getEnvelopeForOfferingsMap() {
-        return this.envelopeForOfferings;
+        return modifiable(this.envelopeForOfferings);
     }
 
     /**
      * @return the relating offering -> envelope
      */
     protected Map<String, SosEnvelope> getSpatialFilteringProfileEnvelopeForOfferingsMap() {
-        return this.spatialFilteringProfileEnvelopeForOfferings;
+        return modifiable(this.spatialFilteringProfileEnvelopeForOfferings);
     }
 
     /**
      * @return the relating offering -> offering name
      */
     protected Map<String, String> getNameForOfferingsMap() {
-        return this.nameForOfferings;
+        return modifiable(this.nameForOfferings);
     }
 
     /**
      * @return the relating offering -> language / offering name
      */
     protected Map<String,  MultilingualString> getI18nNameForOfferingsMap() {
-        return this.i18nNameForOfferings;
+        return modifiable(this.i18nNameForOfferings);
     }
 
     /**
      * @return the relating offering -> language / offering description
      */
     protected Map<String,  MultilingualString> getI18nDescriptionForOfferingsMap() {
-        return this.i18nDescriptionForOfferings;
+        return modifiable(this.i18nDescriptionForOfferings);
     }
 
     /**
      * @return the relating procedure -> observable properties
      */
     protected SetMultiMap<String, String> getObservablePropertiesForProceduresMap() {
-        return this.observablePropertiesForProcedures;
+        return modifiable(this.observablePropertiesForProcedures);
     }
 
     /**
      * @return the relating procedure -> parent procedure
      */
     protected SetMultiMap<String, String> getParentProceduresForProceduresMap() {
-        return this.parentProceduresForProcedures;
+        return modifiable(this.parentProceduresForProcedures);
     }
 
     /**
      * @return the relating procedure -> child procedure
      */
     protected SetMultiMap<String, String> getChildProceduresForProceduresMap() {
-        return this.childProceduresForProcedures;
+        return modifiable(this.childProceduresForProcedures);
     }
 
     /**
      * @return the epsg codes
      */
     protected Set<Integer> getEpsgCodesSet() {
-        return this.epsgCodes;
+        return modifiable(this.epsgCodes);
     }
 
     /**
      * @return the features of interest
      */
     protected Set<String> getFeaturesOfInterestSet() {
-        return this.featuresOfInterest;
+        return modifiable(this.featuresOfInterest);
     }
 
     /**
      * @return the procedures
      */
     protected Set<String> getProceduresSet() {
-        return this.procedures;
+        return modifiable(this.procedures);
     }
 
     /**
      * @return the procedures
      */
     protected Set<String> getOfferingsSet() {
-        return this.offerings;
+        return modifiable(this.offerings);
     }
 
     /**
      * @return the result templates
      */
     protected Set<String> getResultTemplatesSet() {
-        return this.resultTemplates;
+        return modifiable(this.resultTemplates);
     }
 
     /**
@@ -758,43 +855,204 @@ public abstract class AbstractContentCache extends AbstractStaticContentCache {
     }
 
     protected Set<Locale> getSupportedLanguageSet() {
-        return this.supportedLanguages;
+        return modifiable(this.supportedLanguages);
     }
     
     protected Set<String> getRequestableProcedureDescriptionFormats() {
-        return this.requestableProcedureDescriptionFormats;
+        return modifiable(this.requestableProcedureDescriptionFormats);
     }
     
     protected Map<String, String> getFeatureOfInterestIdentifierForHumanReadableName() {
-    	return featureOfInterestIdentifierHumanReadableName.inverse();
+    	return modifiable(this.featureOfInterestIdentifierHumanReadableName).inverse();
     }
     
     protected Map<String, String> getFeatureOfInterestHumanReadableNameForIdentifier() {
-    	return featureOfInterestIdentifierHumanReadableName;
+    	return modifiable(this.featureOfInterestIdentifierHumanReadableName);
     }
     
     protected Map<String, String> getObservablePropertyIdentifierForHumanReadableName() {
-    	return observablePropertyIdentifierHumanReadableName.inverse();
+    	return modifiable(this.observablePropertyIdentifierHumanReadableName).inverse();
     }
     
     protected Map<String, String> getObservablePropertyHumanReadableNameForIdentifier() {
-    	return observablePropertyIdentifierHumanReadableName;
+    	return modifiable(this.observablePropertyIdentifierHumanReadableName);
     }
     
     protected Map<String, String> getProcedureIdentifierForHumanReadableName() {
-    	return procedureIdentifierHumanReadableName.inverse();
+    	return modifiable(this.procedureIdentifierHumanReadableName).inverse();
     }
     
     protected Map<String, String> getProcedureHumanReadableNameForIdentifier() {
-    	return procedureIdentifierHumanReadableName;
+    	return modifiable(this.procedureIdentifierHumanReadableName);
     }
     
     protected Map<String, String> getOfferingIdentifierForHumanReadableName() {
-    	return offeringIdentifierHumanReadableName;
+    	return modifiable(this.offeringIdentifierHumanReadableName);
     }
     
     protected Map<String, String> getOfferingHumanReadableNameForIdentifier() {
-    	return offeringIdentifierHumanReadableName.inverse();
+    	return modifiable(this.offeringIdentifierHumanReadableName).inverse();
+    }
+
+    /**
+     * Replaces the content of this cache with immutable copies of the content
+     * of the specified cache. The resulting cache can be read concurrently
+     * without any locking or copying, but must not be modified afterwards.
+     * The caller has to ensure that {@code other} is not modified while it is
+     * copied.
+     *
+     * @param other
+     *            the cache to copy
+     *
+     * @since 4.3.0
+     */
+    protected void freeze(AbstractContentCache other) {
+        freeze(other, null);
+    }
+
+    /**
+     * Replaces the content of this cache with immutable copies of the content
+     * of the specified cache like {@link #freeze(AbstractContentCache)}. If
+     * {@code other} tracks its modifications (see
+     * {@link #trackModifications()}), the collections that were not modified
+     * since {@code previous} was frozen from {@code other} are shared with
+     * {@code previous} instead of being copied.
+     *
+     * @param other
+     *            the cache to copy
+     * @param previous
+     *            the last snapshot frozen from {@code other} or
+     *            <code>null</code>
+     *
+     * @since 4.3.0
+     */
+    protected void freeze(AbstractContentCache other, AbstractContentCache previous) {
+        this.defaultEpsgCode = other.defaultEpsgCode;
+        this.maxPhenomenonTimeForOfferings = other.isUnmodified(other.maxPhenomenonTimeForOfferings, previous)
+                ? previous.maxPhenomenonTimeForOfferings : immutableCopyOf(other.maxPhenomenonTimeForOfferings);
+        this.minPhenomenonTimeForOfferings = other.isUnmodified(other.minPhenomenonTimeForOfferings, previous)
+                ? previous.minPhenomenonTimeForOfferings : immutableCopyOf(other.minPhenomenonTimeForOfferings);
+        this.maxResultTimeForOfferings = other.isUnmodified(other.maxResultTimeForOfferings, previous)
+                ? previous.maxResultTimeForOfferings : immutableCopyOf(other.maxResultTimeForOfferings);
+        this.minResultTimeForOfferings = other.isUnmodified(other.minResultTimeForOfferings, previous)
+                ? previous.minResultTimeForOfferings : immutableCopyOf(other.minResultTimeForOfferings);
+        this.maxPhenomenonTimeForProcedures = other.isUnmodified(other.maxPhenomenonTimeForProcedures, previous)
+                ? previous.maxPhenomenonTimeForProcedures : immutableCopyOf(other.maxPhenomenonTimeForProcedures);
+        this.minPhenomenonTimeForProcedures = other.isUnmodified(other.minPhenomenonTimeForProcedures, previous)
+                ? previous.minPhenomenonTimeForProcedures : immutableCopyOf(other.minPhenomenonTimeForProcedures);
+        this.allowedObservationTypeForOfferings = other.isUnmodified(other.allowedObservationTypeForOfferings, previous)
+                ? previous.allowedObservationTypeForOfferings
+                : immutableCopyOf(other.allowedObservationTypeForOfferings);
+        this.allowedFeatureOfInterestTypeForOfferings =
+                other.isUnmodified(other.allowedFeatureOfInterestTypeForOfferings, previous)
+                        ? previous.allowedFeatureOfInterestTypeForOfferings
+                        : immutableCopyOf(other.allowedFeatureOfInterestTypeForOfferings);
+        this.childFeaturesForFeatureOfInterest = other.isUnmodified(other.childFeaturesForFeatureOfInterest, previous)
+                ? previous.childFeaturesForFeatureOfInterest : immutableCopyOf(other.childFeaturesForFeatureOfInterest);
+        this.childProceduresForProcedures = other.isUnmodified(other.childProceduresForProcedures, previous)
+                ? previous.childProceduresForProcedures : immutableCopyOf(other.childProceduresForProcedures);
+        this.compositePhenomenonForOfferings = other.isUnmodified(other.compositePhenomenonForOfferings, previous)
+                ? previous.compositePhenomenonForOfferings : immutableCopyOf(other.compositePhenomenonForOfferings);
+        this.featuresOfInterestForOfferings = other.isUnmodified(other.featuresOfInterestForOfferings, previous)
+                ? previous.featuresOfInterestForOfferings : immutableCopyOf(other.featuresOfInterestForOfferings);
+        this.featuresOfInterestForResultTemplates =
+                other.isUnmodified(other.featuresOfInterestForResultTemplates, previous)
+                        ? previous.featuresOfInterestForResultTemplates
+                        : immutableCopyOf(other.featuresOfInterestForResultTemplates);
+        this.observablePropertiesForCompositePhenomenons =
+                other.isUnmodified(other.observablePropertiesForCompositePhenomenons, previous)
+                        ? previous.observablePropertiesForCompositePhenomenons
+                        : immutableCopyOf(other.observablePropertiesForCompositePhenomenons);
+        this.observablePropertiesForOfferings = other.isUnmodified(other.observablePropertiesForOfferings, previous)
+                ? previous.observablePropertiesForOfferings : immutableCopyOf(other.observablePropertiesForOfferings);
+        this.observablePropertiesForProcedures = other.isUnmodified(other.observablePropertiesForProcedures, previous)
+                ? previous.observablePropertiesForProcedures : immutableCopyOf(other.observablePropertiesForProcedures);
+        this.observationTypesForOfferings = other.isUnmodified(other.observationTypesForOfferings, previous)
+                ? previous.observationTypesForOfferings : immutableCopyOf(other.observationTypesForOfferings);
+        this.featureOfInterestTypesForOfferings = other.isUnmodified(other.featureOfInterestTypesForOfferings, previous)
+                ? previous.featureOfInterestTypesForOfferings
+                : immutableCopyOf(other.featureOfInterestTypesForOfferings);
+        this.observedPropertiesForResultTemplates =
+                other.isUnmodified(other.observedPropertiesForResultTemplates, previous)
+                        ? previous.observedPropertiesForResultTemplates
+                        : immutableCopyOf(other.observedPropertiesForResultTemplates);
+        this.offeringsForObservableProperties = other.isUnmodified(other.offeringsForObservableProperties, previous)
+                ? previous.offeringsForObservableProperties : immutableCopyOf(other.offeringsForObservableProperties);
+        this.offeringsForProcedures = other.isUnmodified(other.offeringsForProcedures, previous)
+                ? previous.offeringsForProcedures : immutableCopyOf(other.offeringsForProcedures);
+        this.parentFeaturesForFeaturesOfInterest =
+                other.isUnmodified(other.parentFeaturesForFeaturesOfInterest, previous)
+                        ? previous.parentFeaturesForFeaturesOfInterest
+                        : immutableCopyOf(other.parentFeaturesForFeaturesOfInterest);
+        this.parentProceduresForProcedures = other.isUnmodified(other.parentProceduresForProcedures, previous)
+                ? previous.parentProceduresForProcedures : immutableCopyOf(other.parentProceduresForProcedures);
+        this.proceduresForFeaturesOfInterest = other.isUnmodified(other.proceduresForFeaturesOfInterest, previous)
+                ? previous.proceduresForFeaturesOfInterest : immutableCopyOf(other.proceduresForFeaturesOfInterest);
+        this.proceduresForObservableProperties = other.isUnmodified(other.proceduresForObservableProperties, previous)
+                ? previous.proceduresForObservableProperties : immutableCopyOf(other.proceduresForObservableProperties);
+        this.proceduresForOfferings = other.isUnmodified(other.proceduresForOfferings, previous)
+                ? previous.proceduresForOfferings : immutableCopyOf(other.proceduresForOfferings);
+        this.hiddenChildProceduresForOfferings = other.isUnmodified(other.hiddenChildProceduresForOfferings, previous)
+                ? previous.hiddenChildProceduresForOfferings : immutableCopyOf(other.hiddenChildProceduresForOfferings);
+        this.relatedFeaturesForOfferings = other.isUnmodified(other.relatedFeaturesForOfferings, previous)
+                ? previous.relatedFeaturesForOfferings : immutableCopyOf(other.relatedFeaturesForOfferings);
+        this.resultTemplatesForOfferings = other.isUnmodified(other.resultTemplatesForOfferings, previous)
+                ? previous.resultTemplatesForOfferings : immutableCopyOf(other.resultTemplatesForOfferings);
+        this.rolesForRelatedFeatures = other.isUnmodified(other.rolesForRelatedFeatures, previous)
+                ? previous.rolesForRelatedFeatures : immutableCopyOf(other.rolesForRelatedFeatures);
+        this.envelopeForOfferings = other.isUnmodified(other.envelopeForOfferings, previous)
+                ? previous.envelopeForOfferings : immutableCopyOf(other.envelopeForOfferings);
+        this.nameForOfferings = other.isUnmodified(other.nameForOfferings, previous)
+                ? previous.nameForOfferings : immutableCopyOf(other.nameForOfferings);
+        this.i18nNameForOfferings = other.isUnmodified(other.i18nNameForOfferings, previous)
+                ? previous.i18nNameForOfferings : immutableCopyOf(other.i18nNameForOfferings);
+        this.i18nDescriptionForOfferings = other.isUnmodified(other.i18nDescriptionForOfferings, previous)
+                ? previous.i18nDescriptionForOfferings : immutableCopyOf(other.i18nDescriptionForOfferings);
+        this.epsgCodes = other.isUnmodified(other.epsgCodes, previous)
+                ? previous.epsgCodes : ImmutableSet.copyOf(other.epsgCodes);
+        this.featuresOfInterest = other.isUnmodified(other.featuresOfInterest, previous)
+                ? previous.featuresOfInterest : ImmutableSet.copyOf(other.featuresOfInterest);
+        this.procedures = other.isUnmodified(other.procedures, previous)
+                ? previous.procedures : ImmutableSet.copyOf(other.procedures);
+        this.resultTemplates = other.isUnmodified(other.resultTemplates, previous)
+                ? previous.resultTemplates : ImmutableSet.copyOf(other.resultTemplates);
+        this.offerings = other.isUnmodified(other.offerings, previous)
+                ? previous.offerings : ImmutableSet.copyOf(other.offerings);
+        this.globalEnvelope = copyOf(other.globalEnvelope);
+        this.globalPhenomenonTimeEnvelope =
+                new TimePeriod(other.globalPhenomenonTimeEnvelope.getStart(),
+                        other.globalPhenomenonTimeEnvelope.getEnd());
+        this.globalResultTimeEnvelope =
+                new TimePeriod(other.globalResultTimeEnvelope.getStart(), other.globalResultTimeEnvelope.getEnd());
+        this.spatialFilteringProfileEnvelopeForOfferings =
+                other.isUnmodified(other.spatialFilteringProfileEnvelopeForOfferings, previous)
+                        ? previous.spatialFilteringProfileEnvelopeForOfferings
+                        : immutableCopyOf(other.spatialFilteringProfileEnvelopeForOfferings);
+        this.supportedLanguages = other.isUnmodified(other.supportedLanguages, previous)
+                ? previous.supportedLanguages : ImmutableSet.copyOf(other.supportedLanguages);
+        this.requestableProcedureDescriptionFormats =
+                other.isUnmodified(other.requestableProcedureDescriptionFormats, previous)
+                        ? previous.requestableProcedureDescriptionFormats
+                        : ImmutableSet.copyOf(other.requestableProcedureDescriptionFormats);
+        this.featureOfInterestIdentifierHumanReadableName =
+                other.isUnmodified(other.featureOfInterestIdentifierHumanReadableName, previous)
+                        ? previous.featureOfInterestIdentifierHumanReadableName
+                        : ImmutableBiMap.copyOf(other.featureOfInterestIdentifierHumanReadableName);
+        this.observablePropertyIdentifierHumanReadableName =
+                other.isUnmodified(other.observablePropertyIdentifierHumanReadableName, previous)
+                        ? previous.observablePropertyIdentifierHumanReadableName
+                        : ImmutableBiMap.copyOf(other.observablePropertyIdentifierHumanReadableName);
+        this.procedureIdentifierHumanReadableName =
+                other.isUnmodified(other.procedureIdentifierHumanReadableName, previous)
+                        ? previous.procedureIdentifierHumanReadableName
+                        : ImmutableBiMap.copyOf(other.procedureIdentifierHumanReadableName);
+        this.offeringIdentifierHumanReadableName =
+                other.isUnmodified(other.offeringIdentifierHumanReadableName, previous)
+                        ? previous.offeringIdentifierHumanReadableName
+                        : ImmutableBiMap.copyOf(other.offeringIdentifierHumanReadableName);
+        if (other.modifiedCollections != null) {
+            other.modifiedCollections.clear();
+        }
     }
 
     /**
@@ -0,0 +1,531 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.n52.sos.i18n.LocalizedString;
+import org.n52.sos.i18n.MultilingualString;
+import org.n52.sos.ogc.gml.time.TimePeriod;
+import org.n52.sos.ogc.sos.SosEnvelope;
+import org.n52.sos.util.SetMultiMap;
+
+import com.vividsolutions.jts.geom.Envelope;
+
+/**
+ * Compact and versioned binary file format for {@link AbstractContentCache}s.
+ * <p>
+ * Every string of the cache is written once to a dictionary. All relations
+ * refer to strings by their index in this dictionary. The file starts with a
+ * magic number, the format version and a flag that tells if the payload is
+ * GZIP compressed. Unlike Java serialization, the format does not depend on
+ * the class layout of the cache.
+ *
+ * @since 4.3.0
+ */
+public final class BinaryCacheFormat {
+    /**
+     * The current version of the format.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x534F5343;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int NULL_INDEX = -1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private BinaryCacheFormat() {
+    }
+
+    /**
+     * Checks if the stream starts with the magic number of this format. The
+     * stream has to support {@link InputStream#mark(int)} and is reset
+     * afterwards.
+     *
+     * @param in
+     *            the stream
+     *
+     * @return if the stream contains a cache in this format
+     *
+     * @throws IOException
+     *             if the stream can not be read
+     */
+    public static boolean isBinaryCache(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            return new DataInputStream(in).readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Checks if the cache can be written in this format.
+     *
+     * @param cache
+     *            the cache
+     *
+     * @return if the cache is supported
+     */
+    public static boolean isSupported(ContentCache cache) {
+        return cache instanceof AbstractContentCache || cache instanceof SnapshotContentCache;
+    }
+
+    /**
+     * Writes the cache to the stream. A {@link SnapshotContentCache} is written
+     * from its current snapshot, so concurrent updates do not interfere.
+     *
+     * @param cache
+     *            the cache to write
+     * @param out
+     *            the stream to write to, it is not closed
+     * @param compress
+     *            if the payload should be compressed
+     *
+     * @throws IOException
+     *             if writing fails
+     */
+    public static void write(ContentCache cache, OutputStream out, boolean compress) throws IOException {
+        AbstractContentCache source = toAbstractContentCache(cache);
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        header.writeByte(compress ? FLAG_COMPRESSED : 0);
+        header.flush();
+        CacheWriter writer = new CacheWriter();
+        writer.write(source);
+        OutputStream payload = new BufferedOutputStream(out, BUFFER_SIZE);
+        GZIPOutputStream gzip = null;
+        if (compress) {
+            gzip = new GZIPOutputStream(payload, BUFFER_SIZE);
+            payload = gzip;
+        }
+        writer.writeTo(new DataOutputStream(payload));
+        if (gzip != null) {
+            gzip.finish();
+        }
+        payload.flush();
+    }
+
+    /**
+     * Reads a cache from the stream.
+     *
+     * @param in
+     *            the stream to read from, it is not closed
+     *
+     * @return the cache
+     *
+     * @throws IOException
+     *             if the stream does not contain a cache of a supported
+     *             version or reading fails
+     */
+    public static WritableCache read(InputStream in) throws IOException {
+        DataInputStream header = new DataInputStream(in);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Not a binary cache file");
+        }
+        int version = header.readShort();
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported binary cache file version %d", version));
+        }
+        int flags = header.readByte();
+        InputStream payload = new BufferedInputStream(in, BUFFER_SIZE);
+        if ((flags & FLAG_COMPRESSED) != 0) {
+            payload = new GZIPInputStream(payload, BUFFER_SIZE);
+        }
+        WritableCache cache = new WritableCache();
+        new CacheReader(new DataInputStream(payload)).read(cache);
+        return cache;
+    }
+
+    private static AbstractContentCache toAbstractContentCache(ContentCache cache) {
+        ContentCache c = cache;
+        if (c instanceof SnapshotContentCache) {
+            c = ((SnapshotContentCache) c).getSnapshot();
+        }
+        if (c instanceof AbstractContentCache) {
+            return (AbstractContentCache) c;
+        }
+        throw new IllegalArgumentException(String.format("Unsupported cache implementation %s", cache.getClass()));
+    }
+
+    /*
+     * The following methods define the order in which the relations are
+     * written and read.
+     */
+
+    private static List<Map<String, DateTime>> getTimeMaps(AbstractContentCache cache) {
+        return Arrays.asList(cache.getMaxPhenomenonTimeForOfferingsMap(),
+                cache.getMinPhenomenonTimeForOfferingsMap(), cache.getMaxResultTimeForOfferingsMap(),
+                cache.getMinResultTimeForOfferingsMap(), cache.getMaxPhenomenonTimeForProceduresMap(),
+                cache.getMinPhenomenonTimeForProceduresMap());
+    }
+
+    private static List<SetMultiMap<String, String>> getSetMultiMaps(AbstractContentCache cache) {
+        return Arrays.asList(cache.getAllowedObservationTypesForOfferingsMap(),
+                cache.getAllowedFeatureOfInterestTypesForOfferingsMap(),
+                cache.getChildFeaturesForFeaturesOfInterestMap(), cache.getChildProceduresForProceduresMap(),
+                cache.getCompositePhenomenonsForOfferingsMap(), cache.getFeaturesOfInterestForOfferingMap(),
+                cache.getFeaturesOfInterestForResultTemplatesMap(),
+                cache.getObservablePropertiesForCompositePhenomenonsMap(),
+                cache.getObservablePropertiesForOfferingsMap(), cache.getObservablePropertiesForProceduresMap(),
+                cache.getObservationTypesForOfferingsMap(), cache.getFeatureOfInterestTypesForOfferingsMap(),
+                cache.getObservablePropertiesForResultTemplatesMap(), cache.getOfferingsForObservablePropertiesMap(),
+                cache.getOfferingsForProceduresMap(), cache.getParentFeaturesForFeaturesOfInterestMap(),
+                cache.getParentProceduresForProceduresMap(), cache.getProceduresForFeaturesOfInterestMap(),
+                cache.getProceduresForObservablePropertiesMap(), cache.getProceduresForOfferingsMap(),
+                cache.getHiddenChildProceduresForOfferingsMap(), cache.getRelatedFeaturesForOfferingsMap(),
+                cache.getResultTemplatesForOfferingsMap(), cache.getRolesForRelatedFeaturesMap());
+    }
+
+    private static List<Map<String, SosEnvelope>> getEnvelopeMaps(AbstractContentCache cache) {
+        return Arrays.asList(cache.getEnvelopeForOfferingsMap(),
+                cache.getSpatialFilteringProfileEnvelopeForOfferingsMap());
+    }
+
+    private static List<Map<String, String>> getStringMaps(AbstractContentCache cache) {
+        return Arrays.asList(cache.getNameForOfferingsMap(),
+                cache.getFeatureOfInterestHumanReadableNameForIdentifier(),
+                cache.getObservablePropertyHumanReadableNameForIdentifier(),
+                cache.getProcedureHumanReadableNameForIdentifier(), cache.getOfferingIdentifierForHumanReadableName());
+    }
+
+    private static List<Map<String, MultilingualString>> getMultilingualStringMaps(AbstractContentCache cache) {
+        return Arrays.asList(cache.getI18nNameForOfferingsMap(), cache.getI18nDescriptionForOfferingsMap());
+    }
+
+    private static List<Set<String>> getStringSets(AbstractContentCache cache) {
+        return Arrays.asList(cache.getFeaturesOfInterestSet(), cache.getProceduresSet(), cache.getOfferingsSet(),
+                cache.getResultTemplatesSet(), cache.getRequestableProcedureDescriptionFormats());
+    }
+
+    private static List<TimePeriod> getTimePeriods(AbstractContentCache cache) {
+        return Arrays.asList(cache.getGlobalPhenomenonTimeEnvelope(), cache.getGlobalResultTimeEnvelope());
+    }
+
+    /**
+     * Writes the relations to a buffer while collecting the dictionary, as
+     * the dictionary has to precede the relations.
+     */
+    private static class CacheWriter {
+        private final Map<String, Integer> indices = new HashMap<String, Integer>();
+
+        private final List<String> dictionary = new ArrayList<String>();
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+
+        private final DataOutputStream out = new DataOutputStream(buffer);
+
+        void write(AbstractContentCache cache) throws IOException {
+            out.writeInt(cache.getDefaultEPSGCode());
+            for (Map<String, DateTime> map : getTimeMaps(cache)) {
+                out.writeInt(map.size());
+                for (Entry<String, DateTime> e : map.entrySet()) {
+                    writeString(e.getKey());
+                    writeDateTime(e.getValue());
+                }
+            }
+            for (SetMultiMap<String, String> map : getSetMultiMaps(cache)) {
+                out.writeInt(map.size());
+                for (Entry<String, Set<String>> e : map.entrySet()) {
+                    writeString(e.getKey());
+                    writeStrings(e.getValue());
+                }
+            }
+            for (Map<String, SosEnvelope> map : getEnvelopeMaps(cache)) {
+                out.writeInt(map.size());
+                for (Entry<String, SosEnvelope> e : map.entrySet()) {
+                    writeString(e.getKey());
+                    writeEnvelope(e.getValue());
+                }
+            }
+            for (Map<String, String> map : getStringMaps(cache)) {
+                out.writeInt(map.size());
+                for (Entry<String, String> e : map.entrySet()) {
+                    writeString(e.getKey());
+                    writeString(e.getValue());
+                }
+            }
+            for (Map<String, MultilingualString> map : getMultilingualStringMaps(cache)) {
+                out.writeInt(map.size());
+                for (Entry<String, MultilingualString> e : map.entrySet()) {
+                    writeString(e.getKey());
+                    writeMultilingualString(e.getValue());
+                }
+            }
+            for (Set<String> set : getStringSets(cache)) {
+                writeStrings(set);
+            }
+            Set<Integer> epsgCodes = cache.getEpsgCodesSet();
+            out.writeInt(epsgCodes.size());
+            for (Integer epsgCode : epsgCodes) {
+                out.writeInt(epsgCode);
+            }
+            Set<Locale> languages = cache.getSupportedLanguageSet();
+            out.writeInt(languages.size());
+            for (Locale language : languages) {
+                writeLocale(language);
+            }
+            writeEnvelope(cache.getGlobalSpatialEnvelope());
+            for (TimePeriod period : getTimePeriods(cache)) {
+                writeDateTime(period.getStart());
+                writeDateTime(period.getEnd());
+            }
+            out.flush();
+        }
+
+        void writeTo(DataOutputStream stream) throws IOException {
+            stream.writeInt(dictionary.size());
+            for (String s : dictionary) {
+                byte[] bytes = s.getBytes(UTF8);
+                stream.writeInt(bytes.length);
+                stream.write(bytes);
+            }
+            buffer.writeTo(stream);
+            stream.flush();
+        }
+
+        private void writeString(String s) throws IOException {
+            if (s == null) {
+                out.writeInt(NULL_INDEX);
+            } else {
+                Integer index = indices.get(s);
+                if (index == null) {
+                    index = dictionary.size();
+                    dictionary.add(s);
+                    indices.put(s, index);
+                }
+                out.writeInt(index);
+            }
+        }
+
+        private void writeStrings(Set<String> strings) throws IOException {
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                writeString(s);
+            }
+        }
+
+        private void writeDateTime(DateTime time) throws IOException {
+            out.writeBoolean(time != null);
+            if (time != null) {
+                out.writeLong(time.getMillis());
+                writeString(time.getZone().getID());
+            }
+        }
+
+        private void writeEnvelope(SosEnvelope envelope) throws IOException {
+            out.writeBoolean(envelope != null);
+            if (envelope != null) {
+                out.writeInt(envelope.getSrid());
+                Envelope e = envelope.getEnvelope();
+                out.writeBoolean(e != null);
+                if (e != null) {
+                    out.writeBoolean(e.isNull());
+                    if (!e.isNull()) {
+                        out.writeDouble(e.getMinX());
+                        out.writeDouble(e.getMaxX());
+                        out.writeDouble(e.getMinY());
+                        out.writeDouble(e.getMaxY());
+                    }
+                }
+            }
+        }
+
+        private void writeMultilingualString(MultilingualString string) throws IOException {
+            out.writeInt(string.size());
+            for (LocalizedString ls : string) {
+                writeLocale(ls.getLang());
+                writeString(ls.getText());
+            }
+        }
+
+        private void writeLocale(Locale locale) throws IOException {
+            writeString(locale.getLanguage());
+            writeString(locale.getCountry());
+            writeString(locale.getVariant());
+        }
+    }
+
+    /**
+     * Reads the dictionary and fills the relations directly into the maps of
+     * a new cache.
+     */
+    private static class CacheReader {
+        private final DataInputStream in;
+
+        private String[] dictionary;
+
+        CacheReader(DataInputStream in) {
+            this.in = in;
+        }
+
+        void read(WritableCache cache) throws IOException {
+            dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; ++i) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                dictionary[i] = new String(bytes, UTF8);
+            }
+            cache.setDefaultEPSGCode(in.readInt());
+            for (Map<String, DateTime> map : getTimeMaps(cache)) {
+                for (int i = in.readInt(); i > 0; --i) {
+                    map.put(readString(), readDateTime());
+                }
+            }
+            for (SetMultiMap<String, String> map : getSetMultiMaps(cache)) {
+                for (int i = in.readInt(); i > 0; --i) {
+                    map.addAll(readString(), readStrings());
+                }
+            }
+            for (Map<String, SosEnvelope> map : getEnvelopeMaps(cache)) {
+                for (int i = in.readInt(); i > 0; --i) {
+                    map.put(readString(), readEnvelope());
+                }
+            }
+            for (Map<String, String> map : getStringMaps(cache)) {
+                for (int i = in.readInt(); i > 0; --i) {
+                    map.put(readString(), readString());
+                }
+            }
+            for (Map<String, MultilingualString> map : getMultilingualStringMaps(cache)) {
+                for (int i = in.readInt(); i > 0; --i) {
+                    map.put(readString(), readMultilingualString());
+                }
+            }
+            for (Set<String> set : getStringSets(cache)) {
+                set.addAll(readStrings());
+            }
+            Set<Integer> epsgCodes = cache.getEpsgCodesSet();
+            for (int i = in.readInt(); i > 0; --i) {
+                epsgCodes.add(in.readInt());
+            }
+            Set<Locale> languages = cache.getSupportedLanguageSet();
+            for (int i = in.readInt(); i > 0; --i) {
+                languages.add(readLocale());
+            }
+            SosEnvelope globalEnvelope = readEnvelope();
+            if (globalEnvelope != null) {
+                cache.setGlobalSpatialEnvelope(globalEnvelope);
+            }
+            for (TimePeriod period : getTimePeriods(cache)) {
+                period.setStart(readDateTime());
+                period.setEnd(readDateTime());
+            }
+        }
+
+        private String readString() throws IOException {
+            int index = in.readInt();
+            if (index == NULL_INDEX) {
+                return null;
+            }
+            if (index < 0 || index >= dictionary.length) {
+                throw new IOException(String.format("Invalid dictionary index %d", index));
+            }
+            return dictionary[index];
+        }
+
+        private List<String> readStrings() throws IOException {
+            int size = in.readInt();
+            List<String> strings = new ArrayList<String>(size);
+            for (int i = 0; i < size; ++i) {
+                strings.add(readString());
+            }
+            return strings;
+        }
+
+        private DateTime readDateTime() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            long millis = in.readLong();
+            return new DateTime(millis, DateTimeZone.forID(readString()));
+        }
+
+        private SosEnvelope readEnvelope() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            int srid = in.readInt();
+            Envelope envelope = null;
+            if (in.readBoolean()) {
+                if (in.readBoolean()) {
+                    envelope = new Envelope();
+                } else {
+                    double minX = in.readDouble();
+                    double maxX = in.readDouble();
+                    double minY = in.readDouble();
+                    double maxY = in.readDouble();
+                    envelope = new Envelope(minX, maxX, minY, maxY);
+                }
+            }
+            return new SosEnvelope(envelope, srid);
+        }
+
+        private MultilingualString readMultilingualString() throws IOException {
+            MultilingualString string = new MultilingualString();
+            for (int i = in.readInt(); i > 0; --i) {
+                string.addLocalization(readLocale(), readString());
+            }
+            return string;
+        }
+
+        private Locale readLocale() throws IOException {
+            return new Locale(readString(), readString(), readString());
+        }
+    }
+}
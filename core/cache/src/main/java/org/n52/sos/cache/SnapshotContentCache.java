@@ -0,0 +1,2564 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache;
+
+import java.io.ObjectStreamException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.joda.time.DateTime;
+import org.n52.sos.i18n.LocalizedString;
+import org.n52.sos.i18n.MultilingualString;
+import org.n52.sos.ogc.gml.time.Time;
+import org.n52.sos.ogc.sos.SosEnvelope;
+
+import com.vividsolutions.jts.geom.Envelope;
+
+/**
+ * {@code WritableContentCache} that serves all reads from an immutable snapshot
+ * of the wrapped cache. The snapshot is published through a volatile reference
+ * and contains no synchronized collections, so readers never lock, never copy
+ * and never block, even while the cache is updated.
+ * <p>
+ * Modifications are applied to the wrapped cache while holding a write lock.
+ * The next snapshot is built when the outermost lock is released, so an update
+ * that is enclosed in {@link #lock()} and {@link #unlock()} becomes visible to
+ * readers atomically. Only the collections the update touched are copied, the
+ * others are shared with the previous snapshot. The thread holding the lock
+ * reads the wrapped cache.
+ * <p>
+ * The wrapped cache is serialized instead of this class, so persisted caches
+ * stay compatible.
+ *
+ * @since 4.3.0
+ */
+public class SnapshotContentCache implements WritableContentCache {
+    private static final long serialVersionUID = 2693064129473950870L;
+
+    private final WritableContentCache cache;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile ContentCache snapshot;
+
+    private boolean modified = false;
+
+    /**
+     * Creates a new snapshot cache for the specified cache.
+     *
+     * @param cache
+     *            the cache to wrap
+     */
+    public SnapshotContentCache(WritableContentCache cache) {
+        if (cache == null) {
+            throw new NullPointerException("cache may not be null!");
+        }
+        this.cache = cache;
+        if (cache instanceof AbstractContentCache) {
+            ((AbstractContentCache) cache).trackModifications();
+        }
+        this.snapshot = createSnapshot(cache, null);
+    }
+
+    /**
+     * @return the wrapped cache
+     */
+    public WritableContentCache getWritableCache() {
+        return this.cache;
+    }
+
+    /**
+     * @return the currently published snapshot, or the wrapped cache if the
+     *         current thread is modifying it, so that updates see their own
+     *         changes
+     */
+    protected ContentCache getSnapshot() {
+        if (this.lock.isHeldByCurrentThread()) {
+            return this.cache;
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * Acquires the write lock. Modifications made until the matching call of
+     * {@link #unlock()} are published in a single snapshot.
+     */
+    public void lock() {
+        this.lock.lock();
+    }
+
+    /**
+     * Releases the write lock and publishes a new snapshot if the cache was
+     * modified and this is the outermost lock.
+     */
+    public void unlock() {
+        try {
+            if (this.modified && this.lock.getHoldCount() == 1) {
+                this.snapshot = createSnapshot(this.cache, this.snapshot);
+                this.modified = false;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void beginWrite() {
+        lock();
+        this.modified = true;
+    }
+
+    private void endWrite() {
+        unlock();
+    }
+
+    /**
+     * Creates an immutable copy of the specified cache. Collections that were
+     * not modified since the previous snapshot are shared with it, so an
+     * update only copies the collections it touched. Caches that are not
+     * based on {@link AbstractContentCache} can not be copied and are used as
+     * they are.
+     *
+     * @param cache
+     *            the cache to copy
+     * @param previous
+     *            the previous snapshot of the cache or <code>null</code>
+     *
+     * @return the snapshot
+     */
+    private static ContentCache createSnapshot(WritableContentCache cache, ContentCache previous) {
+        if (cache instanceof AbstractContentCache) {
+            ReadableCache snapshot = new ReadableCache();
+            snapshot.freeze((AbstractContentCache) cache,
+                    previous instanceof ReadableCache ? (ReadableCache) previous : null);
+            return snapshot;
+        }
+        return cache;
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return this.cache;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [cache=%s]", getClass().getSimpleName(), this.cache);
+    }
+
+    @Override
+    public DateTime getMaxPhenomenonTime() {
+        return getSnapshot().getMaxPhenomenonTime();
+    }
+
+    @Override
+    public boolean hasMaxPhenomenonTime() {
+        return getSnapshot().hasMaxPhenomenonTime();
+    }
+
+    @Override
+    public DateTime getMaxPhenomenonTimeForOffering(String offering) {
+        return getSnapshot().getMaxPhenomenonTimeForOffering(offering);
+    }
+
+    @Override
+    public boolean hasMaxPhenomenonTimeForOffering(String offering) {
+        return getSnapshot().hasMaxPhenomenonTimeForOffering(offering);
+    }
+
+    @Override
+    public DateTime getMaxPhenomenonTimeForProcedure(String procedure) {
+        return getSnapshot().getMaxPhenomenonTimeForProcedure(procedure);
+    }
+
+    @Override
+    public boolean hasMaxPhenomenonTimeForProcedure(String procedure) {
+        return getSnapshot().hasMaxPhenomenonTimeForProcedure(procedure);
+    }
+
+    @Override
+    public DateTime getMinPhenomenonTime() {
+        return getSnapshot().getMinPhenomenonTime();
+    }
+
+    @Override
+    public boolean hasMinPhenomenonTime() {
+        return getSnapshot().hasMinPhenomenonTime();
+    }
+
+    @Override
+    public DateTime getMinPhenomenonTimeForOffering(String offering) {
+        return getSnapshot().getMinPhenomenonTimeForOffering(offering);
+    }
+
+    @Override
+    public boolean hasMinPhenomenonTimeForOffering(String offering) {
+        return getSnapshot().hasMinPhenomenonTimeForOffering(offering);
+    }
+
+    @Override
+    public DateTime getMinPhenomenonTimeForProcedure(String procedure) {
+        return getSnapshot().getMinPhenomenonTimeForProcedure(procedure);
+    }
+
+    @Override
+    public boolean hasMinPhenomenonTimeForProcedure(String procedure) {
+        return getSnapshot().hasMinPhenomenonTimeForProcedure(procedure);
+    }
+
+    @Override
+    public DateTime getMaxResultTime() {
+        return getSnapshot().getMaxResultTime();
+    }
+
+    @Override
+    public boolean hasMaxResultTime() {
+        return getSnapshot().hasMaxResultTime();
+    }
+
+    @Override
+    public DateTime getMaxResultTimeForOffering(String offering) {
+        return getSnapshot().getMaxResultTimeForOffering(offering);
+    }
+
+    @Override
+    public boolean hasMaxResultTimeForOffering(String offering) {
+        return getSnapshot().hasMaxResultTimeForOffering(offering);
+    }
+
+    @Override
+    public DateTime getMinResultTime() {
+        return getSnapshot().getMinResultTime();
+    }
+
+    @Override
+    public boolean hasMinResultTime() {
+        return getSnapshot().hasMinResultTime();
+    }
+
+    @Override
+    public DateTime getMinResultTimeForOffering(String offering) {
+        return getSnapshot().getMinResultTimeForOffering(offering);
+    }
+
+    @Override
+    public boolean hasMinResultTimeForOffering(String offering) {
+        return getSnapshot().hasMinResultTimeForOffering(offering);
+    }
+
+    @Override
+    public int getDefaultEPSGCode() {
+        return getSnapshot().getDefaultEPSGCode();
+    }
+
+    @Override
+    public Set<String> getAllowedObservationTypesForOffering(String offering) {
+        return getSnapshot().getAllowedObservationTypesForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getAllowedFeatureOfInterestTypesForOffering(String offering) {
+        return getSnapshot().getAllowedFeatureOfInterestTypesForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getFeatureOfInterestTypes() {
+        return getSnapshot().getFeatureOfInterestTypes();
+    }
+
+    @Override
+    public boolean hasFeatureOfInterestType(String featureOfInterestType) {
+        return getSnapshot().hasFeatureOfInterestType(featureOfInterestType);
+    }
+
+    @Override
+    public Set<String> getFeatureOfInterestTypesForOffering(String offering) {
+        return getSnapshot().getFeatureOfInterestTypesForOffering(offering);
+    }
+
+    @Override
+    public boolean hasFeatureOfInterest(String featureOfInterest) {
+        return getSnapshot().hasFeatureOfInterest(featureOfInterest);
+    }
+
+    @Override
+    public Set<String> getFeaturesOfInterestForOffering(String offering) {
+        return getSnapshot().getFeaturesOfInterestForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getFeaturesOfInterestForResultTemplate(String resultTemplate) {
+        return getSnapshot().getFeaturesOfInterestForResultTemplate(resultTemplate);
+    }
+
+    @Override
+    public Set<String> getFeaturesOfInterestWithResultTemplate() {
+        return getSnapshot().getFeaturesOfInterestWithResultTemplate();
+    }
+
+    @Override
+    public Set<String> getObservableProperties() {
+        return getSnapshot().getObservableProperties();
+    }
+
+    @Override
+    public boolean hasObservableProperty(String observableProperty) {
+        return getSnapshot().hasObservableProperty(observableProperty);
+    }
+
+    @Override
+    public Set<String> getObservablePropertiesForOffering(String offering) {
+        return getSnapshot().getObservablePropertiesForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getObservablePropertiesForProcedure(String procedure) {
+        return getSnapshot().getObservablePropertiesForProcedure(procedure);
+    }
+
+    @Override
+    public Set<String> getObservationTypes() {
+        return getSnapshot().getObservationTypes();
+    }
+
+    @Override
+    public boolean hasObservationType(String observationType) {
+        return getSnapshot().hasObservationType(observationType);
+    }
+
+    @Override
+    public Set<String> getObservationTypesForOffering(String offering) {
+        return getSnapshot().getObservationTypesForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getObservablePropertiesForResultTemplate(String resultTemplate) {
+        return getSnapshot().getObservablePropertiesForResultTemplate(resultTemplate);
+    }
+
+    @Override
+    public Set<String> getObservablePropertiesWithResultTemplate() {
+        return getSnapshot().getObservablePropertiesWithResultTemplate();
+    }
+
+    @Override
+    public Set<String> getOfferings() {
+        return getSnapshot().getOfferings();
+    }
+
+    @Override
+    public boolean hasOffering(String offering) {
+        return getSnapshot().hasOffering(offering);
+    }
+
+    @Override
+    public Set<String> getOfferingsForObservableProperty(String observableProperty) {
+        return getSnapshot().getOfferingsForObservableProperty(observableProperty);
+    }
+
+    @Override
+    public Set<String> getOfferingsForProcedure(String procedure) {
+        return getSnapshot().getOfferingsForProcedure(procedure);
+    }
+
+    @Override
+    public Set<String> getOfferingsWithResultTemplate() {
+        return getSnapshot().getOfferingsWithResultTemplate();
+    }
+
+    @Override
+    public Set<String> getProcedures() {
+        return getSnapshot().getProcedures();
+    }
+
+    @Override
+    public boolean hasProcedure(String procedure) {
+        return getSnapshot().hasProcedure(procedure);
+    }
+
+    @Override
+    public Set<String> getProceduresForFeatureOfInterest(String featureOfInterest) {
+        return getSnapshot().getProceduresForFeatureOfInterest(featureOfInterest);
+    }
+
+    @Override
+    public Set<String> getProceduresForObservableProperty(String observableProperty) {
+        return getSnapshot().getProceduresForObservableProperty(observableProperty);
+    }
+
+    @Override
+    public Set<String> getProceduresForOffering(String offering) {
+        return getSnapshot().getProceduresForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getHiddenChildProceduresForOffering(String offering) {
+        return getSnapshot().getHiddenChildProceduresForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getRelatedFeatures() {
+        return getSnapshot().getRelatedFeatures();
+    }
+
+    @Override
+    public boolean hasRelatedFeature(String relatedFeature) {
+        return getSnapshot().hasRelatedFeature(relatedFeature);
+    }
+
+    @Override
+    public Set<String> getRelatedFeaturesForOffering(String offering) {
+        return getSnapshot().getRelatedFeaturesForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getResultTemplates() {
+        return getSnapshot().getResultTemplates();
+    }
+
+    @Override
+    public boolean hasResultTemplate(String resultTemplate) {
+        return getSnapshot().hasResultTemplate(resultTemplate);
+    }
+
+    @Override
+    public Set<String> getResultTemplatesForOffering(String offering) {
+        return getSnapshot().getResultTemplatesForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getRolesForRelatedFeature(String relatedFeature) {
+        return getSnapshot().getRolesForRelatedFeature(relatedFeature);
+    }
+
+    @Override
+    public SosEnvelope getEnvelopeForOffering(String offering) {
+        return getSnapshot().getEnvelopeForOffering(offering);
+    }
+
+    @Override
+    public SosEnvelope getSpatialFilteringProfileEnvelopeForOffering(String offering) {
+        return getSnapshot().getSpatialFilteringProfileEnvelopeForOffering(offering);
+    }
+
+    @Override
+    public boolean hasEnvelopeForOffering(String offering) {
+        return getSnapshot().hasEnvelopeForOffering(offering);
+    }
+
+    @Override
+    public boolean hasSpatialFilteringProfileEnvelopeForOffering(String offering) {
+        return getSnapshot().hasSpatialFilteringProfileEnvelopeForOffering(offering);
+    }
+
+    @Override
+    public SosEnvelope getGlobalEnvelope() {
+        return getSnapshot().getGlobalEnvelope();
+    }
+
+    @Override
+    public boolean hasGlobalEnvelope() {
+        return getSnapshot().hasGlobalEnvelope();
+    }
+
+    @Override
+    public String getNameForOffering(String offering) {
+        return getSnapshot().getNameForOffering(offering);
+    }
+
+    @Override
+    public LocalizedString getI18nNameForOffering(String offering, Locale i18n) {
+        return getSnapshot().getI18nNameForOffering(offering, i18n);
+    }
+
+    @Override
+    public MultilingualString getI18nNamesForOffering(String offering) {
+        return getSnapshot().getI18nNamesForOffering(offering);
+    }
+
+    @Override
+    public boolean hasI18NNamesForOffering(String offering, Locale i18n) {
+        return getSnapshot().hasI18NNamesForOffering(offering, i18n);
+    }
+
+    @Override
+    public LocalizedString getI18nDescriptionForOffering(String offering, Locale i18n) {
+        return getSnapshot().getI18nDescriptionForOffering(offering, i18n);
+    }
+
+    @Override
+    public boolean hasI18NDescriptionForOffering(String offering, Locale i18n) {
+        return getSnapshot().hasI18NDescriptionForOffering(offering, i18n);
+    }
+
+    @Override
+    public MultilingualString getI18nDescriptionsForOffering(String offering) {
+        return getSnapshot().getI18nDescriptionsForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getCompositePhenomenonsForOffering(String offering) {
+        return getSnapshot().getCompositePhenomenonsForOffering(offering);
+    }
+
+    @Override
+    public Set<String> getFeaturesOfInterest() {
+        return getSnapshot().getFeaturesOfInterest();
+    }
+
+    @Override
+    public Set<String> getObservablePropertiesForCompositePhenomenon(String compositePhenomenon) {
+        return getSnapshot().getObservablePropertiesForCompositePhenomenon(compositePhenomenon);
+    }
+
+    @Override
+    public Set<String> getParentFeatures(String featureOfInterest, boolean fullHierarchy, boolean includeSelf) {
+        return getSnapshot().getParentFeatures(featureOfInterest, fullHierarchy, includeSelf);
+    }
+
+    @Override
+    public Set<String> getParentFeatures(Set<String> featuresOfInterest, boolean fullHierarchy,
+            boolean includeSelves) {
+        return getSnapshot().getParentFeatures(featuresOfInterest, fullHierarchy, includeSelves);
+    }
+
+    @Override
+    public Set<String> getChildFeatures(String featureOfInterest, boolean fullHierarchy, boolean includeSelf) {
+        return getSnapshot().getChildFeatures(featureOfInterest, fullHierarchy, includeSelf);
+    }
+
+    @Override
+    public Set<String> getParentProcedures(String procedure, boolean fullHierarchy, boolean includeSelf) {
+        return getSnapshot().getParentProcedures(procedure, fullHierarchy, includeSelf);
+    }
+
+    @Override
+    public Set<String> getParentProcedures(Set<String> procedures, boolean fullHierarchy, boolean includeSelves) {
+        return getSnapshot().getParentProcedures(procedures, fullHierarchy, includeSelves);
+    }
+
+    @Override
+    public Set<String> getChildProcedures(String procedure, boolean fullHierarchy, boolean includeSelf) {
+        return getSnapshot().getChildProcedures(procedure, fullHierarchy, includeSelf);
+    }
+
+    @Override
+    public Set<String> getChildProcedures(Set<String> procedure, boolean fullHierarchy, boolean includeSelves) {
+        return getSnapshot().getChildProcedures(procedure, fullHierarchy, includeSelves);
+    }
+
+    @Override
+    public Set<Integer> getEpsgCodes() {
+        return getSnapshot().getEpsgCodes();
+    }
+
+    @Override
+    public boolean hasEpsgCode(Integer epsgCode) {
+        return getSnapshot().hasEpsgCode(epsgCode);
+    }
+
+    @Override
+    public boolean isRelatedFeatureSampled(String relatedFeatureIdentifier) {
+        return getSnapshot().isRelatedFeatureSampled(relatedFeatureIdentifier);
+    }
+
+    @Override
+    public Set<Locale> getSupportedLanguages() {
+        return getSnapshot().getSupportedLanguages();
+    }
+
+    @Override
+    public boolean hasSupportedLanguage() {
+        return getSnapshot().hasSupportedLanguage();
+    }
+
+    @Override
+    public boolean isLanguageSupported(Locale language) {
+        return getSnapshot().isLanguageSupported(language);
+    }
+
+    @Override
+    public Set<String> getRequstableProcedureDescriptionFormat() {
+        return getSnapshot().getRequstableProcedureDescriptionFormat();
+    }
+
+    @Override
+    public boolean hasRequstableProcedureDescriptionFormat(String format) {
+        return getSnapshot().hasRequstableProcedureDescriptionFormat(format);
+    }
+
+    @Override
+    public String getFeatureOfInterestIdentifierForHumanReadableName(String humanReadableName) {
+        return getSnapshot().getFeatureOfInterestIdentifierForHumanReadableName(humanReadableName);
+    }
+
+    @Override
+    public String getFeatureOfInterestHumanReadableNameForIdentifier(String identifier) {
+        return getSnapshot().getFeatureOfInterestHumanReadableNameForIdentifier(identifier);
+    }
+
+    @Override
+    public String getObservablePropertyIdentifierForHumanReadableName(String humanReadableName) {
+        return getSnapshot().getObservablePropertyIdentifierForHumanReadableName(humanReadableName);
+    }
+
+    @Override
+    public String getObservablePropertyHumanReadableNameForIdentifier(String identifier) {
+        return getSnapshot().getObservablePropertyHumanReadableNameForIdentifier(identifier);
+    }
+
+    @Override
+    public String getProcedureIdentifierForHumanReadableName(String humanReadableName) {
+        return getSnapshot().getProcedureIdentifierForHumanReadableName(humanReadableName);
+    }
+
+    @Override
+    public String getProcedureHumanReadableNameForIdentifier(String identifier) {
+        return getSnapshot().getProcedureHumanReadableNameForIdentifier(identifier);
+    }
+
+    @Override
+    public String getOfferingIdentifierForHumanReadableName(String humanReadableName) {
+        return getSnapshot().getOfferingIdentifierForHumanReadableName(humanReadableName);
+    }
+
+    @Override
+    public String getOfferingHumanReadableNameForIdentifier(String identifier) {
+        return getSnapshot().getOfferingHumanReadableNameForIdentifier(identifier);
+    }
+
+    @Override
+    public Set<String> getFeaturesOfInterestWithOffering() {
+        return this.cache.getFeaturesOfInterestWithOffering();
+    }
+
+    @Override
+    public void addAllowedObservationTypeForOffering(String offering, String allowedObservationType) {
+        beginWrite();
+        try {
+            this.cache.addAllowedObservationTypeForOffering(offering, allowedObservationType);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addAllowedObservationTypesForOffering(String offering, Collection<String> allowedObservationTypes) {
+        beginWrite();
+        try {
+            this.cache.addAllowedObservationTypesForOffering(offering, allowedObservationTypes);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addAllowedFeatureOfInterestTypeForOffering(String offering, String allowedFeatureOfInterestType) {
+        beginWrite();
+        try {
+            this.cache.addAllowedFeatureOfInterestTypeForOffering(offering, allowedFeatureOfInterestType);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addAllowedFeatureOfInterestTypesForOffering(String offering,
+            Collection<String> allowedFeatureOfInterestTypes) {
+        beginWrite();
+        try {
+            this.cache.addAllowedFeatureOfInterestTypesForOffering(offering, allowedFeatureOfInterestTypes);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addCompositePhenomenonForOffering(String offering, String compositePhenomenon) {
+        beginWrite();
+        try {
+            this.cache.addCompositePhenomenonForOffering(offering, compositePhenomenon);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addEpsgCode(Integer epsgCode) {
+        beginWrite();
+        try {
+            this.cache.addEpsgCode(epsgCode);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addEpsgCodes(Collection<Integer> epsgCodes) {
+        beginWrite();
+        try {
+            this.cache.addEpsgCodes(epsgCodes);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addFeatureOfInterest(String featureOfInterest) {
+        beginWrite();
+        try {
+            this.cache.addFeatureOfInterest(featureOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addFeatureOfInterestForOffering(String offering, String feature) {
+        beginWrite();
+        try {
+            this.cache.addFeatureOfInterestForOffering(offering, feature);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addFeatureOfInterestForResultTemplate(String resultTemplate, String featureOfInterest) {
+        beginWrite();
+        try {
+            this.cache.addFeatureOfInterestForResultTemplate(resultTemplate, featureOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addFeaturesOfInterest(Collection<String> featureOfInterest) {
+        beginWrite();
+        try {
+            this.cache.addFeaturesOfInterest(featureOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addFeaturesOfInterestForResultTemplate(String resultTemplate, Collection<String> featuresOfInterest) {
+        beginWrite();
+        try {
+            this.cache.addFeaturesOfInterestForResultTemplate(resultTemplate, featuresOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addObservablePropertyForCompositePhenomenon(String compositePhenomenon, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.addObservablePropertyForCompositePhenomenon(compositePhenomenon, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addObservablePropertyForOffering(String offering, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.addObservablePropertyForOffering(offering, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addObservablePropertyForProcedure(String procedure, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.addObservablePropertyForProcedure(procedure, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addObservablePropertyForResultTemplate(String resultTemplate, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.addObservablePropertyForResultTemplate(resultTemplate, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addObservationTypesForOffering(String offering, String observationType) {
+        beginWrite();
+        try {
+            this.cache.addObservationTypesForOffering(offering, observationType);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addFeatureOfInterestTypesForOffering(String offering, String featureOfInterestType) {
+        beginWrite();
+        try {
+            this.cache.addFeatureOfInterestTypesForOffering(offering, featureOfInterestType);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addOfferingForObservableProperty(String observableProperty, String offering) {
+        beginWrite();
+        try {
+            this.cache.addOfferingForObservableProperty(observableProperty, offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addOfferingForProcedure(String procedure, String offering) {
+        beginWrite();
+        try {
+            this.cache.addOfferingForProcedure(procedure, offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addParentFeature(String featureOfInterest, String parentFeature) {
+        beginWrite();
+        try {
+            this.cache.addParentFeature(featureOfInterest, parentFeature);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addParentFeatures(String featureOfInterest, Collection<String> parentFeatures) {
+        beginWrite();
+        try {
+            this.cache.addParentFeatures(featureOfInterest, parentFeatures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addParentProcedure(String procedure, String parentProcedure) {
+        beginWrite();
+        try {
+            this.cache.addParentProcedure(procedure, parentProcedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addParentProcedures(String procedure, Collection<String> parentProcedures) {
+        beginWrite();
+        try {
+            this.cache.addParentProcedures(procedure, parentProcedures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addProcedure(String procedure) {
+        beginWrite();
+        try {
+            this.cache.addProcedure(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addProcedureForFeatureOfInterest(String featureOfInterest, String procedure) {
+        beginWrite();
+        try {
+            this.cache.addProcedureForFeatureOfInterest(featureOfInterest, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addProcedureForObservableProperty(String observableProperty, String procedure) {
+        beginWrite();
+        try {
+            this.cache.addProcedureForObservableProperty(observableProperty, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addProcedureForOffering(String offering, String procedure) {
+        beginWrite();
+        try {
+            this.cache.addProcedureForOffering(offering, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addHiddenChildProcedureForOffering(String offering, String procedure) {
+        beginWrite();
+        try {
+            this.cache.addHiddenChildProcedureForOffering(offering, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addProcedures(Collection<String> procedure) {
+        beginWrite();
+        try {
+            this.cache.addProcedures(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addRelatedFeatureForOffering(String offering, String relatedFeature) {
+        beginWrite();
+        try {
+            this.cache.addRelatedFeatureForOffering(offering, relatedFeature);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addRelatedFeaturesForOffering(String offering, Collection<String> relatedFeatures) {
+        beginWrite();
+        try {
+            this.cache.addRelatedFeaturesForOffering(offering, relatedFeatures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addResultTemplate(String resultTemplate) {
+        beginWrite();
+        try {
+            this.cache.addResultTemplate(resultTemplate);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addResultTemplateForOffering(String offering, String resultTemplate) {
+        beginWrite();
+        try {
+            this.cache.addResultTemplateForOffering(offering, resultTemplate);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addResultTemplates(Collection<String> resultTemplates) {
+        beginWrite();
+        try {
+            this.cache.addResultTemplates(resultTemplates);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addRoleForRelatedFeature(String relatedFeature, String role) {
+        beginWrite();
+        try {
+            this.cache.addRoleForRelatedFeature(relatedFeature, role);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addFeatureOfInterestIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.addFeatureOfInterestIdentifierHumanReadableName(identifier, humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addObservablePropertyIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.addObservablePropertyIdentifierHumanReadableName(identifier, humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addProcedureIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.addProcedureIdentifierHumanReadableName(identifier, humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addOfferingIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.addOfferingIdentifierHumanReadableName(identifier, humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeAllowedObservationTypeForOffering(String offering, String allowedObservationType) {
+        beginWrite();
+        try {
+            this.cache.removeAllowedObservationTypeForOffering(offering, allowedObservationType);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeAllowedObservationTypesForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeAllowedObservationTypesForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeCompositePhenomenonForOffering(String offering, String compositePhenomenon) {
+        beginWrite();
+        try {
+            this.cache.removeCompositePhenomenonForOffering(offering, compositePhenomenon);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeCompositePhenomenonsForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeCompositePhenomenonsForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeEnvelopeForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeEnvelopeForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeSpatialFilteringProfileEnvelopeForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeSpatialFilteringProfileEnvelopeForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeEpsgCode(Integer epsgCode) {
+        beginWrite();
+        try {
+            this.cache.removeEpsgCode(epsgCode);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeEpsgCodes(Collection<Integer> epsgCode) {
+        beginWrite();
+        try {
+            this.cache.removeEpsgCodes(epsgCode);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeatureOfInterest(String featureOfInterest) {
+        beginWrite();
+        try {
+            this.cache.removeFeatureOfInterest(featureOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeatureOfInterestForOffering(String offering, String featureOfInterest) {
+        beginWrite();
+        try {
+            this.cache.removeFeatureOfInterestForOffering(offering, featureOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeatureOfInterestForResultTemplate(String resultTemplate, String featureOfInterest) {
+        beginWrite();
+        try {
+            this.cache.removeFeatureOfInterestForResultTemplate(resultTemplate, featureOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeaturesOfInterest(Collection<String> featuresOfInterest) {
+        beginWrite();
+        try {
+            this.cache.removeFeaturesOfInterest(featuresOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeaturesOfInterestForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeFeaturesOfInterestForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeaturesOfInterestForResultTemplate(String resultTemplate) {
+        beginWrite();
+        try {
+            this.cache.removeFeaturesOfInterestForResultTemplate(resultTemplate);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeMaxPhenomenonTimeForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeMaxPhenomenonTimeForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeMinPhenomenonTimeForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeMinPhenomenonTimeForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeMaxPhenomenonTimeForProcedure(String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeMaxPhenomenonTimeForProcedure(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeMinPhenomenonTimeForProcedure(String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeMinPhenomenonTimeForProcedure(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeMaxResultTimeForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeMaxResultTimeForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeMinResultTimeForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeMinResultTimeForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeNameForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeNameForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertiesForCompositePhenomenon(String compositePhenomenon) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertiesForCompositePhenomenon(compositePhenomenon);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertiesForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertiesForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertiesForProcedure(String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertiesForProcedure(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertiesForResultTemplate(String resultTemplate) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertiesForResultTemplate(resultTemplate);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertyForCompositePhenomenon(String compositePhenomenon, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertyForCompositePhenomenon(compositePhenomenon, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertyForOffering(String offering, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertyForOffering(offering, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertyForProcedure(String procedure, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertyForProcedure(procedure, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertyForResultTemplate(String resultTemplate, String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertyForResultTemplate(resultTemplate, observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeatureOfInterestTypeForOffering(String offering, String featureOfInterestType) {
+        beginWrite();
+        try {
+            this.cache.removeFeatureOfInterestTypeForOffering(offering, featureOfInterestType);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeatureOfInterestTypesForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeFeatureOfInterestTypesForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservationTypeForOffering(String offering, String observationType) {
+        beginWrite();
+        try {
+            this.cache.removeObservationTypeForOffering(offering, observationType);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservationTypesForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeObservationTypesForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOfferingForObservableProperty(String observableProperty, String offering) {
+        beginWrite();
+        try {
+            this.cache.removeOfferingForObservableProperty(observableProperty, offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOfferingForProcedure(String procedure, String offering) {
+        beginWrite();
+        try {
+            this.cache.removeOfferingForProcedure(procedure, offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOfferingsForObservableProperty(String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.removeOfferingsForObservableProperty(observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOfferingsForProcedure(String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeOfferingsForProcedure(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProcedure(String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeProcedure(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProcedureForFeatureOfInterest(String featureOfInterest, String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeProcedureForFeatureOfInterest(featureOfInterest, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProcedureForObservableProperty(String observableProperty, String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeProcedureForObservableProperty(observableProperty, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProcedureForOffering(String offering, String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeProcedureForOffering(offering, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeHiddenChildProcedureForOffering(String offering, String procedure) {
+        beginWrite();
+        try {
+            this.cache.removeHiddenChildProcedureForOffering(offering, procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProcedures(Collection<String> procedure) {
+        beginWrite();
+        try {
+            this.cache.removeProcedures(procedure);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProceduresForFeatureOfInterest(String featureOfInterest) {
+        beginWrite();
+        try {
+            this.cache.removeProceduresForFeatureOfInterest(featureOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProceduresForObservableProperty(String observableProperty) {
+        beginWrite();
+        try {
+            this.cache.removeProceduresForObservableProperty(observableProperty);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProceduresForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeProceduresForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeRelatedFeatureForOffering(String offering, String relatedFeature) {
+        beginWrite();
+        try {
+            this.cache.removeRelatedFeatureForOffering(offering, relatedFeature);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeRelatedFeaturesForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeRelatedFeaturesForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeResultTemplate(String resultTemplate) {
+        beginWrite();
+        try {
+            this.cache.removeResultTemplate(resultTemplate);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeResultTemplateForOffering(String offering, String resultTemplate) {
+        beginWrite();
+        try {
+            this.cache.removeResultTemplateForOffering(offering, resultTemplate);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeResultTemplates(Collection<String> resultTemplates) {
+        beginWrite();
+        try {
+            this.cache.removeResultTemplates(resultTemplates);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeResultTemplatesForOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeResultTemplatesForOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeRoleForRelatedFeature(String relatedFeature, String role) {
+        beginWrite();
+        try {
+            this.cache.removeRoleForRelatedFeature(relatedFeature, role);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeRolesForRelatedFeature(String relatedFeature) {
+        beginWrite();
+        try {
+            this.cache.removeRolesForRelatedFeature(relatedFeature);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeRolesForRelatedFeatureNotIn(Collection<String> features) {
+        beginWrite();
+        try {
+            this.cache.removeRolesForRelatedFeatureNotIn(features);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeatureOfInterestIdentifierForHumanReadableName(String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.removeFeatureOfInterestIdentifierForHumanReadableName(humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeFeatureOfInterestHumanReadableNameForIdentifier(String identifier) {
+        beginWrite();
+        try {
+            this.cache.removeFeatureOfInterestHumanReadableNameForIdentifier(identifier);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertyIdentifierForHumanReadableName(String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertyIdentifierForHumanReadableName(humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeObservablePropertyHumanReadableNameForIdentifier(String identifier) {
+        beginWrite();
+        try {
+            this.cache.removeObservablePropertyHumanReadableNameForIdentifier(identifier);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProcedureIdentifierForHumanReadableName(String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.removeProcedureIdentifierForHumanReadableName(humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeProcedureHumanReadableNameForIdentifier(String identifier) {
+        beginWrite();
+        try {
+            this.cache.removeProcedureHumanReadableNameForIdentifier(identifier);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOfferingIdentifierForHumanReadableName(String humanReadableName) {
+        beginWrite();
+        try {
+            this.cache.removeOfferingIdentifierForHumanReadableName(humanReadableName);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOfferingHumanReadableNameForIdentifier(String identifier) {
+        beginWrite();
+        try {
+            this.cache.removeOfferingHumanReadableNameForIdentifier(identifier);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setAllowedObservationTypeForOffering(String offering, Collection<String> allowedObservationTypes) {
+        beginWrite();
+        try {
+            this.cache.setAllowedObservationTypeForOffering(offering, allowedObservationTypes);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setAllowedFeatureOfInterestTypeForOffering(String offering,
+            Collection<String> allowedFeatureOfInterestTypes) {
+        beginWrite();
+        try {
+            this.cache.setAllowedFeatureOfInterestTypeForOffering(offering, allowedFeatureOfInterestTypes);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setCompositePhenomenonsForOffering(String offering, Collection<String> compositePhenomenons) {
+        beginWrite();
+        try {
+            this.cache.setCompositePhenomenonsForOffering(offering, compositePhenomenons);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setDefaultEPSGCode(int defaultEPSGCode) {
+        beginWrite();
+        try {
+            this.cache.setDefaultEPSGCode(defaultEPSGCode);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setEnvelopeForOffering(String offering, SosEnvelope envelope) {
+        beginWrite();
+        try {
+            this.cache.setEnvelopeForOffering(offering, envelope);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setSpatialFilteringProfileEnvelopeForOffering(String offering, SosEnvelope envelope) {
+        beginWrite();
+        try {
+            this.cache.setSpatialFilteringProfileEnvelopeForOffering(offering, envelope);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updateEnvelopeForOffering(String offering, Envelope envelope) {
+        beginWrite();
+        try {
+            this.cache.updateEnvelopeForOffering(offering, envelope);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updateSpatialFilteringProfileEnvelopeForOffering(String offering, Envelope envelope) {
+        beginWrite();
+        try {
+            this.cache.updateSpatialFilteringProfileEnvelopeForOffering(offering, envelope);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setPhenomenonTime(DateTime min, DateTime max) {
+        beginWrite();
+        try {
+            this.cache.setPhenomenonTime(min, max);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updatePhenomenonTime(Time eventTime) {
+        beginWrite();
+        try {
+            this.cache.updatePhenomenonTime(eventTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void recalculatePhenomenonTime() {
+        beginWrite();
+        try {
+            this.cache.recalculatePhenomenonTime();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setResultTime(DateTime min, DateTime max) {
+        beginWrite();
+        try {
+            this.cache.setResultTime(min, max);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updateResultTime(Time eventTime) {
+        beginWrite();
+        try {
+            this.cache.updateResultTime(eventTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void recalculateResultTime() {
+        beginWrite();
+        try {
+            this.cache.recalculateResultTime();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setFeaturesOfInterest(Collection<String> featuresOfInterest) {
+        beginWrite();
+        try {
+            this.cache.setFeaturesOfInterest(featuresOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setFeaturesOfInterestForOffering(String offering, Collection<String> featuresOfInterest) {
+        beginWrite();
+        try {
+            this.cache.setFeaturesOfInterestForOffering(offering, featuresOfInterest);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setGlobalEnvelope(SosEnvelope globalEnvelope) {
+        beginWrite();
+        try {
+            this.cache.setGlobalEnvelope(globalEnvelope);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updateGlobalEnvelope(Envelope e) {
+        beginWrite();
+        try {
+            this.cache.updateGlobalEnvelope(e);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void recalculateGlobalEnvelope() {
+        beginWrite();
+        try {
+            this.cache.recalculateGlobalEnvelope();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMaxPhenomenonTime(DateTime maxEventTime) {
+        beginWrite();
+        try {
+            this.cache.setMaxPhenomenonTime(maxEventTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMaxPhenomenonTimeForOffering(String offering, DateTime maxTime) {
+        beginWrite();
+        try {
+            this.cache.setMaxPhenomenonTimeForOffering(offering, maxTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMaxPhenomenonTimeForProcedure(String procedure, DateTime maxTime) {
+        beginWrite();
+        try {
+            this.cache.setMaxPhenomenonTimeForProcedure(procedure, maxTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMinPhenomenonTime(DateTime minEventTime) {
+        beginWrite();
+        try {
+            this.cache.setMinPhenomenonTime(minEventTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMinPhenomenonTimeForOffering(String offering, DateTime minTime) {
+        beginWrite();
+        try {
+            this.cache.setMinPhenomenonTimeForOffering(offering, minTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMinPhenomenonTimeForProcedure(String procedure, DateTime minTime) {
+        beginWrite();
+        try {
+            this.cache.setMinPhenomenonTimeForProcedure(procedure, minTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updatePhenomenonTimeForOffering(String offering, Time eventTime) {
+        beginWrite();
+        try {
+            this.cache.updatePhenomenonTimeForOffering(offering, eventTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updatePhenomenonTimeForProcedure(String procedure, Time eventTime) {
+        beginWrite();
+        try {
+            this.cache.updatePhenomenonTimeForProcedure(procedure, eventTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMaxResultTime(DateTime maxResultTime) {
+        beginWrite();
+        try {
+            this.cache.setMaxResultTime(maxResultTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMaxResultTimeForOffering(String offering, DateTime maxTime) {
+        beginWrite();
+        try {
+            this.cache.setMaxResultTimeForOffering(offering, maxTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMinResultTime(DateTime minResultTime) {
+        beginWrite();
+        try {
+            this.cache.setMinResultTime(minResultTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setMinResultTimeForOffering(String offering, DateTime minTime) {
+        beginWrite();
+        try {
+            this.cache.setMinResultTimeForOffering(offering, minTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updateResultTimeForOffering(String offering, Time resultTime) {
+        beginWrite();
+        try {
+            this.cache.updateResultTimeForOffering(offering, resultTime);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setNameForOffering(String offering, String name) {
+        beginWrite();
+        try {
+            this.cache.setNameForOffering(offering, name);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setI18nNameForOffering(String offering, MultilingualString name) {
+        beginWrite();
+        try {
+            this.cache.setI18nNameForOffering(offering, name);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setI18nDescriptionForOffering(String offering, MultilingualString description) {
+        beginWrite();
+        try {
+            this.cache.setI18nDescriptionForOffering(offering, description);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setObservablePropertiesForCompositePhenomenon(String compositePhenomenon,
+            Collection<String> observableProperties) {
+        beginWrite();
+        try {
+            this.cache.setObservablePropertiesForCompositePhenomenon(compositePhenomenon, observableProperties);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setObservablePropertiesForOffering(String offering, Collection<String> observableProperties) {
+        beginWrite();
+        try {
+            this.cache.setObservablePropertiesForOffering(offering, observableProperties);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setObservablePropertiesForProcedure(String procedure, Collection<String> observableProperties) {
+        beginWrite();
+        try {
+            this.cache.setObservablePropertiesForProcedure(procedure, observableProperties);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setObservablePropertiesForResultTemplate(String resultTemplate,
+            Collection<String> observableProperties) {
+        beginWrite();
+        try {
+            this.cache.setObservablePropertiesForResultTemplate(resultTemplate, observableProperties);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setObservationTypesForOffering(String offering, Collection<String> observationTypes) {
+        beginWrite();
+        try {
+            this.cache.setObservationTypesForOffering(offering, observationTypes);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setFeatureOfInterestTypesForOffering(String offering, Collection<String> featureOfInterestTypes) {
+        beginWrite();
+        try {
+            this.cache.setFeatureOfInterestTypesForOffering(offering, featureOfInterestTypes);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setOfferingsForObservableProperty(String observableProperty, Collection<String> offerings) {
+        beginWrite();
+        try {
+            this.cache.setOfferingsForObservableProperty(observableProperty, offerings);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setOfferingsForProcedure(String procedure, Collection<String> offerings) {
+        beginWrite();
+        try {
+            this.cache.setOfferingsForProcedure(procedure, offerings);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setProcedures(Collection<String> procedures) {
+        beginWrite();
+        try {
+            this.cache.setProcedures(procedures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setProceduresForFeatureOfInterest(String featureOfInterest, Collection<String> procedures) {
+        beginWrite();
+        try {
+            this.cache.setProceduresForFeatureOfInterest(featureOfInterest, procedures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setProceduresForObservableProperty(String observableProperty, Collection<String> procedures) {
+        beginWrite();
+        try {
+            this.cache.setProceduresForObservableProperty(observableProperty, procedures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setProceduresForOffering(String offering, Collection<String> procedures) {
+        beginWrite();
+        try {
+            this.cache.setProceduresForOffering(offering, procedures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setHiddenChildProceduresForOffering(String offering, Collection<String> procedures) {
+        beginWrite();
+        try {
+            this.cache.setHiddenChildProceduresForOffering(offering, procedures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setRelatedFeaturesForOffering(String offering, Collection<String> relatedFeatures) {
+        beginWrite();
+        try {
+            this.cache.setRelatedFeaturesForOffering(offering, relatedFeatures);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setResultTemplatesForOffering(String offering, Collection<String> resultTemplates) {
+        beginWrite();
+        try {
+            this.cache.setResultTemplatesForOffering(offering, resultTemplates);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setRolesForRelatedFeature(String relatedFeature, Collection<String> roles) {
+        beginWrite();
+        try {
+            this.cache.setRolesForRelatedFeature(relatedFeature, roles);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearFeaturesOfInterest() {
+        beginWrite();
+        try {
+            this.cache.clearFeaturesOfInterest();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearProceduresForFeatureOfInterest() {
+        beginWrite();
+        try {
+            this.cache.clearProceduresForFeatureOfInterest();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearFeatureHierarchy() {
+        beginWrite();
+        try {
+            this.cache.clearFeatureHierarchy();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearProceduresForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearProceduresForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearHiddenChildProceduresForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearHiddenChildProceduresForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearNameForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearNameForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearI18nNamesForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearI18nNamesForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearI18nDescriptionsNameForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearI18nDescriptionsNameForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearObservablePropertiesForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearObservablePropertiesForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearRelatedFeaturesForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearRelatedFeaturesForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearObservationTypesForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearObservationTypesForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearAllowedObservationTypeForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearAllowedObservationTypeForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearEnvelopeForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearEnvelopeForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearSpatialFilteringProfileEnvelopeForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearSpatialFilteringProfileEnvelopeForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearFeaturesOfInterestForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearFeaturesOfInterestForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearMinPhenomenonTimeForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearMinPhenomenonTimeForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearMaxPhenomenonTimeForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearMaxPhenomenonTimeForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearMinPhenomenonTimeForProcedures() {
+        beginWrite();
+        try {
+            this.cache.clearMinPhenomenonTimeForProcedures();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearMaxPhenomenonTimeForProcedures() {
+        beginWrite();
+        try {
+            this.cache.clearMaxPhenomenonTimeForProcedures();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearMinResultTimeForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearMinResultTimeForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearMaxResultTimeForOfferings() {
+        beginWrite();
+        try {
+            this.cache.clearMaxResultTimeForOfferings();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.addOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setOfferings(Collection<String> offerings) {
+        beginWrite();
+        try {
+            this.cache.setOfferings(offerings);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addOfferings(Collection<String> offerings) {
+        beginWrite();
+        try {
+            this.cache.addOfferings(offerings);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOffering(String offering) {
+        beginWrite();
+        try {
+            this.cache.removeOffering(offering);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeOfferings(Collection<String> offerings) {
+        beginWrite();
+        try {
+            this.cache.removeOfferings(offerings);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addSupportedLanguage(Locale language) {
+        beginWrite();
+        try {
+            this.cache.addSupportedLanguage(language);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addSupportedLanguage(Collection<Locale> languages) {
+        beginWrite();
+        try {
+            this.cache.addSupportedLanguage(languages);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearSupportedLanguage() {
+        beginWrite();
+        try {
+            this.cache.clearSupportedLanguage();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void removeSupportedLanguage(Locale language) {
+        beginWrite();
+        try {
+            this.cache.removeSupportedLanguage(language);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void setRequestableProcedureDescriptionFormat(Collection<String> formats) {
+        beginWrite();
+        try {
+            this.cache.setRequestableProcedureDescriptionFormat(formats);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearFeatureOfInterestIdentifierHumanReadableNameMaps() {
+        beginWrite();
+        try {
+            this.cache.clearFeatureOfInterestIdentifierHumanReadableNameMaps();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearObservablePropertyIdentifierHumanReadableNameMaps() {
+        beginWrite();
+        try {
+            this.cache.clearObservablePropertyIdentifierHumanReadableNameMaps();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearProcedureIdentifierHumanReadableNameMaps() {
+        beginWrite();
+        try {
+            this.cache.clearProcedureIdentifierHumanReadableNameMaps();
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void clearOfferingIdentifierHumanReadableNameMaps() {
+        beginWrite();
+        try {
+            this.cache.clearOfferingIdentifierHumanReadableNameMaps();
+        } finally {
+            endWrite();
+        }
+    }
+}
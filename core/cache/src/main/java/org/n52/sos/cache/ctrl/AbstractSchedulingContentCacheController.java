@@ -43,7 +43,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Abstract class for capabilities cache controller implementations that
- * schedules a complete cache update at a configured interval.
+ * schedules a complete cache update at a configured interval and an
+ * incremental update, that only adds newly inserted data, at a second
+ * (usually shorter) interval.
  * 
  * @since 4.0.0
  */
@@ -59,6 +61,10 @@ public abstract class AbstractSchedulingContentCacheController implements Conten
 
     private TimerTask current = null;
 
+    private long incrementalUpdateInterval;
+
+    private TimerTask currentIncremental = null;
+
     /**
      * Starts a new timer task
      */
@@ -93,6 +99,43 @@ public abstract class AbstractSchedulingContentCacheController implements Conten
         return this.updateInterval * 60000;
     }
 
+    @Setting(ScheduledContentCacheControllerSettings.CAPABILITIES_CACHE_INCREMENTAL_UPDATE_INTERVAL)
+    public void setIncrementalUpdateInterval(int interval) throws ConfigurationException {
+        Validation.greaterEqualZero("Incremental cache update interval", interval);
+        if (this.incrementalUpdateInterval != interval) {
+            this.incrementalUpdateInterval = interval;
+            rescheduleIncremental();
+        }
+    }
+
+    private long getIncrementalUpdateInterval() {
+        return this.incrementalUpdateInterval * 60000;
+    }
+
+    /**
+     * Stops the current incremental task, if available, and schedules a new
+     * one that is executed repeatedly at the incremental update interval.
+     */
+    private void rescheduleIncremental() {
+        cancelCurrentIncremental();
+        long interval = getIncrementalUpdateInterval();
+        if (interval > 0) {
+            this.currentIncremental = new IncrementalUpdateTimerTask();
+            LOGGER.info("Incremental CapabilitiesCacheUpdate every {}m", interval / 60000);
+            timer.schedule(this.currentIncremental, interval, interval);
+        } else {
+            this.currentIncremental = null;
+        }
+    }
+
+    /**
+     * Add the data inserted since the last update to the cache.
+     *
+     * @throws OwsExceptionReport
+     *             if the update fails
+     */
+    protected abstract void updateIncrementally() throws OwsExceptionReport;
+
     /**
      * Stops the current task, if available and starts a new {@link TimerTask}.
      * 
@@ -110,6 +153,13 @@ public abstract class AbstractSchedulingContentCacheController implements Conten
         }
     }
 
+    private void cancelCurrentIncremental() {
+        if (this.currentIncremental != null) {
+            this.currentIncremental.cancel();
+            LOGGER.debug("Current {} canceled", IncrementalUpdateTimerTask.class.getSimpleName());
+        }
+    }
+
     private void cancelTimer() {
         if (this.timer != null) {
             this.timer.cancel();
@@ -120,6 +170,7 @@ public abstract class AbstractSchedulingContentCacheController implements Conten
     @Override
     public void cleanup() {
         cancelCurrent();
+        cancelCurrentIncremental();
         cancelTimer();
     }
 
@@ -166,4 +217,17 @@ public abstract class AbstractSchedulingContentCacheController implements Conten
             }
         }
     }
+
+    private class IncrementalUpdateTimerTask extends TimerTask {
+        @Override
+        public void run() {
+            try {
+                updateIncrementally();
+                LOGGER.debug("Timertask: incremental capabilities cache update successful!");
+            } catch (OwsExceptionReport e) {
+                LOGGER.error("Timertask couldn't update capabilities cache incrementally! Switch log level to DEBUG to get more details.");
+                LOGGER.debug("Exception thrown", e);
+            }
+        }
+    }
 }
@@ -38,10 +38,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.n52.sos.cache.ContentCacheUpdate;
+import org.n52.sos.cache.SnapshotContentCache;
 import org.n52.sos.cache.WritableContentCache;
 import org.n52.sos.cache.ctrl.action.CompleteCacheUpdate;
+import org.n52.sos.cache.ctrl.action.IncrementalCacheUpdate;
 import org.n52.sos.cache.ContentCachePersistenceStrategy;
 import org.n52.sos.cache.ctrl.persistence.CachePersistenceStrategyFactory;
+import org.n52.sos.event.SosEventBus;
+import org.n52.sos.event.events.ContentCacheUpdateEvent;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 
 import com.google.common.base.Optional;
@@ -58,7 +62,7 @@ public class ContentCacheControllerImpl extends AbstractSchedulingContentCacheCo
 
     private CompleteUpdate next = null;
 
-    private volatile WritableContentCache cache;
+    private volatile SnapshotContentCache cache;
 
     private final ReentrantLock lock = new ReentrantLock();
 
@@ -108,8 +112,19 @@ public class ContentCacheControllerImpl extends AbstractSchedulingContentCacheCo
     }
 
 
+    /**
+     * Sets the cache. Readers see an immutable snapshot of it, that is
+     * replaced atomically after every update.
+     *
+     * @param wcc
+     *            the new cache
+     */
     protected void setCache(WritableContentCache wcc) {
-        this.cache = wcc;
+        if (wcc instanceof SnapshotContentCache) {
+            this.cache = (SnapshotContentCache) wcc;
+        } else {
+            this.cache = new SnapshotContentCache(wcc);
+        }
     }
 
     @Override
@@ -138,10 +153,18 @@ public class ContentCacheControllerImpl extends AbstractSchedulingContentCacheCo
         } finally {
             unlock();
         }
+        SosEventBus.fire(new ContentCacheUpdateEvent(true));
     }
 
     private void executePartial(PartialUpdate update) throws OwsExceptionReport {
-        update.execute(getCache());
+        // publish the changes of the update as a single snapshot
+        SnapshotContentCache snapshotCache = this.cache;
+        snapshotCache.lock();
+        try {
+            update.execute(snapshotCache);
+        } finally {
+            snapshotCache.unlock();
+        }
         lock();
         try {
             if (this.current != null) {
@@ -152,6 +175,7 @@ public class ContentCacheControllerImpl extends AbstractSchedulingContentCacheCo
         } finally {
             unlock();
         }
+        SosEventBus.fire(new ContentCacheUpdateEvent(false));
     }
 
     private void executeComplete(CompleteUpdate update) throws OwsExceptionReport {
@@ -217,6 +241,16 @@ public class ContentCacheControllerImpl extends AbstractSchedulingContentCacheCo
         update(new CompleteCacheUpdate());
     }
 
+    @Override
+    protected void updateIncrementally() throws OwsExceptionReport {
+        if (isUpdateInProgress()) {
+            // the running complete update already includes the new data
+            LOGGER.debug("Skipping incremental update, complete update in progress");
+            return;
+        }
+        update(new IncrementalCacheUpdate());
+    }
+
     @Override
     public ContentCachePersistenceStrategy getContentCachePersistenceStrategy() {
         return this.persistenceStrategy;
@@ -28,7 +28,6 @@
  */
 package org.n52.sos.cache.ctrl;
 
-import java.util.Collections;
 import java.util.Set;
 
 import org.n52.sos.config.SettingDefinition;
@@ -36,6 +35,8 @@ import org.n52.sos.config.SettingDefinitionProvider;
 import org.n52.sos.config.settings.IntegerSettingDefinition;
 import org.n52.sos.service.ServiceSettings;
 
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Settings for the {@link AbstractSchedulingContentCacheController}.
  * 
@@ -46,6 +47,9 @@ import org.n52.sos.service.ServiceSettings;
 public class ScheduledContentCacheControllerSettings implements SettingDefinitionProvider {
     public static final String CAPABILITIES_CACHE_UPDATE_INTERVAL = "service.capabilitiesCacheUpdateInterval";
 
+    public static final String CAPABILITIES_CACHE_INCREMENTAL_UPDATE_INTERVAL =
+            "service.capabilitiesCacheIncrementalUpdateInterval";
+
     public static final IntegerSettingDefinition CACHE_UPDATE_INTERVAL_DEFINITION = new IntegerSettingDefinition()
             .setGroup(ServiceSettings.GROUP)
             .setOrder(6)
@@ -58,8 +62,24 @@ public class ScheduledContentCacheControllerSettings implements SettingDefinitio
                             + "your database is externally modified frequently. Set to 0 to disable scheduled "
                             + "cache updates.");
 
+    public static final IntegerSettingDefinition CACHE_INCREMENTAL_UPDATE_INTERVAL_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(ServiceSettings.GROUP)
+                    .setOrder(6.05F)
+                    .setKey(CAPABILITIES_CACHE_INCREMENTAL_UPDATE_INTERVAL)
+                    .setDefaultValue(5)
+                    .setMinimum(0)
+                    .setTitle("Content cache incremental update interval")
+                    .setDescription(
+                            "The interval in minutes in which data inserted into the database since the last "
+                                    + "update is added to the content cache. These updates only query the new data "
+                                    + "and are much cheaper than complete updates, but modified or deleted data is "
+                                    + "only reflected after the next complete update. Set to 0 to disable "
+                                    + "incremental cache updates.");
+
     @Override
     public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
-        return Collections.<SettingDefinition<?, ?>> singleton(CACHE_UPDATE_INTERVAL_DEFINITION);
+        return ImmutableSet.<SettingDefinition<?, ?>> of(CACHE_UPDATE_INTERVAL_DEFINITION,
+                CACHE_INCREMENTAL_UPDATE_INTERVAL_DEFINITION);
     }
 }
@@ -30,19 +30,29 @@ package org.n52.sos.cache.ctrl.persistence;
 
 import org.n52.sos.cache.ContentCachePersistenceStrategy;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.n52.sos.cache.BinaryCacheFormat;
 import org.n52.sos.cache.ContentCache;
 import org.n52.sos.cache.WritableContentCache;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.service.Configurator;
 
 import com.google.common.base.Optional;
@@ -52,7 +62,12 @@ public abstract class AbstractPersistingCachePersistenceStrategy
     private static final Logger LOGGER = LoggerFactory
             .getLogger(AbstractPersistingCachePersistenceStrategy.class);
     private static final String CACHE_FILE = "cache.tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
     private final String cacheFile;
+    private boolean binaryFormat = CacheFileSettings.FORMAT_BINARY
+            .equals(CacheFileSettings.CACHE_FILE_FORMAT_DEFINITION.getDefaultValue());
+    private boolean compressed = CacheFileSettings.CACHE_FILE_COMPRESSION_DEFINITION
+            .getDefaultValue();
 
     public AbstractPersistingCachePersistenceStrategy() {
         this(null);
@@ -68,6 +83,22 @@ public abstract class AbstractPersistingCachePersistenceStrategy
         LOGGER.debug("Cache file: {}", this.cacheFile);
     }
 
+    @Setting(CacheFileSettings.CACHE_FILE_FORMAT)
+    public void setCacheFileFormat(String format) {
+        if (CacheFileSettings.FORMAT_BINARY.equals(format)) {
+            this.binaryFormat = true;
+        } else if (CacheFileSettings.FORMAT_SERIALIZED.equals(format)) {
+            this.binaryFormat = false;
+        } else {
+            throw new ConfigurationException(String.format("Unknown cache file format '%s'", format));
+        }
+    }
+
+    @Setting(CacheFileSettings.CACHE_FILE_COMPRESSION)
+    public void setCacheFileCompression(boolean compressed) {
+        this.compressed = compressed;
+    }
+
     protected File getCacheFile() {
         return new File(this.cacheFile);
     }
@@ -78,10 +109,20 @@ public abstract class AbstractPersistingCachePersistenceStrategy
         if (f.exists() && f.canRead()) {
             LOGGER.debug("Reading cache from temp file '{}'",
                          f.getAbsolutePath());
-            ObjectInputStream in = null;
+            long start = System.currentTimeMillis();
+            InputStream in = null;
             try {
-                in = new ObjectInputStream(new FileInputStream(f));
-                return Optional.of((WritableContentCache) in.readObject());
+                in = new BufferedInputStream(new FileInputStream(f), BUFFER_SIZE);
+                WritableContentCache cache;
+                // both formats are readable regardless of the configured one
+                if (BinaryCacheFormat.isBinaryCache(in)) {
+                    cache = BinaryCacheFormat.read(in);
+                } else {
+                    cache = (WritableContentCache) new ObjectInputStream(in).readObject();
+                }
+                LOGGER.debug("Read cache from '{}' in {} ms",
+                             f.getAbsolutePath(), System.currentTimeMillis() - start);
+                return Optional.of(cache);
             } catch (IOException t) {
                 LOGGER.error(String.format("Error reading cache file '%s'",
                                            f.getAbsolutePath()), t);
@@ -99,31 +140,66 @@ public abstract class AbstractPersistingCachePersistenceStrategy
         return Optional.absent();
     }
 
+    /**
+     * Writes the cache to a temporary file next to the cache file and renames
+     * it afterwards, so that the cache file is always complete.
+     *
+     * @param cache
+     *            the cache to persist
+     */
     protected void persistCache(ContentCache cache) {
+        if (cache == null) {
+            return;
+        }
         File f = getCacheFile();
-        if (!f.exists() || f.delete()) {
-            ObjectOutputStream out = null;
-            if (cache != null) {
-                LOGGER.debug("Serializing cache to {}", f.getAbsolutePath());
-                try {
-                    if (f.createNewFile() && f.canWrite()) {
-                        out = new ObjectOutputStream(new FileOutputStream(f));
-                        out.writeObject(cache);
-                    } else {
-                        LOGGER.error("Can not create writable file {}",
-                                     f.getAbsolutePath());
-                    }
-                } catch (IOException t) {
-                    LOGGER.error(String
-                            .format("Error serializing cache to '%s'",
-                                    f.getAbsolutePath()), t);
-                } finally {
-                    IOUtils.closeQuietly(out);
-                }
+        File tmp = null;
+        FileOutputStream fos = null;
+        try {
+            tmp = File.createTempFile(f.getName(), ".part",
+                                      f.getAbsoluteFile().getParentFile());
+            LOGGER.debug("Serializing cache to {}", tmp.getAbsolutePath());
+            long start = System.currentTimeMillis();
+            fos = new FileOutputStream(tmp);
+            OutputStream out = new BufferedOutputStream(fos, BUFFER_SIZE);
+            if (binaryFormat && BinaryCacheFormat.isSupported(cache)) {
+                BinaryCacheFormat.write(cache, out, compressed);
+            } else {
+                ObjectOutputStream oos = new ObjectOutputStream(out);
+                oos.writeObject(cache);
+                oos.flush();
+            }
+            out.flush();
+            fos.getFD().sync();
+            fos.close();
+            fos = null;
+            move(tmp, f);
+            LOGGER.debug("Serialized cache to {} in {} ms",
+                         f.getAbsolutePath(), System.currentTimeMillis() - start);
+        } catch (IOException t) {
+            LOGGER.error(String
+                    .format("Error serializing cache to '%s'",
+                            f.getAbsolutePath()), t);
+        } finally {
+            IOUtils.closeQuietly(fos);
+            if (tmp != null && tmp.exists()) {
+                tmp.delete();
             }
         }
     }
 
+    private void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            LOGGER.debug("Atomic move not supported, replacing {}",
+                         target.getAbsolutePath());
+            Files.move(source.toPath(), target.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     @Override
     public void cleanup() {
         File f = getCacheFile();
@@ -131,4 +207,4 @@ public abstract class AbstractPersistingCachePersistenceStrategy
             f.delete();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache.ctrl.persistence;
+
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.BooleanSettingDefinition;
+import org.n52.sos.config.settings.ChoiceSettingDefinition;
+import org.n52.sos.service.ServiceSettings;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Settings for the file format of the
+ * {@link AbstractPersistingCachePersistenceStrategy}.
+ *
+ * @since 4.3.0
+ */
+public class CacheFileSettings implements SettingDefinitionProvider {
+    public static final String CACHE_FILE_FORMAT = "service.cacheFileFormat";
+
+    public static final String CACHE_FILE_COMPRESSION = "service.cacheFileCompression";
+
+    public static final String FORMAT_BINARY = "binary";
+
+    public static final String FORMAT_SERIALIZED = "serialized";
+
+    public static final ChoiceSettingDefinition CACHE_FILE_FORMAT_DEFINITION = new ChoiceSettingDefinition()
+            .addOption(FORMAT_BINARY, "Binary")
+            .addOption(FORMAT_SERIALIZED, "Java serialization")
+            .setGroup(ServiceSettings.GROUP)
+            .setOrder(6.2F)
+            .setKey(CACHE_FILE_FORMAT)
+            .setDefaultValue(FORMAT_BINARY)
+            .setTitle("Content cache file format")
+            .setDescription("The format of the persisted content cache. The binary format is compact, " +
+                            "fast to load and independent of class changes. Both formats can be read " +
+                            "on startup, regardless of this setting.");
+
+    public static final BooleanSettingDefinition CACHE_FILE_COMPRESSION_DEFINITION = new BooleanSettingDefinition()
+            .setGroup(ServiceSettings.GROUP)
+            .setOrder(6.3F)
+            .setKey(CACHE_FILE_COMPRESSION)
+            .setDefaultValue(false)
+            .setTitle("Compress content cache file")
+            .setDescription("Should the binary content cache file be compressed? Compression reduces the " +
+                            "file size at the cost of some processing time while writing and loading.");
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return ImmutableSet.<SettingDefinition<?, ?>> of(CACHE_FILE_FORMAT_DEFINITION,
+                CACHE_FILE_COMPRESSION_DEFINITION);
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.sos.i18n.MultilingualString;
+import org.n52.sos.ogc.sos.SosEnvelope;
+
+import com.vividsolutions.jts.geom.Envelope;
+
+/**
+ * @since 4.3.0
+ */
+public class BinaryCacheFormatTest {
+    private static final String OFFERING = "offering";
+
+    private static final String PROCEDURE = "procedure";
+
+    private static final String FEATURE = "feature";
+
+    private WritableCache cache;
+
+    @Before
+    public void init() {
+        DateTime start = new DateTime(2015, 1, 1, 0, 0, DateTimeZone.UTC);
+        DateTime end = new DateTime(2015, 2, 1, 12, 30, DateTimeZone.forOffsetHours(1));
+        cache = new WritableCache();
+        cache.setDefaultEPSGCode(4326);
+        cache.addOffering(OFFERING);
+        cache.addProcedure(PROCEDURE);
+        cache.addFeatureOfInterest(FEATURE);
+        cache.addProcedureForOffering(OFFERING, PROCEDURE);
+        cache.addFeatureOfInterestIdentifierHumanReadableName(FEATURE, "Feature");
+        cache.setNameForOffering(OFFERING, "Offering");
+        cache.setI18nNameForOffering(OFFERING,
+                new MultilingualString().addLocalization(Locale.GERMANY, "Angebot")
+                        .addLocalization(Locale.ENGLISH, "Offering"));
+        cache.addSupportedLanguage(Locale.GERMANY);
+        cache.addEpsgCode(4326);
+        cache.setMaxPhenomenonTimeForOffering(OFFERING, end);
+        cache.setPhenomenonTime(start, end);
+        cache.setResultTime(start, null);
+        cache.setEnvelopeForOffering(OFFERING, new SosEnvelope(new Envelope(1, 2, 3, 4), 4326));
+        cache.setGlobalEnvelope(new SosEnvelope(new Envelope(1, 2, 3, 4), 4326));
+    }
+
+    @Test
+    public void should_read_written_cache() throws IOException {
+        assertThat(read(write(cache, false)), is(cache));
+    }
+
+    @Test
+    public void should_read_written_compressed_cache() throws IOException {
+        assertThat(read(write(cache, true)), is(cache));
+    }
+
+    @Test
+    public void should_write_snapshot_of_snapshot_cache() throws IOException {
+        assertThat(read(write(new SnapshotContentCache(cache), false)), is(cache));
+    }
+
+    @Test
+    public void should_detect_binary_cache() throws IOException {
+        assertThat(BinaryCacheFormat.isBinaryCache(stream(write(cache, false))), is(true));
+        assertThat(BinaryCacheFormat.isBinaryCache(stream(new byte[] { 1, 2 })), is(false));
+    }
+
+    private byte[] write(ContentCache cache, boolean compress) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryCacheFormat.write(cache, out, compress);
+        return out.toByteArray();
+    }
+
+    private WritableCache read(byte[] bytes) throws IOException {
+        return BinaryCacheFormat.read(stream(bytes));
+    }
+
+    private InputStream stream(byte[] bytes) {
+        return new BufferedInputStream(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 4.3.0
+ */
+public class SnapshotContentCacheTest {
+    private static final String OFFERING = "offering";
+
+    private static final String PROCEDURE = "procedure";
+
+    private static final String FEATURE = "feature";
+
+    private SnapshotContentCache cache;
+
+    @Before
+    public void init() {
+        cache = new SnapshotContentCache(new WritableCache());
+    }
+
+    @Test
+    public void should_publish_single_write() {
+        cache.addProcedure(PROCEDURE);
+        assertThat(cache.getProcedures(), contains(PROCEDURE));
+    }
+
+    @Test
+    public void should_not_change_published_sets() {
+        cache.addProcedureForOffering(OFFERING, PROCEDURE);
+        Set<String> procedures = cache.getProceduresForOffering(OFFERING);
+        cache.removeProcedureForOffering(OFFERING, PROCEDURE);
+        assertThat(procedures, contains(PROCEDURE));
+        assertThat(cache.getProceduresForOffering(OFFERING), is(empty()));
+    }
+
+    @Test
+    public void should_not_copy_snapshot_sets() {
+        cache.addProcedureForOffering(OFFERING, PROCEDURE);
+        assertThat(cache.getProceduresForOffering(OFFERING),
+                is(sameInstance(cache.getProceduresForOffering(OFFERING))));
+    }
+
+    @Test
+    public void should_share_unmodified_collections_with_previous_snapshot() {
+        cache.addProcedureForOffering(OFFERING, PROCEDURE);
+        Set<String> procedures = cache.getProceduresForOffering(OFFERING);
+        cache.addFeatureOfInterest(FEATURE);
+        assertThat(cache.getFeaturesOfInterest(), contains(FEATURE));
+        assertThat(cache.getProceduresForOffering(OFFERING), is(sameInstance(procedures)));
+    }
+
+    @Test
+    public void should_publish_locked_writes_on_unlock() throws InterruptedException {
+        cache.lock();
+        try {
+            cache.addProcedure(PROCEDURE);
+            assertThat(cache.getProcedures(), contains(PROCEDURE));
+            assertThat(getProceduresFromOtherThread(), is(empty()));
+        } finally {
+            cache.unlock();
+        }
+        assertThat(getProceduresFromOtherThread(), contains(PROCEDURE));
+    }
+
+    @Test
+    public void should_serialize_wrapped_cache() throws IOException, ClassNotFoundException {
+        cache.addProcedure(PROCEDURE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(cache);
+        oos.close();
+        Object read = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray())).readObject();
+        assertThat(read, is(instanceOf(WritableCache.class)));
+        assertThat(((WritableCache) read).getProcedures(), contains(PROCEDURE));
+    }
+
+    private Set<String> getProceduresFromOtherThread() throws InterruptedException {
+        final Object[] result = new Object[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = cache.getProcedures();
+            }
+        });
+        thread.start();
+        thread.join();
+        @SuppressWarnings("unchecked")
+        Set<String> procedures = (Set<String>) result[0];
+        return procedures;
+    }
+}
@@ -55,6 +55,8 @@ import org.n52.sos.config.sqlite.entities.OfferingExtensionIdentifier;
 import org.n52.sos.config.sqlite.entities.OfferingExtensionImpl;
 import org.n52.sos.config.sqlite.entities.StaticCapabilitiesImpl;
 import org.n52.sos.ds.ConnectionProviderException;
+import org.n52.sos.event.SosEventBus;
+import org.n52.sos.event.events.CapabilitiesExtensionChangeEvent;
 import org.n52.sos.exception.NoSuchExtensionException;
 import org.n52.sos.exception.NoSuchOfferingException;
 import org.n52.sos.ogc.ows.OfferingExtension;
@@ -118,6 +120,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             scLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
@@ -230,6 +233,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             oeLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
@@ -254,6 +258,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             oeLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
@@ -273,6 +278,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             oeLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
 }
 
     @Override
@@ -321,6 +327,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             ceLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
@@ -339,6 +346,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             ceLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
@@ -352,6 +360,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             ceLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
@@ -371,6 +380,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             scLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
@@ -386,6 +396,7 @@ public class ExtensionEnabledSQLiteSettingsManager extends SQLiteSettingsManager
         } finally {
             scLock.writeLock().unlock();
         }
+        SosEventBus.fire(new CapabilitiesExtensionChangeEvent(identifier));
     }
 
     @Override
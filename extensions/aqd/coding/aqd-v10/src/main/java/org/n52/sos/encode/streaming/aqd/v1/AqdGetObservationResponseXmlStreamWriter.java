@@ -366,7 +366,7 @@ public class AqdGetObservationResponseXmlStreamWriter extends XmlStreamWriter<Fe
         public void run() {
             try {
                 chars(Constants.BLANK_STRING);
-                flush();
+                flushOutput();
             } catch (XMLStreamException xmlse) {
                 cleanup();
                 LOGGER.error("Error while writing empty string by timer task!", xmlse);
@@ -99,6 +99,7 @@ public class EReportingHeaderEncoder extends XmlStreamWriter<EReportingHeader> {
             throws XMLStreamException, OwsExceptionReport {
         this.init(out, encodingValues);
         this.encodeReportingHeader(elementToStream, encodingValues);
+        this.finish();
     }
 
     private void encodeReportingHeader(EReportingHeader h, EncodingValues encodingValues)
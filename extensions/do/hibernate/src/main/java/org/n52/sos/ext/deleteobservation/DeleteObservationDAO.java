@@ -29,6 +29,8 @@
 package org.n52.sos.ext.deleteobservation;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
@@ -39,8 +41,10 @@ import org.n52.sos.ds.hibernate.HibernateSessionHolder;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
 import org.n52.sos.ds.hibernate.dao.series.SeriesDAO;
 import org.n52.sos.ds.hibernate.entities.AbstractObservation;
+import org.n52.sos.ds.hibernate.entities.HibernateRelations.HasProcedureGetter;
 import org.n52.sos.ds.hibernate.entities.series.Series;
 import org.n52.sos.ds.hibernate.entities.series.SeriesObservation;
+import org.n52.sos.ds.hibernate.util.ProcedureLocks;
 import org.n52.sos.ds.hibernate.util.observation.HibernateObservationUtilities;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
@@ -60,13 +64,14 @@ public class DeleteObservationDAO extends DeleteObservationAbstractDAO {
     private HibernateSessionHolder hibernateSessionHolder = new HibernateSessionHolder();
 
     @Override
-    public synchronized DeleteObservationResponse deleteObservation(DeleteObservationRequest request)
+    public DeleteObservationResponse deleteObservation(DeleteObservationRequest request)
             throws OwsExceptionReport {
         DeleteObservationResponse response = new DeleteObservationResponse();
         response.setVersion(request.getVersion());
         response.setService(request.getService());
         Session session = null;
         Transaction transaction = null;
+        List<Lock> locks = Collections.emptyList();
         try {
             session = hibernateSessionHolder.getSession();
             transaction = session.beginTransaction();
@@ -83,6 +88,11 @@ public class DeleteObservationDAO extends DeleteObservationAbstractDAO {
             }
             OmObservation so = null;
             if (observation != null) {
+                // serialize with inserts into the same procedure, they update
+                // the first/latest values of the series
+                if (observation instanceof HasProcedureGetter) {
+                    locks = ProcedureLocks.lock(((HasProcedureGetter) observation).getProcedure().getIdentifier());
+                }
                 so =
                         HibernateObservationUtilities
                                 .createSosObservationsFromObservations(Collections.singleton(observation), getRequest(request), null, session).iterator().next();
@@ -107,6 +117,7 @@ public class DeleteObservationDAO extends DeleteObservationAbstractDAO {
                     "Error while updating deleted observation flag data!");
         } finally {
             hibernateSessionHolder.returnSession(session);
+            ProcedureLocks.unlock(locks);
         }
         return response;
     }
@@ -28,36 +28,35 @@
  */
 package org.n52.sos.ds.hibernate;
 
+import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
-import org.hibernate.criterion.Projections;
-import org.hibernate.criterion.Restrictions;
 import org.hibernate.transform.ResultTransformer;
 import org.n52.sos.ds.FeatureQueryHandlerQueryObject;
 import org.n52.sos.ds.HibernateDatasourceConstants;
 import org.n52.sos.ds.hibernate.dao.AbstractObservationDAO;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
 import org.n52.sos.ds.hibernate.dao.HibernateSqlQueryConstants;
-import org.n52.sos.ds.hibernate.dao.series.AbstractSeriesObservationDAO;
-import org.n52.sos.ds.hibernate.dao.series.SeriesObservationTimeDAO;
-import org.n52.sos.ds.hibernate.entities.AbstractObservation;
+import org.n52.sos.ds.hibernate.dao.series.SeriesObservationDAO;
 import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
 import org.n52.sos.ds.hibernate.entities.ObservableProperty;
-import org.n52.sos.ds.hibernate.entities.Offering;
 import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.series.Series;
-import org.n52.sos.ds.hibernate.entities.series.SeriesObservationInfo;
-import org.n52.sos.ds.hibernate.entities.series.SeriesObservationTime;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
+import org.n52.sos.ds.hibernate.util.HzgMetadataCache;
+import org.n52.sos.ds.hibernate.util.HzgMetadataSnapshot;
+import org.n52.sos.ds.hibernate.util.HzgValueSummary;
+import org.n52.sos.ds.hibernate.util.HzgValueSummaryCache;
 import org.n52.sos.ds.hibernate.util.TemporalRestrictions;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
@@ -80,8 +79,13 @@ import org.n52.sos.util.StringHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import de.hzg.measurement.ObservedPropertyInstance;
 
 /**
  * {@code IGetDataAvailabilityDao} to handle {@link GetDataAvailabilityRequest}
@@ -115,8 +119,6 @@ public class GetDataAvailabilityDAO extends AbstractGetDataAvailabilityDAO imple
     private static final String SQL_QUERY_GET_DATA_AVAILABILITY_FOR_OBSERVED_PROPERTIES =
             "getDataAvailabilityForObservableProperties";
 
-    private static final String SQL_QUERY_GET_DATA_AVAILABILITY_FOR_SERIES = "getDataAvailabilityForSeries";
-
     public GetDataAvailabilityDAO() {
         super(SosConstants.SOS);
     }
@@ -182,33 +184,39 @@ public class GetDataAvailabilityDAO extends AbstractGetDataAvailabilityDAO imple
         Map<String, ReferenceType> procedures = new HashMap<String, ReferenceType>();
         Map<String, ReferenceType> observableProperties = new HashMap<String, ReferenceType>();
         Map<String, ReferenceType> featuresOfInterest = new HashMap<String, ReferenceType>();
-        AbstractSeriesObservationDAO seriesObservationDAO = getSeriesObservationDAO();
-        SeriesMinMaxTransformer seriesMinMaxTransformer = new SeriesMinMaxTransformer();
-        boolean supportsNamedQuery =
-                HibernateHelper.isNamedQuerySupported(SQL_QUERY_GET_DATA_AVAILABILITY_FOR_SERIES, session);
-        for (final Series series : DaoFactory
-                .getInstance()
-                .getSeriesDAO()
-                .getSeries(request.getProcedures(), request.getObservedProperties(), request.getFeaturesOfInterest(), session)) {
+        List<Series> seriesList =
+                DaoFactory
+                        .getInstance()
+                        .getSeriesDAO()
+                        .getSeries(request.getProcedures(), request.getObservedProperties(),
+                                request.getFeaturesOfInterest(), session);
+        boolean showCount = isShowCount(request);
+        // the series are created from the HZG observed property instances,
+        // the statistics are taken from their value summaries
+        HzgMetadataSnapshot metadata = HzgMetadataCache.getInstance().getSnapshot(session);
+        Set<Long> statisticSeriesIds = Sets.newHashSet();
+        Set<Long> seriesIds = Sets.newHashSet();
+        for (Series series : seriesList) {
+            seriesIds.add(series.getSeriesId());
+            if (showCount || request.isSetOfferings() || !series.isSetFirstLastTime()) {
+                statisticSeriesIds.add(series.getSeriesId());
+            }
+        }
+        Map<Long, HzgValueSummary> statistics = getSeriesStatistics(metadata, statisticSeriesIds, request, session);
+        ListMultimap<Long, TimeInstant> resultTimes = null;
+        if (isIncludeResultTime(request)) {
+            resultTimes = getResultTimes(metadata, seriesIds, request, session);
+        }
+        for (final Series series : seriesList) {
+            HzgValueSummary statistic = statistics.get(series.getSeriesId());
             TimePeriod timePeriod = null;
-            if (!request.isSetOfferings()) {
-                // get time information from series object
-                if (series.isSetFirstLastTime()) {
-                    timePeriod = new TimePeriod(series.getFirstTimeStamp(), series.getLastTimeStamp());
-                }
-                // get time information from a named query
-                else if (timePeriod == null && supportsNamedQuery) {
-                    timePeriod = getTimePeriodFromNamedQuery(series.getSeriesId(), seriesMinMaxTransformer, session);
-                }
+            // get time information from series object
+            if (!request.isSetOfferings() && series.isSetFirstLastTime()) {
+                timePeriod = new TimePeriod(series.getFirstTimeStamp(), series.getLastTimeStamp());
             }
-            // get time information from SeriesGetDataAvailability mapping if
-            // supported
-            if (timePeriod == null) {
-                SeriesObservationTimeDAO seriesObservationTimeDAO =
-                        (SeriesObservationTimeDAO) DaoFactory.getInstance().getObservationTimeDAO();
-                timePeriod =
-                        getTimePeriodFromSeriesGetDataAvailability(seriesObservationTimeDAO, series, request,
-                                seriesMinMaxTransformer, session);
+            // get time information from the value summary
+            else if (statistic != null) {
+                timePeriod = new TimePeriod(statistic.getMinDate(), statistic.getMaxDate());
             }
             // create DataAvailabilities
             if (timePeriod != null && !timePeriod.isEmpty()) {
@@ -216,12 +224,11 @@ public class GetDataAvailabilityDAO extends AbstractGetDataAvailabilityDAO imple
                         new DataAvailability(getProcedureReference(series, procedures), getObservedPropertyReference(
                                 series, observableProperties), getFeatureOfInterestReference(series,
                                 featuresOfInterest, session), timePeriod);
-                if (isShowCount(request)) {
-                    dataAvailability.setCount(getCountFor(series, request, session));
+                if (showCount) {
+                    dataAvailability.setCount(statistic != null ? statistic.getCount() : 0L);
                 }
-                if (isIncludeResultTime(request)) {
-                    dataAvailability.setResultTimes(getResultTimesFromSeriesObservation(seriesObservationDAO, series,
-                            request, session));
+                if (resultTimes != null) {
+                    dataAvailability.setResultTimes(Lists.newArrayList(resultTimes.get(series.getSeriesId())));
                 }
                 dataAvailabilityValues.add(dataAvailability);
             }
@@ -231,103 +238,98 @@ public class GetDataAvailabilityDAO extends AbstractGetDataAvailabilityDAO imple
     }
 
     /**
-     * Get time information from a named query
-     * 
-     * @param seriesId
-     *            Series id
-     * @param seriesMinMaxTransformer
-     *            Hibernate result transformator for min/max time value
-     * @param session
-     *            Hibernate Session
-     * @return Time period
-     */
-    private TimePeriod getTimePeriodFromNamedQuery(long seriesId, SeriesMinMaxTransformer seriesMinMaxTransformer,
-            Session session) {
-        Query namedQuery = session.getNamedQuery(SQL_QUERY_GET_DATA_AVAILABILITY_FOR_SERIES);
-        namedQuery.setParameter(SeriesObservationInfo.SERIES, seriesId);
-        LOGGER.debug("QUERY getTimePeriodFromNamedQuery(series) with NamedQuery: {}", namedQuery);
-        namedQuery.setResultTransformer(seriesMinMaxTransformer);
-        return (TimePeriod) namedQuery.uniqueResult();
-    }
-
-    /**
-     * Get time information from SeriesGetDataAvailability mapping
+     * Get min/max phenomenon time and observation count for all series from
+     * the value summaries of their observed property instances
      * 
-     * @param seriesGetDataAvailabilityDAO
-     *            Series GetDataAvailability DAO class
-     * @param series
-     *            Series to get information for
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @param seriesIds
+     *            Ids of the series to get information for
      * @param request
-     * @param seriesMinMaxTransformer
-     *            Hibernate result transformator for min/max time value
+     *            GetDataAvailability request
      * @param session
      *            Hibernate Session
-     * @return Time period
+     * @return Non-empty value summaries mapped by series id, empty if the
+     *         requested offerings are not provided
      */
-    private TimePeriod getTimePeriodFromSeriesGetDataAvailability(
-            SeriesObservationTimeDAO seriesGetDataAvailabilityDAO, Series series, GetDataAvailabilityRequest request,
-            SeriesMinMaxTransformer seriesMinMaxTransformer, Session session) {
-        Criteria criteria =
-                seriesGetDataAvailabilityDAO.getMinMaxTimeCriteriaForSeriesGetDataAvailabilityDAO(series,
-                        request.getOfferings(), session);
-        criteria.setResultTransformer(seriesMinMaxTransformer);
-        LOGGER.debug("QUERY getTimePeriodFromSeriesObservation(series): {}", HibernateHelper.getSqlString(criteria));
-        return (TimePeriod) criteria.uniqueResult();
+    private Map<Long, HzgValueSummary> getSeriesStatistics(HzgMetadataSnapshot metadata, Set<Long> seriesIds,
+            GetDataAvailabilityRequest request, Session session) {
+        Map<Long, HzgValueSummary> statistics = Maps.newHashMap();
+        if (seriesIds.isEmpty() || !isOfferingRequested(metadata, request)) {
+            return statistics;
+        }
+        for (Long seriesId : seriesIds) {
+            ObservedPropertyInstance observedPropertyInstance = metadata.getObservedPropertyInstanceBySeriesId(seriesId);
+            if (observedPropertyInstance != null) {
+                HzgValueSummary summary =
+                        HzgValueSummaryCache.getInstance().getSummary(metadata,
+                                Collections.singletonList(observedPropertyInstance), session);
+                if (!summary.isEmpty()) {
+                    statistics.put(seriesId, summary);
+                }
+            }
+        }
+        return statistics;
     }
 
     /**
-     * Get the result times for the timeseries
+     * Get the result times for all series with one query per value table
      * 
-     * @param seriesObservationDAO
-     *            DAO
-     * @param series
-     *            time series
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @param seriesIds
+     *            Ids of the series to get result times for
      * @param request
      *            GetDataAvailability request
      * @param session
      *            Hibernate session
-     * @return List of result times
+     * @return Ordered result times mapped by series id
      * @throws OwsExceptionReport
      *             if the requested temporal filter is not supported
      */
-    private List<TimeInstant> getResultTimesFromSeriesObservation(AbstractSeriesObservationDAO seriesObservationDAO,
-            Series series, GetDataAvailabilityRequest request, Session session) throws OwsExceptionReport {
+    private ListMultimap<Long, TimeInstant> getResultTimes(HzgMetadataSnapshot metadata, Set<Long> seriesIds,
+            GetDataAvailabilityRequest request, Session session) throws OwsExceptionReport {
+        ListMultimap<Long, TimeInstant> resultTimes = ArrayListMultimap.create();
+        if (seriesIds.isEmpty() || !isOfferingRequested(metadata, request)) {
+            return resultTimes;
+        }
+        List<ObservedPropertyInstance> observedPropertyInstances = Lists.newArrayListWithCapacity(seriesIds.size());
+        for (Long seriesId : seriesIds) {
+            ObservedPropertyInstance observedPropertyInstance = metadata.getObservedPropertyInstanceBySeriesId(seriesId);
+            if (observedPropertyInstance != null) {
+                observedPropertyInstances.add(observedPropertyInstance);
+            }
+        }
+        if (observedPropertyInstances.isEmpty()) {
+            return resultTimes;
+        }
         Criterion filter = null;
         if (hasPhenomenonTimeFilter(request.getExtensions())) {
             filter = TemporalRestrictions.filter(getPhenomenonTimeFilter(request.getExtensions()));
         }
-        List<Date> dateTimes =
-                seriesObservationDAO.getResultTimesForSeriesObservation(series, request.getOfferings(), filter,
-                        session);
-        List<TimeInstant> resultTimes = Lists.newArrayList();
-        for (Date date : dateTimes) {
-            resultTimes.add(new TimeInstant(date));
+        for (Object[] row : getSeriesObservationDAO().getResultTimesFor(observedPropertyInstances, metadata, filter,
+                session)) {
+            ObservedPropertyInstance observedPropertyInstance =
+                    metadata.getObservedPropertyInstanceById((Serializable) row[0]);
+            if (observedPropertyInstance != null) {
+                resultTimes.put(metadata.getSeriesId(observedPropertyInstance), new TimeInstant((Date) row[1]));
+            }
         }
         return resultTimes;
     }
 
     /**
-     * Get count of available observation for this time series
-     * 
-     * @param series
-     *            Time series
+     * @param metadata
+     *            Current HZG metadata snapshot
      * @param request
      *            GetDataAvailability request
-     * @param session
-     *            Hibernate session
-     * @return Count of available observations
+     * @return <code>true</code>, if no offerings are requested or the
+     *         requested offerings contain the HZG offering
      */
-    private Long getCountFor(Series series, GetDataAvailabilityRequest request, Session session) {
-        Criteria criteria =
-                session.createCriteria(SeriesObservationInfo.class).add(
-                        Restrictions.eq(AbstractObservation.DELETED, false));
-        criteria.add(Restrictions.eq(SeriesObservationInfo.SERIES, series));
-        if (request.isSetOfferings()) {
-            criteria.createCriteria(SeriesObservationTime.OFFERINGS).add(
-                    Restrictions.in(Offering.IDENTIFIER, request.getOfferings()));
-        }
-        criteria.setProjection(Projections.rowCount());
-        return (Long) criteria.uniqueResult();
+    private boolean isOfferingRequested(HzgMetadataSnapshot metadata, GetDataAvailabilityRequest request) {
+        return !request.isSetOfferings()
+                || (metadata.getOffering() != null && request.getOfferings().contains(
+                        metadata.getOffering().getIdentifier()));
     }
 
     private boolean checkForNamedQueries(GetDataAvailabilityRequest req, Session session) {
@@ -544,10 +546,10 @@ public class GetDataAvailabilityDAO extends AbstractGetDataAvailabilityDAO imple
         return null;
     }
 
-    protected AbstractSeriesObservationDAO getSeriesObservationDAO() throws OwsExceptionReport {
+    protected SeriesObservationDAO getSeriesObservationDAO() throws OwsExceptionReport {
         AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
-        if (observationDAO instanceof AbstractSeriesObservationDAO) {
-            return (AbstractSeriesObservationDAO) observationDAO;
+        if (observationDAO instanceof SeriesObservationDAO) {
+            return (SeriesObservationDAO) observationDAO;
         } else {
             throw new NoApplicableCodeException().withMessage("The required '%s' implementation is no supported!",
                     AbstractObservationDAO.class.getName());
@@ -700,24 +702,6 @@ public class GetDataAvailabilityDAO extends AbstractGetDataAvailabilityDAO imple
         }
     }
 
-    private static class SeriesMinMaxTransformer implements ResultTransformer {
-        private static final long serialVersionUID = -373512929481519459L;
-
-        @Override
-        public TimePeriod transformTuple(Object[] tuple, String[] aliases) {
-            if (tuple != null) {
-                return new TimePeriod(tuple[0], tuple[1]);
-            }
-            return null;
-        }
-
-        @Override
-        @SuppressWarnings("rawtypes")
-        public List transformList(List collection) {
-            return collection;
-        }
-    }
-
     @Override
     public String getDatasourceDaoIdentifier() {
         return HibernateDatasourceConstants.ORM_DATASOURCE_DAO_IDENTIFIER;
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate;
+
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
+import org.n52.sos.service.ServiceSettings;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Settings for the {@link org.n52.sos.ds.hibernate.util.HzgMetadataCache} and
+ * the {@link org.n52.sos.ds.hibernate.util.HzgValueSummaryCache}.
+ * 
+ * @since 4.3.0
+ */
+public class HzgCacheSettings implements SettingDefinitionProvider {
+    public static final String HZG_METADATA_REFRESH_INTERVAL = "service.hzg.metadataRefreshInterval";
+
+    public static final String HZG_VALUE_SUMMARY_UPDATE_INTERVAL = "service.hzg.valueSummaryUpdateInterval";
+
+    public static final IntegerSettingDefinition HZG_METADATA_REFRESH_INTERVAL_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(ServiceSettings.GROUP)
+                    .setOrder(6.1F)
+                    .setKey(HZG_METADATA_REFRESH_INTERVAL)
+                    .setDefaultValue(10)
+                    .setMinimum(1)
+                    .setTitle("HZG metadata refresh interval")
+                    .setDescription(
+                            "The interval in minutes after which the in-memory snapshot of the HZG sensors, "
+                                    + "observed property instances and units is reloaded. The snapshot is also "
+                                    + "reloaded on every content cache update and when a sensor is modified.");
+
+    public static final IntegerSettingDefinition HZG_VALUE_SUMMARY_UPDATE_INTERVAL_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(ServiceSettings.GROUP)
+                    .setOrder(6.2F)
+                    .setKey(HZG_VALUE_SUMMARY_UPDATE_INTERVAL)
+                    .setDefaultValue(60)
+                    .setMinimum(1)
+                    .setTitle("HZG value summary update interval")
+                    .setDescription(
+                            "The interval in seconds after which a request updates the first and last value "
+                                    + "times and value counts of the HZG observed property instances with the "
+                                    + "values inserted in the meantime. Lower values make new values visible "
+                                    + "sooner at the cost of more frequent queries.");
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return ImmutableSet.<SettingDefinition<?, ?>> of(HZG_METADATA_REFRESH_INTERVAL_DEFINITION,
+                HZG_VALUE_SUMMARY_UPDATE_INTERVAL_DEFINITION);
+    }
+}
@@ -28,12 +28,15 @@
  */
 package org.n52.sos.ds.hibernate.cache;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.n52.sos.ds.ConnectionProvider;
 import org.n52.sos.ds.ConnectionProviderException;
 import org.n52.sos.ds.hibernate.ThreadLocalSessionFactory;
 import org.n52.sos.service.Configurator;
 import org.n52.sos.util.CompositeParallelAction;
+import org.n52.sos.util.GroupedAndNamedThreadFactory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +57,8 @@ public abstract class AbstractQueueingDatasourceCacheUpdate<T extends AbstractTh
 
     private final String threadGroupName;
 
+    private final ExecutorService executor;
+
     private final ConnectionProvider connectionProvider = Configurator.getInstance().getDataConnectionProvider();
 
     private final ThreadLocalSessionFactory sessionFactory = new ThreadLocalSessionFactory(connectionProvider);
@@ -61,6 +66,20 @@ public abstract class AbstractQueueingDatasourceCacheUpdate<T extends AbstractTh
     public AbstractQueueingDatasourceCacheUpdate(int threads, String threadGroupName) {
         this.threads = threads;
         this.threadGroupName = threadGroupName;
+        this.executor = null;
+    }
+
+    /**
+     * @param executor
+     *            Executor to run the updates with, it is not shut down after
+     *            the execution and can be reused by other updates
+     * @param threadGroupName
+     *            Name used for logging
+     */
+    public AbstractQueueingDatasourceCacheUpdate(ExecutorService executor, String threadGroupName) {
+        this.threads = 0;
+        this.threadGroupName = threadGroupName;
+        this.executor = executor;
     }
 
     protected abstract T[] getUpdatesToExecute() throws OwsExceptionReport;
@@ -75,8 +94,11 @@ public abstract class AbstractQueueingDatasourceCacheUpdate<T extends AbstractTh
             getErrors().add(ex);
             return;
         }
+        final ExecutorService executorToUse =
+                executor != null ? executor : Executors.newFixedThreadPool(threads, new GroupedAndNamedThreadFactory(
+                        threadGroupName));
         CompositeParallelAction<AbstractThreadableDatasourceCacheUpdate> compositeParallelAction =
-                new CompositeParallelAction<AbstractThreadableDatasourceCacheUpdate>(threads, threadGroupName, updatesToExecute) {
+                new CompositeParallelAction<AbstractThreadableDatasourceCacheUpdate>(executorToUse, threadGroupName, updatesToExecute) {
             @Override
             protected void pre(AbstractThreadableDatasourceCacheUpdate action) {
                 action.setCache(getCache());
@@ -90,7 +112,13 @@ public abstract class AbstractQueueingDatasourceCacheUpdate<T extends AbstractTh
             }
         };
         //execute multiple threads
-        compositeParallelAction.execute();
+        try {
+            compositeParallelAction.execute();
+        } finally {
+            if (executorToUse != executor) {
+                executorToUse.shutdown();
+            }
+        }
 
         try {
             sessionFactory.close();
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.ds.hibernate.cache;
 
+import java.util.concurrent.ExecutorService;
 
 public class ParallelCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<AbstractThreadableDatasourceCacheUpdate> {
     private static final String THREAD_GROUP_NAME = "parallel-cache-update";
@@ -39,6 +40,11 @@ public class ParallelCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<A
         this.updates = updates;
     }
 
+    public ParallelCacheUpdate(ExecutorService executor, AbstractThreadableDatasourceCacheUpdate... updates) {
+        super(executor, THREAD_GROUP_NAME);
+        this.updates = updates;
+    }
+
     @Override
     protected AbstractThreadableDatasourceCacheUpdate[] getUpdatesToExecute() {
         return updates;
@@ -29,6 +29,7 @@
 package org.n52.sos.ds.hibernate.dao;
 
 import java.sql.Timestamp;
+import java.util.Date;
 
 import org.hibernate.Criteria;
 import org.hibernate.Session;
@@ -136,6 +137,40 @@ public abstract class AbstractValueDAO extends TimeCreator {
         }
     }
     
+    /**
+     * Add keyset (seek) chunk information to {@link Criteria}. The values are
+     * ordered by time and observation id and only values after the last value
+     * of the previous chunk are queried, so the database does not have to skip
+     * the rows of the previous chunks.
+     * 
+     * @param c
+     *            {@link Criteria} to add information
+     * @param chunkSize
+     *            Chunk size
+     * @param lastValue
+     *            Last value of the previous chunk, <code>null</code> for the
+     *            first chunk
+     * @param request
+     *            {@link GetObservationRequest}
+     */
+    protected void addKeysetChunkValuesToCriteria(Criteria c, int chunkSize, AbstractValue lastValue,
+            GetObservationRequest request) {
+        final String orderColumn = getOrderColumn(request);
+        if (lastValue != null) {
+            final Date lastTime =
+                    AbstractValue.RESULT_TIME.equals(orderColumn) ? lastValue.getResultTime() : lastValue
+                            .getPhenomenonTimeStart();
+            c.add(Restrictions.or(
+                    Restrictions.gt(orderColumn, lastTime),
+                    Restrictions.and(Restrictions.eq(orderColumn, lastTime),
+                            Restrictions.gt(AbstractValue.ID, lastValue.getObservationId()))));
+        }
+        c.addOrder(Order.asc(orderColumn)).addOrder(Order.asc(AbstractValue.ID));
+        if (chunkSize > 0) {
+            c.setMaxResults(chunkSize);
+        }
+    }
+
     private String getOrderColumn(GetObservationRequest request) {
         if (request.isSetTemporalFilter()) {
             TemporalFilter filter = request.getTemporalFilters().iterator().next();
@@ -33,6 +33,7 @@ import static org.n52.sos.util.http.HTTPStatus.BAD_REQUEST;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -129,6 +130,32 @@ public class FeatureOfInterestDAO extends AbstractIdentifierNameDescriptionDAO i
     	return Collections.emptyList();
     }
 
+    /**
+     * Get featureOfInterest identifiers for several offerings at once
+     *
+     * @param offeringIdentifiers
+     *            Offering identifiers
+     * @param session
+     *            Hibernate session
+     * @return FeatureOfInterest identifiers keyed by offering identifier,
+     *         offerings without features are omitted
+     * @throws OwsExceptionReport
+     */
+    public Map<String, List<String>> getFeatureOfInterestIdentifiersForOfferings(
+            final Collection<String> offeringIdentifiers, final Session session) throws OwsExceptionReport {
+    	final Map<String, List<String>> map = new HashMap<String, List<String>>(offeringIdentifiers.size());
+
+    	for (final String offeringIdentifier: offeringIdentifiers) {
+    		final List<String> featureIdentifiers = getFeatureOfInterestIdentifiersForOffering(offeringIdentifier, session);
+
+    		if (!featureIdentifiers.isEmpty()) {
+    			map.put(offeringIdentifier, featureIdentifiers);
+    		}
+    	}
+
+    	return map;
+    }
+
     /**
      * Get featureOfInterest objects for featureOfInterest identifiers
      *
@@ -28,7 +28,6 @@
  */
 package org.n52.sos.ds.hibernate.dao;
 
-import java.sql.Timestamp;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -37,10 +36,8 @@ import java.util.Map;
 
 import org.hibernate.Criteria;
 import org.hibernate.Session;
-import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.joda.time.DateTime;
-import org.joda.time.DateTimeZone;
 import org.n52.sos.ds.hibernate.entities.AbstractObservation;
 import org.n52.sos.ds.hibernate.entities.FeatureOfInterestType;
 import org.n52.sos.ds.hibernate.entities.ObservationType;
@@ -48,6 +45,7 @@ import org.n52.sos.ds.hibernate.entities.Offering;
 import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.RelatedFeature;
 import org.n52.sos.ds.hibernate.entities.TOffering;
+import org.n52.sos.ds.hibernate.util.HzgValueSummaryCache;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.ogc.gml.time.TimePeriod;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -60,7 +58,6 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import de.hzg.common.SOSConfiguration;
-import de.hzg.values.CalculatedData;
 
 /**
  * Hibernate data access class for offering
@@ -305,16 +302,7 @@ public class OfferingDAO extends TimeCreator implements HibernateSqlQueryConstan
             return null;
         }
 
-        final Criteria criteria = session.createCriteria(CalculatedData.class)
-                .setProjection(Projections.projectionList()
-                        .add(Projections.min("date")));
-        final Timestamp timestamp = (Timestamp)criteria.uniqueResult();
-
-        if (timestamp == null) {
-            return null;
-        }
-
-        return new DateTime(timestamp, DateTimeZone.UTC);
+        return HzgValueSummaryCache.getInstance().getOverallSummary(session).getMinTime();
     }
 
     /**
@@ -334,8 +322,7 @@ public class OfferingDAO extends TimeCreator implements HibernateSqlQueryConstan
             return null;
         }
 
-        // TODOHZG: only return maxdate if there's a calculation?
-        return new DateTime(2025, 1, 1, 0, 0, DateTimeZone.UTC);
+        return HzgValueSummaryCache.getInstance().getOverallSummary(session).getMaxTime();
     }
 
     /**
@@ -28,29 +28,24 @@
  */
 package org.n52.sos.ds.hibernate.dao;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TimeZone;
 
 import org.hibernate.Criteria;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
-import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.n52.sos.ds.I18NDAO;
@@ -61,7 +56,12 @@ import org.n52.sos.ds.hibernate.entities.ProcedureDescriptionFormat;
 import org.n52.sos.ds.hibernate.entities.TProcedure;
 import org.n52.sos.ds.hibernate.entities.Unit;
 import org.n52.sos.ds.hibernate.entities.ValidProcedureTime;
+import org.n52.sos.ds.hibernate.util.HzgMetadataCache;
+import org.n52.sos.ds.hibernate.util.HzgMetadataSnapshot;
+import org.n52.sos.ds.hibernate.util.HzgValueSummary;
+import org.n52.sos.ds.hibernate.util.HzgValueSummaryCache;
 import org.n52.sos.ds.hibernate.util.TimeExtrema;
+import org.n52.sos.ds.hibernate.util.procedure.SensorDescriptionCache;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.exception.ows.concrete.UnsupportedOperatorException;
 import org.n52.sos.exception.ows.concrete.UnsupportedTimeException;
@@ -97,7 +97,6 @@ import de.hzg.common.SOSConfiguration;
 import de.hzg.measurement.CalibrationSet;
 import de.hzg.measurement.ObservedPropertyInstance;
 import de.hzg.measurement.Sensor;
-import de.hzg.values.CalculatedData;
 
 /**
  * Hibernate data access class for procedure
@@ -110,6 +109,8 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcedureDAO.class);
 
+    private static final DateTimeFormatter CALIBRATION_DATE_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm'Z'").withZoneUTC();
+
 	public static void fillProcedureDescriptionXML(TProcedure tprocedure, Sensor sensor, Session session) {
 		for (final ValidProcedureTime validProcedureTime: tprocedure.getValidProcedureTimes()) {
 			fillProcedureDescriptionXML(tprocedure, validProcedureTime, sensor, session);
@@ -117,6 +118,35 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
 	}
 
 	public static void fillProcedureDescriptionXML(TProcedure tprocedure, ValidProcedureTime validProcedureTime, Sensor sensor, Session session) {
+        final SensorDescriptionCache descriptionCache = SensorDescriptionCache.getInstance();
+        final String format = validProcedureTime.getProcedureDescriptionFormat() == null
+                ? ProcedureDescriptionFormatDAO.HZG_PROCEDURE_DESCRIPTION_FORMAT
+                : validProcedureTime.getProcedureDescriptionFormat().getProcedureDescriptionFormat();
+        final String codespace = tprocedure.isSetCodespace() ? tprocedure.getCodespace().getCodespace() : OGCConstants.UNIQUE_ID;
+        final String fingerprint = SensorDescriptionCache.fingerprint(sensor, session, tprocedure.getIdentifier(), codespace,
+                String.valueOf(ServiceConfiguration.getInstance().isShowAllLanguageValues()),
+                String.valueOf(ServiceConfiguration.getInstance().getDefaultLanguage()));
+        final SensorDescriptionCache.Entry cached = descriptionCache.get(sensor, format, fingerprint);
+
+        if (cached != null) {
+            validProcedureTime.setDescriptionXml(cached.getXml());
+            return;
+        }
+
+        final PhysicalSystem physicalSystem = createPhysicalSystem(tprocedure, sensor, session);
+        final String xml;
+
+        try {
+			xml = CodingHelper.encodeObjectToXmlText(SensorML20Constants.NS_SML_20, physicalSystem);
+		} catch (OwsExceptionReport e) {
+			throw new RuntimeException("Setting XML description of procedure failed." + e);
+		}
+
+        descriptionCache.put(sensor, format, fingerprint, xml);
+        validProcedureTime.setDescriptionXml(xml);
+	}
+
+	private static PhysicalSystem createPhysicalSystem(TProcedure tprocedure, Sensor sensor, Session session) {
         final PhysicalSystem physicalSystem = new PhysicalSystem();
         final CodeWithAuthority codeWithAuthority = new CodeWithAuthority(tprocedure.getIdentifier());
 
@@ -166,11 +196,6 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
         final List<SmlIo<?>> outputs = new ArrayList<SmlIo<?>>();
         int i = 0;
 
-        final TimeZone utcTimeZone = TimeZone.getTimeZone("UTC");
-        final DateFormat isoDateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm'Z'");
-
-        isoDateFormat.setTimeZone(utcTimeZone);
-
     	for (final ObservedPropertyInstance observedPropertyInstance: observedPropertyInstances) {
     		final ObservableProperty observableProperty = ObservablePropertyDAO.createObservableProperty(observedPropertyInstance, session);
 			final SweDataRecord outputRecord = new SweDataRecord();
@@ -185,8 +210,8 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
 				calibrationArrayElement.addField(new SweField("parameter 4", new SweText().setValue(calibrationSet.getParameter4().toString())));
 				calibrationArrayElement.addField(new SweField("parameter 5", new SweText().setValue(calibrationSet.getParameter5().toString())));
 				calibrationArrayElement.addField(new SweField("parameter 6", new SweText().setValue(calibrationSet.getParameter6().toString())));
-				calibrationArrayElement.addField(new SweField("valid start", new SweText().setValue(isoDateFormat.format(calibrationSet.getValidStart()))));
-				calibrationArrayElement.addField(new SweField("valid end", new SweText().setValue(isoDateFormat.format(calibrationSet.getValidEnd()))));
+				calibrationArrayElement.addField(new SweField("valid start", new SweText().setValue(CALIBRATION_DATE_FORMAT.print(calibrationSet.getValidStart().getTime()))));
+				calibrationArrayElement.addField(new SweField("valid end", new SweText().setValue(CALIBRATION_DATE_FORMAT.print(calibrationSet.getValidEnd().getTime()))));
 				//calibrationArrayElement.addField(new SweField("valid start", new SweTime().setValue(new DateTime(calibrationSet.getValidEnd()))));
 				//calibrationArrayElement.addField(new SweField("valid end", new SweTime().setValue(new DateTime(calibrationSet.getValidEnd()))));
 				
@@ -209,26 +234,7 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
 
     	physicalSystem.setOutputs(outputs);
 
-        /*
-        try {
-			final List<String> lines = Files.readAllLines(Paths.get("/home/impulze/procedure.xml"), StandardCharsets.UTF_8);
-			final StringBuilder builder = new StringBuilder();
-
-			for (final String line: lines) {
-				builder.append(line);
-				builder.append('\n');
-			}
-
-			validProcedureTime.setDescriptionXml(builder.toString());
-		} catch (IOException e) {
-		}*/
-        try {
-			validProcedureTime.setDescriptionXml(CodingHelper.encodeObjectToXmlText(SensorML20Constants.NS_SML_20, physicalSystem));
-		} catch (OwsExceptionReport e) {
-			throw new RuntimeException("Setting XML description of procedure failed." + e);
-
-		}
-		
+        return physicalSystem;
 	}
 
 	public static TProcedure createTProcedureNoDescriptionXML(Sensor sensor, Session session) {
@@ -436,12 +442,8 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
     }
     
     private List<Object[]> getFeatureProcedureResult(Session session) {
-        // if the calculations are empty, this returns an empty list
-        final Criteria calculatedDataCriteria = session.createCriteria(CalculatedData.class)
-                .setProjection(Projections.rowCount());
-        final Long calculatedDataCount = (Long)calculatedDataCriteria.uniqueResult();
-
-        if (calculatedDataCount == 0) {
+        // if there are no values, this returns an empty list
+        if (HzgValueSummaryCache.getInstance().getOverallSummary(session).isEmpty()) {
             return Collections.emptyList();
         }
 
@@ -651,20 +653,46 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
      */
     public TimeExtrema getProcedureTimeExtrema(final Session session, String procedureIdentifier)
             throws OwsExceptionReport {
-        // same as in offering time extrema, minimum to future
-        final DateTime minTime = getMinDate4Procedure(procedureIdentifier, session);
-        final DateTime maxTime = getMaxDate4Procedure(procedureIdentifier, session);
+        final HzgValueSummary summary = getValueSummary4Procedure(procedureIdentifier, session);
 
-        if (minTime != null && maxTime != null) {
-            final TimeExtrema timeExtrema = new TimeExtrema();
+        if (summary.isEmpty()) {
+            return null;
+        }
 
-            timeExtrema.setMinTime(minTime);
-            timeExtrema.setMaxTime(maxTime);
+        return summary.toTimeExtrema();
+    }
 
-            return timeExtrema;
+    /**
+     * Get the time extrema of all procedures with values, computed in one pass
+     * over the value summaries instead of one lookup per procedure
+     *
+     * @param session
+     *            Hibernate session
+     * @return Time extrema keyed by procedure identifier
+     */
+    public Map<String, TimeExtrema> getProcedureTimeExtrema(final Session session) {
+        final HzgMetadataSnapshot metadata = HzgMetadataCache.getInstance().getSnapshot(session);
+        final Map<String, HzgValueSummary> summaries = Maps.newHashMap();
+
+        for (final Entry<Serializable, HzgValueSummary> entry : HzgValueSummaryCache.getInstance()
+                .getSummaries(session).entrySet()) {
+            final String procedure = metadata.getProcedureIdentifier(entry.getKey());
+
+            if (procedure != null) {
+                final HzgValueSummary summary = summaries.get(procedure);
+                summaries.put(procedure, summary == null ? entry.getValue() : summary.merge(entry.getValue()));
+            }
         }
 
-        return null;
+        final Map<String, TimeExtrema> timeExtrema = Maps.newHashMapWithExpectedSize(summaries.size());
+
+        for (final Entry<String, HzgValueSummary> entry : summaries.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                timeExtrema.put(entry.getKey(), entry.getValue().toTimeExtrema());
+            }
+        }
+
+        return timeExtrema;
     }
 
     /**
@@ -678,22 +706,7 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
      * @throws CodedException
      */
     public DateTime getMinDate4Procedure(final String procedure, final Session session) throws OwsExceptionReport {
-        final Procedure procedureType = getProcedureForIdentifier(procedure, session);
-
-        if (procedureType == null) {
-            return null;
-        }
-
-        final Criteria criteria = session.createCriteria(CalculatedData.class)
-                .setProjection(Projections.projectionList()
-                        .add(Projections.min("date")));
-        final Timestamp timestamp = (Timestamp)criteria.uniqueResult();
-
-        if (timestamp == null) {
-            return null;
-        }
-
-        return new DateTime(timestamp, DateTimeZone.UTC);
+        return getValueSummary4Procedure(procedure, session).getMinTime();
     }
 
     /**
@@ -707,13 +720,28 @@ public class ProcedureDAO extends AbstractIdentifierNameDescriptionDAO implement
      * @throws CodedException
      */
     public DateTime getMaxDate4Procedure(final String procedure, final Session session) throws OwsExceptionReport {
-        final Procedure procedureType = getProcedureForIdentifier(procedure, session);
+        return getValueSummary4Procedure(procedure, session).getMaxTime();
+    }
 
-        if (procedureType == null) {
-            return null;
+    /**
+     * Get the summary of the values of all observed property instances of the
+     * procedure's sensor
+     *
+     * @param procedure
+     *            Procedure identifier
+     * @param session
+     *            Hibernate session
+     * @return Value summary, empty for unknown procedures
+     */
+    public HzgValueSummary getValueSummary4Procedure(final String procedure, final Session session) {
+        final HzgMetadataSnapshot metadata = HzgMetadataCache.getInstance().getSnapshot(session);
+        final Sensor sensor = metadata.getSensor(procedure);
+
+        if (sensor == null) {
+            return HzgValueSummary.EMPTY;
         }
 
-        return new DateTime(2025, 1, 1, 0, 0, DateTimeZone.UTC);
+        return HzgValueSummaryCache.getInstance().getSummary(metadata, sensor.getObservedPropertyInstances(), session);
     }
 
     /**
@@ -32,17 +32,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
-import org.hibernate.Query;
 import org.hibernate.Session;
+import org.n52.sos.ds.hibernate.dao.ProcedureDAO;
 import org.n52.sos.ds.hibernate.entities.series.Series;
 import org.n52.sos.ds.hibernate.entities.series.SeriesObservation;
 import org.n52.sos.ds.hibernate.util.TimeExtrema;
 import org.n52.sos.exception.CodedException;
 import org.n52.sos.request.GetObservationRequest;
-import org.n52.sos.service.SosContextListener;
-import org.n52.sos.util.DateTimeHelper;
-
-import de.hzg.common.SOSConfiguration;
 
 public abstract class AbstractSeriesDAO {
     protected abstract Class<?> getSeriesClass();
@@ -150,22 +146,6 @@ public abstract class AbstractSeriesDAO {
 	}
 	
 	public TimeExtrema getProcedureTimeExtrema(Session session, String procedure) {
-		final SOSConfiguration sosConfiguration = SosContextListener.hzgSOSConfiguration;
-
-	    if (!procedure.startsWith(sosConfiguration.getProcedureIdentifierPrefix())) {
-	        return new TimeExtrema();
-	    }
-
-	    final Query query = session.createQuery("SELECT MIN(cd.date), MAX(cd.date) FROM CalculatedData cd LEFT JOIN cd.observedPropertyInstance AS opi LEFT JOIN opi.sensor AS s WHERE cd.observedPropertyInstance = opi AND opi.sensor = s AND s.name = :name")
-            .setParameter("name", procedure.substring(sosConfiguration.getProcedureIdentifierPrefix().length()));
-	    final Object[] result = (Object[])query.uniqueResult();
-        final TimeExtrema pte = new TimeExtrema();
-
-        if (result != null) {
-            pte.setMinTime(DateTimeHelper.makeDateTime(result[0]));
-            pte.setMaxTime(DateTimeHelper.makeDateTime(result[1]));
-        }
-
-        return pte;
-    }
+	    return new ProcedureDAO().getValueSummary4Procedure(procedure, session).toTimeExtrema();
+	}
 }
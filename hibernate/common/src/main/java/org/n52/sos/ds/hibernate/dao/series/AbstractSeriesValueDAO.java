@@ -160,6 +160,37 @@ public abstract class AbstractSeriesValueDAO extends AbstractValueDAO {
         return (List<AbstractValue>) c.list();
     }
 
+    /**
+     * Query streaming value for parameter as chunk {@link List} with keyset
+     * pagination, the chunk starts after the last value of the previous chunk
+     * 
+     * @param request
+     *            {@link GetObservationRequest}
+     * @param series
+     *            Datasource series id
+     * @param temporalFilterCriterion
+     *            Temporal filter {@link Criterion}, may be <code>null</code>
+     * @param chunkSize
+     *            Chunk size
+     * @param lastValue
+     *            Last value of the previous chunk, <code>null</code> for the
+     *            first chunk
+     * @param session
+     *            Hibernate Session
+     * @return Resulting chunk {@link List}
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the {@link AbstractValue}s
+     */
+    @SuppressWarnings("unchecked")
+    public List<AbstractValue> getStreamingSeriesValuesFor(GetObservationRequest request, long series,
+            Criterion temporalFilterCriterion, int chunkSize, AbstractValue lastValue, Session session)
+            throws OwsExceptionReport {
+        Criteria c = getSeriesValueCriteriaFor(request, series, temporalFilterCriterion, session);
+        addKeysetChunkValuesToCriteria(c, chunkSize, lastValue, request);
+        LOGGER.debug("QUERY getStreamingSeriesValuesFor(): {}", HibernateHelper.getSqlString(c));
+        return (List<AbstractValue>) c.list();
+    }
+
     /**
      * Get {@link Criteria} for parameter
      * 
@@ -30,6 +30,7 @@ package org.n52.sos.ds.hibernate.dao.series;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.hibernate.Session;
@@ -39,9 +40,11 @@ import org.n52.sos.ds.hibernate.dao.ProcedureDAO;
 import org.n52.sos.ds.hibernate.dao.UnitDAO;
 import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
 import org.n52.sos.ds.hibernate.entities.series.Series;
-import org.n52.sos.service.SosContextListener;
+import org.n52.sos.ds.hibernate.util.HzgMetadataCache;
+import org.n52.sos.ds.hibernate.util.HzgMetadataSnapshot;
+import org.n52.sos.ds.hibernate.util.HzgValueSummary;
+import org.n52.sos.ds.hibernate.util.HzgValueSummaryCache;
 
-import de.hzg.common.SOSConfiguration;
 import de.hzg.measurement.ObservedPropertyInstance;
 import de.hzg.measurement.Sensor;
 
@@ -52,12 +55,12 @@ import de.hzg.measurement.Sensor;
  * 
  */
 public class SeriesDAO extends AbstractSeriesDAO {
-    private Series getSeriesFromInstance(ObservedPropertyInstance observedPropertyInstance, Session session) {
-    	final SOSConfiguration sosConfiguration = SosContextListener.hzgSOSConfiguration;
+    private Series getSeriesFromInstance(ObservedPropertyInstance observedPropertyInstance, HzgMetadataSnapshot metadata, Session session) {
 		final Series series = new Series();
 
+		series.setSeriesId(metadata.getSeriesId(observedPropertyInstance));
 		series.setProcedure(ProcedureDAO.createTProcedure(observedPropertyInstance.getSensor(), session));
-		series.setFeatureOfInterest(new FeatureOfInterestDAO().getFeatureOfInterest(sosConfiguration.getFeatureOfInterestIdentifierPrefix() + sosConfiguration.getFeatureOfInterestName(), session));
+		series.setFeatureOfInterest(metadata.getFeatureOfInterest());
 		series.setObservableProperty(ObservablePropertyDAO.createObservableProperty(observedPropertyInstance,  session));
 		series.setDeleted(false);
 		series.setPublished(true);
@@ -66,6 +69,13 @@ public class SeriesDAO extends AbstractSeriesDAO {
 			series.setUnit(new UnitDAO().getUnitFromObservedPropertyInstance(observedPropertyInstance));
 		}
 
+		final HzgValueSummary summary = HzgValueSummaryCache.getInstance().getSummary(metadata, Collections.singletonList(observedPropertyInstance), session);
+
+		if (!summary.isEmpty()) {
+			series.setFirstTimeStamp(summary.getMinDate());
+			series.setLastTimeStamp(summary.getMaxDate());
+		}
+
     	return series;
     }
 
@@ -78,19 +88,19 @@ public class SeriesDAO extends AbstractSeriesDAO {
     		throw new RuntimeException("Parameters to getSeries cannot be null for now: " + procedures + observedProperties + features);
     	}
 
+    	final HzgMetadataSnapshot metadata = HzgMetadataCache.getInstance().getSnapshot(session);
     	final List<ObservedPropertyInstance> allObservedPropertyInstances = new ArrayList<ObservedPropertyInstance>();
-   		final List<ObservedPropertyInstance> observedPropertyInstances = new ObservablePropertyDAO().getObservedPropertyInstancesForIdentifiers(observedProperties, session);
 
-   		if (observedPropertyInstances != null) {
-   			allObservedPropertyInstances.addAll(observedPropertyInstances);
+   		if (!observedProperties.isEmpty()) {
+   			allObservedPropertyInstances.addAll(metadata.getObservedPropertyInstances(Collections.<String>emptyList(), observedProperties));
     	}
 
-   		final List<Sensor> sensors = new ProcedureDAO().getSensorsForIdentifiers(procedures, session);
+   		for (final String procedure: procedures) {
+   			final Sensor sensor = metadata.getSensor(procedure);
 
-   		if (sensors != null) {
-   			for (final Sensor sensor: sensors) {
+   			if (sensor != null) {
    				allObservedPropertyInstances.addAll(sensor.getObservedPropertyInstances());
-  			}
+   			}
     	}
 
    		final List<FeatureOfInterest> fois = new FeatureOfInterestDAO().getFeatureOfInterestObject(features, session);
@@ -102,7 +112,7 @@ public class SeriesDAO extends AbstractSeriesDAO {
    		final List<Series> series = new ArrayList<Series>();
 
    		for (final ObservedPropertyInstance observedPropertyInstance: allObservedPropertyInstances) {
-   			series.add(getSeriesFromInstance(observedPropertyInstance, session));
+   			series.add(getSeriesFromInstance(observedPropertyInstance, metadata, session));
    		}
 
    		return series;
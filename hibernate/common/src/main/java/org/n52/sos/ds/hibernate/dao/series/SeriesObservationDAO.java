@@ -28,13 +28,16 @@
  */
 package org.n52.sos.ds.hibernate.dao.series;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.hibernate.Criteria;
 import org.hibernate.ScrollableResults;
@@ -42,10 +45,11 @@ import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.ProjectionList;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
-import org.n52.sos.ds.hibernate.dao.FeatureOfInterestDAO;
+import org.joda.time.DateTime;
 import org.n52.sos.ds.hibernate.dao.ObservablePropertyDAO;
-import org.n52.sos.ds.hibernate.dao.OfferingDAO;
 import org.n52.sos.ds.hibernate.dao.ProcedureDAO;
 import org.n52.sos.ds.hibernate.dao.UnitDAO;
 import org.n52.sos.ds.hibernate.entities.Offering;
@@ -62,16 +66,25 @@ import org.n52.sos.ds.hibernate.entities.series.SeriesObservationInfo;
 import org.n52.sos.ds.hibernate.entities.series.SeriesObservationTime;
 import org.n52.sos.ds.hibernate.entities.series.SeriesSweDataArrayObservation;
 import org.n52.sos.ds.hibernate.entities.series.SeriesTextObservation;
+import org.n52.sos.ds.hibernate.util.HzgAggregation;
+import org.n52.sos.ds.hibernate.util.HzgMetadataCache;
+import org.n52.sos.ds.hibernate.util.HzgMetadataSnapshot;
+import org.n52.sos.ds.hibernate.util.HzgResultFilter;
+import org.n52.sos.ds.hibernate.util.HzgValueSummaryCache;
 import org.n52.sos.exception.sos.ResponseExceedsSizeLimitException;
+import org.n52.sos.ogc.om.OmConstants;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants.SosIndeterminateTime;
 import org.n52.sos.ogc.swe.SweDataArray;
 import org.n52.sos.ogc.swe.SweDataRecord;
 import org.n52.sos.ogc.swe.SweField;
+import org.n52.sos.ogc.swe.SweNumericDataArray;
 import org.n52.sos.ogc.swe.encoding.SweTextEncoding;
 import org.n52.sos.ogc.swe.simpleType.SweCount;
 import org.n52.sos.ogc.swe.simpleType.SweQuantity;
+import org.n52.sos.ogc.swe.simpleType.SweTime;
 import org.n52.sos.request.GetObservationRequest;
+import org.n52.sos.request.GetResultRequest;
 import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.service.SosContextListener;
 import org.n52.sos.util.CollectionHelper;
@@ -133,7 +146,9 @@ public class SeriesObservationDAO extends AbstractSeriesObservationDAO {
 
     /**
      * Query series observations for GetObservation request, features, and an
-     * indeterminate time (first/latest)
+     * indeterminate time (first/latest). The first/latest value is queried for
+     * each series, if the overall extrema are configured only the series
+     * observations with the overall first/latest time are returned.
      * 
      * @param request
      *            GetObservation request
@@ -149,7 +164,13 @@ public class SeriesObservationDAO extends AbstractSeriesObservationDAO {
     public List<SeriesObservation> getSeriesObservationsFor(GetObservationRequest request,
             Collection<String> features, SosIndeterminateTime sosIndeterminateTime, Session session)
             throws OwsExceptionReport {
-        return getSeriesObservationsFor(request, features, null, sosIndeterminateTime, session);
+        final List<SeriesObservation> seriesObservations = getSeriesObservationsFor(request, features, null, sosIndeterminateTime, session);
+
+        if (ServiceConfiguration.getInstance().isOverallExtrema()) {
+            return retainOverallExtrema(seriesObservations, sosIndeterminateTime);
+        }
+
+        return seriesObservations;
     }
 
     private List<SeriesObservation> getSeriesObservationsFor(GetObservationRequest request, Collection<String> features,
@@ -164,93 +185,42 @@ public class SeriesObservationDAO extends AbstractSeriesObservationDAO {
                             request.getSpatialFilter().getGeometry())));
         }*/
 
-    	final SOSConfiguration sosConfiguration = SosContextListener.hzgSOSConfiguration;
-    	final List<String> procedureIdentifiers = new ArrayList<String>();
-    	final List<String> observablePropertyIdentifiers = new ArrayList<String>();
-
-    	if (CollectionHelper.isNotEmpty(features)) {
-    		boolean found = false;
-
-    		for (final String identifier: features) {
-    			if (identifier.equals(sosConfiguration.getFeatureOfInterestIdentifierPrefix() + sosConfiguration.getFeatureOfInterestName())) {
-    				found = true;
-    				break;
-    			}
-    		}
-
-    		if (!found) {
-    			return null;
-    		}
-    	}
+    	final HzgResultFilter resultFilter = HzgResultFilter.fromRequest(request);
+    	final HzgMetadataSnapshot metadata = HzgMetadataCache.getInstance().getSnapshot(session);
+    	final List<ObservedPropertyInstance> observedPropertyInstances =
+    	        getObservedPropertyInstancesFor(features, offerings, procedures, observableProperties, metadata);
 
-    	if (CollectionHelper.isNotEmpty(request.getOfferings())) {
-    		boolean found = false;
-
-    		for (final String identifier: request.getOfferings()) {
-    			if (identifier.equals(sosConfiguration.getOfferingIdentifierPrefix() + sosConfiguration.getOfferingName())) {
-    				found = true;
-    				 break;
-    			}
-    		}
-
-    		if (!found) {
-    			return null;
-    		}
-    	}
-
-    	if (CollectionHelper.isNotEmpty(request.getProcedures())) {
-    		for (final String identifier: request.getProcedures()) {
-    			if (identifier.startsWith(sosConfiguration.getProcedureIdentifierPrefix())) {
-    				procedureIdentifiers.add(identifier.substring(sosConfiguration.getProcedureIdentifierPrefix().length()));
-    			}
-    		}
+    	if (observedPropertyInstances.isEmpty()) {
+    		return new ArrayList<SeriesObservation>();
     	}
 
-    	if (CollectionHelper.isNotEmpty(request.getObservedProperties())) {
-    		for (final String identifier: request.getObservedProperties()) {
-    			if (identifier.startsWith(sosConfiguration.getObservablePropertyIdentifierPrefix())) {
-    				observablePropertyIdentifiers.add(identifier.substring(sosConfiguration.getObservablePropertyIdentifierPrefix().length()));
-    			}
-    		}
+    	if (sosIndeterminateTime != null) {
+    		return getFirstLatestSeriesObservationsFor(observedPropertyInstances, metadata, filterCriterion, resultFilter, sosIndeterminateTime, session);
     	}
 
-    	final Criteria calculatedCriteria = session.createCriteria(CalculatedData.class);
-    	final Criteria calculatedOPICriteria = calculatedCriteria.createCriteria("observedPropertyInstance");
-    	final Criteria rawCriteria = session.createCriteria(RawData.class);
-    	final Criteria rawOPICriteria = rawCriteria.createCriteria("observedPropertyInstance");
+    	final HzgAggregation aggregation = HzgAggregation.fromExtensions(request.getExtensions());
 
-    	if (!procedureIdentifiers.isEmpty()) {
-    		calculatedOPICriteria.createCriteria("sensor").add(Restrictions.in("name", procedureIdentifiers));
-    		rawOPICriteria.createCriteria("sensor").add(Restrictions.in("name", procedureIdentifiers));
+    	if (aggregation != null) {
+    		return getAggregatedSeriesObservationsFor(observedPropertyInstances, metadata, filterCriterion, resultFilter, aggregation, session);
     	}
 
-    	if (!observablePropertyIdentifiers.isEmpty()) {
-    		calculatedOPICriteria.add(Restrictions.in("name", observablePropertyIdentifiers));
-    		rawOPICriteria.add(Restrictions.in("name", observablePropertyIdentifiers));
-    	}
+    	final List<ObservedPropertyInstance> rawInstances = new ArrayList<ObservedPropertyInstance>();
+    	final List<ObservedPropertyInstance> calculatedInstances = new ArrayList<ObservedPropertyInstance>();
 
-    	if (filterCriterion != null) {
-    		calculatedCriteria.add(filterCriterion);
-    		rawCriteria.add(filterCriterion);
-    	}
-
-    	if (sosIndeterminateTime != null) {
-    		//TODO:
-    		//addIndeterminateTimeRestriction(calculatedCriteria, sosIndeterminateTime);
-    		//addIndeterminateTimeRestriction(rawCriteria, sosIndeterminateTime);
+    	for (final ObservedPropertyInstance observedPropertyInstance: observedPropertyInstances) {
+    		if (observedPropertyInstance.getIsRaw()) {
+    			rawInstances.add(observedPropertyInstance);
+    		} else {
+    			calculatedInstances.add(observedPropertyInstance);
+    		}
     	}
 
-	calculatedCriteria.setReadOnly(true).setCacheable(false).addOrder(Order.asc("date"));
-	rawCriteria.setReadOnly(true).setCacheable(false).addOrder(Order.asc("date"));
-
-       @SuppressWarnings("unchecked")
-       List<CalculatedData> calculatedDataList;
-       @SuppressWarnings("unchecked")
-       List<RawData> rawDataList;
+       List<ValueData<? extends Number>> rawDataList;
+       List<ValueData<? extends Number>> calculatedDataList;
 
        try {
-               rawDataList = rawCriteria.list();
-               calculatedDataList = calculatedCriteria.list();
+               rawDataList = getValueDataList(RawData.class, rawInstances, metadata, filterCriterion, resultFilter, session);
+               calculatedDataList = getValueDataList(CalculatedData.class, calculatedInstances, metadata, filterCriterion, resultFilter, session);
        } catch (OutOfMemoryError error) {
            throw new ResponseExceedsSizeLimitException().withMessage(
                     "The observation response is to big for the maximal heap size of %d Byte of the "
@@ -265,113 +235,730 @@ public class SeriesObservationDAO extends AbstractSeriesObservationDAO {
            return seriesObservations;
        }
 
-       final Offering offering = new OfferingDAO().getOfferingForIdentifier(sosConfiguration.getOfferingIdentifierPrefix() + sosConfiguration.getOfferingName(), session);
-
-       final Map<ObservedPropertyInstance, List<ValueData<? extends Number>>> valueMap = new HashMap<ObservedPropertyInstance, List<ValueData<? extends Number>>>();
+       final Map<Serializable, List<ValueData<? extends Number>>> valueMap = new LinkedHashMap<Serializable, List<ValueData<? extends Number>>>();
 
-       for (final RawData rawData: rawDataList) {
-           final ValueData<? extends Number> value = rawData;
-           List<ValueData<? extends Number>> thisValueDataList = valueMap.get(value.getObservedPropertyInstance());
+       addToValueMap(rawDataList, valueMap, session);
+       addToValueMap(calculatedDataList, valueMap, session);
 
-           if (thisValueDataList == null) {
-               thisValueDataList = new ArrayList<ValueData<? extends Number>>();
-               valueMap.put(value.getObservedPropertyInstance(), thisValueDataList);
-           }
+       for (final Map.Entry<Serializable, List<ValueData<? extends Number>>> vdEntry: valueMap.entrySet()) {
+           final ObservedPropertyInstance observedPropertyInstance = metadata.getObservedPropertyInstanceById(vdEntry.getKey());
+           final List<ValueData<? extends Number>> values = vdEntry.getValue();
 
-           thisValueDataList.add(value);
-           session.evict(value);
+           seriesObservations.add(createSeriesObservation(observedPropertyInstance, metadata.getOffering(), values, session));
        }
 
-       for (final CalculatedData calculatedData: calculatedDataList) {
-           final ValueData<? extends Number> value = calculatedData;
-           List<ValueData<? extends Number>> thisValueDataList = valueMap.get(value.getObservedPropertyInstance());
+       return seriesObservations;
+    }
 
-           if (thisValueDataList == null) {
-               thisValueDataList = new ArrayList<ValueData<? extends Number>>();
-               valueMap.put(value.getObservedPropertyInstance(), thisValueDataList);
-           }
+    /**
+     * Query the values of the observed property instances from one value
+     * table, restricted by the instance ids and ordered by date
+     * 
+     * @param valueDataClass
+     *            {@link RawData} or {@link CalculatedData}
+     * @param observedPropertyInstances
+     *            Observed property instances stored in this table
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param resultFilter
+     *            Result filter, may be <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Values ordered by date per instance, empty if no instances are
+     *         given
+     */
+    @SuppressWarnings("unchecked")
+    private List<ValueData<? extends Number>> getValueDataList(Class<?> valueDataClass,
+            List<ObservedPropertyInstance> observedPropertyInstances, HzgMetadataSnapshot metadata,
+            Criterion filterCriterion, HzgResultFilter resultFilter, Session session) {
+        if (observedPropertyInstances.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (resultFilter != null) {
+            // the filtered field depends on the value kind of the instances
+            final List<ValueData<? extends Number>> values = new ArrayList<ValueData<? extends Number>>();
+
+            for (final boolean useInterval: new boolean[] { false, true }) {
+                final List<ObservedPropertyInstance> instances = new ArrayList<ObservedPropertyInstance>();
+
+                for (final ObservedPropertyInstance observedPropertyInstance: observedPropertyInstances) {
+                    if (observedPropertyInstance.getUseInterval() == useInterval) {
+                        instances.add(observedPropertyInstance);
+                    }
+                }
+
+                if (!instances.isEmpty()) {
+                    values.addAll(getValueDataList(valueDataClass, instances, metadata,
+                            HzgResultFilter.and(filterCriterion, resultFilter, valueDataClass, useInterval, session),
+                            null, session));
+                }
+            }
+
+            return values;
+        }
+
+        // always restrict by id, values of instances created after the
+        // snapshot could not be mapped to an instance
+        final Criteria criteria = session.createCriteria(valueDataClass)
+                .add(Restrictions.in("observedPropertyInstance." + metadata.getObservedPropertyInstanceIdProperty(),
+                        metadata.getIds(observedPropertyInstances)));
+
+        if (filterCriterion != null) {
+            criteria.add(filterCriterion);
+        }
+
+        return criteria.setReadOnly(true).setCacheable(false).addOrder(Order.asc("date")).list();
+    }
 
-           thisValueDataList.add(value);
-           session.evict(value);
-      }
+    /**
+     * Query the values of the observed property instances aggregated to
+     * buckets of the aggregation interval. The values are grouped in the
+     * database by observed property instance and bucket, one query for each
+     * combination of value table and value kind (single values or interval
+     * statistics).
+     * 
+     * @param observedPropertyInstances
+     *            Observed property instances to query
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param resultFilter
+     *            Result filter applied to the values before aggregation, may be
+     *            <code>null</code>
+     * @param aggregation
+     *            Requested aggregation
+     * @param session
+     *            Hibernate session
+     * @return Series observations with one block per bucket
+     * @throws OwsExceptionReport
+     *             If the database does not support the aggregation
+     */
+    private List<SeriesObservation> getAggregatedSeriesObservationsFor(
+            List<ObservedPropertyInstance> observedPropertyInstances, HzgMetadataSnapshot metadata,
+            Criterion filterCriterion, HzgResultFilter resultFilter, HzgAggregation aggregation, Session session)
+            throws OwsExceptionReport {
+        final Map<Serializable, SortedMap<Long, Object[]>> bucketMap = new LinkedHashMap<Serializable, SortedMap<Long, Object[]>>();
+
+        for (final Class<?> valueDataClass: new Class<?>[] { RawData.class, CalculatedData.class }) {
+            for (final boolean useInterval: new boolean[] { false, true }) {
+                final List<ObservedPropertyInstance> instances = new ArrayList<ObservedPropertyInstance>();
+
+                for (final ObservedPropertyInstance observedPropertyInstance: observedPropertyInstances) {
+                    if (getValueDataClass(observedPropertyInstance).equals(valueDataClass)
+                            && observedPropertyInstance.getUseInterval() == useInterval) {
+                        instances.add(observedPropertyInstance);
+                    }
+                }
+
+                if (!instances.isEmpty()) {
+                    addAggregatedValues(valueDataClass, useInterval, instances, metadata,
+                            HzgResultFilter.and(filterCriterion, resultFilter, valueDataClass, useInterval, session),
+                            aggregation, bucketMap, session);
+                }
+            }
+        }
+
+        final List<SeriesObservation> seriesObservations = new ArrayList<SeriesObservation>(bucketMap.size());
+
+        for (final Map.Entry<Serializable, SortedMap<Long, Object[]>> entry: bucketMap.entrySet()) {
+            final ObservedPropertyInstance observedPropertyInstance = metadata.getObservedPropertyInstanceById(entry.getKey());
+            final SeriesSweDataArrayObservation seriesObservation = createSeriesObservation(observedPropertyInstance, metadata.getOffering(), session);
+            final SweNumericDataArray sweDataArray = createAggregatedSweDataArray(aggregation, seriesObservation.getUnit());
+            final SortedMap<Long, Object[]> buckets = entry.getValue();
+
+            for (final Map.Entry<Long, Object[]> bucket: buckets.entrySet()) {
+                final Number[] values = new Number[aggregation.getFunctions().size()];
+
+                System.arraycopy(bucket.getValue(), 2, values, 0, values.length);
+                sweDataArray.add(aggregation.getBucketStart(bucket.getKey()), values);
+            }
+
+            final Date end = new Date(aggregation.getBucketStart(buckets.lastKey()) + aggregation.getInterval());
+
+            seriesObservation.setPhenomenonTimeStart(new Date(aggregation.getBucketStart(buckets.firstKey())));
+            seriesObservation.setPhenomenonTimeEnd(end);
+            seriesObservation.setResultTime(end);
+            seriesObservation.setValue(sweDataArray);
+            seriesObservations.add(seriesObservation);
+        }
+
+        return seriesObservations;
+    }
 
-       for (final Map.Entry<ObservedPropertyInstance, List<ValueData<? extends Number>>> vdEntry: valueMap.entrySet()) {
-           final ObservedPropertyInstance observedPropertyInstance = vdEntry.getKey();
-           final List<ValueData<? extends Number>> values = vdEntry.getValue();
-           final SeriesSweDataArrayObservation seriesObservation = new SeriesSweDataArrayObservation();
-           final Unit unit = new UnitDAO().getUnitFromObservedPropertyInstance(observedPropertyInstance);
-           final Date lastResultTime = values.get(values.size() - 1).getDate();
-           final Date firstPhenomenonTime = values.get(0).getDate();
-
-           seriesObservation.setPhenomenonTimeStart(firstPhenomenonTime);
-           seriesObservation.setPhenomenonTimeEnd(lastResultTime);
-           seriesObservation.setResultTime(lastResultTime);
-           seriesObservation.setUnit(unit);
-           seriesObservation.setDeleted(false);
-           seriesObservation.setOfferings(Collections.singleton(offering));
-
-           final Series series = new Series();
-
-           series.setProcedure(ProcedureDAO.createTProcedure(observedPropertyInstance.getSensor(), session));
-           series.setFeatureOfInterest(new FeatureOfInterestDAO().getFeatureOfInterest(sosConfiguration.getFeatureOfInterestIdentifierPrefix() + sosConfiguration.getFeatureOfInterestName(), session));
-           series.setObservableProperty(ObservablePropertyDAO.createObservableProperty(observedPropertyInstance, session));
-           series.setPublished(true);
-
-           final SweQuantity sweQuantity = new SweQuantity();
-
-           if (seriesObservation.getUnit() != null) {
-               series.setUnit(seriesObservation.getUnit());
-               sweQuantity.setUom(seriesObservation.getUnit().getUnit());
-           }
-
-           seriesObservation.setSeries(series);
-
-           final SweDataArray sweDataArray = new SweDataArray();
-           final SweDataRecord sweDataRecord = new SweDataRecord();
-           final SweTextEncoding sweTextEncoding = new SweTextEncoding();
-           final String tupleSeparator = ServiceConfiguration.getInstance().getTupleSeparator();
-           final String tokenSeparator = ServiceConfiguration.getInstance().getTokenSeparator();
-           final String decimalSeparator = ServiceConfiguration.getInstance().getDecimalSeparator();
-
-           sweTextEncoding.setBlockSeparator(tupleSeparator);
-           sweTextEncoding.setTokenSeparator(tokenSeparator);
-           sweTextEncoding.setDecimalSeparator(decimalSeparator);
-           sweDataArray.setEncoding(sweTextEncoding);
-           sweDataArray.setElementType(sweDataRecord);
-
-           if (observedPropertyInstance.getUseInterval()) {
-               sweDataRecord.addField(new SweField("average", sweQuantity));
-               sweDataRecord.addField(new SweField("min", sweQuantity));
-               sweDataRecord.addField(new SweField("max", sweQuantity));
-               sweDataRecord.addField(new SweField("median", sweQuantity));
-               sweDataRecord.addField(new SweField("stddev", sweQuantity));
-           } else {
-               sweDataRecord.addField(new SweField("value", sweQuantity));
-           }
-
-           for (final ValueData<? extends Number> value: values) {
-               final List<String> list;
-
-               if (value.getObservedPropertyInstance().getUseInterval()) {
-                   list = new ArrayList<String>(5);
-
-                   list.add(value.getAverage().toString());
-                   list.add(value.getMin().toString());
-                   list.add(value.getMax().toString());
-                   list.add(value.getMedian().toString());
-                   list.add(value.getStddev().toString());
-               } else {
-                   list = Collections.singletonList(value.getValue().toString());
-               }
-
-               sweDataArray.add(list);
-           }
-
-           seriesObservation.setValue(sweDataArray);
-           seriesObservations.add(seriesObservation);
-       }
+    /**
+     * Query the aggregated values of observed property instances of the same
+     * value table and value kind and add the rows to the bucket map
+     * 
+     * @param valueDataClass
+     *            {@link RawData} or {@link CalculatedData}
+     * @param useInterval
+     *            <code>true</code>, if the instances store interval statistics
+     * @param observedPropertyInstances
+     *            Observed property instances stored in this table
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (temporal and result
+     *            filter), may be <code>null</code>
+     * @param aggregation
+     *            Requested aggregation
+     * @param bucketMap
+     *            Rows (id, bucket, aggregates) by instance id and bucket
+     * @param session
+     *            Hibernate session
+     * @throws OwsExceptionReport
+     *             If the database does not support the aggregation
+     */
+    @SuppressWarnings("unchecked")
+    private void addAggregatedValues(Class<?> valueDataClass, boolean useInterval,
+            List<ObservedPropertyInstance> observedPropertyInstances, HzgMetadataSnapshot metadata,
+            Criterion filterCriterion, HzgAggregation aggregation,
+            Map<Serializable, SortedMap<Long, Object[]>> bucketMap, Session session) throws OwsExceptionReport {
+        final ProjectionList projections = Projections.projectionList()
+                .add(Projections.groupProperty("observedPropertyInstance." + metadata.getObservedPropertyInstanceIdProperty()))
+                .add(aggregation.getBucketProjection(valueDataClass, "date", session));
+
+        for (final HzgAggregation.Function function: aggregation.getFunctions()) {
+            switch (function) {
+            case average:
+                projections.add(Projections.avg(useInterval ? "average" : "value"));
+                break;
+            case min:
+                projections.add(Projections.min(useInterval ? "min" : "value"));
+                break;
+            case max:
+                projections.add(Projections.max(useInterval ? "max" : "value"));
+                break;
+            default:
+                projections.add(Projections.rowCount());
+                break;
+            }
+        }
+
+        final Criteria criteria = session.createCriteria(valueDataClass)
+                .add(Restrictions.in("observedPropertyInstance." + metadata.getObservedPropertyInstanceIdProperty(),
+                        metadata.getIds(observedPropertyInstances)))
+                .setProjection(projections);
+
+        if (filterCriterion != null) {
+            criteria.add(filterCriterion);
+        }
+
+        for (final Object[] row: (List<Object[]>) criteria.setReadOnly(true).setCacheable(false).list()) {
+            final Serializable id = (Serializable) row[0];
+            SortedMap<Long, Object[]> buckets = bucketMap.get(id);
+
+            if (buckets == null) {
+                buckets = new TreeMap<Long, Object[]>();
+                bucketMap.put(id, buckets);
+            }
+
+            buckets.put(((Number) row[1]).longValue(), row);
+        }
+    }
 
-       return seriesObservations;
+    /**
+     * Group values by the id of their observed property instance and evict
+     * them from the session
+     * 
+     * @param values
+     *            Values to group
+     * @param valueMap
+     *            Map to add the values to
+     * @param session
+     *            Hibernate session
+     */
+    private void addToValueMap(List<ValueData<? extends Number>> values,
+            Map<Serializable, List<ValueData<? extends Number>>> valueMap, Session session) {
+        for (final ValueData<? extends Number> value: values) {
+            final Serializable id = session.getIdentifier(value.getObservedPropertyInstance());
+            List<ValueData<? extends Number>> thisValueDataList = valueMap.get(id);
+
+            if (thisValueDataList == null) {
+                thisValueDataList = new ArrayList<ValueData<? extends Number>>();
+                valueMap.put(id, thisValueDataList);
+            }
+
+            thisValueDataList.add(value);
+            session.evict(value);
+        }
+    }
+
+    /**
+     * Query the first or latest value of each matching observed property
+     * instance. Each instance is queried with a single query on its value
+     * table ordered by date and limited to one row, so the costs do not depend
+     * on the length of the history.
+     * 
+     * @param observedPropertyInstances
+     *            Observed property instances to query
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param resultFilter
+     *            Result filter, may be <code>null</code>
+     * @param sosIndeterminateTime
+     *            Indeterminate time (first/latest)
+     * @param session
+     *            Hibernate session
+     * @return Series observations with the first/latest value
+     */
+    @SuppressWarnings("unchecked")
+    private List<SeriesObservation> getFirstLatestSeriesObservationsFor(
+            List<ObservedPropertyInstance> observedPropertyInstances, HzgMetadataSnapshot metadata,
+            Criterion filterCriterion, HzgResultFilter resultFilter, SosIndeterminateTime sosIndeterminateTime,
+            Session session) {
+        final List<SeriesObservation> seriesObservations = new ArrayList<SeriesObservation>();
+        final Offering offering = metadata.getOffering();
+        final Order order = sosIndeterminateTime.equals(SosIndeterminateTime.first) ? Order.asc("date") : Order.desc("date");
+
+        for (final ObservedPropertyInstance observedPropertyInstance: observedPropertyInstances) {
+            final Criterion criterion = getFilterCriterion(observedPropertyInstance, filterCriterion, resultFilter, session);
+            final ValueData<? extends Number> value = (ValueData<? extends Number>) getValueDataCriteria(observedPropertyInstance, criterion, session)
+                    .addOrder(order)
+                    .setMaxResults(1)
+                    .uniqueResult();
+
+            if (value != null) {
+                session.evict(value);
+                seriesObservations.add(createSeriesObservation(observedPropertyInstance, offering, Collections.<ValueData<? extends Number>>singletonList(value), session));
+            }
+        }
+
+        return seriesObservations;
+    }
+
+    /**
+     * Keep only the series observations with the overall first/latest
+     * phenomenon time
+     * 
+     * @param seriesObservations
+     *            First/latest series observations of each series
+     * @param sosIndeterminateTime
+     *            Indeterminate time (first/latest)
+     * @return Series observations with the overall extremum
+     */
+    private List<SeriesObservation> retainOverallExtrema(List<SeriesObservation> seriesObservations,
+            SosIndeterminateTime sosIndeterminateTime) {
+        Date extremum = null;
+
+        for (final SeriesObservation seriesObservation: seriesObservations) {
+            final Date date = seriesObservation.getPhenomenonTimeStart();
+
+            if (extremum == null
+                    || (sosIndeterminateTime.equals(SosIndeterminateTime.first) ? date.before(extremum) : date.after(extremum))) {
+                extremum = date;
+            }
+        }
+
+        final List<SeriesObservation> overallExtrema = new ArrayList<SeriesObservation>();
+
+        for (final SeriesObservation seriesObservation: seriesObservations) {
+            if (seriesObservation.getPhenomenonTimeStart().equals(extremum)) {
+                overallExtrema.add(seriesObservation);
+            }
+        }
+
+        return overallExtrema;
+    }
+
+    /**
+     * Create a series observation with the values of the observed property
+     * instance
+     * 
+     * @param observedPropertyInstance
+     *            Observed property instance
+     * @param offering
+     *            Offering of the observation
+     * @param values
+     *            Values ordered by date, not empty
+     * @param session
+     *            Hibernate session
+     * @return Series observation
+     */
+    private SeriesSweDataArrayObservation createSeriesObservation(ObservedPropertyInstance observedPropertyInstance,
+            Offering offering, List<ValueData<? extends Number>> values, Session session) {
+        final SeriesSweDataArrayObservation seriesObservation = createSeriesObservation(observedPropertyInstance, offering, session);
+        final Date lastResultTime = values.get(values.size() - 1).getDate();
+        final Date firstPhenomenonTime = values.get(0).getDate();
+
+        seriesObservation.setPhenomenonTimeStart(firstPhenomenonTime);
+        seriesObservation.setPhenomenonTimeEnd(lastResultTime);
+        seriesObservation.setResultTime(lastResultTime);
+
+        final SweNumericDataArray sweDataArray = (SweNumericDataArray) seriesObservation.getValue();
+
+        for (final ValueData<? extends Number> value: values) {
+            addValue(sweDataArray, value);
+        }
+
+        return seriesObservation;
+    }
+
+    /**
+     * Query the observed property instances matching the GetObservation
+     * request and features
+     * 
+     * @param request
+     *            GetObservation request
+     * @param features
+     *            Collection of feature identifiers resolved from the request
+     * @param session
+     *            Hibernate session
+     * @return Matching observed property instances, empty if the requested
+     *         features or offerings are not provided by this service
+     */
+    public List<ObservedPropertyInstance> getObservedPropertyInstancesFor(GetObservationRequest request,
+            Collection<String> features, Session session) {
+        return getObservedPropertyInstancesFor(features, request.getOfferings(), request.getProcedures(),
+                request.getObservedProperties(), HzgMetadataCache.getInstance().getSnapshot(session));
+    }
+
+    /**
+     * Query the observed property instances matching the GetResult request,
+     * the procedure of the result template and features
+     * 
+     * @param request
+     *            GetResult request
+     * @param procedure
+     *            Procedure identifier of the result template
+     * @param features
+     *            Collection of feature identifiers resolved from the request
+     * @param session
+     *            Hibernate session
+     * @return Matching observed property instances, empty if the requested
+     *         features or offering are not provided by this service
+     */
+    public List<ObservedPropertyInstance> getObservedPropertyInstancesFor(GetResultRequest request,
+            String procedure, Collection<String> features, Session session) {
+        return getObservedPropertyInstancesFor(features, Collections.singletonList(request.getOffering()),
+                Collections.singletonList(procedure), Collections.singletonList(request.getObservedProperty()),
+                HzgMetadataCache.getInstance().getSnapshot(session));
+    }
+
+    /**
+     * Query the values of an observed property instance as forward-only
+     * scrollable result, ordered by date
+     * 
+     * @param observedPropertyInstance
+     *            Observed property instance to query values for
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param fetchSize
+     *            JDBC fetch size, ignored if <= 0
+     * @param session
+     *            Hibernate session
+     * @return Scrollable result of {@link ValueData}
+     */
+    public ScrollableResults getStreamingValueDataFor(ObservedPropertyInstance observedPropertyInstance,
+            Criterion filterCriterion, int fetchSize, Session session) {
+        final Criteria criteria = getValueDataCriteria(observedPropertyInstance, filterCriterion, session)
+                .addOrder(Order.asc("date"));
+
+        if (fetchSize > 0) {
+            criteria.setFetchSize(fetchSize);
+        }
+
+        return criteria.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    /**
+     * Create a read-only {@link Criteria} for the value table (raw or
+     * calculated data) of the observed property instance
+     * 
+     * @param observedPropertyInstance
+     *            Observed property instance to query values for
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Criteria for the value table
+     */
+    public Criteria getValueDataCriteria(ObservedPropertyInstance observedPropertyInstance, Criterion filterCriterion,
+            Session session) {
+        final Criteria criteria = session.createCriteria(getValueDataClass(observedPropertyInstance))
+                .add(Restrictions.eq("observedPropertyInstance", observedPropertyInstance));
+
+        if (filterCriterion != null) {
+            criteria.add(filterCriterion);
+        }
+
+        criteria.setReadOnly(true).setCacheable(false);
+
+        return criteria;
+    }
+
+    /**
+     * Get the distinct value dates (result times) of observed property
+     * instances, one query for each value table
+     * 
+     * @param observedPropertyInstances
+     *            Observed property instances of the snapshot
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Rows of [observed property instance id, date], ordered by date
+     *         per value table
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getResultTimesFor(Collection<ObservedPropertyInstance> observedPropertyInstances,
+            HzgMetadataSnapshot metadata, Criterion filterCriterion, Session session) {
+        final List<Object[]> resultTimes = new ArrayList<Object[]>();
+        final String idProperty = "observedPropertyInstance." + metadata.getObservedPropertyInstanceIdProperty();
+
+        for (final Class<?> valueDataClass: new Class<?>[] { RawData.class, CalculatedData.class }) {
+            final List<ObservedPropertyInstance> instances = new ArrayList<ObservedPropertyInstance>();
+
+            for (final ObservedPropertyInstance observedPropertyInstance: observedPropertyInstances) {
+                if (getValueDataClass(observedPropertyInstance).equals(valueDataClass)) {
+                    instances.add(observedPropertyInstance);
+                }
+            }
+
+            if (instances.isEmpty()) {
+                continue;
+            }
+
+            final Criteria criteria = session.createCriteria(valueDataClass)
+                    .add(Restrictions.in(idProperty, metadata.getIds(instances)))
+                    .setProjection(Projections.distinct(Projections.projectionList()
+                            .add(Projections.property(idProperty)).add(Projections.property("date"))))
+                    .addOrder(Order.asc("date"));
+
+            if (filterCriterion != null) {
+                criteria.add(filterCriterion);
+            }
+
+            resultTimes.addAll(criteria.setReadOnly(true).setCacheable(false).list());
+        }
+
+        return resultTimes;
+    }
+
+    /**
+     * Combine the filter criterion with the result filter for the values of
+     * the observed property instance
+     * 
+     * @param observedPropertyInstance
+     *            Observed property instance
+     * @param filterCriterion
+     *            Criterion to apply to criteria query (typically a temporal
+     *            filter), may be <code>null</code>
+     * @param resultFilter
+     *            Result filter, may be <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Combined criterion, may be <code>null</code>
+     */
+    public Criterion getFilterCriterion(ObservedPropertyInstance observedPropertyInstance, Criterion filterCriterion,
+            HzgResultFilter resultFilter, Session session) {
+        return HzgResultFilter.and(filterCriterion, resultFilter, getValueDataClass(observedPropertyInstance),
+                observedPropertyInstance.getUseInterval(), session);
+    }
+
+    /**
+     * Get the value table class of the observed property instance
+     * 
+     * @param observedPropertyInstance
+     *            Observed property instance
+     * @return {@link RawData} for raw instances, otherwise
+     *         {@link CalculatedData}
+     */
+    public static Class<?> getValueDataClass(ObservedPropertyInstance observedPropertyInstance) {
+        if (observedPropertyInstance.getIsRaw()) {
+            return RawData.class;
+        }
+
+        return CalculatedData.class;
+    }
+
+    /**
+     * Create a series observation without values for the observed property
+     * instance. The value is an empty {@link SweDataArray} with element type
+     * and encoding set.
+     * 
+     * @param observedPropertyInstance
+     *            Observed property instance
+     * @param offering
+     *            Offering of the observation
+     * @param session
+     *            Hibernate session
+     * @return Series observation without values and times
+     */
+    public SeriesSweDataArrayObservation createSeriesObservation(ObservedPropertyInstance observedPropertyInstance,
+            Offering offering, Session session) {
+        final SeriesSweDataArrayObservation seriesObservation = new SeriesSweDataArrayObservation();
+        final Unit unit = new UnitDAO().getUnitFromObservedPropertyInstance(observedPropertyInstance);
+
+        seriesObservation.setUnit(unit);
+        seriesObservation.setDeleted(false);
+        seriesObservation.setOfferings(Collections.singleton(offering));
+
+        final Series series = new Series();
+
+        series.setProcedure(ProcedureDAO.createTProcedure(observedPropertyInstance.getSensor(), session));
+        series.setFeatureOfInterest(HzgMetadataCache.getInstance().getSnapshot(session).getFeatureOfInterest());
+        series.setObservableProperty(ObservablePropertyDAO.createObservableProperty(observedPropertyInstance, session));
+        series.setPublished(true);
+
+        if (unit != null) {
+            series.setUnit(unit);
+        }
+
+        seriesObservation.setSeries(series);
+        seriesObservation.setValue(createSweDataArray(observedPropertyInstance.getUseInterval(), unit));
+
+        return seriesObservation;
+    }
+
+    /**
+     * Create an empty {@link SweDataArray} with the element type for HZG
+     * values and the configured text encoding
+     * 
+     * @param useInterval
+     *            <code>true</code>, if the values are interval statistics
+     *            (average, min, max, median, stddev)
+     * @param unit
+     *            Unit of the values, may be <code>null</code>
+     * @return Empty SweDataArray
+     */
+    public static SweNumericDataArray createSweDataArray(boolean useInterval, Unit unit) {
+        final SweQuantity sweQuantity = new SweQuantity();
+
+        if (unit != null) {
+            sweQuantity.setUom(unit.getUnit());
+        }
+
+        final SweNumericDataArray sweDataArray = new SweNumericDataArray(useInterval ? 5 : 1);
+        final SweDataRecord sweDataRecord = new SweDataRecord();
+        final SweTextEncoding sweTextEncoding = new SweTextEncoding();
+
+        sweTextEncoding.setBlockSeparator(ServiceConfiguration.getInstance().getTupleSeparator());
+        sweTextEncoding.setTokenSeparator(ServiceConfiguration.getInstance().getTokenSeparator());
+        sweTextEncoding.setDecimalSeparator(ServiceConfiguration.getInstance().getDecimalSeparator());
+        sweDataArray.setEncoding(sweTextEncoding);
+        sweDataArray.setElementType(sweDataRecord);
+
+        if (useInterval) {
+            sweDataRecord.addField(new SweField("average", sweQuantity));
+            sweDataRecord.addField(new SweField("min", sweQuantity));
+            sweDataRecord.addField(new SweField("max", sweQuantity));
+            sweDataRecord.addField(new SweField("median", sweQuantity));
+            sweDataRecord.addField(new SweField("stddev", sweQuantity));
+        } else {
+            sweDataRecord.addField(new SweField("value", sweQuantity));
+        }
+
+        return sweDataArray;
+    }
+
+    /**
+     * Create an empty {@link SweDataArray} for aggregated HZG values with the
+     * bucket start as time token followed by one field per aggregate function
+     * 
+     * @param aggregation
+     *            Requested aggregation
+     * @param unit
+     *            Unit of the values, may be <code>null</code>
+     * @return Empty SweDataArray
+     */
+    public static SweNumericDataArray createAggregatedSweDataArray(HzgAggregation aggregation, Unit unit) {
+        final SweQuantity sweQuantity = new SweQuantity();
+
+        if (unit != null) {
+            sweQuantity.setUom(unit.getUnit());
+        }
+
+        final SweNumericDataArray sweDataArray = new SweNumericDataArray(aggregation.getFunctions().size(), true);
+        final SweDataRecord sweDataRecord = new SweDataRecord();
+        final SweTextEncoding sweTextEncoding = new SweTextEncoding();
+        final SweTime sweTime = new SweTime();
+
+        sweTime.setUom(OmConstants.PHEN_UOM_ISO8601);
+        sweTime.setDefinition(OmConstants.PHENOMENON_TIME);
+        sweTextEncoding.setBlockSeparator(ServiceConfiguration.getInstance().getTupleSeparator());
+        sweTextEncoding.setTokenSeparator(ServiceConfiguration.getInstance().getTokenSeparator());
+        sweTextEncoding.setDecimalSeparator(ServiceConfiguration.getInstance().getDecimalSeparator());
+        sweDataArray.setEncoding(sweTextEncoding);
+        sweDataArray.setElementType(sweDataRecord);
+        sweDataRecord.addField(new SweField(OmConstants.PHENOMENON_TIME_NAME, sweTime));
+
+        for (final HzgAggregation.Function function: aggregation.getFunctions()) {
+            if (function == HzgAggregation.Function.count) {
+                sweDataRecord.addField(new SweField(function.name(), new SweCount()));
+            } else {
+                sweDataRecord.addField(new SweField(function.name(), sweQuantity));
+            }
+        }
+
+        return sweDataArray;
+    }
+
+    /**
+     * Add a value as block to a {@link SweNumericDataArray} created by
+     * {@link #createSweDataArray(boolean, Unit)}
+     * 
+     * @param sweDataArray
+     *            Data array to add the block to
+     * @param value
+     *            Raw or calculated value
+     */
+    public static void addValue(SweNumericDataArray sweDataArray, ValueData<? extends Number> value) {
+        if (sweDataArray.getFieldCount() == 1) {
+            sweDataArray.add(value.getDate().getTime(), value.getValue());
+        } else {
+            sweDataArray.add(value.getDate().getTime(), value.getAverage(), value.getMin(), value.getMax(),
+                    value.getMedian(), value.getStddev());
+        }
+    }
+
+    /**
+     * Resolve the requested procedures and observable properties to observed
+     * property instances of the metadata snapshot
+     * 
+     * @param features
+     *            Requested feature identifiers
+     * @param offerings
+     *            Requested offering identifiers
+     * @param procedures
+     *            Requested procedure identifiers
+     * @param observableProperties
+     *            Requested observable property identifiers
+     * @param metadata
+     *            Current HZG metadata snapshot
+     * @return Matching observed property instances, empty if the requested
+     *         features or offerings are not provided by this service
+     */
+    private List<ObservedPropertyInstance> getObservedPropertyInstancesFor(Collection<String> features,
+            Collection<String> offerings, Collection<String> procedures, Collection<String> observableProperties,
+            HzgMetadataSnapshot metadata) {
+        final SOSConfiguration sosConfiguration = SosContextListener.hzgSOSConfiguration;
+
+        if (CollectionHelper.isNotEmpty(features)
+                && !features.contains(sosConfiguration.getFeatureOfInterestIdentifierPrefix() + sosConfiguration.getFeatureOfInterestName())) {
+            return Collections.emptyList();
+        }
+
+        if (CollectionHelper.isNotEmpty(offerings)
+                && !offerings.contains(sosConfiguration.getOfferingIdentifierPrefix() + sosConfiguration.getOfferingName())) {
+            return Collections.emptyList();
+        }
+
+        return metadata.getObservedPropertyInstances(procedures, observableProperties);
     }
 
     /**
@@ -411,6 +998,56 @@ public class SeriesObservationDAO extends AbstractSeriesObservationDAO {
     			null, sosIndeterminateTime, session);
     }
 
+    /**
+     * Get min phenomenon time from the HZG value summaries
+     * 
+     * @param session
+     *            Hibernate session
+     * @return min time
+     */
+    @Override
+    public DateTime getMinPhenomenonTime(Session session) {
+        return HzgValueSummaryCache.getInstance().getOverallSummary(session).getMinTime();
+    }
+
+    /**
+     * Get max phenomenon time from the HZG value summaries
+     * 
+     * @param session
+     *            Hibernate session
+     * @return max time
+     */
+    @Override
+    public DateTime getMaxPhenomenonTime(Session session) {
+        return HzgValueSummaryCache.getInstance().getOverallSummary(session).getMaxTime();
+    }
+
+    /**
+     * Get min result time from the HZG value summaries, the result time of
+     * HZG values equals the phenomenon time
+     * 
+     * @param session
+     *            Hibernate session
+     * @return min time
+     */
+    @Override
+    public DateTime getMinResultTime(Session session) {
+        return getMinPhenomenonTime(session);
+    }
+
+    /**
+     * Get max result time from the HZG value summaries, the result time of
+     * HZG values equals the phenomenon time
+     * 
+     * @param session
+     *            Hibernate session
+     * @return max time
+     */
+    @Override
+    public DateTime getMaxResultTime(Session session) {
+        return getMaxPhenomenonTime(session);
+    }
+
     @Override
     protected Class<?> getObservationClass() {
         return SeriesObservation.class;
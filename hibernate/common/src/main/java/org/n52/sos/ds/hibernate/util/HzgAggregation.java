@@ -0,0 +1,246 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.criterion.Projection;
+import org.hibernate.criterion.Projections;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
+import org.joda.time.Period;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.exception.ows.MissingParameterValueException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.swe.simpleType.SweAbstractSimpleType;
+import org.n52.sos.ogc.swes.SwesExtension;
+import org.n52.sos.ogc.swes.SwesExtensions;
+import org.n52.sos.util.JavaHelper;
+
+/**
+ * Temporal aggregation (downsampling) of HZG values requested by the
+ * GetObservation extensions {@link Sos2Constants.Extensions#AggregationInterval}
+ * (ISO 8601 duration, e.g. <code>PT1H</code>) and
+ * {@link Sos2Constants.Extensions#AggregationFunctions} (comma separated list
+ * of {@link Function} names, all functions if missing).
+ * 
+ * The values are grouped by fixed buckets of the interval width starting at
+ * the epoch. For interval values the average is the unweighted average of the
+ * averages, the minimum and maximum are taken from the min and max fields.
+ * 
+ * @since 4.3.0
+ */
+public class HzgAggregation {
+
+    /**
+     * Minimal interval width in milliseconds
+     */
+    public static final long MIN_INTERVAL = 1000;
+
+    private static final String BUCKET_ALIAS = "date_bucket";
+
+    /**
+     * Supported aggregate functions, in the order of the fields of the
+     * aggregated data array
+     */
+    public enum Function {
+        average, min, max, count;
+    }
+
+    private final long interval;
+
+    private final List<Function> functions;
+
+    /**
+     * @param interval
+     *            Interval width in milliseconds
+     * @param functions
+     *            Aggregate functions
+     */
+    public HzgAggregation(long interval, Set<Function> functions) {
+        this.interval = interval;
+        this.functions = Collections.unmodifiableList(new ArrayList<Function>(EnumSet.copyOf(functions)));
+    }
+
+    /**
+     * Get the aggregation requested by the extensions
+     * 
+     * @param extensions
+     *            Request extensions, may be <code>null</code>
+     * @return Requested aggregation or <code>null</code>, if no aggregation
+     *         interval is set
+     * @throws OwsExceptionReport
+     *             If the interval or the functions are invalid
+     */
+    public static HzgAggregation fromExtensions(SwesExtensions extensions) throws OwsExceptionReport {
+        final String intervalValue = getValue(extensions, Sos2Constants.Extensions.AggregationInterval);
+        final String functionsValue = getValue(extensions, Sos2Constants.Extensions.AggregationFunctions);
+        if (intervalValue == null) {
+            if (functionsValue != null) {
+                throw new MissingParameterValueException(Sos2Constants.Extensions.AggregationInterval);
+            }
+            return null;
+        }
+        return new HzgAggregation(parseInterval(intervalValue), parseFunctions(functionsValue));
+    }
+
+    /**
+     * @param extensions
+     *            Request extensions, may be <code>null</code>
+     * @return <code>true</code>, if an aggregation interval is requested
+     */
+    public static boolean isRequested(SwesExtensions extensions) {
+        return extensions != null && extensions.containsExtension(Sos2Constants.Extensions.AggregationInterval);
+    }
+
+    static long parseInterval(String value) throws OwsExceptionReport {
+        final long interval;
+        try {
+            interval = Period.parse(value).toStandardDuration().getMillis();
+        } catch (IllegalArgumentException iae) {
+            throw new InvalidParameterValueException(Sos2Constants.Extensions.AggregationInterval, value)
+                    .causedBy(iae);
+        } catch (UnsupportedOperationException uoe) {
+            // years and months have no fixed length
+            throw new InvalidParameterValueException(Sos2Constants.Extensions.AggregationInterval, value)
+                    .causedBy(uoe);
+        }
+        if (interval < MIN_INTERVAL) {
+            throw new InvalidParameterValueException(Sos2Constants.Extensions.AggregationInterval, value);
+        }
+        return interval;
+    }
+
+    static Set<Function> parseFunctions(String value) throws OwsExceptionReport {
+        if (value == null) {
+            return EnumSet.allOf(Function.class);
+        }
+        final Set<Function> functions = EnumSet.noneOf(Function.class);
+        for (final String name : value.split(",")) {
+            try {
+                functions.add(Function.valueOf(name.trim().toLowerCase(Locale.ROOT)));
+            } catch (IllegalArgumentException iae) {
+                throw new InvalidParameterValueException(Sos2Constants.Extensions.AggregationFunctions, value)
+                        .causedBy(iae);
+            }
+        }
+        return functions;
+    }
+
+    private static String getValue(SwesExtensions extensions, Sos2Constants.Extensions name)
+            throws OwsExceptionReport {
+        if (extensions == null || !extensions.containsExtension(name)) {
+            return null;
+        }
+        final SwesExtension<?> extension = extensions.getExtension(name);
+        if (extension.getValue() instanceof SweAbstractSimpleType<?>
+                && ((SweAbstractSimpleType<?>) extension.getValue()).isSetValue()) {
+            return ((SweAbstractSimpleType<?>) extension.getValue()).getStringValue();
+        }
+        throw new InvalidParameterValueException(name, JavaHelper.asString(extension.getValue()));
+    }
+
+    /**
+     * @return Interval width in milliseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return Aggregate functions in field order
+     */
+    public List<Function> getFunctions() {
+        return functions;
+    }
+
+    /**
+     * @param bucket
+     *            Bucket number as returned by the bucket projection
+     * @return Start of the bucket in milliseconds since epoch
+     */
+    public long getBucketStart(long bucket) {
+        return bucket * interval;
+    }
+
+    /**
+     * Create a SQL group projection that returns the bucket number (date in
+     * milliseconds since epoch divided by the interval width) of the values
+     * 
+     * @param valueDataClass
+     *            Mapped value class
+     * @param dateProperty
+     *            Name of the date property
+     * @param session
+     *            Hibernate session
+     * @return Group projection
+     * @throws OwsExceptionReport
+     *             If the database dialect is not supported
+     */
+    public Projection getBucketProjection(Class<?> valueDataClass, String dateProperty, Session session)
+            throws OwsExceptionReport {
+        final String column =
+                "{alias}."
+                        + ((AbstractEntityPersister) session.getSessionFactory().getClassMetadata(valueDataClass))
+                                .getPropertyColumnNames(dateProperty)[0];
+        final String bucket = String.format("floor(%s / %d)", getEpochMillis(column, session), interval);
+        return Projections.sqlGroupProjection(bucket + " as " + BUCKET_ALIAS, bucket, new String[] { BUCKET_ALIAS },
+                new Type[] { StandardBasicTypes.DOUBLE });
+    }
+
+    private String getEpochMillis(String column, Session session) throws OwsExceptionReport {
+        final Dialect dialect = ((SessionFactoryImplementor) session.getSessionFactory()).getDialect();
+        if (dialect instanceof PostgreSQL81Dialect) {
+            return String.format("(extract(epoch from %s) * 1000)", column);
+        } else if (dialect instanceof MySQLDialect) {
+            return String.format("(unix_timestamp(%s) * 1000)", column);
+        } else if (dialect instanceof H2Dialect) {
+            return String.format("datediff('MS', timestamp '1970-01-01 00:00:00', %s)", column);
+        } else if (dialect instanceof Oracle8iDialect) {
+            return String.format("((cast(%s as date) - date '1970-01-01') * 86400000)", column);
+        }
+        throw new NoApplicableCodeException().withMessage(
+                "Temporal aggregation is not supported for the database dialect %s!", dialect.getClass().getName());
+    }
+}
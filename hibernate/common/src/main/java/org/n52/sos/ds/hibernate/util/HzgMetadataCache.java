@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.ds.hibernate.HzgCacheSettings;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.util.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the current {@link HzgMetadataSnapshot}. The snapshot is reloaded on
+ * first access after it is older than the refresh interval or after it was
+ * invalidated (content cache update, sensor modification).
+ * 
+ * @since 4.3.0
+ */
+@Configurable
+public class HzgMetadataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HzgMetadataCache.class);
+
+    private static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+    public static HzgMetadataCache getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private final Object refreshLock = new Object();
+
+    private volatile HzgMetadataSnapshot snapshot;
+
+    private volatile long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+    private HzgMetadataCache() {
+    }
+
+    @Setting(HzgCacheSettings.HZG_METADATA_REFRESH_INTERVAL)
+    public void setRefreshInterval(int minutes) throws ConfigurationException {
+        Validation.greaterZero("HZG metadata refresh interval", minutes);
+        this.refreshInterval = TimeUnit.MINUTES.toMillis(minutes);
+    }
+
+    /**
+     * Get the current snapshot, reload it if missing or outdated
+     * 
+     * @param session
+     *            Hibernate session used for reloading
+     * @return the snapshot
+     */
+    public HzgMetadataSnapshot getSnapshot(Session session) {
+        HzgMetadataSnapshot current = snapshot;
+        if (isValid(current)) {
+            return current;
+        }
+        synchronized (refreshLock) {
+            current = snapshot;
+            if (!isValid(current)) {
+                final long start = System.currentTimeMillis();
+                current = HzgMetadataSnapshot.create(session);
+                snapshot = current;
+                LOGGER.debug("Loaded HZG metadata snapshot in {} ms", System.currentTimeMillis() - start);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Drop the current snapshot, the next access reloads it
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private boolean isValid(HzgMetadataSnapshot snapshot) {
+        return snapshot != null && System.currentTimeMillis() - snapshot.getCreationTime() < refreshInterval;
+    }
+
+    private static class LazyHolder {
+        private static final HzgMetadataCache INSTANCE = createInstance();
+
+        private LazyHolder() {
+        }
+
+        private static HzgMetadataCache createInstance() {
+            final HzgMetadataCache cache = new HzgMetadataCache();
+            try {
+                SettingsManager.getInstance().configure(cache);
+            } catch (final ConfigurationException e) {
+                LOGGER.warn("Could not configure HzgMetadataCache, using the default refresh interval", e);
+            }
+            return cache;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.n52.sos.ds.hibernate.dao.FeatureOfInterestDAO;
+import org.n52.sos.ds.hibernate.dao.OfferingDAO;
+import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
+import org.n52.sos.ds.hibernate.entities.Offering;
+import org.n52.sos.service.SosContextListener;
+import org.n52.sos.util.CollectionHelper;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+
+import de.hzg.common.SOSConfiguration;
+import de.hzg.measurement.ObservedPropertyInstance;
+import de.hzg.measurement.Sensor;
+
+/**
+ * Immutable snapshot of the HZG reference data (sensors, observed property
+ * instances, units and calibration sets) indexed by SOS identifier (configured
+ * prefix + name) and by database id. All lazy associations of the contained
+ * entities are initialized, so they can be used detached from the session
+ * that loaded them.
+ * 
+ * @since 4.3.0
+ * @see HzgMetadataCache
+ */
+public class HzgMetadataSnapshot {
+
+    private final long creationTime;
+
+    private final String observedPropertyInstanceIdProperty;
+
+    private final ImmutableMap<String, Sensor> sensorsByIdentifier;
+
+    private final ImmutableMap<Serializable, Sensor> sensorsById;
+
+    private final ImmutableListMultimap<String, ObservedPropertyInstance> observedPropertyInstancesBySensor;
+
+    private final ImmutableListMultimap<String, ObservedPropertyInstance> observedPropertyInstancesByIdentifier;
+
+    private final ImmutableMap<Serializable, ObservedPropertyInstance> observedPropertyInstancesById;
+
+    private final ImmutableMap<Long, ObservedPropertyInstance> observedPropertyInstancesBySeriesId;
+
+    private final ImmutableMap<Serializable, String> sensorIdentifiersByObservedPropertyInstanceId;
+
+    private final Map<ObservedPropertyInstance, Serializable> observedPropertyInstanceIds;
+
+    private final ImmutableList<ObservedPropertyInstance> observedPropertyInstances;
+
+    private final Offering offering;
+
+    private final FeatureOfInterest featureOfInterest;
+
+    private HzgMetadataSnapshot(Builder builder) {
+        this.creationTime = System.currentTimeMillis();
+        this.observedPropertyInstanceIdProperty = builder.observedPropertyInstanceIdProperty;
+        this.sensorsByIdentifier = builder.sensorsByIdentifier.build();
+        this.sensorsById = builder.sensorsById.build();
+        this.observedPropertyInstancesBySensor = builder.observedPropertyInstancesBySensor.build();
+        this.observedPropertyInstancesByIdentifier = builder.observedPropertyInstancesByIdentifier.build();
+        this.observedPropertyInstancesById = builder.observedPropertyInstancesById.build();
+        this.observedPropertyInstancesBySeriesId = builder.observedPropertyInstancesBySeriesId.build();
+        this.sensorIdentifiersByObservedPropertyInstanceId =
+                builder.sensorIdentifiersByObservedPropertyInstanceId.build();
+        this.observedPropertyInstanceIds = Collections.unmodifiableMap(builder.observedPropertyInstanceIds);
+        this.observedPropertyInstances = builder.observedPropertyInstances.build();
+        this.offering = builder.offering;
+        this.featureOfInterest = builder.featureOfInterest;
+    }
+
+    /**
+     * Load the HZG reference data and create a snapshot of it
+     * 
+     * @param session
+     *            Hibernate session
+     * @return the snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public static HzgMetadataSnapshot create(Session session) {
+        final SOSConfiguration sosConfiguration = SosContextListener.hzgSOSConfiguration;
+        final Builder builder = new Builder();
+        final List<Sensor> sensors = session.createCriteria(Sensor.class).setReadOnly(true).list();
+
+        builder.observedPropertyInstanceIdProperty =
+                session.getSessionFactory().getClassMetadata(ObservedPropertyInstance.class)
+                        .getIdentifierPropertyName();
+
+        for (final Sensor sensor : sensors) {
+            final String sensorIdentifier = sosConfiguration.getProcedureIdentifierPrefix() + sensor.getName();
+
+            builder.sensorsByIdentifier.put(sensorIdentifier, sensor);
+            builder.sensorsById.put(session.getIdentifier(sensor), sensor);
+            Hibernate.initialize(sensor.getObservedPropertyInstances());
+
+            for (final ObservedPropertyInstance observedPropertyInstance : sensor.getObservedPropertyInstances()) {
+                final Serializable id = session.getIdentifier(observedPropertyInstance);
+
+                Hibernate.initialize(observedPropertyInstance.getCalibrationSets());
+                Hibernate.initialize(observedPropertyInstance.getObservedPropertyDescription());
+                builder.observedPropertyInstancesBySensor.put(sensorIdentifier, observedPropertyInstance);
+                builder.observedPropertyInstancesByIdentifier.put(
+                        sosConfiguration.getObservablePropertyIdentifierPrefix() + observedPropertyInstance.getName(),
+                        observedPropertyInstance);
+                builder.observedPropertyInstancesById.put(id, observedPropertyInstance);
+                if (id instanceof Number) {
+                    builder.observedPropertyInstancesBySeriesId.put(((Number) id).longValue(),
+                            observedPropertyInstance);
+                }
+                builder.sensorIdentifiersByObservedPropertyInstanceId.put(id, sensorIdentifier);
+                builder.observedPropertyInstanceIds.put(observedPropertyInstance, id);
+                builder.observedPropertyInstances.add(observedPropertyInstance);
+            }
+        }
+
+        builder.offering = new OfferingDAO().getOfferingForIdentifier(
+                sosConfiguration.getOfferingIdentifierPrefix() + sosConfiguration.getOfferingName(), session);
+        builder.featureOfInterest = new FeatureOfInterestDAO().getFeatureOfInterest(
+                sosConfiguration.getFeatureOfInterestIdentifierPrefix() + sosConfiguration.getFeatureOfInterestName(),
+                session);
+
+        return new HzgMetadataSnapshot(builder);
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * @return Name of the identifier property of {@link ObservedPropertyInstance}
+     *         , to be used for id restrictions
+     */
+    public String getObservedPropertyInstanceIdProperty() {
+        return observedPropertyInstanceIdProperty;
+    }
+
+    public Sensor getSensor(String procedureIdentifier) {
+        return sensorsByIdentifier.get(procedureIdentifier);
+    }
+
+    public Sensor getSensorById(Serializable id) {
+        return sensorsById.get(id);
+    }
+
+    public Collection<Sensor> getSensors() {
+        return sensorsByIdentifier.values();
+    }
+
+    public Set<String> getProcedureIdentifiers() {
+        return sensorsByIdentifier.keySet();
+    }
+
+    public ObservedPropertyInstance getObservedPropertyInstanceById(Serializable id) {
+        return observedPropertyInstancesById.get(id);
+    }
+
+    public List<ObservedPropertyInstance> getObservedPropertyInstances() {
+        return observedPropertyInstances;
+    }
+
+    /**
+     * @param observedPropertyInstance
+     *            Observed property instance of this snapshot
+     * @return Id of the series created for the instance, its numeric database
+     *         id or 0 if the id is not numeric or the instance is unknown
+     * @see #getObservedPropertyInstanceBySeriesId(long)
+     */
+    public long getSeriesId(ObservedPropertyInstance observedPropertyInstance) {
+        final Serializable id = observedPropertyInstanceIds.get(observedPropertyInstance);
+        return id instanceof Number ? ((Number) id).longValue() : 0L;
+    }
+
+    /**
+     * @param seriesId
+     *            Id of a series created for an observed property instance
+     * @return The observed property instance or <code>null</code> if unknown
+     * @see #getSeriesId(ObservedPropertyInstance)
+     */
+    public ObservedPropertyInstance getObservedPropertyInstanceBySeriesId(long seriesId) {
+        return observedPropertyInstancesBySeriesId.get(seriesId);
+    }
+
+    /**
+     * @param observedPropertyInstanceId
+     *            Database id of an observed property instance
+     * @return Procedure identifier of the instance's sensor or
+     *         <code>null</code> if the instance is unknown
+     */
+    public String getProcedureIdentifier(Serializable observedPropertyInstanceId) {
+        return sensorIdentifiersByObservedPropertyInstanceId.get(observedPropertyInstanceId);
+    }
+
+    /**
+     * Get the observed property instances matching the procedure and
+     * observable property identifiers
+     * 
+     * @param procedureIdentifiers
+     *            Procedure identifiers, ignored if empty
+     * @param observablePropertyIdentifiers
+     *            Observable property identifiers, ignored if empty
+     * @return Matching observed property instances
+     */
+    public List<ObservedPropertyInstance> getObservedPropertyInstances(Collection<String> procedureIdentifiers,
+            Collection<String> observablePropertyIdentifiers) {
+        final boolean filterProcedures = CollectionHelper.isNotEmpty(procedureIdentifiers);
+        final boolean filterObservableProperties = CollectionHelper.isNotEmpty(observablePropertyIdentifiers);
+
+        if (!filterProcedures && !filterObservableProperties) {
+            return observedPropertyInstances;
+        }
+
+        final List<ObservedPropertyInstance> result = new ArrayList<ObservedPropertyInstance>();
+
+        if (filterProcedures) {
+            for (final String procedureIdentifier : procedureIdentifiers) {
+                for (final ObservedPropertyInstance observedPropertyInstance : observedPropertyInstancesBySensor
+                        .get(procedureIdentifier)) {
+                    if (!filterObservableProperties
+                            || observablePropertyIdentifiers.contains(getObservablePropertyIdentifier(observedPropertyInstance))) {
+                        result.add(observedPropertyInstance);
+                    }
+                }
+            }
+        } else {
+            for (final String observablePropertyIdentifier : observablePropertyIdentifiers) {
+                result.addAll(observedPropertyInstancesByIdentifier.get(observablePropertyIdentifier));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the database ids of observed property instances of this snapshot
+     * 
+     * @param observedPropertyInstances
+     *            Observed property instances of this snapshot
+     * @return Database ids
+     */
+    public List<Serializable> getIds(Collection<ObservedPropertyInstance> observedPropertyInstances) {
+        final List<Serializable> ids = new ArrayList<Serializable>(observedPropertyInstances.size());
+
+        for (final ObservedPropertyInstance observedPropertyInstance : observedPropertyInstances) {
+            final Serializable id = observedPropertyInstanceIds.get(observedPropertyInstance);
+
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+
+        return ids;
+    }
+
+    public Offering getOffering() {
+        return offering;
+    }
+
+    public FeatureOfInterest getFeatureOfInterest() {
+        return featureOfInterest;
+    }
+
+    /**
+     * @param observedPropertyInstance
+     *            Observed property instance
+     * @return Observable property identifier of the instance
+     */
+    public static String getObservablePropertyIdentifier(ObservedPropertyInstance observedPropertyInstance) {
+        return SosContextListener.hzgSOSConfiguration.getObservablePropertyIdentifierPrefix()
+                + observedPropertyInstance.getName();
+    }
+
+    private static class Builder {
+        private String observedPropertyInstanceIdProperty;
+
+        private final ImmutableMap.Builder<String, Sensor> sensorsByIdentifier = ImmutableMap.builder();
+
+        private final ImmutableMap.Builder<Serializable, Sensor> sensorsById = ImmutableMap.builder();
+
+        private final ImmutableListMultimap.Builder<String, ObservedPropertyInstance> observedPropertyInstancesBySensor =
+                ImmutableListMultimap.builder();
+
+        private final ImmutableListMultimap.Builder<String, ObservedPropertyInstance> observedPropertyInstancesByIdentifier =
+                ImmutableListMultimap.builder();
+
+        private final ImmutableMap.Builder<Serializable, ObservedPropertyInstance> observedPropertyInstancesById =
+                ImmutableMap.builder();
+
+        private final ImmutableMap.Builder<Long, ObservedPropertyInstance> observedPropertyInstancesBySeriesId =
+                ImmutableMap.builder();
+
+        private final ImmutableMap.Builder<Serializable, String> sensorIdentifiersByObservedPropertyInstanceId =
+                ImmutableMap.builder();
+
+        private final Map<ObservedPropertyInstance, Serializable> observedPropertyInstanceIds =
+                new IdentityHashMap<ObservedPropertyInstance, Serializable>();
+
+        private final ImmutableList.Builder<ObservedPropertyInstance> observedPropertyInstances = ImmutableList
+                .builder();
+
+        private Offering offering;
+
+        private FeatureOfInterest featureOfInterest;
+    }
+}
@@ -0,0 +1,334 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+import org.hibernate.Session;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Junction;
+import org.hibernate.criterion.Restrictions;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.exception.ows.MissingParameterValueException;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.filter.BinaryLogicFilter;
+import org.n52.sos.ogc.filter.ComparisonFilter;
+import org.n52.sos.ogc.filter.Filter;
+import org.n52.sos.ogc.filter.FilterConstants.BinaryLogicOperator;
+import org.n52.sos.ogc.filter.FilterConstants.ComparisonOperator;
+import org.n52.sos.ogc.filter.UnaryLogicFilter;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.request.GetObservationRequest;
+
+/**
+ * Translates the result filter of a GetObservation request into Hibernate
+ * {@link Criterion}s on the HZG value tables.
+ * 
+ * Supported are the numeric comparison operators, PropertyIsBetween and
+ * PropertyIsNull combined with And, Or and Not. The last step of the value
+ * reference selects the compared field:
+ * <ul>
+ * <li><code>result</code> or <code>value</code>: the value of single values,
+ * the average of interval values</li>
+ * <li><code>average</code>, <code>min</code>, <code>max</code>: the field of
+ * interval values, the value of single values</li>
+ * </ul>
+ * 
+ * @since 4.3.0
+ */
+public class HzgResultFilter {
+
+    private static final String RESULT_FILTER = "resultFilter";
+
+    private static final String VALUE = "value";
+
+    private static final String AVERAGE = "average";
+
+    private static final String MIN = "min";
+
+    private static final String MAX = "max";
+
+    /**
+     * SQL condition for comparisons that can not match any value
+     */
+    private static final String NEVER = "1=0";
+
+    private final Filter<?> filter;
+
+    /**
+     * @param filter
+     *            Result filter
+     * @throws OwsExceptionReport
+     *             If the filter is not supported
+     */
+    public HzgResultFilter(Filter<?> filter) throws OwsExceptionReport {
+        check(filter);
+        this.filter = filter;
+    }
+
+    /**
+     * @param request
+     *            GetObservation request
+     * @return Result filter of the request or <code>null</code>, if not set
+     * @throws OwsExceptionReport
+     *             If the filter is not supported
+     */
+    public static HzgResultFilter fromRequest(GetObservationRequest request) throws OwsExceptionReport {
+        if (request == null || !request.isSetResultFilter()) {
+            return null;
+        }
+        return new HzgResultFilter(request.getResultFilter());
+    }
+
+    /**
+     * Create the criterion for the values of a value table and kind
+     * 
+     * @param valueDataClass
+     *            Mapped value class
+     * @param useInterval
+     *            <code>true</code>, if the values are interval statistics
+     * @param session
+     *            Hibernate session
+     * @return Criterion
+     */
+    public Criterion getCriterion(Class<?> valueDataClass, boolean useInterval, Session session) {
+        return toCriterion(filter, valueDataClass, useInterval, session);
+    }
+
+    /**
+     * Combine a filter criterion with the criterion of a result filter
+     * 
+     * @param filterCriterion
+     *            Filter criterion, may be <code>null</code>
+     * @param resultFilter
+     *            Result filter, may be <code>null</code>
+     * @param valueDataClass
+     *            Mapped value class
+     * @param useInterval
+     *            <code>true</code>, if the values are interval statistics
+     * @param session
+     *            Hibernate session
+     * @return Combined criterion or <code>null</code>, if both are not set
+     */
+    public static Criterion and(Criterion filterCriterion, HzgResultFilter resultFilter, Class<?> valueDataClass,
+            boolean useInterval, Session session) {
+        if (resultFilter == null) {
+            return filterCriterion;
+        }
+        final Criterion resultCriterion = resultFilter.getCriterion(valueDataClass, useInterval, session);
+        if (filterCriterion == null) {
+            return resultCriterion;
+        }
+        return Restrictions.and(filterCriterion, resultCriterion);
+    }
+
+    private Criterion toCriterion(Filter<?> filter, Class<?> valueDataClass, boolean useInterval, Session session) {
+        if (filter instanceof BinaryLogicFilter) {
+            final BinaryLogicFilter binaryLogicFilter = (BinaryLogicFilter) filter;
+            final Junction junction =
+                    BinaryLogicOperator.And.equals(binaryLogicFilter.getOperator()) ? Restrictions.conjunction()
+                            : Restrictions.disjunction();
+            for (final Filter<?> filterPredicate : binaryLogicFilter.getFilterPredicates()) {
+                junction.add(toCriterion(filterPredicate, valueDataClass, useInterval, session));
+            }
+            return junction;
+        } else if (filter instanceof UnaryLogicFilter) {
+            return Restrictions.not(toCriterion(((UnaryLogicFilter) filter).getFilterPredicate(), valueDataClass,
+                    useInterval, session));
+        }
+        final ComparisonFilter comparisonFilter = (ComparisonFilter) filter;
+        final String property = getProperty(comparisonFilter.getValueReference(), useInterval);
+        final Class<?> type =
+                session.getSessionFactory().getClassMetadata(valueDataClass).getPropertyType(property)
+                        .getReturnedClass();
+        final String value = comparisonFilter.getValue();
+        switch (comparisonFilter.getOperator()) {
+        case PropertyIsEqualTo:
+            if (!isRepresentable(value, type)) {
+                return Restrictions.sqlRestriction(NEVER);
+            }
+            return Restrictions.eq(property, toNumber(value, type, RoundingMode.UNNECESSARY));
+        case PropertyIsNotEqualTo:
+            if (!isRepresentable(value, type)) {
+                return Restrictions.isNotNull(property);
+            }
+            return Restrictions.ne(property, toNumber(value, type, RoundingMode.UNNECESSARY));
+        case PropertyIsLessThan:
+            return Restrictions.lt(property, toNumber(value, type, RoundingMode.CEILING));
+        case PropertyIsGreaterThan:
+            return Restrictions.gt(property, toNumber(value, type, RoundingMode.FLOOR));
+        case PropertyIsLessThanOrEqualTo:
+            return Restrictions.le(property, toNumber(value, type, RoundingMode.FLOOR));
+        case PropertyIsGreaterThanOrEqualTo:
+            return Restrictions.ge(property, toNumber(value, type, RoundingMode.CEILING));
+        case PropertyIsBetween:
+            return Restrictions.between(property, toNumber(value, type, RoundingMode.CEILING),
+                    toNumber(comparisonFilter.getValueUpper(), type, RoundingMode.FLOOR));
+        default:
+            return Restrictions.isNull(property);
+        }
+    }
+
+    /**
+     * Get the value property for the value reference
+     * 
+     * @param valueReference
+     *            Checked value reference
+     * @param useInterval
+     *            <code>true</code>, if the values are interval statistics
+     * @return Property name
+     */
+    static String getProperty(String valueReference, boolean useInterval) {
+        final String field = getField(valueReference);
+        if (!useInterval) {
+            return VALUE;
+        } else if (field.equals(MIN) || field.equals(MAX)) {
+            return field;
+        }
+        return AVERAGE;
+    }
+
+    private static String getField(String valueReference) {
+        String field = valueReference.trim();
+        field = field.substring(field.lastIndexOf('/') + 1);
+        field = field.substring(field.lastIndexOf(':') + 1);
+        return field.toLowerCase(Locale.ROOT);
+    }
+
+    private static void check(Filter<?> filter) throws OwsExceptionReport {
+        if (filter instanceof BinaryLogicFilter) {
+            for (final Filter<?> filterPredicate : ((BinaryLogicFilter) filter).getFilterPredicates()) {
+                check(filterPredicate);
+            }
+        } else if (filter instanceof UnaryLogicFilter) {
+            check(((UnaryLogicFilter) filter).getFilterPredicate());
+        } else if (filter instanceof ComparisonFilter) {
+            check((ComparisonFilter) filter);
+        } else {
+            throw new NoApplicableCodeException().withMessage("The requested result filter is not supported!");
+        }
+    }
+
+    private static void check(ComparisonFilter filter) throws OwsExceptionReport {
+        if (!filter.hasValueReference()) {
+            throw new MissingParameterValueException(RESULT_FILTER);
+        }
+        final String field = getField(filter.getValueReference());
+        if (!field.equals("result") && !field.equals(VALUE) && !field.equals(AVERAGE) && !field.equals(MIN)
+                && !field.equals(MAX)) {
+            throw new NoApplicableCodeException().withMessage(
+                    "The requested valueReference %s is not supported! Supported are result, %s, %s, %s and %s!",
+                    filter.getValueReference(), VALUE, AVERAGE, MIN, MAX);
+        }
+        switch (filter.getOperator()) {
+        case PropertyIsLike:
+        case PropertyIsNil:
+            throw new NoApplicableCodeException().withMessage(
+                    "The requested comparison filter %s is not supported for numeric values!",
+                    filter.getOperator().name());
+        case PropertyIsNull:
+            break;
+        case PropertyIsBetween:
+            checkNumber(filter.getValueUpper());
+            checkNumber(filter.getValue());
+            break;
+        default:
+            checkNumber(filter.getValue());
+            break;
+        }
+    }
+
+    private static void checkNumber(String value) throws OwsExceptionReport {
+        try {
+            new BigDecimal(value == null ? "" : value.trim());
+        } catch (NumberFormatException nfe) {
+            throw new InvalidParameterValueException(RESULT_FILTER, value)
+                    .causedBy(nfe);
+        }
+    }
+
+    /**
+     * Check if a value can be represented exactly by the type of the value
+     * property
+     * 
+     * @param value
+     *            Checked numeric value
+     * @param type
+     *            Java type of the property
+     * @return <code>false</code>, if the value has a fraction and the property
+     *         is integral
+     */
+    static boolean isRepresentable(String value, Class<?> type) {
+        if (!isIntegral(type)) {
+            return true;
+        }
+        final BigDecimal number = new BigDecimal(value.trim());
+        return number.signum() == 0 || number.stripTrailingZeros().scale() <= 0;
+    }
+
+    /**
+     * Convert a checked value to the type of the value property. Values with a
+     * fraction are rounded for integral properties, so that comparing the
+     * rounded value selects the same integers as comparing the original value
+     * (e.g. <code>&lt; 2.5</code> becomes <code>&lt; 3</code>).
+     * 
+     * @param value
+     *            Checked numeric value
+     * @param type
+     *            Java type of the property
+     * @param roundingMode
+     *            Rounding mode for integral properties
+     * @return Number of the property type
+     */
+    static Number toNumber(String value, Class<?> type, RoundingMode roundingMode) {
+        BigDecimal number = new BigDecimal(value.trim());
+        if (isIntegral(type)) {
+            number = number.setScale(0, roundingMode);
+        }
+        if (Float.class.equals(type) || float.class.equals(type)) {
+            return number.floatValue();
+        } else if (Integer.class.equals(type) || int.class.equals(type)) {
+            return number.intValue();
+        } else if (Long.class.equals(type) || long.class.equals(type)) {
+            return number.longValue();
+        } else if (Short.class.equals(type) || short.class.equals(type)) {
+            return number.shortValue();
+        } else if (BigDecimal.class.equals(type)) {
+            return number;
+        }
+        return number.doubleValue();
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return Integer.class.equals(type) || int.class.equals(type) || Long.class.equals(type)
+                || long.class.equals(type) || Short.class.equals(type) || short.class.equals(type);
+    }
+}
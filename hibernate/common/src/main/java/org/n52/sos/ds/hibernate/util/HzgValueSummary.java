@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.Date;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Immutable summary (first and last date, number of values) of the values of
+ * one or more HZG observed property instances
+ * 
+ * @since 4.3.0
+ * @see HzgValueSummaryCache
+ */
+public class HzgValueSummary {
+
+    public static final HzgValueSummary EMPTY = new HzgValueSummary(null, null, 0);
+
+    private final Date minDate;
+
+    private final Date maxDate;
+
+    private final long count;
+
+    public HzgValueSummary(Date minDate, Date maxDate, long count) {
+        this.minDate = minDate == null ? null : new Date(minDate.getTime());
+        this.maxDate = maxDate == null ? null : new Date(maxDate.getTime());
+        this.count = count;
+    }
+
+    public Date getMinDate() {
+        return minDate == null ? null : new Date(minDate.getTime());
+    }
+
+    public Date getMaxDate() {
+        return maxDate == null ? null : new Date(maxDate.getTime());
+    }
+
+    public DateTime getMinTime() {
+        return minDate == null ? null : new DateTime(minDate, DateTimeZone.UTC);
+    }
+
+    public DateTime getMaxTime() {
+        return maxDate == null ? null : new DateTime(maxDate, DateTimeZone.UTC);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Combine this summary with another one
+     * 
+     * @param other
+     *            Summary to combine with, may be <code>null</code>
+     * @return Summary covering the values of both summaries
+     */
+    public HzgValueSummary merge(HzgValueSummary other) {
+        if (other == null || other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        return new HzgValueSummary(min(minDate, other.minDate), max(maxDate, other.maxDate), count + other.count);
+    }
+
+    /**
+     * Convert to {@link TimeExtrema}
+     * 
+     * @return Time extrema, without times if this summary is empty
+     */
+    public TimeExtrema toTimeExtrema() {
+        final TimeExtrema timeExtrema = new TimeExtrema();
+        if (!isEmpty()) {
+            timeExtrema.setMinTime(getMinTime());
+            timeExtrema.setMaxTime(getMaxTime());
+        }
+        return timeExtrema;
+    }
+
+    private static Date min(Date first, Date second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.getTime() <= second.getTime() ? first : second;
+    }
+
+    private static Date max(Date first, Date second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.getTime() >= second.getTime() ? first : second;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HzgValueSummary[minDate=%s, maxDate=%s, count=%d]", minDate, maxDate, count);
+    }
+}
@@ -0,0 +1,347 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Criteria;
+import org.hibernate.Session;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.n52.sos.config.SettingsManager;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
+import org.n52.sos.ds.hibernate.HzgCacheSettings;
+import org.n52.sos.exception.ConfigurationException;
+import org.n52.sos.util.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hzg.measurement.ObservedPropertyInstance;
+import de.hzg.values.CalculatedData;
+import de.hzg.values.RawData;
+
+/**
+ * Maintains a {@link HzgValueSummary} (first/last date and number of values)
+ * for each HZG observed property instance.
+ * 
+ * The values of each value table (raw and calculated data) are split at a
+ * boundary that trails the newest date seen in the table by an overlap
+ * period. The summaries of the values before the boundary are kept, the
+ * values after it are aggregated again on every update and merged with them.
+ * The boundary only moves forward, so an update aggregates the values of the
+ * overlap and the values that became older than the boundary since the last
+ * update, and its costs do not depend on the length of the history. Values
+ * committed late are picked up as long as their date is not older than the
+ * boundary, even if it equals the newest date of the last update. Older
+ * values and deleted values are only reflected after {@link #invalidate()},
+ * which is called by every complete content cache update.
+ * 
+ * @since 4.3.0
+ */
+@Configurable
+public class HzgValueSummaryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HzgValueSummaryCache.class);
+
+    private static final long DEFAULT_UPDATE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * How far the boundary of the settled values trails the newest date. Values
+     * are aggregated again while they are within this period, so values of
+     * loggers that are committed late or share a timestamp with already
+     * aggregated values are not missed.
+     */
+    private static final long OVERLAP = TimeUnit.HOURS.toMillis(1);
+
+    private static final String DATE = "date";
+
+    private static final String OBSERVED_PROPERTY_INSTANCE = "observedPropertyInstance";
+
+    public static HzgValueSummaryCache getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private final Object updateLock = new Object();
+
+    private volatile State state;
+
+    private volatile long updateInterval = DEFAULT_UPDATE_INTERVAL;
+
+    private HzgValueSummaryCache() {
+    }
+
+    @Setting(HzgCacheSettings.HZG_VALUE_SUMMARY_UPDATE_INTERVAL)
+    public void setUpdateInterval(int seconds) throws ConfigurationException {
+        Validation.greaterZero("HZG value summary update interval", seconds);
+        this.updateInterval = TimeUnit.SECONDS.toMillis(seconds);
+    }
+
+    /**
+     * Get the summaries of all observed property instances, update them if
+     * they were not updated within the update interval
+     * 
+     * @param session
+     *            Hibernate session
+     * @return Summaries keyed by observed property instance id
+     */
+    public Map<Serializable, HzgValueSummary> getSummaries(Session session) {
+        State current = state;
+        if (isValid(current)) {
+            return current.summaries;
+        }
+        synchronized (updateLock) {
+            // another thread may have updated the summaries while waiting
+            current = state;
+            if (!isValid(current)) {
+                doUpdate(session);
+                current = state;
+            }
+            return current.summaries;
+        }
+    }
+
+    /**
+     * Get the summary of the values of the observed property instances
+     * 
+     * @param metadata
+     *            Snapshot the observed property instances were taken from
+     * @param observedPropertyInstances
+     *            Observed property instances of the snapshot
+     * @param session
+     *            Hibernate session
+     * @return Combined summary
+     */
+    public HzgValueSummary getSummary(HzgMetadataSnapshot metadata,
+            Collection<ObservedPropertyInstance> observedPropertyInstances, Session session) {
+        final Map<Serializable, HzgValueSummary> summaries = getSummaries(session);
+        HzgValueSummary summary = HzgValueSummary.EMPTY;
+        for (final Serializable id : metadata.getIds(observedPropertyInstances)) {
+            summary = summary.merge(summaries.get(id));
+        }
+        return summary;
+    }
+
+    /**
+     * Get the summary of all values
+     * 
+     * @param session
+     *            Hibernate session
+     * @return Combined summary of all observed property instances
+     */
+    public HzgValueSummary getOverallSummary(Session session) {
+        HzgValueSummary summary = HzgValueSummary.EMPTY;
+        for (final HzgValueSummary instanceSummary : getSummaries(session).values()) {
+            summary = summary.merge(instanceSummary);
+        }
+        return summary;
+    }
+
+    /**
+     * Aggregate the values after the boundaries and the values that became
+     * older than the boundaries since the last update. Rebuilds all summaries
+     * after {@link #invalidate()}.
+     * 
+     * @param session
+     *            Hibernate session
+     * @return Updated summaries keyed by observed property instance id
+     */
+    public Map<Serializable, HzgValueSummary> update(Session session) {
+        synchronized (updateLock) {
+            doUpdate(session);
+            return state.summaries;
+        }
+    }
+
+    /**
+     * Drop all summaries, the next access rebuilds them from the complete
+     * value tables
+     */
+    public void invalidate() {
+        state = null;
+    }
+
+    private boolean isValid(State state) {
+        return state != null && System.currentTimeMillis() - state.updateTime < updateInterval;
+    }
+
+    private void doUpdate(Session session) {
+        final long start = System.currentTimeMillis();
+        final State previous = state;
+        final String idProperty =
+                HzgMetadataCache.getInstance().getSnapshot(session).getObservedPropertyInstanceIdProperty();
+        final Map<Serializable, HzgValueSummary> summaries = new HashMap<Serializable, HzgValueSummary>();
+        final TableState raw =
+                update(RawData.class, idProperty, previous == null ? null : previous.raw, summaries, session);
+        final TableState calculated =
+                update(CalculatedData.class, idProperty, previous == null ? null : previous.calculated, summaries,
+                        session);
+        state = new State(summaries, raw, calculated);
+        LOGGER.debug("{} value summaries in {} ms", previous == null ? "Built" : "Updated",
+                System.currentTimeMillis() - start);
+    }
+
+    private TableState update(Class<?> valueDataClass, String idProperty, TableState previous,
+            Map<Serializable, HzgValueSummary> summaries, Session session) {
+        final Map<Serializable, HzgValueSummary> settled =
+                previous == null ? new HashMap<Serializable, HzgValueSummary>()
+                        : new HashMap<Serializable, HzgValueSummary>(previous.settled);
+        final Date previousBoundary = previous == null ? null : previous.boundary;
+        final Date previousMaxDate = previous == null ? getMaxDate(valueDataClass, session) : previous.maxDate;
+        Date boundary = previousBoundary;
+        if (previousMaxDate != null) {
+            final Date candidate = new Date(previousMaxDate.getTime() - OVERLAP);
+            if (previousBoundary == null || candidate.after(previousBoundary)) {
+                boundary = candidate;
+                aggregate(valueDataClass, idProperty, previousBoundary, boundary, settled, session);
+            }
+        }
+        final Map<Serializable, HzgValueSummary> recent = new HashMap<Serializable, HzgValueSummary>();
+        final Date maxDate =
+                max(previousMaxDate, aggregate(valueDataClass, idProperty, boundary, null, recent, session));
+        merge(summaries, settled);
+        merge(summaries, recent);
+        return new TableState(settled, boundary, maxDate);
+    }
+
+    private Date getMaxDate(Class<?> valueDataClass, Session session) {
+        return (Date) session.createCriteria(valueDataClass).setProjection(Projections.max(DATE)).setReadOnly(true)
+                .uniqueResult();
+    }
+
+    /**
+     * Aggregate the values with a date in [from, to) and merge them into the
+     * summaries
+     * 
+     * @return the newest date of the aggregated values
+     */
+    @SuppressWarnings("unchecked")
+    private Date aggregate(Class<?> valueDataClass, String idProperty, Date from, Date to,
+            Map<Serializable, HzgValueSummary> summaries, Session session) {
+        final Criteria criteria =
+                session.createCriteria(valueDataClass).setProjection(
+                        Projections.projectionList()
+                                .add(Projections.groupProperty(OBSERVED_PROPERTY_INSTANCE + "." + idProperty))
+                                .add(Projections.min(DATE)).add(Projections.max(DATE))
+                                .add(Projections.rowCount()));
+        if (from != null) {
+            criteria.add(Restrictions.ge(DATE, from));
+        }
+        if (to != null) {
+            criteria.add(Restrictions.lt(DATE, to));
+        }
+        Date newest = null;
+        for (final Object[] row : (List<Object[]>) criteria.setReadOnly(true).list()) {
+            final Serializable id = (Serializable) row[0];
+            final Date maxDate = (Date) row[2];
+            final HzgValueSummary summary =
+                    new HzgValueSummary((Date) row[1], maxDate, ((Number) row[3]).longValue());
+            final HzgValueSummary existing = summaries.get(id);
+            summaries.put(id, existing == null ? summary : existing.merge(summary));
+            newest = max(newest, maxDate);
+        }
+        return newest;
+    }
+
+    private static void merge(Map<Serializable, HzgValueSummary> summaries,
+            Map<Serializable, HzgValueSummary> other) {
+        for (final Map.Entry<Serializable, HzgValueSummary> entry : other.entrySet()) {
+            final HzgValueSummary existing = summaries.get(entry.getKey());
+            summaries.put(entry.getKey(), existing == null ? entry.getValue() : existing.merge(entry.getValue()));
+        }
+    }
+
+    private static Date max(Date first, Date second) {
+        if (first == null) {
+            return second == null ? null : new Date(second.getTime());
+        }
+        if (second == null || first.getTime() >= second.getTime()) {
+            return first;
+        }
+        return new Date(second.getTime());
+    }
+
+    private static class State {
+        private final Map<Serializable, HzgValueSummary> summaries;
+
+        private final TableState raw;
+
+        private final TableState calculated;
+
+        private final long updateTime = System.currentTimeMillis();
+
+        State(Map<Serializable, HzgValueSummary> summaries, TableState raw, TableState calculated) {
+            this.summaries = Collections.unmodifiableMap(summaries);
+            this.raw = raw;
+            this.calculated = calculated;
+        }
+    }
+
+    /**
+     * Summaries of the values of one value table before the boundary and the
+     * newest date seen in the table
+     */
+    private static class TableState {
+        private final Map<Serializable, HzgValueSummary> settled;
+
+        private final Date boundary;
+
+        private final Date maxDate;
+
+        TableState(Map<Serializable, HzgValueSummary> settled, Date boundary, Date maxDate) {
+            this.settled = settled;
+            this.boundary = boundary;
+            this.maxDate = maxDate;
+        }
+    }
+
+    private static class LazyHolder {
+        private static final HzgValueSummaryCache INSTANCE = createInstance();
+
+        private LazyHolder() {
+        }
+
+        private static HzgValueSummaryCache createInstance() {
+            final HzgValueSummaryCache cache = new HzgValueSummaryCache();
+            try {
+                SettingsManager.getInstance().configure(cache);
+            } catch (final ConfigurationException e) {
+                LOGGER.warn("Could not configure HzgValueSummaryCache, using the default update interval", e);
+            }
+            return cache;
+        }
+    }
+}
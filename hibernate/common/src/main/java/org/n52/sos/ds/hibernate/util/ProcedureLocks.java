@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Striped locks keyed by procedure identifier for the transactional DAOs.
+ * Transactions for different procedures run in parallel while transactions
+ * for the same procedure are serialized.
+ * 
+ * Locks for multiple procedures are always acquired in stripe order, so
+ * concurrent callers cannot deadlock.
+ * 
+ * @since 4.3.0
+ *
+ */
+public final class ProcedureLocks {
+
+    private static final int STRIPES = 256;
+
+    private static final Striped<Lock> LOCKS = Striped.lazyWeakLock(STRIPES);
+
+    private ProcedureLocks() {
+    }
+
+    /**
+     * Acquire the locks for the procedure
+     * 
+     * @param procedure
+     *            Procedure identifier
+     * @return the acquired locks, to be passed to {@link #unlock(List)}
+     */
+    public static List<Lock> lock(String procedure) {
+        return lock(Collections.singleton(procedure));
+    }
+
+    /**
+     * Acquire the locks for the procedures
+     * 
+     * @param procedures
+     *            Procedure identifiers, <code>null</code> values are ignored
+     * @return the acquired locks, to be passed to {@link #unlock(List)}
+     */
+    public static List<Lock> lock(Collection<String> procedures) {
+        List<Lock> locks =
+                Lists.newArrayList(LOCKS.bulkGet(Collections2.filter(procedures, Predicates.notNull())));
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+        return locks;
+    }
+
+    /**
+     * Release the locks acquired by {@link #lock(Collection)}
+     * 
+     * @param locks
+     *            the acquired locks
+     */
+    public static void unlock(List<Lock> locks) {
+        for (Lock lock : Lists.reverse(locks)) {
+            lock.unlock();
+        }
+    }
+
+}
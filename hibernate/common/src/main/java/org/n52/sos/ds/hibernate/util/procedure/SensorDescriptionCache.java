@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util.procedure;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.sql.JoinType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.hzg.measurement.ObservedPropertyInstance;
+import de.hzg.measurement.Sensor;
+
+/**
+ * Bounded cache of the SensorML descriptions generated for HZG {@link Sensor}
+ * s. Entries are keyed by sensor name and procedure description format and
+ * hold the encoded XML of the description.
+ * 
+ * Every entry carries a fingerprint of the sensor that is queried in one
+ * aggregate query (number of observed property instances and calibration sets,
+ * latest calibration validity), so added instances or calibration sets are
+ * detected on lookup even if the HZG tables were modified outside of the SOS.
+ * In place changes of a calibration set are picked up when the entry expires.
+ * The whole cache is dropped on content cache refresh and on sensor
+ * modification events.
+ * 
+ * @since 4.3.0
+ */
+public class SensorDescriptionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SensorDescriptionCache.class);
+
+    private static final long MAXIMUM_SIZE = 1000;
+
+    private static final long EXPIRE_AFTER_WRITE_HOURS = 1;
+
+    private static final char SEPARATOR = '|';
+
+    public static SensorDescriptionCache getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    private final Cache<Key, Entry> cache = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE_HOURS, TimeUnit.HOURS).build();
+
+    private SensorDescriptionCache() {
+    }
+
+    /**
+     * Get the cached description of the sensor if it is still up to date
+     * 
+     * @param sensor
+     *            HZG sensor
+     * @param format
+     *            Procedure description format
+     * @param fingerprint
+     *            Fingerprint of the sensor as created by
+     *            {@link #fingerprint(Sensor, Session, String...)}
+     * @return Cached entry or <code>null</code> if missing or outdated
+     */
+    public Entry get(Sensor sensor, String format, String fingerprint) {
+        final Key key = new Key(sensor.getName(), format);
+        final Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.getFingerprint().equals(fingerprint)) {
+            LOGGER.debug("Description of sensor {} changed, dropping cached description", sensor.getName());
+            cache.invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(Sensor sensor, String format, String fingerprint, String xml) {
+        cache.put(new Key(sensor.getName(), format), new Entry(fingerprint, xml));
+    }
+
+    public void invalidateAll() {
+        LOGGER.debug("Invalidating all cached sensor descriptions");
+        cache.invalidateAll();
+    }
+
+    /**
+     * Create a fingerprint of the sensor from the number of its observed
+     * property instances and calibration sets and the latest calibration
+     * validity, without loading the instances or calibration sets.
+     * 
+     * @param sensor
+     *            HZG sensor
+     * @param session
+     *            Hibernate session
+     * @param additional
+     *            Further values influencing the description, e.g. identifier
+     *            or codespace
+     * @return the fingerprint
+     */
+    public static String fingerprint(Sensor sensor, Session session, String... additional) {
+        final StringBuilder builder = new StringBuilder(sensor.getName());
+        for (String value : additional) {
+            builder.append(SEPARATOR).append(value);
+        }
+        final Object[] aggregate =
+                (Object[]) session
+                        .createCriteria(ObservedPropertyInstance.class)
+                        .add(Restrictions.eq("sensor", sensor))
+                        .createAlias("calibrationSets", "cs", JoinType.LEFT_OUTER_JOIN)
+                        .setProjection(
+                                Projections.projectionList().add(Projections.rowCount())
+                                        .add(Projections.max("cs.validStart")).add(Projections.max("cs.validEnd")))
+                        .uniqueResult();
+        builder.append(SEPARATOR).append(aggregate[0]);
+        builder.append(SEPARATOR).append(time((Date) aggregate[1]));
+        builder.append(SEPARATOR).append(time((Date) aggregate[2]));
+        return builder.toString();
+    }
+
+    private static long time(Date date) {
+        return date == null ? Long.MIN_VALUE : date.getTime();
+    }
+
+    /**
+     * Cached sensor description
+     */
+    public static class Entry {
+        private final String fingerprint;
+
+        private final String xml;
+
+        Entry(String fingerprint, String xml) {
+            this.fingerprint = fingerprint;
+            this.xml = xml;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getXml() {
+            return xml;
+        }
+    }
+
+    private static class Key {
+        private final String sensor;
+
+        private final String format;
+
+        Key(String sensor, String format) {
+            this.sensor = sensor;
+            this.format = format;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(sensor, format);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Key) {
+                final Key other = (Key) obj;
+                return Objects.equal(sensor, other.sensor) && Objects.equal(format, other.format);
+            }
+            return false;
+        }
+    }
+
+    private static class LazyHolder {
+        private static final SensorDescriptionCache INSTANCE = new SensorDescriptionCache();
+
+        private LazyHolder() {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.n52.sos.ds.hibernate.util.HzgAggregation.Function;
+import org.n52.sos.exception.ows.InvalidParameterValueException;
+import org.n52.sos.exception.ows.MissingParameterValueException;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.Sos2Constants;
+import org.n52.sos.ogc.swe.simpleType.SweText;
+import org.n52.sos.ogc.swes.SwesExtension;
+import org.n52.sos.ogc.swes.SwesExtensionImpl;
+import org.n52.sos.ogc.swes.SwesExtensions;
+
+/**
+ * @since 4.3.0
+ */
+public class HzgAggregationTest {
+
+    @Test
+    public void shouldReturnNullWithoutInterval() throws OwsExceptionReport {
+        assertThat(HzgAggregation.fromExtensions(null), is(nullValue()));
+        assertThat(HzgAggregation.fromExtensions(new SwesExtensions()), is(nullValue()));
+    }
+
+    @Test
+    public void shouldParseIntervalAndFunctions() throws OwsExceptionReport {
+        HzgAggregation aggregation =
+                HzgAggregation.fromExtensions(extensions("PT1H", "max, average"));
+        assertThat(aggregation.getInterval(), is(3600000L));
+        assertThat(aggregation.getFunctions(), contains(Function.average, Function.max));
+        assertThat(aggregation.getBucketStart(2), is(7200000L));
+    }
+
+    @Test
+    public void shouldUseAllFunctionsByDefault() throws OwsExceptionReport {
+        assertThat(HzgAggregation.fromExtensions(extensions("P1D", null)).getFunctions(),
+                contains(Function.average, Function.min, Function.max, Function.count));
+    }
+
+    @Test(expected = InvalidParameterValueException.class)
+    public void shouldRejectIntervalsWithoutFixedLength() throws OwsExceptionReport {
+        HzgAggregation.parseInterval("P1M");
+    }
+
+    @Test(expected = InvalidParameterValueException.class)
+    public void shouldRejectTooSmallIntervals() throws OwsExceptionReport {
+        HzgAggregation.parseInterval("PT0.5S");
+    }
+
+    @Test(expected = InvalidParameterValueException.class)
+    public void shouldRejectUnknownFunctions() throws OwsExceptionReport {
+        HzgAggregation.parseFunctions("average,median");
+    }
+
+    @Test(expected = MissingParameterValueException.class)
+    public void shouldRequireIntervalForFunctions() throws OwsExceptionReport {
+        HzgAggregation.fromExtensions(extensions(null, "min"));
+    }
+
+    private SwesExtensions extensions(String interval, String functions) {
+        SwesExtensions extensions = new SwesExtensions();
+        if (interval != null) {
+            extensions.addSwesExtension(extension(Sos2Constants.Extensions.AggregationInterval, interval));
+        }
+        if (functions != null) {
+            extensions.addSwesExtension(extension(Sos2Constants.Extensions.AggregationFunctions, functions));
+        }
+        return extensions;
+    }
+
+    private SwesExtension<SweText> extension(Sos2Constants.Extensions name, String value) {
+        return new SwesExtensionImpl<SweText>().setDefinition(name.name()).setValue(new SweText().setValue(value));
+    }
+}
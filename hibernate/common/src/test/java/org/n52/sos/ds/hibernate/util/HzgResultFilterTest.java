@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+/**
+ * @since 4.3.0
+ */
+public class HzgResultFilterTest {
+
+    @Test
+    public void shouldSelectValueForSingleValues() {
+        assertThat(HzgResultFilter.getProperty("om:result", false), is("value"));
+        assertThat(HzgResultFilter.getProperty("max", false), is("value"));
+    }
+
+    @Test
+    public void shouldSelectIntervalField() {
+        assertThat(HzgResultFilter.getProperty("om:result", true), is("average"));
+        assertThat(HzgResultFilter.getProperty("value", true), is("average"));
+        assertThat(HzgResultFilter.getProperty("om:OM_Observation/om:result/MIN", true), is("min"));
+        assertThat(HzgResultFilter.getProperty(" max ", true), is("max"));
+    }
+
+    @Test
+    public void shouldConvertToPropertyType() {
+        assertThat(HzgResultFilter.toNumber("2.5", Double.class, RoundingMode.FLOOR), is((Number) 2.5d));
+        assertThat(HzgResultFilter.toNumber("2.5", float.class, RoundingMode.FLOOR), is((Number) 2.5f));
+        assertThat(HzgResultFilter.toNumber("2", Long.class, RoundingMode.UNNECESSARY), is((Number) 2L));
+        assertThat(HzgResultFilter.toNumber(" 2.50 ", BigDecimal.class, RoundingMode.FLOOR),
+                instanceOf(BigDecimal.class));
+    }
+
+    @Test
+    public void shouldRoundForIntegralProperties() {
+        assertThat(HzgResultFilter.toNumber("2.5", Integer.class, RoundingMode.CEILING), is((Number) 3));
+        assertThat(HzgResultFilter.toNumber("2.5", int.class, RoundingMode.FLOOR), is((Number) 2));
+        assertThat(HzgResultFilter.toNumber("-0.5", Integer.class, RoundingMode.FLOOR), is((Number) (-1)));
+        assertThat(HzgResultFilter.toNumber("-0.5", short.class, RoundingMode.CEILING), is((Number) (short) 0));
+        assertThat(HzgResultFilter.toNumber("2.0", Integer.class, RoundingMode.UNNECESSARY), is((Number) 2));
+    }
+
+    @Test
+    public void shouldDetectFractionsForIntegralProperties() {
+        assertThat(HzgResultFilter.isRepresentable("2.5", Integer.class), is(false));
+        assertThat(HzgResultFilter.isRepresentable("2.0", Integer.class), is(true));
+        assertThat(HzgResultFilter.isRepresentable("0.0", long.class), is(true));
+        assertThat(HzgResultFilter.isRepresentable("2.5", Double.class), is(true));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+/**
+ * @since 4.3.0
+ */
+public class HzgValueSummaryTest {
+
+    @Test
+    public void shouldMergeExtremaAndCounts() {
+        HzgValueSummary first = new HzgValueSummary(new Date(1000), new Date(5000), 3);
+        HzgValueSummary second = new HzgValueSummary(new Date(2000), new Date(9000), 4);
+        HzgValueSummary merged = first.merge(second);
+        assertThat(merged.getMinDate(), is(new Date(1000)));
+        assertThat(merged.getMaxDate(), is(new Date(9000)));
+        assertThat(merged.getCount(), is(7L));
+    }
+
+    @Test
+    public void shouldIgnoreEmptyOrMissingSummaries() {
+        HzgValueSummary summary = new HzgValueSummary(new Date(1000), new Date(5000), 3);
+        assertThat(summary.merge(null), is(sameInstance(summary)));
+        assertThat(summary.merge(HzgValueSummary.EMPTY), is(sameInstance(summary)));
+        assertThat(HzgValueSummary.EMPTY.merge(summary), is(sameInstance(summary)));
+    }
+
+    @Test
+    public void shouldNotHaveTimesIfEmpty() {
+        assertThat(HzgValueSummary.EMPTY.isEmpty(), is(true));
+        assertThat(HzgValueSummary.EMPTY.getMinTime(), is(nullValue()));
+        assertThat(HzgValueSummary.EMPTY.toTimeExtrema().isSetTimes(), is(false));
+    }
+}
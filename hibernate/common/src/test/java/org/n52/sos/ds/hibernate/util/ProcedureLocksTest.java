@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 4.3.0
+ *
+ */
+public class ProcedureLocksTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldBlockOtherThreadsForSameProcedure() throws Exception {
+        List<Lock> locks = ProcedureLocks.lock("procedure");
+        Future<Boolean> other = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                ProcedureLocks.unlock(ProcedureLocks.lock("procedure"));
+                return true;
+            }
+        });
+        try {
+            other.get(200, TimeUnit.MILLISECONDS);
+            fail("lock for the same procedure was acquired concurrently");
+        } catch (TimeoutException e) {
+            // expected
+        } finally {
+            ProcedureLocks.unlock(locks);
+        }
+        assertThat(other.get(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void shouldBeReentrant() {
+        List<Lock> outer = ProcedureLocks.lock("procedure");
+        List<Lock> inner = ProcedureLocks.lock(Arrays.asList("procedure", "procedure"));
+        ProcedureLocks.unlock(inner);
+        ProcedureLocks.unlock(outer);
+    }
+
+    @Test
+    public void shouldIgnoreNullProcedures() {
+        List<Lock> locks = ProcedureLocks.lock(Arrays.asList("procedure", null));
+        try {
+            assertThat(locks, hasSize(1));
+        } finally {
+            ProcedureLocks.unlock(locks);
+        }
+    }
+
+}
@@ -29,6 +29,7 @@
 package org.n52.sos.ds.hibernate;
 
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
@@ -43,6 +44,7 @@ import org.n52.sos.ds.hibernate.dao.ValidProcedureTimeDAO;
 import org.n52.sos.ds.hibernate.dao.series.AbstractSeriesObservationDAO;
 import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.series.Series;
+import org.n52.sos.ds.hibernate.util.ProcedureLocks;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants;
@@ -70,12 +72,13 @@ public class DeleteSensorDAO extends AbstractDeleteSensorDAO {
     }
 
     @Override
-    public synchronized DeleteSensorResponse deleteSensor(DeleteSensorRequest request) throws OwsExceptionReport {
+    public DeleteSensorResponse deleteSensor(DeleteSensorRequest request) throws OwsExceptionReport {
         DeleteSensorResponse response = new DeleteSensorResponse();
         response.setService(request.getService());
         response.setVersion(request.getVersion());
         Session session = null;
         Transaction transaction = null;
+        List<Lock> locks = ProcedureLocks.lock(request.getProcedureIdentifier());
         try {
             session = sessionHolder.getSession();
             transaction = session.beginTransaction();
@@ -91,6 +94,7 @@ public class DeleteSensorDAO extends AbstractDeleteSensorDAO {
                     "Error while updateing deleted sensor flag data!");
         } finally {
             sessionHolder.returnSession(session);
+            ProcedureLocks.unlock(locks);
         }
         return response;
     }
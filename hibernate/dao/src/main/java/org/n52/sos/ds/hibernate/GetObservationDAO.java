@@ -45,15 +45,21 @@ import org.n52.sos.ds.hibernate.dao.AbstractObservationDAO;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
 import org.n52.sos.ds.hibernate.dao.series.AbstractSeriesDAO;
 import org.n52.sos.ds.hibernate.dao.series.AbstractSeriesObservationDAO;
+import org.n52.sos.ds.hibernate.dao.series.SeriesObservationDAO;
 import org.n52.sos.ds.hibernate.entities.AbstractObservation;
+import org.n52.sos.ds.hibernate.entities.Offering;
 import org.n52.sos.ds.hibernate.entities.series.Series;
 import org.n52.sos.ds.hibernate.entities.series.SeriesObservation;
 import org.n52.sos.ds.hibernate.util.HibernateGetObservationHelper;
+import org.n52.sos.ds.hibernate.util.HzgAggregation;
+import org.n52.sos.ds.hibernate.util.HzgMetadataCache;
+import org.n52.sos.ds.hibernate.util.HzgResultFilter;
 import org.n52.sos.ds.hibernate.util.QueryHelper;
 import org.n52.sos.ds.hibernate.util.observation.HibernateObservationUtilities;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
+import org.n52.sos.ds.hibernate.values.series.HibernateScrollableValueDataStreamingValue;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.MissingObservedPropertyParameterException;
-import org.n52.sos.exception.ows.concrete.NotYetSupportedException;
 import org.n52.sos.i18n.LocaleHelper;
 import org.n52.sos.ogc.om.OmObservation;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
@@ -73,6 +79,8 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
+import de.hzg.measurement.ObservedPropertyInstance;
+
 /**
  * Implementation of the abstract class AbstractGetObservationDAO
  *
@@ -101,9 +109,6 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
                 && sosRequest.getObservedProperties().isEmpty()) {
             throw new MissingObservedPropertyParameterException();
         }
-        if (sosRequest.isSetResultFilter()) {
-            throw new NotYetSupportedException("result filtering");
-        }
         final GetObservationResponse sosResponse = new GetObservationResponse();
         sosResponse.setService(sosRequest.getService());
         sosResponse.setVersion(sosRequest.getVersion());
@@ -117,7 +122,16 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
                 AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
                 // check if series mapping is supported
                 assert(observationDAO instanceof AbstractSeriesObservationDAO);
-                sosResponse.setObservationCollection(querySeriesObservation(sosRequest, (AbstractSeriesObservationDAO)observationDAO, session));
+                if (HibernateStreamingConfiguration.getInstance().isForceDatasourceStreaming()
+                        && observationDAO instanceof SeriesObservationDAO
+                        && !CollectionHelper.isNotEmpty(sosRequest.getFirstLatestTemporalFilter())
+                        && !HzgAggregation.isRequested(sosRequest.getExtensions())) {
+                    sosResponse.setObservationCollection(querySeriesObservationForStreaming(sosRequest,
+                            (SeriesObservationDAO) observationDAO, session));
+                } else {
+                    sosResponse.setObservationCollection(querySeriesObservation(sosRequest,
+                            (AbstractSeriesObservationDAO) observationDAO, session));
+                }
 
         } catch (HibernateException he) {
             throw new NoApplicableCodeException().causedBy(he).withMessage("Error while querying observation data!")
@@ -155,10 +169,6 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
      */
     protected List<OmObservation> querySeriesObservation(GetObservationRequest request, AbstractSeriesObservationDAO observationDAO, Session session)
             throws OwsExceptionReport, ConverterException {
-        if (request.isSetResultFilter()) {
-            throw new NotYetSupportedException("result filtering");
-        }
-
         final long start = System.currentTimeMillis();
         // get valid featureOfInterest identifier
         final Set<String> features = QueryHelper.getFeatures(request, session);
@@ -182,7 +192,11 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
         // query with first/latest value filter
         else if (CollectionHelper.isNotEmpty(sosIndeterminateTimeFilters)) {
             for (SosIndeterminateTime sosIndeterminateTime : sosIndeterminateTimeFilters) {
-                if (ServiceConfiguration.getInstance().isOverallExtrema()) {
+                if (observationDAO instanceof SeriesObservationDAO) {
+                    // queries the first/latest value of all series at once
+                    seriesObservations.addAll(observationDAO.getSeriesObservationsFor(request, features,
+                            sosIndeterminateTime, session));
+                } else if (ServiceConfiguration.getInstance().isOverallExtrema()) {
                     seriesObservations =
                             observationDAO.getSeriesObservationsFor(request, features,
                                     sosIndeterminateTime, session);
@@ -239,4 +253,60 @@ public class GetObservationDAO extends AbstractGetObservationDAO {
         result.addAll(HibernateGetObservationHelper.toSosObservation(abstractObservations, request, LocaleHelper.fromRequest(request), session));
         return result;
     }
+
+    /**
+     * Query the observations for streaming datasource. The values of each
+     * observed property instance are read from a scrollable cursor while the
+     * response is encoded.
+     *
+     * @param request
+     *            GetObservation request
+     * @param observationDAO
+     *            Series observation DAO
+     * @param session
+     *            Hibernate session
+     * @return List of internal observations with {@link HibernateScrollableValueDataStreamingValue}
+     * @throws OwsExceptionReport
+     *             If an error occurs.
+     * @throws ConverterException
+     *             If an error occurs during sensor description creation.
+     */
+    protected List<OmObservation> querySeriesObservationForStreaming(GetObservationRequest request,
+            SeriesObservationDAO observationDAO, Session session) throws OwsExceptionReport, ConverterException {
+        final long start = System.currentTimeMillis();
+        final List<OmObservation> result = new LinkedList<OmObservation>();
+        // get valid featureOfInterest identifier
+        final Set<String> features = QueryHelper.getFeatures(request, session);
+        if (features != null && features.isEmpty()) {
+            return result;
+        }
+        final Criterion temporalFilterCriterion = HibernateGetObservationHelper.getTemporalFilterCriterion(request);
+        final HzgResultFilter resultFilter = HzgResultFilter.fromRequest(request);
+        final List<ObservedPropertyInstance> observedPropertyInstances =
+                observationDAO.getObservedPropertyInstancesFor(request, features, session);
+        if (observedPropertyInstances.isEmpty()) {
+            return result;
+        }
+        HibernateGetObservationHelper.checkMaxNumberOfReturnedSeriesSize(observedPropertyInstances.size());
+        final int maxNumberOfValuesPerSeries =
+                HibernateGetObservationHelper.getMaxNumberOfValuesPerSeries(observedPropertyInstances.size());
+        final Offering offering = HzgMetadataCache.getInstance().getSnapshot(session).getOffering();
+        for (ObservedPropertyInstance observedPropertyInstance : observedPropertyInstances) {
+            final OmObservation observationTemplate =
+                    HibernateGetObservationHelper.toSosObservation(
+                            observationDAO.createSeriesObservation(observedPropertyInstance, offering, session),
+                            request, LocaleHelper.fromRequest(request), session);
+            final HibernateScrollableValueDataStreamingValue streamingValue =
+                    new HibernateScrollableValueDataStreamingValue(observedPropertyInstance);
+            streamingValue.setResponseFormat(request.getResponseFormat());
+            streamingValue.setFilterCriterion(observationDAO.getFilterCriterion(observedPropertyInstance,
+                    temporalFilterCriterion, resultFilter, session));
+            streamingValue.setObservationTemplate(observationTemplate);
+            streamingValue.setMaxNumberOfValues(maxNumberOfValuesPerSeries);
+            observationTemplate.setValue(streamingValue);
+            result.add(observationTemplate);
+        }
+        LOGGER.debug("Time to query observations needs {} ms!", (System.currentTimeMillis() - start));
+        return result;
+    }
 }
@@ -28,22 +28,43 @@
  */
 package org.n52.sos.ds.hibernate;
 
+import java.util.List;
 import java.util.Set;
 
+import org.hibernate.HibernateException;
 import org.hibernate.Session;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Projections;
 import org.n52.sos.ds.AbstractGetResultDAO;
 import org.n52.sos.ds.HibernateDatasourceConstants;
+import org.n52.sos.ds.hibernate.dao.AbstractObservationDAO;
+import org.n52.sos.ds.hibernate.dao.DaoFactory;
+import org.n52.sos.ds.hibernate.dao.ResultTemplateDAO;
+import org.n52.sos.ds.hibernate.dao.series.SeriesObservationDAO;
+import org.n52.sos.ds.hibernate.entities.ResultTemplate;
+import org.n52.sos.ds.hibernate.util.HibernateGetObservationHelper;
+import org.n52.sos.ds.hibernate.util.QueryHelper;
+import org.n52.sos.ds.hibernate.util.ResultHandlingHelper;
+import org.n52.sos.ds.hibernate.util.TemporalRestrictions;
+import org.n52.sos.ds.hibernate.values.series.HibernateScrollableValueDataResultValues;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.ConformanceClasses;
 import org.n52.sos.ogc.sos.SosConstants;
+import org.n52.sos.ogc.sos.SosResultEncoding;
+import org.n52.sos.ogc.sos.SosResultStructure;
 import org.n52.sos.request.GetResultRequest;
 import org.n52.sos.response.GetResultResponse;
 import org.n52.sos.service.ServiceConfiguration;
+import org.n52.sos.util.CollectionHelper;
+import org.n52.sos.util.http.HTTPStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Sets;
 
+import de.hzg.measurement.ObservedPropertyInstance;
+
 /**
  * Implementation of the abstract class AbstractGetResultDAO
  * 
@@ -70,7 +91,90 @@ public class GetResultDAO extends AbstractGetResultDAO {
 
     @Override
     public GetResultResponse getResult(final GetResultRequest request) throws OwsExceptionReport {
-    	throw new RuntimeException("getResult not supported yet.");
+        Session session = null;
+        try {
+            session = sessionHolder.getSession();
+            final GetResultResponse response = new GetResultResponse();
+            response.setService(request.getService());
+            response.setVersion(request.getVersion());
+            final Set<String> features = QueryHelper.getFeatures(request, session);
+            if (features != null && features.isEmpty()) {
+                return response;
+            }
+            final ResultTemplate resultTemplate = queryResultTemplate(request, features, session);
+            if (resultTemplate == null) {
+                return response;
+            }
+            final AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
+            if (!(observationDAO instanceof SeriesObservationDAO)) {
+                throw new NoApplicableCodeException().withMessage(
+                        "GetResult is not supported for the observation DAO %s!", observationDAO.getClass()
+                                .getName());
+            }
+            final SeriesObservationDAO seriesObservationDAO = (SeriesObservationDAO) observationDAO;
+            final List<ObservedPropertyInstance> observedPropertyInstances =
+                    seriesObservationDAO.getObservedPropertyInstancesFor(request, resultTemplate.getProcedure()
+                            .getIdentifier(), features, session);
+            final Criterion filterCriterion = getTemporalFilterCriterion(request);
+            long count = 0;
+            for (ObservedPropertyInstance observedPropertyInstance : observedPropertyInstances) {
+                count +=
+                        (Long) seriesObservationDAO
+                                .getValueDataCriteria(observedPropertyInstance, filterCriterion, session)
+                                .setProjection(Projections.rowCount()).uniqueResult();
+            }
+            HibernateGetObservationHelper.checkMaxNumberOfReturnedValues((int) Math.min(count, Integer.MAX_VALUE));
+            final SosResultEncoding sosResultEncoding =
+                    ResultHandlingHelper.createSosResultEncoding(resultTemplate.getResultEncoding());
+            final SosResultStructure sosResultStructure =
+                    ResultHandlingHelper.createSosResultStructure(resultTemplate.getResultStructure());
+            // the values are queried and written when the response is encoded
+            final HibernateScrollableValueDataResultValues resultValues =
+                    new HibernateScrollableValueDataResultValues(observedPropertyInstances, count,
+                            ResultHandlingHelper.getTextEncoding(sosResultEncoding.getEncoding()),
+                            ResultHandlingHelper.getValueOrder(sosResultStructure.getResultStructure()),
+                            request.getObservedProperty());
+            resultValues.setFilterCriterion(filterCriterion);
+            response.setStreamingResultValues(resultValues);
+            return response;
+        } catch (final HibernateException he) {
+            throw new NoApplicableCodeException().causedBy(he).withMessage("Error while querying result data!")
+                    .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            sessionHolder.returnSession(session);
+        }
+    }
+
+    /**
+     * Query the result template for the template identifier or offering,
+     * observable property and features of the request
+     * 
+     * @param request
+     *            GetResult request
+     * @param features
+     *            Feature identifiers resolved from the request, may be
+     *            <code>null</code>
+     * @param session
+     *            Hibernate session
+     * @return Result template or <code>null</code> if none matches
+     */
+    private ResultTemplate queryResultTemplate(final GetResultRequest request, final Set<String> features,
+            final Session session) {
+        final ResultTemplateDAO resultTemplateDAO = new ResultTemplateDAO();
+        if (request.isSetObservationTemplateIdentifier()) {
+            return resultTemplateDAO.getResultTemplateObject(request.getObservationTemplateIdentifier(), session);
+        }
+        final List<ResultTemplate> resultTemplates =
+                resultTemplateDAO.getResultTemplateObject(request.getOffering(), request.getObservedProperty(),
+                        features, session);
+        return CollectionHelper.isNotEmpty(resultTemplates) ? resultTemplates.get(0) : null;
+    }
+
+    private Criterion getTemporalFilterCriterion(final GetResultRequest request) throws OwsExceptionReport {
+        if (request.hasTemporalFilter()) {
+            return TemporalRestrictions.filter(request.getTemporalFilter());
+        }
+        return null;
     }
 
     @Override
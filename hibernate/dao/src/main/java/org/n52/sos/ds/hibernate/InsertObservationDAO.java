@@ -30,8 +30,10 @@ package org.n52.sos.ds.hibernate;
 
 import java.sql.SQLException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import org.hibernate.HibernateException;
 import org.hibernate.JDBCException;
@@ -49,6 +51,7 @@ import org.n52.sos.ds.hibernate.entities.Codespace;
 import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
 import org.n52.sos.ds.hibernate.entities.ObservationConstellation;
 import org.n52.sos.ds.hibernate.entities.Unit;
+import org.n52.sos.ds.hibernate.util.ProcedureLocks;
 import org.n52.sos.exception.ows.MissingParameterValueException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.gml.AbstractFeature;
@@ -65,6 +68,8 @@ import org.n52.sos.response.InsertObservationResponse;
 import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.util.CollectionHelper;
 import org.n52.sos.util.http.HTTPStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.HashMultimap;
@@ -80,6 +85,8 @@ import com.google.common.collect.Table;
  *
  */
 public class InsertObservationDAO extends AbstractInsertObservationDAO {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InsertObservationDAO.class);
+
     private final HibernateSessionHolder sessionHolder = new HibernateSessionHolder();
 
     private final ObservationConstellationDAO observationConstellationDAO = new ObservationConstellationDAO();
@@ -92,6 +99,12 @@ public class InsertObservationDAO extends AbstractInsertObservationDAO {
 
     private static final String CONSTRAINT_OBSERVATION_IDENTIFIER_IDENTITY = "obsIdentifierUK";
 
+    /**
+     * Maximum number of transaction attempts if a concurrent transaction
+     * inserted the same feature, codespace or unit
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
     /**
      * constructor
      */
@@ -105,7 +118,40 @@ public class InsertObservationDAO extends AbstractInsertObservationDAO {
     }
 
     @Override
-    public synchronized InsertObservationResponse insertObservation(final InsertObservationRequest request)
+    public InsertObservationResponse insertObservation(final InsertObservationRequest request)
+            throws OwsExceptionReport {
+        // serialize only inserts for the same procedures
+        List<Lock> locks = ProcedureLocks.lock(getProcedures(request));
+        try {
+            int attempt = 1;
+            while (true) {
+                try {
+                    return insertObservation(request, attempt < MAX_ATTEMPTS);
+                } catch (final ConstraintViolationException cve) {
+                    LOGGER.debug("Concurrent insertion of shared entities, retrying InsertObservation (attempt {})!",
+                            attempt, cve);
+                    attempt++;
+                }
+            }
+        } finally {
+            ProcedureLocks.unlock(locks);
+        }
+    }
+
+    /**
+     * Insert the observations of the request in a single transaction
+     * 
+     * @param request
+     *            the InsertObservation request
+     * @param retry
+     *            if <code>true</code>, a {@link ConstraintViolationException}
+     *            caused by a concurrent insertion of features, codespaces or
+     *            units is rethrown to retry the transaction
+     * @return the InsertObservation response
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    private InsertObservationResponse insertObservation(final InsertObservationRequest request, boolean retry)
             throws OwsExceptionReport {
         final InsertObservationResponse response = new InsertObservationResponse();
         response.setService(request.getService());
@@ -220,6 +266,9 @@ public class InsertObservationDAO extends AbstractInsertObservationDAO {
             if (transaction != null) {
                 transaction.rollback();
             }
+            if (retry && isConcurrentInsertion(he)) {
+                throw (ConstraintViolationException) he;
+            }
             HTTPStatus status = HTTPStatus.INTERNAL_SERVER_ERROR;
             String exceptionMsg = "Error while inserting new observation!";
 
@@ -254,6 +303,51 @@ public class InsertObservationDAO extends AbstractInsertObservationDAO {
         return response;
     }
 
+    /**
+     * Get the procedure identifiers of the observations
+     * 
+     * @param request
+     *            the InsertObservation request
+     * @return procedure identifiers
+     */
+    private Set<String> getProcedures(InsertObservationRequest request) {
+        Set<String> procedures = Sets.newHashSet();
+        for (OmObservation observation : request.getObservations()) {
+            if (observation.getObservationConstellation() != null
+                    && observation.getObservationConstellation().getProcedure() != null) {
+                procedures.add(observation.getObservationConstellation().getProcedure().getIdentifier());
+            }
+        }
+        return procedures;
+    }
+
+    /**
+     * Check if the exception is a constraint violation that is not caused by
+     * the observation itself, i.e. a concurrent insertion of a feature,
+     * codespace or unit
+     * 
+     * @param he
+     *            the exception to check
+     * @return <code>true</code>, if the transaction can be retried
+     */
+    private boolean isConcurrentInsertion(HibernateException he) {
+        if (he instanceof ConstraintViolationException) {
+            ConstraintViolationException cve = (ConstraintViolationException) he;
+            return !isObservationConstraint(cve.getConstraintName()) && !isObservationConstraint(cve.getMessage())
+                    && !isObservationConstraint(cve.getSQLException().getMessage());
+        }
+        return false;
+    }
+
+    private boolean isObservationConstraint(String message) {
+        if (StringHelper.isNotEmpty(message)) {
+            String lowerCase = message.toLowerCase();
+            return lowerCase.contains(CONSTRAINT_OBSERVATION_IDENTITY.toLowerCase())
+                    || lowerCase.contains(CONSTRAINT_OBSERVATION_IDENTIFIER_IDENTITY.toLowerCase());
+        }
+        return false;
+    }
+
     private void checkEqualsAndThrow(String constraintName, HibernateException he) throws OwsExceptionReport {
         if (StringHelper.isNotEmpty(constraintName)) { 
             String exceptionMsg = null;
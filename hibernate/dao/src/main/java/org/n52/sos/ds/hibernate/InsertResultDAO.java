@@ -28,18 +28,21 @@
  */
 package org.n52.sos.ds.hibernate;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.joda.time.DateTime;
 import org.n52.sos.coding.CodingRepository;
+import org.n52.sos.config.annotation.Configurable;
+import org.n52.sos.config.annotation.Setting;
 import org.n52.sos.ds.AbstractInsertResultDAO;
 import org.n52.sos.ds.FeatureQueryHandler;
 import org.n52.sos.ds.HibernateDatasourceConstants;
@@ -56,8 +59,10 @@ import org.n52.sos.ds.hibernate.entities.Offering;
 import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.ResultTemplate;
 import org.n52.sos.ds.hibernate.entities.Unit;
+import org.n52.sos.ds.hibernate.util.ProcedureLocks;
 import org.n52.sos.ds.hibernate.util.ResultHandlingHelper;
 import org.n52.sos.ds.hibernate.util.observation.HibernateObservationUtilities;
+import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.exception.ows.concrete.DateTimeParseException;
@@ -92,12 +97,13 @@ import org.n52.sos.ogc.swe.SweDataRecord;
 import org.n52.sos.ogc.swe.SweField;
 import org.n52.sos.ogc.swe.encoding.SweAbstractEncoding;
 import org.n52.sos.ogc.swe.encoding.SweTextEncoding;
+import org.n52.sos.ogc.swe.encoding.SweTextValuesTokenizer;
 import org.n52.sos.ogc.swe.simpleType.SweAbstractSimpleType;
-import org.n52.sos.ogc.swe.simpleType.SweQuantity;
 import org.n52.sos.request.InsertResultRequest;
 import org.n52.sos.response.InsertResultResponse;
 import org.n52.sos.service.Configurator;
 import org.n52.sos.util.DateTimeHelper;
+import org.n52.sos.util.Validation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,6 +116,7 @@ import com.google.common.collect.Sets;
  * @since 4.0.0
  * 
  */
+@Configurable
 public class InsertResultDAO extends AbstractInsertResultDAO implements CapabilitiesExtensionProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(InsertResultDAO.class);
@@ -118,6 +125,8 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
 
     private final HibernateSessionHolder sessionHolder = new HibernateSessionHolder();
 
+    private int chunkSize = InsertResultSettings.DEFAULT_CHUNK_SIZE;
+
     /**
      * constructor
      */
@@ -130,6 +139,12 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
         return HibernateDatasourceConstants.ORM_DATASOURCE_DAO_IDENTIFIER;
     }
 
+    @Setting(InsertResultSettings.INSERT_RESULT_CHUNK_SIZE)
+    public void setChunkSize(int chunkSize) throws ConfigurationException {
+        Validation.greaterZero("InsertResult chunk size", chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public InsertResultResponse insertResult(final InsertResultRequest request) throws OwsExceptionReport {
         final InsertResultResponse response = new InsertResultResponse();
@@ -137,20 +152,24 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
         response.setVersion(request.getVersion());
         Session session = null;
         Transaction transaction = null;
-        
+        List<Lock> locks = Collections.emptyList();
+        int insertedBlocks = 0;
+
         Map<String,Codespace> codespaceCache = Maps.newHashMap();
         Map<String,Unit> unitCache = Maps.newHashMap();
-        
+
         try {
             session = sessionHolder.getSession();
             final ResultTemplate resultTemplate =
                     new ResultTemplateDAO().getResultTemplateObject(request.getTemplateIdentifier(), session);
-            transaction = session.beginTransaction();
-            final OmObservation o =
-                    getSingleObservationFromResultValues(response.getVersion(), resultTemplate,
-                            request.getResultValues(), session);
-            response.setObservation(o);
-            final List<OmObservation> observations = getSingleObservationsFromObservation(o);
+            final SosResultEncoding resultEncoding = new SosResultEncoding(resultTemplate.getResultEncoding());
+            final SosResultStructure resultStructure = new SosResultStructure(resultTemplate.getResultStructure());
+            final SweTextEncoding encoding = ResultHandlingHelper.getTextEncoding(resultEncoding.getEncoding());
+            final SweDataRecord record = getRecord(resultStructure.getResultStructure());
+            final OmObservationConstellation observationConstellation =
+                    getSosObservationConstellation(resultTemplate, session);
+            observationConstellation.setFeatureOfInterest(getSosAbstractFeature(
+                    resultTemplate.getFeatureOfInterest(), response.getVersion(), session));
 
             final Set<ObservationConstellation> obsConsts =
                     Sets.newHashSet(new ObservationConstellationDAO().getObservationConstellation(
@@ -158,61 +177,94 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
                             resultTemplate.getObservableProperty(),
                             Configurator.getInstance().getCache()
                                     .getOfferingsForProcedure(resultTemplate.getProcedure().getIdentifier()), session));
-
-            int insertion = 0;
-            final int size = observations.size();
             final AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
-            LOGGER.debug("Start saving {} observations.", size);
-            for (final OmObservation observation : observations) {
-                observationDAO.insertObservationSingleValue(obsConsts, resultTemplate.getFeatureOfInterest(),
-                        observation, codespaceCache, unitCache, session);
-                if ((++insertion % FLUSH_THRESHOLD) == 0) {
-                    session.flush();
-                    session.clear();
-                    LOGGER.debug("Saved {}/{} observations.", insertion, size);
+            final TimePeriod phenomenonTime = new TimePeriod();
+            locks = ProcedureLocks.lock(resultTemplate.getProcedure().getIdentifier());
+
+            // tokenize, unfold and insert the values chunk by chunk, each
+            // chunk in its own transaction
+            final SweTextValuesTokenizer blocks = createTokenizer(request, encoding);
+            final List<List<String>> chunk = new ArrayList<List<String>>(chunkSize);
+            while (blocks.hasNext()) {
+                chunk.clear();
+                while (blocks.hasNext() && chunk.size() < chunkSize) {
+                    chunk.add(blocks.next());
+                }
+                final OmObservation chunkObservation =
+                        createObservation(observationConstellation, record, encoding, chunk);
+                phenomenonTime.extendToContain(chunkObservation.getPhenomenonTime());
+                final List<OmObservation> observations = getSingleObservationsFromObservation(chunkObservation);
+                transaction = session.beginTransaction();
+                int insertion = 0;
+                for (final OmObservation observation : observations) {
+                    observationDAO.insertObservationSingleValue(obsConsts, resultTemplate.getFeatureOfInterest(),
+                            observation, codespaceCache, unitCache, session);
+                    if ((++insertion % FLUSH_THRESHOLD) == 0) {
+                        session.flush();
+                        session.clear();
+                    }
                 }
+                session.flush();
+                transaction.commit();
+                session.clear();
+                insertedBlocks += chunk.size();
+                LOGGER.debug("Saved {} result blocks.", insertedBlocks);
             }
-            LOGGER.debug("Saved {} observations.", size);
-            transaction.commit();
+
+            // the response observation carries the constellation and the
+            // phenomenon time of the inserted values for the cache update
+            final OmObservation o =
+                    createObservation(observationConstellation, record, encoding,
+                            Collections.<List<String>> emptyList());
+            ((MultiObservationValues<?>) o.getValue()).setPhenomenonTime(phenomenonTime);
+            response.setObservation(o);
         } catch (final HibernateException he) {
-            if (transaction != null) {
-                transaction.rollback();
+            rollback(transaction);
+            throw new NoApplicableCodeException().causedBy(he).withMessage(getFailureMessage(insertedBlocks));
+        } catch (final SweTextValuesTokenizer.ReadException re) {
+            rollback(transaction);
+            throw new NoApplicableCodeException().causedBy(re.getCause()).withMessage(
+                    getFailureMessage(insertedBlocks));
+        } catch (final OwsExceptionReport owse) {
+            rollback(transaction);
+            if (insertedBlocks > 0) {
+                throw new NoApplicableCodeException().causedBy(owse).withMessage(getFailureMessage(insertedBlocks));
             }
-            // XXX exception text
-            throw new NoApplicableCodeException().causedBy(he);
+            throw owse;
         } finally {
             sessionHolder.returnSession(session);
+            ProcedureLocks.unlock(locks);
         }
         return response;
     }
 
+    private SweTextValuesTokenizer createTokenizer(final InsertResultRequest request, final SweTextEncoding encoding) {
+        if (request.isSetResultValuesReader()) {
+            // streamed from the request
+            return new SweTextValuesTokenizer(request.getResultValuesReader(), encoding);
+        }
+        return new SweTextValuesTokenizer(request.getResultValues(), encoding);
+    }
+
+    private void rollback(Transaction transaction) {
+        if (transaction != null && transaction.isActive()) {
+            transaction.rollback();
+        }
+    }
+
     /**
-     * Create OmObservation from result values
+     * Create the message for a failed insertion
      * 
-     * @param version
-     *            Service version
-     * @param resultTemplate
-     *            Associated result template
-     * @param resultValues
-     *            Result values
-     * @param session
-     *            Hibernate session
-     * @return OmObservation from result values
-     * @throws OwsExceptionReport
-     *             If an error occurs during the processing
+     * @param insertedBlocks
+     *            Number of result blocks inserted before the failure
+     * @return the message
      */
-    private OmObservation getSingleObservationFromResultValues(final String version,
-            final ResultTemplate resultTemplate, final String resultValues, final Session session)
-            throws OwsExceptionReport {
-        final SosResultEncoding resultEncoding = new SosResultEncoding(resultTemplate.getResultEncoding());
-        final SosResultStructure resultStructure = new SosResultStructure(resultTemplate.getResultStructure());
-        final String[] blockValues = getBlockValues(resultValues, resultEncoding.getEncoding());
-        final OmObservation singleObservation =
-                getObservation(resultTemplate, blockValues, resultStructure.getResultStructure(),
-                        resultEncoding.getEncoding(), session);
-        final AbstractFeature feature = getSosAbstractFeature(resultTemplate.getFeatureOfInterest(), version, session);
-        singleObservation.getObservationConstellation().setFeatureOfInterest(feature);
-        return singleObservation;
+    private String getFailureMessage(int insertedBlocks) {
+        if (insertedBlocks > 0) {
+            return String.format("Error while inserting the result values! The first %d result blocks were "
+                    + "inserted, the following result blocks were rejected.", insertedBlocks);
+        }
+        return "Error while inserting the result values! No result block was inserted.";
     }
 
     /**
@@ -312,86 +364,68 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
     }
 
     /**
-     * Get internal observation
+     * Get the record of the result structure and check that the fields are
+     * supported
      * 
-     * @param resultTemplate
-     *            Associated ResultTemplate
-     * @param blockValues
-     *            Block values from result values
      * @param resultStructure
      *            Associated ResultStructure
-     * @param encoding
-     *            Associated ResultEncoding
-     * @param session
-     *            Hibernate session
-     * @return Internal observation
+     * @return the record
      * @throws OwsExceptionReport
-     *             If processing fails
+     *             If a field is not supported
      */
-    private OmObservation getObservation(final ResultTemplate resultTemplate, final String[] blockValues,
-            final SweAbstractDataComponent resultStructure, final SweAbstractEncoding encoding, final Session session)
-            throws OwsExceptionReport {
+    private SweDataRecord getRecord(final SweAbstractDataComponent resultStructure) throws OwsExceptionReport {
         final int resultTimeIndex = ResultHandlingHelper.hasResultTime(resultStructure);
         final int phenomenonTimeIndex = ResultHandlingHelper.hasPhenomenonTime(resultStructure);
-
         final SweDataRecord record = setRecordFrom(resultStructure);
-
-        final Map<Integer, String> observedProperties = new HashMap<Integer, String>(record.getFields().size() - 1);
-        final Map<Integer, String> units = new HashMap<Integer, String>(record.getFields().size() - 1);
-
         int j = 0;
         for (final SweField swefield : record.getFields()) {
-            if (j != resultTimeIndex && j != phenomenonTimeIndex) {
-                if (swefield.getElement() instanceof SweAbstractSimpleType<?>) {
-                    final Integer index = Integer.valueOf(j);
-                    final SweAbstractSimpleType<?> sweAbstractSimpleType =
-                            (SweAbstractSimpleType<?>) swefield.getElement();
-                    if (sweAbstractSimpleType instanceof SweQuantity) {
-                        /* TODO units for other SosSweSimpleTypes? */
-                        units.put(index, ((SweQuantity) sweAbstractSimpleType).getUom());
-                    }
-                    observedProperties.put(index, swefield.getElement().getDefinition());
-                } else {
-                    throw new NoApplicableCodeException().withMessage("The swe:Field element of type {} is not yet supported!", swefield.getElement().getClass().getName());
-                }
+            if (j != resultTimeIndex && j != phenomenonTimeIndex
+                    && !(swefield.getElement() instanceof SweAbstractSimpleType<?>)) {
+                throw new NoApplicableCodeException().withMessage(
+                        "The swe:Field element of type %s is not yet supported!", swefield.getElement().getClass()
+                                .getName());
             }
             ++j;
         }
-
         // TODO support for compositePhenomenon
-        // if (observedProperties.size() > 1) {
-        // }
-
-        final MultiObservationValues<SweDataArray> sosValues =
-                createObservationValueFrom(blockValues, record, encoding, resultTimeIndex, phenomenonTimeIndex);
+        return record;
+    }
 
+    /**
+     * Create internal observation for result blocks
+     * 
+     * @param observationConstellation
+     *            Observation constellation of the result template
+     * @param record
+     *            Associated ResultStructure
+     * @param encoding
+     *            Associated ResultEncoding
+     * @param blocks
+     *            Tokens of the result blocks
+     * @return Internal observation
+     */
+    private OmObservation createObservation(final OmObservationConstellation observationConstellation,
+            final SweDataRecord record, final SweAbstractEncoding encoding, final List<List<String>> blocks) {
         final OmObservation observation = new OmObservation();
-        observation.setObservationConstellation(getSosObservationConstellation(resultTemplate, session));
+        observation.setObservationConstellation(observationConstellation);
         observation.setResultType(OmConstants.OBS_TYPE_SWE_ARRAY_OBSERVATION);
-        observation.setValue(sosValues);
+        observation.setValue(createObservationValueFrom(blocks, record, encoding));
         return observation;
     }
 
     /**
      * Create internal observation value
      * 
-     * @param blockValues
-     *            Block values from result values
+     * @param blocks
+     *            Tokens of the result blocks
      * @param recordFromResultStructure
      *            Associated ResultStructure
      * @param encoding
      *            Associated Result encoding
-     * @param resultTimeIndex
-     *            Result time position
-     * @param phenomenonTimeIndex
-     *            Phenomenon time positions
      * @return Internal observation value
-     * @throws OwsExceptionReport
-     *             If processing fails
      */
-    private MultiObservationValues<SweDataArray> createObservationValueFrom(final String[] blockValues,
-            final SweAbstractDataComponent recordFromResultStructure, final SweAbstractEncoding encoding,
-            final int resultTimeIndex, final int phenomenonTimeIndex) throws OwsExceptionReport {
+    private MultiObservationValues<SweDataArray> createObservationValueFrom(final List<List<String>> blocks,
+            final SweAbstractDataComponent recordFromResultStructure, final SweAbstractEncoding encoding) {
         final SweDataArray dataArray = new SweDataArray();
         dataArray.setElementType(recordFromResultStructure);
         dataArray.setEncoding(encoding);
@@ -399,11 +433,8 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
         final SweDataArrayValue dataArrayValue = new SweDataArrayValue();
         dataArrayValue.setValue(dataArray);
 
-        for (final String block : blockValues) {
-            final String[] singleValues = getSingleValues(block, encoding);
-            if (singleValues != null && singleValues.length > 0) {
-                dataArrayValue.addBlock(Arrays.asList(singleValues));
-            }
+        for (final List<String> block : blocks) {
+            dataArrayValue.addBlock(block);
         }
         final MultiObservationValues<SweDataArray> sosValues = new MultiObservationValues<SweDataArray>();
         sosValues.setValue(dataArrayValue);
@@ -438,77 +469,6 @@ public class InsertResultDAO extends AbstractInsertResultDAO implements Capabili
         }
     }
 
-    /**
-     * Get single values from a block value
-     * 
-     * @param block
-     *            Block value
-     * @param encoding
-     *            ResultEncoding
-     * @return Single value array
-     */
-    private String[] getSingleValues(final String block, final SweAbstractEncoding encoding) {
-        if (encoding instanceof SweTextEncoding) {
-            final SweTextEncoding textEncoding = (SweTextEncoding) encoding;
-            return separateValues(block, textEncoding.getTokenSeparator());
-        }
-        return null;
-    }
-
-    /**
-     * Get block values from result values
-     * 
-     * @param resultValues
-     *            Result values
-     * @param encoding
-     *            ResultEncoding
-     * @return Block value array
-     */
-    private String[] getBlockValues(final String resultValues, final SweAbstractEncoding encoding) {
-        if (encoding instanceof SweTextEncoding) {
-            final SweTextEncoding textEncoding = (SweTextEncoding) encoding;
-            final String[] blockValues = separateValues(resultValues, textEncoding.getBlockSeparator());
-            return checkForCountValue(blockValues, textEncoding.getTokenSeparator());
-        }
-        return null;
-    }
-
-    /**
-     * Check if the block values from result values contains a preceding count
-     * value
-     * 
-     * @param blockValues
-     *            Block values from result values
-     * @param tokenSeparator
-     *            Token separator
-     * @return Block value array without preceding count value
-     */
-    private String[] checkForCountValue(final String[] blockValues, final String tokenSeparator) {
-        if (blockValues != null && blockValues.length > 0) {
-            if (blockValues[0].contains(tokenSeparator)) {
-                return blockValues;
-            } else {
-                final String[] blockValuesWithoutCount = new String[blockValues.length - 1];
-                System.arraycopy(blockValues, 1, blockValuesWithoutCount, 0, blockValuesWithoutCount.length);
-                return blockValuesWithoutCount;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Separate values from String with separator
-     * 
-     * @param values
-     *            Value String
-     * @param separator
-     *            Separator
-     * @return Separated values as array
-     */
-    private String[] separateValues(final String values, final String separator) {
-        return values.split(separator);
-    }
-
     @Override
     public CapabilitiesExtension getExtension() {
         final SosInsertionCapabilities insertionCapabilities = new SosInsertionCapabilities();
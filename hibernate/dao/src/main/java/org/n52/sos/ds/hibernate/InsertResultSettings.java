@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.n52.sos.config.SettingDefinition;
+import org.n52.sos.config.SettingDefinitionProvider;
+import org.n52.sos.config.settings.IntegerSettingDefinition;
+import org.n52.sos.service.ServiceSettings;
+
+/**
+ * Settings for the {@link InsertResultDAO}.
+ *
+ * @since 4.3.0
+ */
+public class InsertResultSettings implements SettingDefinitionProvider {
+    public static final String INSERT_RESULT_CHUNK_SIZE = "service.insertResult.chunkSize";
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    public static final IntegerSettingDefinition INSERT_RESULT_CHUNK_SIZE_DEFINITION = new IntegerSettingDefinition()
+            .setGroup(ServiceSettings.GROUP)
+            .setOrder(ORDER_19)
+            .setKey(INSERT_RESULT_CHUNK_SIZE)
+            .setDefaultValue(DEFAULT_CHUNK_SIZE)
+            .setMinimum(1)
+            .setTitle("InsertResult chunk size")
+            .setDescription("The number of result value blocks of an InsertResult request that are inserted and "
+                            + "committed in one transaction. Blocks of committed chunks remain in the database if "
+                            + "a later chunk fails.");
+
+    @Override
+    public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
+        return Collections.<SettingDefinition<?, ?>> singleton(INSERT_RESULT_CHUNK_SIZE_DEFINITION);
+    }
+}
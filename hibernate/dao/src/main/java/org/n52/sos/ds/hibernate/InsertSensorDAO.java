@@ -31,10 +31,12 @@ package org.n52.sos.ds.hibernate;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.n52.sos.coding.CodingRepository;
@@ -58,6 +60,7 @@ import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.ProcedureDescriptionFormat;
 import org.n52.sos.ds.hibernate.entities.RelatedFeature;
 import org.n52.sos.ds.hibernate.entities.RelatedFeatureRole;
+import org.n52.sos.ds.hibernate.util.ProcedureLocks;
 import org.n52.sos.exception.ows.InvalidParameterValueException;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.om.OmObservableProperty;
@@ -74,6 +77,8 @@ import org.n52.sos.ogc.sos.SosProcedureDescription;
 import org.n52.sos.ogc.swes.SwesFeatureRelationship;
 import org.n52.sos.request.InsertSensorRequest;
 import org.n52.sos.response.InsertSensorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of the abstract class AbstractInsertSensorDAO
@@ -83,6 +88,14 @@ import org.n52.sos.response.InsertSensorResponse;
  */
 public class InsertSensorDAO extends AbstractInsertSensorDAO implements CapabilitiesExtensionProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(InsertSensorDAO.class);
+
+    /**
+     * Maximum number of transaction attempts if a concurrent transaction
+     * inserted the same offering, observable property or type
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
     private final HibernateSessionHolder sessionHolder = new HibernateSessionHolder();
 
     /**
@@ -98,7 +111,38 @@ public class InsertSensorDAO extends AbstractInsertSensorDAO implements Capabili
     }
 
     @Override
-    public synchronized InsertSensorResponse insertSensor(final InsertSensorRequest request) throws OwsExceptionReport {
+    public InsertSensorResponse insertSensor(final InsertSensorRequest request) throws OwsExceptionReport {
+        List<Lock> locks = ProcedureLocks.lock(request.getAssignedProcedureIdentifier());
+        try {
+            int attempt = 1;
+            while (true) {
+                try {
+                    return insertSensor(request, attempt < MAX_ATTEMPTS);
+                } catch (final ConstraintViolationException cve) {
+                    LOGGER.debug("Concurrent insertion of shared entities, retrying InsertSensor (attempt {})!",
+                            attempt, cve);
+                    attempt++;
+                }
+            }
+        } finally {
+            ProcedureLocks.unlock(locks);
+        }
+    }
+
+    /**
+     * Insert the sensor in a single transaction
+     * 
+     * @param request
+     *            the InsertSensor request
+     * @param retry
+     *            if <code>true</code>, a {@link ConstraintViolationException}
+     *            is rethrown to retry the transaction
+     * @return the InsertSensor response
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    private InsertSensorResponse insertSensor(final InsertSensorRequest request, boolean retry)
+            throws OwsExceptionReport {
         final InsertSensorResponse response = new InsertSensorResponse();
         response.setService(request.getService());
         response.setVersion(request.getVersion());
@@ -172,6 +216,9 @@ public class InsertSensorDAO extends AbstractInsertSensorDAO implements Capabili
             if (transaction != null) {
                 transaction.rollback();
             }
+            if (retry && he instanceof ConstraintViolationException) {
+                throw he;
+            }
             throw new NoApplicableCodeException().causedBy(he).withMessage(
                     "Error while inserting sensor data into database!");
         } finally {
@@ -32,6 +32,10 @@ import static org.n52.sos.ds.hibernate.CacheFeederSettingDefinitionProvider.CACH
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
@@ -40,25 +44,30 @@ import org.joda.time.format.PeriodFormat;
 import org.n52.sos.cache.WritableContentCache;
 import org.n52.sos.config.annotation.Configurable;
 import org.n52.sos.config.annotation.Setting;
-import org.n52.sos.ds.CacheFeederDAO;
 import org.n52.sos.ds.HibernateDatasourceConstants;
+import org.n52.sos.ds.IncrementalCacheFeederDAO;
+import org.n52.sos.ds.hibernate.cache.HzgIncrementalCacheUpdate;
 import org.n52.sos.ds.hibernate.cache.InitialCacheUpdate;
 import org.n52.sos.ds.hibernate.cache.base.OfferingCacheUpdate;
+import org.n52.sos.ds.hibernate.util.HzgMetadataCache;
+import org.n52.sos.ds.hibernate.util.HzgValueSummaryCache;
+import org.n52.sos.ds.hibernate.util.procedure.SensorDescriptionCache;
 import org.n52.sos.exception.ConfigurationException;
 import org.n52.sos.ogc.ows.CompositeOwsException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.util.CollectionHelper;
+import org.n52.sos.util.GroupedAndNamedThreadFactory;
 import org.n52.sos.util.Validation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Implementation of the interface CacheFeederDAO
+ * Implementation of the interface IncrementalCacheFeederDAO
  * 
  * @since 4.0.0
  */
 @Configurable
-public class SosCacheFeederDAO extends HibernateSessionHolder implements CacheFeederDAO {
+public class SosCacheFeederDAO extends HibernateSessionHolder implements IncrementalCacheFeederDAO {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SosCacheFeederDAO.class);
 
@@ -68,29 +77,54 @@ public class SosCacheFeederDAO extends HibernateSessionHolder implements CacheFe
      */
     private int cacheThreadCount = 5;
 
+    /**
+     * Executor shared by all cache updates, its idle threads are terminated
+     * between updates.
+     */
+    private ExecutorService executor;
+
     public int getCacheThreadCount() {
         return cacheThreadCount;
     }
 
     @Setting(CACHE_THREAD_COUNT)
-    public void setCacheThreadCount(int threads) throws ConfigurationException {
+    public synchronized void setCacheThreadCount(int threads) throws ConfigurationException {
         Validation.greaterZero("Cache Thread Count", threads);
+        if (this.cacheThreadCount != threads) {
+            // running updates keep the old executor, its threads terminate when idle
+            this.executor = null;
+        }
         this.cacheThreadCount = threads;
     }
 
+    protected synchronized ExecutorService getExecutor() {
+        if (this.executor == null) {
+            ThreadPoolExecutor threadPoolExecutor =
+                    new ThreadPoolExecutor(getCacheThreadCount(), getCacheThreadCount(), 60L, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(), new GroupedAndNamedThreadFactory("cache-update"));
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executor = threadPoolExecutor;
+        }
+        return this.executor;
+    }
+
     @Override
     public void updateCache(WritableContentCache cache) throws OwsExceptionReport {
         checkCacheNotNull(cache);
         List<OwsExceptionReport> errors = CollectionHelper.synchronizedList();
         Session session = null;
         try {
-            InitialCacheUpdate update = new InitialCacheUpdate(getCacheThreadCount());
+            InitialCacheUpdate update = new InitialCacheUpdate(getExecutor());
             session = getSession();
             update.setCache(cache);
             update.setErrors(errors);
             update.setSession(session);
 
             LOGGER.info("Starting cache update");
+            SensorDescriptionCache.getInstance().invalidateAll();
+            HzgMetadataCache.getInstance().invalidate();
+            HzgValueSummaryCache.getInstance().invalidate();
+            HzgValueSummaryCache.getInstance().update(session);
             long cacheUpdateStartTime = System.currentTimeMillis();
 
             update.execute();
@@ -115,7 +149,7 @@ public class SosCacheFeederDAO extends HibernateSessionHolder implements CacheFe
         }
         List<OwsExceptionReport> errors = CollectionHelper.synchronizedList();
         Session session = getSession();
-        OfferingCacheUpdate update = new OfferingCacheUpdate(getCacheThreadCount(), offeringsNeedingUpdate);
+        OfferingCacheUpdate update = new OfferingCacheUpdate(offeringsNeedingUpdate);
         update.setCache(cache);
         update.setErrors(errors);
         update.setSession(session);
@@ -138,6 +172,28 @@ public class SosCacheFeederDAO extends HibernateSessionHolder implements CacheFe
         }
     }
 
+    @Override
+    public void updateCacheIncrementally(WritableContentCache cache) throws OwsExceptionReport {
+        checkCacheNotNull(cache);
+        List<OwsExceptionReport> errors = CollectionHelper.synchronizedList();
+        Session session = null;
+        try {
+            HzgIncrementalCacheUpdate update = new HzgIncrementalCacheUpdate();
+            session = getSession();
+            update.setCache(cache);
+            update.setErrors(errors);
+            update.setSession(session);
+            update.execute();
+        } catch (HibernateException he) {
+            LOGGER.error("Error while updating ContentCache incrementally!", he);
+        } finally {
+            returnSession(session);
+        }
+        if (!errors.isEmpty()) {
+            throw new CompositeOwsException(errors);
+        }
+    }
+
     private void checkCacheNotNull(WritableContentCache cache) {
         if (cache == null) {
             throw new NullPointerException("cache is null");
@@ -28,7 +28,9 @@
  */
 package org.n52.sos.ds.hibernate;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
@@ -44,6 +46,7 @@ import org.n52.sos.ds.hibernate.entities.Procedure;
 import org.n52.sos.ds.hibernate.entities.ProcedureDescriptionFormat;
 import org.n52.sos.ds.hibernate.entities.TProcedure;
 import org.n52.sos.ds.hibernate.entities.ValidProcedureTime;
+import org.n52.sos.ds.hibernate.util.ProcedureLocks;
 import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosConstants;
@@ -73,10 +76,11 @@ public class UpdateSensorDescriptionDAO extends AbstractUpdateSensorDescriptionD
     }
 
     @Override
-    public synchronized UpdateSensorResponse updateSensorDescription(UpdateSensorRequest request)
+    public UpdateSensorResponse updateSensorDescription(UpdateSensorRequest request)
             throws OwsExceptionReport {
         Session session = null;
         Transaction transaction = null;
+        List<Lock> locks = ProcedureLocks.lock(request.getProcedureIdentifier());
         try {
             session = sessionHolder.getSession();
             transaction = session.beginTransaction();
@@ -120,6 +124,7 @@ public class UpdateSensorDescriptionDAO extends AbstractUpdateSensorDescriptionD
                     "Error while processing data for UpdateSensorDescription document!");
         } finally {
             sessionHolder.returnSession(session);
+            ProcedureLocks.unlock(locks);
         }
     }
 
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+import org.n52.sos.ds.hibernate.util.HzgMetadataCache;
+import org.n52.sos.ds.hibernate.util.HzgMetadataSnapshot;
+import org.n52.sos.ds.hibernate.util.HzgValueSummary;
+import org.n52.sos.ds.hibernate.util.HzgValueSummaryCache;
+import org.n52.sos.ogc.gml.time.TimePeriod;
+import org.n52.sos.service.SosContextListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hzg.common.SOSConfiguration;
+import de.hzg.measurement.ObservedPropertyInstance;
+
+/**
+ * Adds the HZG values inserted since the last update to an existing cache.
+ * <p/>
+ * The value summaries of {@link HzgValueSummaryCache} are updated, which only
+ * queries the recent rows of the value tables. The phenomenon
+ * and result time extrema of all procedures, the offering and the whole
+ * service are then extended with the cumulative summaries, so values picked
+ * up by updates of the summaries triggered by requests are not missed. The
+ * HZG metadata is reloaded first and sensors that are not yet known to the
+ * cache are added as procedures. Values inserted with a date older than the
+ * overlap of the summaries, modified or deleted values are only reflected
+ * after the next complete update, which rebuilds the summaries.
+ * 
+ * @since 4.3.0
+ */
+public class HzgIncrementalCacheUpdate extends AbstractThreadableDatasourceCacheUpdate {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HzgIncrementalCacheUpdate.class);
+
+    @Override
+    public void execute() {
+        LOGGER.debug("Executing HzgIncrementalCacheUpdate");
+        startStopwatch();
+        final SOSConfiguration sosConfiguration = SosContextListener.hzgSOSConfiguration;
+        final String offering = sosConfiguration.getOfferingIdentifierPrefix() + sosConfiguration.getOfferingName();
+        final String featureOfInterest =
+                sosConfiguration.getFeatureOfInterestIdentifierPrefix()
+                        + sosConfiguration.getFeatureOfInterestName();
+        // reload the metadata, so that new sensors and instances are known
+        HzgMetadataCache.getInstance().invalidate();
+        final HzgMetadataSnapshot metadata = HzgMetadataCache.getInstance().getSnapshot(getSession());
+        final Map<Serializable, HzgValueSummary> summaries = HzgValueSummaryCache.getInstance().update(getSession());
+
+        addNewProcedures(metadata, offering);
+
+        HzgValueSummary overall = HzgValueSummary.EMPTY;
+        for (final String procedure : metadata.getProcedureIdentifiers()) {
+            HzgValueSummary summary = HzgValueSummary.EMPTY;
+            for (final Serializable id : metadata.getIds(metadata.getObservedPropertyInstances(
+                    Collections.singleton(procedure), null))) {
+                summary = summary.merge(summaries.get(id));
+            }
+            if (!summary.isEmpty()) {
+                getCache().updatePhenomenonTimeForProcedure(procedure, toTimePeriod(summary));
+                // all procedures with values observe the single feature
+                getCache().addProcedureForFeatureOfInterest(featureOfInterest, procedure);
+                overall = overall.merge(summary);
+            }
+        }
+
+        if (!overall.isEmpty()) {
+            final TimePeriod time = toTimePeriod(overall);
+            getCache().updatePhenomenonTimeForOffering(offering, time);
+            getCache().updateResultTimeForOffering(offering, time);
+            getCache().updatePhenomenonTime(time);
+            getCache().updateResultTime(time);
+        }
+        LOGGER.debug("Finished executing HzgIncrementalCacheUpdate for {} procedure(s) ({})",
+                metadata.getProcedureIdentifiers().size(), getStopwatchResult());
+    }
+
+    private void addNewProcedures(HzgMetadataSnapshot metadata, String offering) {
+        for (final String procedure : metadata.getProcedureIdentifiers()) {
+            if (getCache().hasProcedure(procedure)) {
+                continue;
+            }
+            LOGGER.debug("Adding new procedure {}", procedure);
+            getCache().addProcedure(procedure);
+            getCache().addProcedureForOffering(offering, procedure);
+            getCache().addOfferingForProcedure(procedure, offering);
+            for (final ObservedPropertyInstance observedPropertyInstance : metadata.getObservedPropertyInstances(
+                    Collections.singleton(procedure), null)) {
+                final String observableProperty =
+                        HzgMetadataSnapshot.getObservablePropertyIdentifier(observedPropertyInstance);
+                getCache().addObservablePropertyForProcedure(procedure, observableProperty);
+                getCache().addProcedureForObservableProperty(observableProperty, procedure);
+                getCache().addObservablePropertyForOffering(offering, observableProperty);
+            }
+        }
+    }
+
+    private TimePeriod toTimePeriod(HzgValueSummary summary) {
+        return new TimePeriod(summary.getMinTime(), summary.getMaxTime());
+    }
+}
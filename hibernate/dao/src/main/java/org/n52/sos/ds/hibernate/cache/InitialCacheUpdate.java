@@ -28,6 +28,8 @@
  */
 package org.n52.sos.ds.hibernate.cache;
 
+import java.util.concurrent.ExecutorService;
+
 import org.n52.sos.ds.hibernate.cache.base.CompositePhenomenonCacheUpdate;
 import org.n52.sos.ds.hibernate.cache.base.FeatureOfInterestCacheUpdate;
 import org.n52.sos.ds.hibernate.cache.base.I18NCacheUpdate;
@@ -61,12 +63,18 @@ import org.n52.sos.ds.hibernate.cache.base.SridCacheUpdate;
  */
 public class InitialCacheUpdate extends CompositeCacheUpdate {
 
-    public InitialCacheUpdate(int threadCount) {
-        //execute all updates except offerings and procedures in parallel, then execute offering and procedure updates
-        //(which spawn their own threads)
-        super(new ParallelCacheUpdate(threadCount, new SridCacheUpdate(), new ObservablePropertiesCacheUpdate(),
+    /**
+     * @param executor
+     *            Executor to run the parallel updates with, it is reused for
+     *            following cache updates and not shut down
+     */
+    public InitialCacheUpdate(ExecutorService executor) {
+        //execute all updates except offerings and procedures in parallel, then execute the (set based) offering and
+        //procedure updates in parallel
+        super(new ParallelCacheUpdate(executor, new SridCacheUpdate(), new ObservablePropertiesCacheUpdate(),
                 new FeatureOfInterestCacheUpdate(), new RelatedFeaturesCacheUpdate(), new CompositePhenomenonCacheUpdate(),
                 new ResultTemplateCacheUpdate(), new ObservationTimeCacheUpdate()),
-                new I18NCacheUpdate(),new OfferingCacheUpdate(threadCount), new ProcedureCacheUpdate(threadCount));
+                new I18NCacheUpdate(), new ParallelCacheUpdate(executor, new OfferingCacheUpdate(),
+                        new ProcedureCacheUpdate()));
     }
 }
@@ -29,129 +29,168 @@
 package org.n52.sos.ds.hibernate.cache.base;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import org.hibernate.Criteria;
-import org.hibernate.criterion.Projections;
-import org.hibernate.criterion.Restrictions;
-import org.hibernate.internal.util.collections.CollectionHelper;
 import org.n52.sos.cache.WritableContentCache;
-import org.n52.sos.ds.hibernate.cache.AbstractQueueingDatasourceCacheUpdate;
+import org.n52.sos.ds.FeatureQueryHandlerQueryObject;
+import org.n52.sos.ds.I18NDAO;
+import org.n52.sos.ds.hibernate.cache.AbstractThreadableDatasourceCacheUpdate;
+import org.n52.sos.ds.hibernate.cache.DatasourceCacheUpdateHelper;
+import org.n52.sos.ds.hibernate.cache.ProcedureFlag;
 import org.n52.sos.ds.hibernate.dao.AbstractObservationDAO;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
+import org.n52.sos.ds.hibernate.dao.FeatureOfInterestDAO;
 import org.n52.sos.ds.hibernate.dao.ObservationConstellationDAO;
 import org.n52.sos.ds.hibernate.dao.OfferingDAO;
 import org.n52.sos.ds.hibernate.dao.OfferingDAO.OfferingTimeExtrema;
-import org.n52.sos.ds.hibernate.entities.AbstractObservation;
+import org.n52.sos.ds.hibernate.entities.FeatureOfInterest;
 import org.n52.sos.ds.hibernate.entities.FeatureOfInterestType;
-import org.n52.sos.ds.hibernate.entities.ObservationConstellation;
 import org.n52.sos.ds.hibernate.entities.ObservationType;
 import org.n52.sos.ds.hibernate.entities.Offering;
 import org.n52.sos.ds.hibernate.entities.RelatedFeature;
 import org.n52.sos.ds.hibernate.entities.TOffering;
-import org.n52.sos.ds.hibernate.util.HibernateHelper;
 import org.n52.sos.ds.hibernate.util.ObservationConstellationInfo;
+import org.n52.sos.i18n.I18NDAORepository;
+import org.n52.sos.i18n.LocaleHelper;
+import org.n52.sos.i18n.MultilingualString;
+import org.n52.sos.i18n.metadata.I18NOfferingMetadata;
+import org.n52.sos.ogc.OGCConstants;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.sos.SosEnvelope;
+import org.n52.sos.service.Configurator;
+import org.n52.sos.service.ServiceConfiguration;
 import org.n52.sos.util.CacheHelper;
+import org.n52.sos.util.CollectionHelper;
+import org.n52.sos.util.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
+ * Updates the offerings, their relations and time extrema. The data of all
+ * offerings is fetched at once (observation constellations, features, feature
+ * types, i18n metadata and time extrema) instead of one task (and query set)
+ * per offering; only the spatial envelopes are still queried per offering.
  *
  * @author Christian Autermann <c.autermann@52north.org>
  *
  * @since 4.0.0
  */
-public class OfferingCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<OfferingCacheUpdateTask> {
+public class OfferingCacheUpdate extends AbstractThreadableDatasourceCacheUpdate {
     private static final Logger LOGGER = LoggerFactory.getLogger(OfferingCacheUpdate.class);
 
-    private static final String THREAD_GROUP_NAME = "offering-cache-update";
-
     private final OfferingDAO offeringDAO = new OfferingDAO();
 
-    private Collection<String> offeringsIdToUpdate = Lists.newArrayList();
-
-    private Collection<Offering> offeringsToUpdate;
+    private final FeatureOfInterestDAO featureDAO = new FeatureOfInterestDAO();
 
-    private Map<String,Collection<ObservationConstellationInfo>> offObsConstInfoMap;
+    private Collection<String> offeringsIdToUpdate = Lists.newArrayList();
 
-    /**
-     * constructor
-     * @param threads Thread count
-     */
-    public OfferingCacheUpdate(int threads) {
-        super(threads, THREAD_GROUP_NAME);
+    public OfferingCacheUpdate() {
     }
 
-    public OfferingCacheUpdate(int threads, Collection<String> offeringIdsToUpdate) {
-        super(threads, THREAD_GROUP_NAME);
+    public OfferingCacheUpdate(Collection<String> offeringIdsToUpdate) {
         this.offeringsIdToUpdate = offeringIdsToUpdate;
     }
 
-    private Collection<Offering> getOfferingsToUpdate() {
-        if (offeringsToUpdate == null) {
-            offeringsToUpdate = offeringDAO.getOfferingObjectsForCacheUpdate(offeringsIdToUpdate, getSession());
+    @Override
+    public void execute() {
+        LOGGER.debug("Executing OfferingCacheUpdate");
+        startStopwatch();
+        try {
+            updateOfferings();
+        } catch (OwsExceptionReport ex) {
+            getErrors().add(ex);
         }
-        return offeringsToUpdate;
+        LOGGER.debug("Finished executing OfferingCacheUpdate ({})", getStopwatchResult());
     }
 
-    private Map<String,Collection<ObservationConstellationInfo>> getOfferingObservationConstellationInfo() {
-        if (offObsConstInfoMap == null) {
-            offObsConstInfoMap = ObservationConstellationInfo.mapByOffering(
-                new ObservationConstellationDAO().getObservationConstellationInfo(getSession()));
+    private void updateOfferings() throws OwsExceptionReport {
+        WritableContentCache cache = getCache();
+        Map<String, Collection<ObservationConstellationInfo>> offObsConstInfoMap =
+                ObservationConstellationInfo.mapByOffering(new ObservationConstellationDAO()
+                        .getObservationConstellationInfo(getSession()));
+        List<Offering> offerings = Lists.newArrayList();
+        for (Offering offering : offeringDAO.getOfferingObjectsForCacheUpdate(offeringsIdToUpdate, getSession())) {
+            if (offObsConstInfoMap.containsKey(offering.getIdentifier())) {
+                offerings.add(offering);
+            }
+        }
+        Set<String> offeringIds = Sets.newHashSetWithExpectedSize(offerings.size());
+        for (Offering offering : offerings) {
+            offeringIds.add(offering.getIdentifier());
         }
-        return offObsConstInfoMap;
-    }
 
-    @Override
-    public void execute() {
-        LOGGER.debug("Executing OfferingCacheUpdate (Single Threaded Tasks)");
-        startStopwatch();
-        //perform single threaded updates here
-        WritableContentCache cache = getCache();
+        Map<String, I18NOfferingMetadata> i18nMetadata = getI18NMetadata(offeringIds);
+        Map<String, List<String>> featuresByOffering =
+                featureDAO.getFeatureOfInterestIdentifiersForOfferings(offeringIds, getSession());
+        Map<String, String> featureTypes = getFeatureOfInterestTypes(featuresByOffering);
+        boolean hasSamplingGeometry = checkForSamplingGeometry();
 
-        for (Offering offering : getOfferingsToUpdate()){
-//            try {
-                String offeringId = offering.getIdentifier();
-                if (shouldOfferingBeProcessed(offeringId)) {
-                    String prefixedOfferingId = CacheHelper.addPrefixOrGetOfferingIdentifier(offeringId);
-                    cache.addOffering(prefixedOfferingId);
-
-                    if (offering instanceof TOffering) {
-                        TOffering tOffering = (TOffering) offering;
-                        // Related features
-                        cache.setRelatedFeaturesForOffering(prefixedOfferingId,
-                                                             getRelatedFeatureIdentifiersFrom(tOffering));
-                        cache.setAllowedObservationTypeForOffering(prefixedOfferingId,
-                                                                    getObservationTypesFromObservationType(tOffering.getObservationTypes()));
-                        // featureOfInterestTypes
-                        cache.setAllowedFeatureOfInterestTypeForOffering(prefixedOfferingId,
-                                                                          getFeatureOfInterestTypesFromFeatureOfInterestType(tOffering.getFeatureOfInterestTypes()));
-                    }
-                }
-//            } catch (OwsExceptionReport ex) {
-//                getErrors().add(ex);
-//            }
-        }
+        for (Offering offering : offerings) {
+            String offeringId = offering.getIdentifier();
+            String prefixedOfferingId = CacheHelper.addPrefixOrGetOfferingIdentifier(offeringId);
+            Collection<ObservationConstellationInfo> ocis = offObsConstInfoMap.get(offeringId);
+            cache.addOffering(offeringId);
+            cache.addOffering(prefixedOfferingId);
 
-        //time ranges
-        //TODO querying offering time extrema in a single query is definitely faster for a properly
-        //     indexed Postgres db, but may not be true for all platforms. move back to multithreaded execution
-        //     in OfferingCacheUpdateTask if needed
-        Map<String, OfferingTimeExtrema> offeringTimeExtrema = null;
-        try {
-            offeringTimeExtrema = offeringDAO.getOfferingTimeExtrema(offeringsIdToUpdate, getSession());
-        } catch (OwsExceptionReport ce) {
-            LOGGER.error("Error while querying offering time ranges!", ce);
-            getErrors().add(ce);
+            if (offering instanceof TOffering) {
+                TOffering tOffering = (TOffering) offering;
+                // Related features
+                cache.setRelatedFeaturesForOffering(prefixedOfferingId, getRelatedFeatureIdentifiersFrom(tOffering));
+                cache.setAllowedObservationTypeForOffering(prefixedOfferingId,
+                        getObservationTypesFromObservationType(tOffering.getObservationTypes()));
+                // featureOfInterestTypes
+                cache.setAllowedFeatureOfInterestTypeForOffering(prefixedOfferingId,
+                        getFeatureOfInterestTypesFromFeatureOfInterestType(tOffering.getFeatureOfInterestTypes()));
+            }
+
+            addOfferingNamesAndDescriptionsToCache(offering, i18nMetadata.get(offeringId));
+
+            // Procedures
+            cache.setProceduresForOffering(prefixedOfferingId, DatasourceCacheUpdateHelper
+                    .getAllProcedureIdentifiersFromObservationConstellationInfos(ocis, ProcedureFlag.PARENT));
+            cache.setHiddenChildProceduresForOffering(prefixedOfferingId, DatasourceCacheUpdateHelper
+                    .getAllProcedureIdentifiersFromObservationConstellationInfos(ocis, ProcedureFlag.HIDDEN_CHILD));
+
+            // Observable properties
+            cache.setObservablePropertiesForOffering(prefixedOfferingId, DatasourceCacheUpdateHelper
+                    .getAllObservablePropertyIdentifiersFromObservationConstellationInfos(ocis));
+
+            // Observation types
+            cache.setObservationTypesForOffering(prefixedOfferingId, getObservationTypes(ocis));
+
+            // Features of Interest
+            List<String> featureOfInterestIdentifiers = featuresByOffering.get(offeringId);
+            if (featureOfInterestIdentifiers == null) {
+                featureOfInterestIdentifiers = Collections.emptyList();
+            }
+            cache.setFeaturesOfInterestForOffering(prefixedOfferingId,
+                    getValidFeaturesOfInterestFrom(featureOfInterestIdentifiers));
+            cache.setFeatureOfInterestTypesForOffering(prefixedOfferingId,
+                    getFeatureOfInterestTypes(featureOfInterestIdentifiers, featureTypes));
+
+            // Spatial Envelope
+            cache.setEnvelopeForOffering(prefixedOfferingId, getEnvelopeForOffering(featureOfInterestIdentifiers));
+            // Spatial Filtering Profile Spatial Envelope
+            if (hasSamplingGeometry) {
+                cache.setSpatialFilteringProfileEnvelopeForOffering(prefixedOfferingId, DaoFactory.getInstance()
+                        .getObservationDAO().getSpatialFilteringProfileEnvelopeForOfferingId(offeringId, getSession()));
+            }
         }
-        if (!CollectionHelper.isEmpty(offeringTimeExtrema)) {
-            for (Entry<String,OfferingTimeExtrema> entry : offeringTimeExtrema.entrySet()) {
+
+        // time ranges of all offerings in a single query
+        Map<String, OfferingTimeExtrema> offeringTimeExtrema = offeringDAO.getOfferingTimeExtrema(offeringsIdToUpdate, getSession());
+        if (CollectionHelper.isNotEmpty(offeringTimeExtrema)) {
+            for (Entry<String, OfferingTimeExtrema> entry : offeringTimeExtrema.entrySet()) {
                 String offeringId = entry.getKey();
                 OfferingTimeExtrema ote = entry.getValue();
                 cache.setMinPhenomenonTimeForOffering(offeringId, ote.getMinPhenomenonTime());
@@ -160,28 +199,150 @@ public class OfferingCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<O
                 cache.setMaxResultTimeForOffering(offeringId, ote.getMaxResultTime());
             }
         }
-        LOGGER.debug("Finished executing OfferingCacheUpdate (Single Threaded Tasks) ({})", getStopwatchResult());
+    }
 
-        //execute multi-threaded updates
-        LOGGER.debug("Executing OfferingCacheUpdate (Multi-Threaded Tasks)");
-        startStopwatch();
-        super.execute();
-        LOGGER.debug("Finished executing OfferingCacheUpdate (Multi-Threaded Tasks) ({})", getStopwatchResult());
+    private Map<String, I18NOfferingMetadata> getI18NMetadata(Collection<String> offeringIds)
+            throws OwsExceptionReport {
+        I18NDAO<I18NOfferingMetadata> dao = I18NDAORepository.getInstance().getDAO(I18NOfferingMetadata.class);
+        if (dao == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, I18NOfferingMetadata> metadata = Maps.newHashMap();
+        for (I18NOfferingMetadata m : dao.getMetadata(offeringIds)) {
+            metadata.put(m.getIdentifier(), m);
+        }
+        return metadata;
     }
 
-    @Override
-    protected OfferingCacheUpdateTask[] getUpdatesToExecute() throws OwsExceptionReport {
-        Collection<OfferingCacheUpdateTask> offeringUpdateTasks = Lists.newArrayList();
-        boolean hasSamplingGeometry = checkForSamplingGeometry();
-        for (Offering offering : getOfferingsToUpdate()){
-            if (shouldOfferingBeProcessed(offering.getIdentifier())) {
-                offeringUpdateTasks.add(new OfferingCacheUpdateTask(offering,
-                        getOfferingObservationConstellationInfo().get(offering.getIdentifier()), hasSamplingGeometry));
+    private Map<String, String> getFeatureOfInterestTypes(Map<String, List<String>> featuresByOffering) {
+        Set<String> featureIdentifiers = Sets.newHashSet();
+        for (List<String> identifiers : featuresByOffering.values()) {
+            featureIdentifiers.addAll(identifiers);
+        }
+        Map<String, String> featureTypes = Maps.newHashMap();
+        if (!featureIdentifiers.isEmpty()) {
+            for (FeatureOfInterest featureOfInterest : featureDAO.getFeatureOfInterestObject(featureIdentifiers,
+                    getSession())) {
+                String featureType = featureOfInterest.getFeatureOfInterestType().getFeatureOfInterestType();
+                if (!OGCConstants.UNKNOWN.equals(featureType)) {
+                    featureTypes.put(featureOfInterest.getIdentifier(), featureType);
+                }
             }
         }
-        return offeringUpdateTasks.toArray(new OfferingCacheUpdateTask[offeringUpdateTasks.size()]);
-    }    
-    
+        return featureTypes;
+    }
+
+    protected Set<String> getFeatureOfInterestTypes(Collection<String> featureOfInterestIdentifiers,
+            Map<String, String> featureTypes) {
+        Set<String> types = Sets.newHashSet();
+        for (String featureOfInterestIdentifier : featureOfInterestIdentifiers) {
+            String type = featureTypes.get(featureOfInterestIdentifier);
+            if (type != null) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    protected void addOfferingNamesAndDescriptionsToCache(Offering offering, I18NOfferingMetadata metadata) {
+        final String offeringId = offering.getIdentifier();
+        final MultilingualString name;
+        final MultilingualString description;
+
+        if (metadata != null) {
+            name = metadata.getName();
+            description = metadata.getDescription();
+        } else {
+            name = new MultilingualString();
+            description = new MultilingualString();
+            Locale defaultLocale = ServiceConfiguration.getInstance().getDefaultLanguage();
+            if (offering.isSetName()) {
+                final Locale locale;
+                if (offering.isSetCodespaceName()) {
+                    locale = LocaleHelper.fromString(offering.getCodespaceName().getCodespace());
+                } else {
+                    locale = defaultLocale;
+
+                }
+                name.addLocalization(locale, offering.getName());
+            } else {
+                String offeringName = offeringId;
+                if (offeringName.startsWith("http")) {
+                    offeringName =
+                            offeringName.substring(offeringName.lastIndexOf(Constants.SLASH_CHAR) + 1,
+                                    offeringName.length());
+                } else if (offeringName.startsWith("urn")) {
+                    offeringName =
+                            offeringName.substring(offeringName.lastIndexOf(Constants.COLON_CHAR) + 1,
+                                    offeringName.length());
+                }
+                if (offeringName.contains(Constants.NUMBER_SIGN_STRING)) {
+                    offeringName =
+                            offeringName.substring(offeringName.lastIndexOf(Constants.NUMBER_SIGN_CHAR) + 1,
+                                    offeringName.length());
+                }
+                name.addLocalization(defaultLocale, offeringName);
+            }
+            if (offering.isSetDescription()) {
+                final Locale locale;
+                if (offering.isSetCodespaceName()) {
+                    locale = LocaleHelper.fromString(offering.getCodespaceName().getCodespace());
+                } else {
+                    locale = defaultLocale;
+                }
+                description.addLocalization(locale, offering.getDescription());
+            }
+        }
+
+        getCache().setI18nDescriptionForOffering(offeringId, description);
+        getCache().setI18nNameForOffering(offeringId, name);
+        addHumanReadableIdentifier(offeringId, offering, name);
+    }
+
+    private void addHumanReadableIdentifier(String offeringId, Offering offering, MultilingualString name) {
+        if (offering.isSetName()) {
+            getCache().addOfferingIdentifierHumanReadableName(offeringId, offering.getName());
+        } else {
+            if (!name.isEmpty()) {
+                if (name.getDefaultLocalization().isPresent()) {
+                    getCache().addOfferingIdentifierHumanReadableName(offeringId,
+                            name.getDefaultLocalization().get().getText());
+                } else {
+                    getCache().addOfferingIdentifierHumanReadableName(offeringId, offeringId);
+                }
+            }
+        }
+    }
+
+    protected Collection<String> getValidFeaturesOfInterestFrom(Collection<String> featureOfInterestIdentifiers) {
+        Set<String> features = new HashSet<String>(featureOfInterestIdentifiers.size());
+        for (String featureIdentifier : featureOfInterestIdentifiers) {
+            features.add(CacheHelper.addPrefixOrGetFeatureIdentifier(featureIdentifier));
+        }
+        return features;
+    }
+
+    protected Set<String> getObservationTypes(Collection<ObservationConstellationInfo> observationConstellationInfos) {
+        Set<String> observationTypes = Sets.newHashSet();
+        for (ObservationConstellationInfo oci : observationConstellationInfos) {
+            if (oci.getObservationType() != null) {
+                observationTypes.add(oci.getObservationType());
+            }
+        }
+        return observationTypes;
+    }
+
+    protected SosEnvelope getEnvelopeForOffering(Collection<String> featureOfInterestIdentifiers)
+            throws OwsExceptionReport {
+        if (CollectionHelper.isNotEmpty(featureOfInterestIdentifiers)) {
+            FeatureQueryHandlerQueryObject queryHandler =
+                    new FeatureQueryHandlerQueryObject().setFeatureIdentifiers(featureOfInterestIdentifiers)
+                            .setConnection(getSession());
+            return Configurator.getInstance().getFeatureQueryHandler().getEnvelopeForFeatureIDs(queryHandler);
+        }
+        return null;
+    }
+
     /**
      * Check if the observation table contains samplingGeometries with values.
      * 
@@ -198,26 +359,6 @@ public class OfferingCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<O
         return false;
     }
 
-    protected boolean shouldOfferingBeProcessed(String offeringIdentifier) {
-        try {        
-            if (true) {
-                return getOfferingObservationConstellationInfo().containsKey(offeringIdentifier);
-            } else {
-                AbstractObservationDAO observationDAO = DaoFactory.getInstance().getObservationDAO();
-                Criteria criteria = observationDAO.getDefaultObservationInfoCriteria(getSession());
-                criteria.createCriteria(AbstractObservation.OFFERINGS).add(
-                        Restrictions.eq(Offering.IDENTIFIER, offeringIdentifier));
-                criteria.setProjection(Projections.rowCount());
-                LOGGER.debug("QUERY shouldOfferingBeProcessed(offering): {}", HibernateHelper.getSqlString(criteria));
-                return (Long) criteria.uniqueResult() > 0;
-            }
-        } catch (OwsExceptionReport e) {
-            LOGGER.error("Error while getting observation DAO class from factory!", e);
-            getErrors().add(e);
-        }
-        return false;
-    }
-
     protected Set<String> getObservationTypesFromObservationType(Set<ObservationType> observationTypes) {
         Set<String> obsTypes = new HashSet<String>(observationTypes.size());
         for (ObservationType obsType : observationTypes) {
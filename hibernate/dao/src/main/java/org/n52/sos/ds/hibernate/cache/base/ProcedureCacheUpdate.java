@@ -29,141 +29,79 @@
 package org.n52.sos.ds.hibernate.cache.base;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import org.hibernate.internal.util.collections.CollectionHelper;
-import org.n52.sos.ds.hibernate.cache.AbstractQueueingDatasourceCacheUpdate;
+import org.n52.sos.ds.hibernate.cache.AbstractThreadableDatasourceCacheUpdate;
 import org.n52.sos.ds.hibernate.cache.DatasourceCacheUpdateHelper;
-import org.n52.sos.ds.hibernate.dao.ObservablePropertyDAO;
 import org.n52.sos.ds.hibernate.dao.ObservationConstellationDAO;
-import org.n52.sos.ds.hibernate.dao.OfferingDAO;
 import org.n52.sos.ds.hibernate.dao.ProcedureDAO;
 import org.n52.sos.ds.hibernate.dao.ProcedureDescriptionFormatDAO;
-import org.n52.sos.ds.hibernate.entities.ObservationConstellation;
 import org.n52.sos.ds.hibernate.entities.Procedure;
-import org.n52.sos.ds.hibernate.util.HibernateHelper;
 import org.n52.sos.ds.hibernate.util.ObservationConstellationInfo;
+import org.n52.sos.ds.hibernate.util.TimeExtrema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.n52.sos.ogc.ows.OwsExceptionReport;
-
-import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 
 /**
+ * Updates the procedures, their relations and time extrema. All procedures
+ * are processed at once with a fixed number of queries instead of one task
+ * (and query set) per procedure.
+ * 
  * @author Christian Autermann <c.autermann@52north.org>
  * @author Shane StClair <shane@axiomalaska.com>
  *
  * @since 4.0.0
  */
-public class ProcedureCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<ProcedureCacheUpdateTask> {
+public class ProcedureCacheUpdate extends AbstractThreadableDatasourceCacheUpdate {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcedureCacheUpdate.class);
 
-    private static final String THREAD_GROUP_NAME = "procedure-cache-update";
-
     private final ProcedureDAO procedureDAO = new ProcedureDAO();
 
-    private final OfferingDAO offeringDAO = new OfferingDAO();
-
-    private final ObservablePropertyDAO observablePropertyDAO = new ObservablePropertyDAO();
-
-    private Map<String, Collection<String>> procedureMap;
-
-    private Map<String,Collection<ObservationConstellationInfo>> procObsConstInfoMap;
-
-    /**
-     * constructor
-     * @param threads Thread count
-     */
-    public ProcedureCacheUpdate(int threads) {
-        super(threads, THREAD_GROUP_NAME);
-    }
-
-    private Map<String,Collection<ObservationConstellationInfo>> getProcedureObservationConstellationInfo() {
-        if (procObsConstInfoMap == null) {
-            procObsConstInfoMap = ObservationConstellationInfo.mapByProcedure(
-                new ObservationConstellationDAO().getObservationConstellationInfo(getSession()));
-        }
-        return procObsConstInfoMap;
-    }
-
-    private Map<String, Collection<String>> getProcedureMap() {
-        if (procedureMap == null) {
-            procedureMap = procedureDAO.getProcedureIdentifiers(getSession());
-        }
-        return procedureMap;
-    }
-
     private void getProcedureDescriptionFormat() {
         getCache().setRequestableProcedureDescriptionFormat(new ProcedureDescriptionFormatDAO().getProcedureDescriptionFormat(getSession()));
     }
 
-    @Override
-    protected ProcedureCacheUpdateTask[] getUpdatesToExecute() {
-        Collection<ProcedureCacheUpdateTask> procedureUpdateTasks = Lists.newArrayList();
-        Set<String> procedureIdentifiers = getProcedureMap().keySet();
-        for (String procedureIdentifier : procedureIdentifiers) {
-            procedureUpdateTasks.add(new ProcedureCacheUpdateTask(procedureIdentifier));
-        }
-        return procedureUpdateTasks.toArray(new ProcedureCacheUpdateTask[procedureUpdateTasks.size()]);
-    }
-
     @Override
     public void execute() {
-        //single threaded updates
-        LOGGER.debug("Executing ProcedureCacheUpdate (Single Threaded Tasks)");
+        LOGGER.debug("Executing ProcedureCacheUpdate");
         startStopwatch();
         getProcedureDescriptionFormat();
-        
-        boolean obsConstSupported = true;
 
+        Map<String, Collection<ObservationConstellationInfo>> procObsConstInfoMap =
+                ObservationConstellationInfo.mapByProcedure(new ObservationConstellationDAO()
+                        .getObservationConstellationInfo(getSession()));
         Map<String, Collection<String>> procedureMap = procedureDAO.getProcedureIdentifiers(getSession());
-        List<Procedure> procedures = procedureDAO.getProcedureObjects(getSession());
-        for (Procedure procedure : procedures) {
-        	String procedureIdentifier = procedure.getIdentifier();
-        	 Collection<String> parentProcedures = procedureMap.get(procedureIdentifier);
-//		}
-//        for (Entry<String, Collection<String>> entry : procedureMap.entrySet()) {
-//            String procedureIdentifier = entry.getKey();
-//            Collection<String> parentProcedures = entry.getValue();
+        for (Procedure procedure : procedureDAO.getProcedureObjects(getSession())) {
+            String procedureIdentifier = procedure.getIdentifier();
             getCache().addProcedure(procedureIdentifier);
             if (procedure.isSetName()) {
-            	getCache().addProcedureIdentifierHumanReadableName(procedureIdentifier, procedure.getName());
+                getCache().addProcedureIdentifierHumanReadableName(procedureIdentifier, procedure.getName());
             }
 
-            if (obsConstSupported) {
-                Collection<ObservationConstellationInfo> ocis = getProcedureObservationConstellationInfo().get(procedureIdentifier);
-                if (CollectionHelper.isNotEmpty(ocis)) {
-                    getCache().setOfferingsForProcedure(procedureIdentifier, DatasourceCacheUpdateHelper
-                            .getAllOfferingIdentifiersFromObservationConstellationInfos(ocis));
-                    getCache().setObservablePropertiesForProcedure(procedureIdentifier, DatasourceCacheUpdateHelper
-                            .getAllObservablePropertyIdentifiersFromObservationConstellationInfos(ocis));
-                }
-            } else {
-                try {
-                    getCache().setOfferingsForProcedure(procedureIdentifier, Sets.newHashSet(
-                            offeringDAO.getOfferingIdentifiersForProcedure(procedureIdentifier, getSession())));
-                } catch (OwsExceptionReport ce) {
-                    LOGGER.error("Error while querying offering identifiers for procedure!", ce);
-                    getErrors().add(ce);
-                }
-                getCache().setObservablePropertiesForProcedure(procedureIdentifier, Sets.newHashSet(
-                        observablePropertyDAO.getObservablePropertyIdentifiersForProcedure(procedureIdentifier, getSession())));
+            Collection<ObservationConstellationInfo> ocis = procObsConstInfoMap.get(procedureIdentifier);
+            if (CollectionHelper.isNotEmpty(ocis)) {
+                getCache().setOfferingsForProcedure(procedureIdentifier, DatasourceCacheUpdateHelper
+                        .getAllOfferingIdentifiersFromObservationConstellationInfos(ocis));
+                getCache().setObservablePropertiesForProcedure(procedureIdentifier, DatasourceCacheUpdateHelper
+                        .getAllObservablePropertyIdentifiersFromObservationConstellationInfos(ocis));
             }
 
+            Collection<String> parentProcedures = procedureMap.get(procedureIdentifier);
             if (!CollectionHelper.isEmpty(parentProcedures)) {
                 getCache().addParentProcedures(procedureIdentifier, parentProcedures);
             }
         }
-        LOGGER.debug("Finished executing ProcedureCacheUpdate (Single Threaded Tasks) ({})", getStopwatchResult());
 
-        //multi-threaded execution
-        LOGGER.debug("Executing ProcedureCacheUpdate (Multi-Threaded Tasks)");
-        startStopwatch();
-        super.execute();
-        LOGGER.debug("Finished executing ProcedureCacheUpdate (Multi-Threaded Tasks) ({})", getStopwatchResult());
+        // temporal extents of all procedures
+        for (Entry<String, TimeExtrema> entry : procedureDAO.getProcedureTimeExtrema(getSession()).entrySet()) {
+            TimeExtrema pte = entry.getValue();
+            if (pte != null && pte.isSetTimes()) {
+                getCache().setMinPhenomenonTimeForProcedure(entry.getKey(), pte.getMinTime());
+                getCache().setMaxPhenomenonTimeForProcedure(entry.getKey(), pte.getMaxTime());
+            }
+        }
+        LOGGER.debug("Finished executing ProcedureCacheUpdate ({})", getStopwatchResult());
     }
 }
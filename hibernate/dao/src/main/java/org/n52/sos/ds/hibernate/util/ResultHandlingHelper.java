@@ -30,6 +30,8 @@ package org.n52.sos.ds.hibernate.util;
 
 import static org.n52.sos.util.DateTimeHelper.formatDateTime2IsoString;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -46,6 +48,7 @@ import org.n52.sos.ds.hibernate.entities.interfaces.CountObservation;
 import org.n52.sos.ds.hibernate.entities.interfaces.GeometryObservation;
 import org.n52.sos.ds.hibernate.entities.interfaces.NumericObservation;
 import org.n52.sos.ds.hibernate.entities.interfaces.TextObservation;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
 import org.n52.sos.ogc.om.OmConstants;
 import org.n52.sos.ogc.ows.OwsExceptionReport;
 import org.n52.sos.ogc.sos.SosResultEncoding;
@@ -56,6 +59,7 @@ import org.n52.sos.ogc.swe.SweDataRecord;
 import org.n52.sos.ogc.swe.SweField;
 import org.n52.sos.ogc.swe.encoding.SweAbstractEncoding;
 import org.n52.sos.ogc.swe.encoding.SweTextEncoding;
+import org.n52.sos.ogc.swe.encoding.SweTextValuesWriter;
 import org.n52.sos.ogc.swe.simpleType.SweAbstractSimpleType;
 import org.n52.sos.service.Configurator;
 import org.n52.sos.util.CollectionHelper;
@@ -119,33 +123,61 @@ public class ResultHandlingHelper {
             throws OwsExceptionReport {
         final StringBuilder builder = new StringBuilder();
         if (CollectionHelper.isNotEmpty(observations)) {
-            final String tokenSeparator = getTokenSeparator(sosResultEncoding.getEncoding());
-            final String blockSeparator = getBlockSeparator(sosResultEncoding.getEncoding());
-            final Map<Integer, String> valueOrder = getValueOrderMap(sosResultStructure.getResultStructure());
-            addElementCount(builder, observations.size(), blockSeparator);
-            for (final AbstractObservation observation : observations) {
-                for (final Integer intger : valueOrder.keySet()) {
-                    final String definition = valueOrder.get(intger);
-                    if (definition.equals(PHENOMENON_TIME)) {
-                        builder.append(getTimeStringForPhenomenonTime(observation.getPhenomenonTimeStart(),
-                                observation.getPhenomenonTimeEnd()));
-                    } else if (definition.equals(RESULT_TIME)) {
-                        builder.append(getTimeStringForResultTime(observation.getResultTime()));
-                    } else {
-                        builder.append(getValueAsStringForObservedProperty(observation, definition));
+            final SweTextValuesWriter writer =
+                    new SweTextValuesWriter(builder, getTextEncoding(sosResultEncoding.getEncoding()));
+            final List<String> valueOrder = getValueOrder(sosResultStructure.getResultStructure());
+            try {
+                writer.writeCount(observations.size());
+                for (final AbstractObservation observation : observations) {
+                    writer.startBlock();
+                    for (final String definition : valueOrder) {
+                        if (definition.equals(PHENOMENON_TIME)) {
+                            writer.writeToken(getTimeStringForPhenomenonTime(observation.getPhenomenonTimeStart(),
+                                    observation.getPhenomenonTimeEnd()));
+                        } else if (definition.equals(RESULT_TIME)) {
+                            writer.writeToken(getTimeStringForResultTime(observation.getResultTime()));
+                        } else {
+                            writer.writeToken(getValueAsStringForObservedProperty(observation, definition));
+                        }
                     }
-                    builder.append(tokenSeparator);
                 }
-                builder.delete(builder.lastIndexOf(tokenSeparator), builder.length());
-                builder.append(blockSeparator);
-            }
-            if (builder.length() > 0) {
-                builder.delete(builder.lastIndexOf(blockSeparator), builder.length());
+            } catch (final IOException ioe) {
+                throw new NoApplicableCodeException().causedBy(ioe).withMessage(
+                        "Error while creating the result values!");
             }
         }
         return builder.toString();
     }
 
+    /**
+     * Get the {@link SweTextEncoding} from the result encoding
+     * 
+     * @param encoding
+     *            Result encoding
+     * @return Text encoding
+     * @throws OwsExceptionReport
+     *             If the encoding is not a text encoding
+     */
+    public static SweTextEncoding getTextEncoding(final SweAbstractEncoding encoding) throws OwsExceptionReport {
+        if (encoding instanceof SweTextEncoding) {
+            return (SweTextEncoding) encoding;
+        }
+        throw new NoApplicableCodeException().withMessage("The result encoding %s is not supported!",
+                encoding != null ? encoding.getClass().getName() : null);
+    }
+
+    /**
+     * Get the definitions of the result structure fields in the order of the
+     * result tokens. Fields without definition are not contained.
+     * 
+     * @param sweDataElement
+     *            Result structure
+     * @return Ordered field definitions
+     */
+    public static List<String> getValueOrder(final SweAbstractDataComponent sweDataElement) {
+        return new ArrayList<String>(getValueOrderMap(sweDataElement).values());
+    }
+
     /**
      * Get token separator from encoding
      * 
@@ -239,21 +271,33 @@ public class ResultHandlingHelper {
         return -1;
     }
 
-    private static void addElementCount(final StringBuilder builder, final int size, final String blockSeparator) {
-        builder.append(String.valueOf(size));
-        builder.append(blockSeparator);
-    }
-
-    private static Object getTimeStringForResultTime(final Date resultTime) {
+    /**
+     * Get the result time token
+     * 
+     * @param resultTime
+     *            Result time
+     * @return ISO 8601 time string or the no data placeholder
+     */
+    public static String getTimeStringForResultTime(final Date resultTime) {
         if (resultTime != null) {
             return DateTimeHelper.formatDateTime2IsoString(new DateTime(resultTime, DateTimeZone.UTC));
         }
-        return Configurator.getInstance().getProfileHandler().getActiveProfile().getResponseNoDataPlaceholder();
+        return getNoDataPlaceholder();
     }
 
-    private static Object getTimeStringForPhenomenonTime(final Date phenomenonTimeStart, final Date phenomenonTimeEnd) {
+    /**
+     * Get the phenomenon time token
+     * 
+     * @param phenomenonTimeStart
+     *            Phenomenon time start
+     * @param phenomenonTimeEnd
+     *            Phenomenon time end
+     * @return ISO 8601 time instant or period string or the no data
+     *         placeholder
+     */
+    public static String getTimeStringForPhenomenonTime(final Date phenomenonTimeStart, final Date phenomenonTimeEnd) {
         if (phenomenonTimeStart == null && phenomenonTimeEnd == null) {
-            return Configurator.getInstance().getProfileHandler().getActiveProfile().getResponseNoDataPlaceholder();
+            return getNoDataPlaceholder();
         }
 
         final StringBuilder builder = new StringBuilder();
@@ -355,6 +399,13 @@ public class ResultHandlingHelper {
             // return builder.toString();
             // }
         }
+        return getNoDataPlaceholder();
+    }
+
+    /**
+     * @return the no data placeholder of the active profile
+     */
+    public static String getNoDataPlaceholder() {
         return Configurator.getInstance().getProfileHandler().getActiveProfile().getResponseNoDataPlaceholder();
     }
 
@@ -43,10 +43,14 @@ import org.n52.sos.config.annotation.Setting;
 public class HibernateStreamingConfiguration {
     
     public static int DEFAULT_CHUNK_SIZE = 10000;
+
+    public static int DEFAULT_FETCH_SIZE = 1000;
     
     public static boolean DEFAULT_STREAMING_DATASOURCE = true;
     
     public static boolean DEFAULT_CHUNK_STREAMING_DATASOURCE = true; 
+
+    public static boolean DEFAULT_KEYSET_PAGINATION = true;
     
     private static HibernateStreamingConfiguration instance;
 
@@ -56,6 +60,10 @@ public class HibernateStreamingConfiguration {
 
     private int chunkSize = DEFAULT_CHUNK_SIZE;
 
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    private boolean keysetPagination = DEFAULT_KEYSET_PAGINATION;
+
     /**
      * @return Returns a singleton instance of the ServiceConfiguration.
      */
@@ -134,4 +142,46 @@ public class HibernateStreamingConfiguration {
         return chunkSize;
     }
 
+    /**
+     * Set the JDBC fetch size for scrollable streaming
+     * 
+     * @param fetchSize
+     *            Size to set
+     */
+    @Setting(HibernateStreamingSettings.FETCH_SIZE)
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Get the JDBC fetch size
+     * 
+     * @return the fetch size
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Set the indicator to use keyset pagination for chunk streaming
+     * 
+     * @param keysetPagination
+     *            Value to set
+     */
+    @Setting(HibernateStreamingSettings.KEYSET_PAGINATION)
+    public void setKeysetPagination(boolean keysetPagination) {
+        this.keysetPagination = keysetPagination;
+    }
+
+    /**
+     * Check for the chunk pagination to use
+     * 
+     * @return <code>true</code>, if the chunks should be queried after the
+     *         last value of the previous chunk, <code>false</code>, if a row
+     *         offset should be used
+     */
+    public boolean isKeysetPagination() {
+        return keysetPagination;
+    }
+
 }
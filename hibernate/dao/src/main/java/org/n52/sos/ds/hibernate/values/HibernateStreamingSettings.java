@@ -54,6 +54,10 @@ public class HibernateStreamingSettings implements SettingDefinitionProvider {
 
     public static final String CHUNK_SIZE = "service.streaming.datasource.chunkSize";
 
+    public static final String KEYSET_PAGINATION = "service.streaming.datasource.keysetPagination";
+
+    public static final String FETCH_SIZE = "service.streaming.datasource.fetchSize";
+
     public static final BooleanSettingDefinition FORCE_DATASOURCE_STREAMING_DEFINITION =
             new BooleanSettingDefinition()
                     .setGroup(StreamingSettings.GROUP)
@@ -85,8 +89,29 @@ public class HibernateStreamingSettings implements SettingDefinitionProvider {
                             "Number of chunk size, only relevant if scrollable datasource streaming is set to 'true'. If define a number <= 0, the whole values are queried at once!")
                     .setOrder(ORDER_3);
 
+    public static final IntegerSettingDefinition FETCH_SIZE_DEFINITION =
+            new IntegerSettingDefinition()
+                    .setGroup(StreamingSettings.GROUP)
+                    .setKey(FETCH_SIZE)
+                    .setDefaultValue(HibernateStreamingConfiguration.DEFAULT_FETCH_SIZE)
+                    .setTitle("Number of rows fetched per database round trip.")
+                    .setDescription(
+                            "Number of rows the JDBC driver fetches per round trip when values are streamed from a scrollable cursor. If define a number <= 0, the driver default is used!")
+                    .setOrder(ORDER_4);
+
+    public static final BooleanSettingDefinition KEYSET_PAGINATION_DEFINITION =
+            new BooleanSettingDefinition()
+                    .setGroup(StreamingSettings.GROUP)
+                    .setKey(KEYSET_PAGINATION)
+                    .setDefaultValue(HibernateStreamingConfiguration.DEFAULT_KEYSET_PAGINATION)
+                    .setTitle("Should the chunks be queried with keyset pagination?")
+                    .setDescription(
+                            "Whether the chunks of the chunk datasource streaming are queried after the time and id of the last value of the previous chunk (true) or with a row offset (false). Keyset pagination avoids that the database reads all previous rows for each chunk.")
+                    .setOrder(ORDER_5);
+
     private static final Set<SettingDefinition<?, ?>> DEFINITIONS = Sets.<SettingDefinition<?, ?>> newHashSet(
-            FORCE_DATASOURCE_STREAMING_DEFINITION, DATASOURCE_STREAMING_APPROACH_DEFINITION, CHUNK_SIZE_DEFINITION);
+            FORCE_DATASOURCE_STREAMING_DEFINITION, DATASOURCE_STREAMING_APPROACH_DEFINITION, CHUNK_SIZE_DEFINITION,
+            FETCH_SIZE_DEFINITION, KEYSET_PAGINATION_DEFINITION);
 
     @Override
     public Set<SettingDefinition<?, ?>> getSettingDefinitions() {
@@ -30,6 +30,7 @@ package org.n52.sos.ds.hibernate.values.series;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.hibernate.HibernateException;
 import org.n52.sos.ds.hibernate.entities.values.AbstractValue;
@@ -44,7 +45,9 @@ import org.n52.sos.util.CollectionHelper;
 import org.n52.sos.util.http.HTTPStatus;
 
 /**
- * Hibernate series streaming value implementation for chunk results
+ * Hibernate series streaming value implementation for chunk results. The
+ * chunks are queried with keyset pagination (after the last value of the
+ * previous chunk) or, if disabled, with a row offset.
  * 
  * @author Carsten Hollmann <c.hollmann@52north.org>
  * @since 4.0.2
@@ -60,6 +63,10 @@ public class HibernateChunkSeriesStreamingValue extends HibernateSeriesStreaming
 
     private int currentRow;
 
+    private final boolean keysetPagination;
+
+    private AbstractValue lastValue;
+
     private boolean noChunk = false;
 
     private int currentResultSize = 0;
@@ -76,6 +83,7 @@ public class HibernateChunkSeriesStreamingValue extends HibernateSeriesStreaming
     public HibernateChunkSeriesStreamingValue(GetObservationRequest request, long series) throws CodedException {
         super(request, series);
         this.chunkSize = HibernateStreamingConfiguration.getInstance().getChunkSize();
+        this.keysetPagination = HibernateStreamingConfiguration.getInstance().isKeysetPagination();
     }
 
     @Override
@@ -152,9 +160,19 @@ public class HibernateChunkSeriesStreamingValue extends HibernateSeriesStreaming
             session = sessionHolder.getSession();
         }
         try {
-            // query with temporal filter
             Collection<AbstractValue> seriesValuesResult = null;
-            if (temporalFilterCriterion != null) {
+            // query after the last value of the previous chunk
+            if (keysetPagination) {
+                List<AbstractValue> chunk =
+                        seriesValueDAO.getStreamingSeriesValuesFor(request, series, temporalFilterCriterion,
+                                chunkSize, lastValue, session);
+                if (!chunk.isEmpty()) {
+                    lastValue = chunk.get(chunk.size() - 1);
+                }
+                seriesValuesResult = chunk;
+            }
+            // query with temporal filter
+            else if (temporalFilterCriterion != null) {
                 seriesValuesResult =
                         seriesValueDAO.getStreamingSeriesValuesFor(request, series, temporalFilterCriterion,
                                 chunkSize, currentRow, session);
@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.values.series;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.criterion.Criterion;
+import org.n52.sos.ds.hibernate.HibernateSessionHolder;
+import org.n52.sos.ds.hibernate.dao.series.SeriesObservationDAO;
+import org.n52.sos.ds.hibernate.util.ResultHandlingHelper;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.om.OmConstants;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.swe.encoding.SweTextEncoding;
+import org.n52.sos.ogc.swe.encoding.SweTextValuesWriter;
+import org.n52.sos.response.StreamingResultValues;
+import org.n52.sos.util.http.HTTPStatus;
+
+import de.hzg.measurement.ObservedPropertyInstance;
+import de.hzg.values.ValueData;
+
+/**
+ * Streaming GetResult values for the HZG raw and calculated values of
+ * {@link ObservedPropertyInstance}s. The values are read from forward-only
+ * {@link ScrollableResults} in a read-only session and the tokens and blocks
+ * are written directly to the response, so the memory footprint does not
+ * depend on the number of requested values. The values are counted before the
+ * response is encoded, at most the counted number of values is written and
+ * writing fails if values were deleted in between, so the count block always
+ * matches the written blocks.
+ * 
+ * @since 4.3.0
+ *
+ */
+public class HibernateScrollableValueDataResultValues implements StreamingResultValues {
+
+    private final HibernateSessionHolder sessionHolder = new HibernateSessionHolder();
+
+    private final SeriesObservationDAO seriesObservationDAO = new SeriesObservationDAO();
+
+    private final List<ObservedPropertyInstance> observedPropertyInstances;
+
+    private final long count;
+
+    private final SweTextEncoding encoding;
+
+    private final List<String> valueOrder;
+
+    private final String observedProperty;
+
+    private final int fetchSize;
+
+    private Criterion filterCriterion;
+
+    /**
+     * constructor
+     * 
+     * @param observedPropertyInstances
+     *            Observed property instances to write the values for
+     * @param count
+     *            Number of values to write, the count block of the result
+     *            values. Writing fails if fewer values are found.
+     * @param encoding
+     *            Text encoding of the result template
+     * @param valueOrder
+     *            Ordered field definitions of the result structure
+     * @param observedProperty
+     *            Observable property identifier of the result template
+     */
+    public HibernateScrollableValueDataResultValues(List<ObservedPropertyInstance> observedPropertyInstances,
+            long count, SweTextEncoding encoding, List<String> valueOrder, String observedProperty) {
+        this.observedPropertyInstances = observedPropertyInstances;
+        this.count = count;
+        this.encoding = encoding;
+        this.valueOrder = valueOrder;
+        this.observedProperty = observedProperty;
+        this.fetchSize = HibernateStreamingConfiguration.getInstance().getFetchSize();
+    }
+
+    /**
+     * Set the filter {@link Criterion} (temporal filter)
+     * 
+     * @param filterCriterion
+     *            Filter {@link Criterion}
+     */
+    public void setFilterCriterion(Criterion filterCriterion) {
+        this.filterCriterion = filterCriterion;
+    }
+
+    @Override
+    public void write(Appendable out) throws OwsExceptionReport, IOException {
+        if (count <= 0) {
+            return;
+        }
+        final SweTextValuesWriter writer = new SweTextValuesWriter(out, encoding);
+        writer.writeCount(count);
+        long written = 0;
+        Session session = null;
+        boolean defaultReadOnly = false;
+        try {
+            session = sessionHolder.getSession();
+            defaultReadOnly = session.isDefaultReadOnly();
+            session.setDefaultReadOnly(true);
+            for (ObservedPropertyInstance observedPropertyInstance : observedPropertyInstances) {
+                if (written >= count) {
+                    break;
+                }
+                written += write(writer, observedPropertyInstance, count - written, session);
+            }
+        } catch (final HibernateException he) {
+            throw new NoApplicableCodeException().causedBy(he).withMessage("Error while querying result data!")
+                    .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            if (session != null) {
+                session.setDefaultReadOnly(defaultReadOnly);
+                sessionHolder.returnSession(session);
+            }
+        }
+        if (written < count) {
+            // the count block is already written, a response with fewer blocks would be invalid
+            throw new NoApplicableCodeException().withMessage(
+                    "Only %d of %d counted result values were found, values were deleted while encoding!",
+                    written, count).setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Write the values of the observed property instance as blocks
+     * 
+     * @param writer
+     *            Result values writer
+     * @param observedPropertyInstance
+     *            Observed property instance to write the values for
+     * @param maxValues
+     *            Maximum number of values to write
+     * @param session
+     *            Hibernate session
+     * @return Number of written values
+     * @throws IOException
+     *             If an error occurs when writing
+     */
+    @SuppressWarnings("unchecked")
+    private long write(SweTextValuesWriter writer, ObservedPropertyInstance observedPropertyInstance,
+            long maxValues, Session session) throws IOException {
+        final boolean useInterval = observedPropertyInstance.getUseInterval();
+        final ScrollableResults scrollableResult =
+                seriesObservationDAO.getStreamingValueDataFor(observedPropertyInstance, filterCriterion, fetchSize,
+                        session);
+        long written = 0;
+        try {
+            while (written < maxValues && scrollableResult.next()) {
+                final ValueData<? extends Number> value = (ValueData<? extends Number>) scrollableResult.get(0);
+                writer.startBlock();
+                for (String definition : valueOrder) {
+                    writer.writeToken(getToken(value, definition, useInterval));
+                }
+                session.evict(value);
+                written++;
+            }
+        } finally {
+            scrollableResult.close();
+        }
+        return written;
+    }
+
+    private String getToken(ValueData<? extends Number> value, String definition, boolean useInterval) {
+        if (OmConstants.PHENOMENON_TIME.equals(definition)) {
+            return ResultHandlingHelper.getTimeStringForPhenomenonTime(value.getDate(), value.getDate());
+        } else if (OmConstants.RESULT_TIME.equals(definition)) {
+            return ResultHandlingHelper.getTimeStringForResultTime(value.getDate());
+        } else if (observedProperty.equals(definition)) {
+            final Number number = useInterval ? value.getAverage() : value.getValue();
+            if (number != null) {
+                return String.valueOf(number);
+            }
+        }
+        return ResultHandlingHelper.getNoDataPlaceholder();
+    }
+
+}
@@ -0,0 +1,310 @@
+/**
+ * Copyright (C) 2012-2015 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.values.series;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Projections;
+import org.n52.sos.ds.hibernate.HibernateSessionHolder;
+import org.n52.sos.ds.hibernate.dao.UnitDAO;
+import org.n52.sos.ds.hibernate.dao.series.SeriesObservationDAO;
+import org.n52.sos.ds.hibernate.entities.Unit;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
+import org.n52.sos.exception.ows.NoApplicableCodeException;
+import org.n52.sos.ogc.gml.time.TimeInstant;
+import org.n52.sos.ogc.om.OmObservation;
+import org.n52.sos.ogc.om.SingleObservationValue;
+import org.n52.sos.ogc.om.StreamingValue;
+import org.n52.sos.ogc.om.TimeValuePair;
+import org.n52.sos.ogc.om.values.QuantityValue;
+import org.n52.sos.ogc.om.values.SweDataArrayValue;
+import org.n52.sos.ogc.ows.OwsExceptionReport;
+import org.n52.sos.ogc.swe.SweDataArray;
+import org.n52.sos.ogc.swe.SweNumericDataArray;
+import org.n52.sos.util.DateTimeHelper;
+import org.n52.sos.util.GmlHelper;
+import org.n52.sos.util.http.HTTPStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hzg.measurement.ObservedPropertyInstance;
+import de.hzg.values.ValueData;
+
+/**
+ * Hibernate streaming value implementation for the HZG raw and calculated
+ * values of an {@link ObservedPropertyInstance}. The values are read from a
+ * forward-only {@link ScrollableResults} in a read-only session and returned as
+ * observations with a {@link SweDataArray} of at most chunk size blocks, so the
+ * memory footprint does not depend on the number of requested values.
+ * 
+ * @since 4.3.0
+ *
+ */
+public class HibernateScrollableValueDataStreamingValue extends StreamingValue<ValueData<? extends Number>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HibernateScrollableValueDataStreamingValue.class);
+
+    private static final long serialVersionUID = 3311475893521410574L;
+
+    private final HibernateSessionHolder sessionHolder = new HibernateSessionHolder();
+
+    private final SeriesObservationDAO seriesObservationDAO = new SeriesObservationDAO();
+
+    private final ObservedPropertyInstance observedPropertyInstance;
+
+    private final boolean useInterval;
+
+    private final Unit valueUnit;
+
+    private final int fetchSize;
+
+    private final int chunkSize;
+
+    private Criterion filterCriterion;
+
+    private Session session;
+
+    private boolean defaultReadOnly;
+
+    private ScrollableResults scrollableResult;
+
+    private boolean currentValue = false;
+
+    private boolean exhausted = false;
+
+    /**
+     * constructor, has to be called with an open session as the lazy
+     * properties of the observed property instance are read here
+     * 
+     * @param observedPropertyInstance
+     *            Observed property instance to stream the values for
+     */
+    public HibernateScrollableValueDataStreamingValue(ObservedPropertyInstance observedPropertyInstance) {
+        this.observedPropertyInstance = observedPropertyInstance;
+        this.useInterval = observedPropertyInstance.getUseInterval();
+        this.valueUnit = new UnitDAO().getUnitFromObservedPropertyInstance(observedPropertyInstance);
+        this.fetchSize = HibernateStreamingConfiguration.getInstance().getFetchSize();
+        this.chunkSize = HibernateStreamingConfiguration.getInstance().getChunkSize();
+    }
+
+    /**
+     * Set the filter {@link Criterion} (temporal and result filter)
+     * 
+     * @param filterCriterion
+     *            Filter {@link Criterion}
+     */
+    public void setFilterCriterion(Criterion filterCriterion) {
+        this.filterCriterion = filterCriterion;
+    }
+
+    @Override
+    public boolean hasNextValue() throws OwsExceptionReport {
+        if (!currentValue && !exhausted) {
+            if (scrollableResult == null) {
+                getNextResults();
+            }
+            try {
+                currentValue = scrollableResult.next();
+            } catch (final HibernateException he) {
+                close();
+                throw new NoApplicableCodeException().causedBy(he)
+                        .withMessage("Error while querying observation data!")
+                        .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+            }
+            if (!currentValue) {
+                close();
+            }
+        }
+        return currentValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueData<? extends Number> nextEntity() throws OwsExceptionReport {
+        if (!hasNextValue()) {
+            return null;
+        }
+        checkMaxNumberOfReturnedValues(1);
+        currentValue = false;
+        final ValueData<? extends Number> value = (ValueData<? extends Number>) scrollableResult.get(0);
+        session.evict(value);
+        return value;
+    }
+
+    @Override
+    public TimeValuePair nextValue() throws OwsExceptionReport {
+        final ValueData<? extends Number> value = nextEntity();
+        if (value == null) {
+            return null;
+        }
+        final Number number = useInterval ? value.getAverage() : value.getValue();
+        final QuantityValue quantityValue = new QuantityValue(number != null ? number.doubleValue() : null);
+        if (valueUnit != null) {
+            quantityValue.setUnit(valueUnit.getUnit());
+        }
+        return new TimeValuePair(new TimeInstant(value.getDate()), quantityValue);
+    }
+
+    @Override
+    public OmObservation nextSingleObservation() throws OwsExceptionReport {
+        return createObservation(chunkSize);
+    }
+
+    @Override
+    public Collection<OmObservation> mergeObservation() throws OwsExceptionReport {
+        if (!hasNextValue()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(createObservation(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Create an observation from the next values
+     * 
+     * @param maxBlocks
+     *            Maximum number of blocks of the observation, all values if <=
+     *            0
+     * @return Observation with a {@link SweDataArrayValue} or <code>null</code>
+     *         if no values are left
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the values
+     */
+    private OmObservation createObservation(int maxBlocks) throws OwsExceptionReport {
+        final SweNumericDataArray sweDataArray = SeriesObservationDAO.createSweDataArray(useInterval, valueUnit);
+        Date firstDate = null;
+        Date lastDate = null;
+        int blocks = 0;
+        try {
+            while ((maxBlocks <= 0 || blocks < maxBlocks) && hasNextValue()) {
+                final ValueData<? extends Number> value = nextEntity();
+                if (firstDate == null) {
+                    firstDate = value.getDate();
+                }
+                lastDate = value.getDate();
+                SeriesObservationDAO.addValue(sweDataArray, value);
+                blocks++;
+            }
+        } catch (final HibernateException he) {
+            close();
+            throw new NoApplicableCodeException().causedBy(he).withMessage("Error while querying observation data!")
+                    .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+        }
+        if (blocks == 0) {
+            return null;
+        }
+        final OmObservation observation = observationTemplate.cloneTemplate();
+        final SweDataArrayValue sweDataArrayValue = new SweDataArrayValue();
+        sweDataArrayValue.setValue(sweDataArray);
+        observation.setResultTime(new TimeInstant(lastDate));
+        observation.setValue(new SingleObservationValue<SweDataArray>(GmlHelper.createTime(
+                DateTimeHelper.makeDateTime(firstDate), DateTimeHelper.makeDateTime(lastDate)), sweDataArrayValue));
+        checkForModifications(observation);
+        return observation;
+    }
+
+    @Override
+    protected void queryTimes() {
+        Session s = null;
+        try {
+            s = sessionHolder.getSession();
+            final Object[] result =
+                    (Object[]) seriesObservationDAO
+                            .getValueDataCriteria(observedPropertyInstance, filterCriterion, s)
+                            .setProjection(Projections.projectionList().add(Projections.min("date"))
+                                    .add(Projections.max("date"))).uniqueResult();
+            if (result != null && result[0] != null && result[1] != null) {
+                setPhenomenonTime(GmlHelper.createTime(DateTimeHelper.makeDateTime(result[0]),
+                        DateTimeHelper.makeDateTime(result[1])));
+                setResultTime(new TimeInstant(DateTimeHelper.makeDateTime(result[1])));
+            }
+        } catch (OwsExceptionReport owse) {
+            LOGGER.error("Error while querying times", owse);
+        } finally {
+            sessionHolder.returnSession(s);
+        }
+    }
+
+    @Override
+    protected void queryUnit() {
+        if (valueUnit != null) {
+            setUnit(valueUnit.getUnit());
+        }
+    }
+
+    /**
+     * Open the forward-only cursor in a read-only session
+     * 
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying the values
+     */
+    private void getNextResults() throws OwsExceptionReport {
+        if (session == null) {
+            session = sessionHolder.getSession();
+            defaultReadOnly = session.isDefaultReadOnly();
+            session.setDefaultReadOnly(true);
+        }
+        try {
+            scrollableResult =
+                    seriesObservationDAO.getStreamingValueDataFor(observedPropertyInstance, filterCriterion,
+                            fetchSize, session);
+        } catch (final HibernateException he) {
+            close();
+            throw new NoApplicableCodeException().causedBy(he).withMessage("Error while querying observation data!")
+                    .setStatus(HTTPStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Close the cursor and return the session
+     */
+    private void close() {
+        exhausted = true;
+        currentValue = false;
+        if (scrollableResult != null) {
+            try {
+                scrollableResult.close();
+            } catch (final HibernateException he) {
+                LOGGER.debug("Error while closing scrollable result", he);
+            }
+            scrollableResult = null;
+        }
+        if (session != null) {
+            session.setDefaultReadOnly(defaultReadOnly);
+            sessionHolder.returnSession(session);
+            session = null;
+        }
+    }
+
+}
@@ -89,15 +89,16 @@ public class SosInsertResultOperatorV20 extends
             exceptions.add(owse);
         }
         try {
-            checkResultValues(request.getResultValues());
+            checkResultValues(request);
         } catch (OwsExceptionReport owse) {
             exceptions.add(owse);
         }
         exceptions.throwIfNotEmpty();
     }
 
-    private void checkResultValues(String resultValues) throws OwsExceptionReport {
-        if (resultValues == null || resultValues.isEmpty()) {
+    private void checkResultValues(InsertResultRequest request) throws OwsExceptionReport {
+        // streamed result values are checked while they are inserted
+        if (!request.isSetResultValues()) {
             throw new MissingResultValuesParameterException();
         }
     }